@@ -0,0 +1,116 @@
+package mathClasses;
+
+/**
+ * One slow piece of arithmetic reported to an ArithmeticListener, such as a polynomial multiply or a stage of
+ * factoring. Besides how long it took, each event says which algorithm ran and how large its inputs were, so slow
+ * inputs can be picked out afterwards. Instances of ArithmeticEvent are immutable
+ */
+public class ArithmeticEvent {
+    public static final int POLYNOMIAL_MULTIPLY = 1;
+    public static final int QUOTIENT_REMAINDER = 2;
+    public static final int GCD = 3;
+    public static final int FACTORING_STAGE = 4;
+
+    /**
+     * integer arithmetic that overflowed a long and was redone with WideIntegers. These don't have a duration
+     */
+    public static final int WIDE_PROMOTION = 5;
+
+    /**
+     * Rational arithmetic whose result didn't fit in a long, just before it throws. These don't have a duration either
+     */
+    public static final int RATIONAL_OVERFLOW = 6;
+
+    private static final String[] TYPE_NAMES = {null, "multiply", "quotientRemainder", "gcd", "factoring", "promotion", "overflow"};
+
+    private final int type;
+    private final String algorithm;
+    private final int firstDegree;
+    private final int secondDegree;
+    private final long count;
+    private final long nanos;
+    private final String thread;
+
+    /**
+     * @param type one of the type constants
+     * @param algorithm algorithm or stage that ran
+     * @param firstDegree degree of the first input
+     * @param secondDegree degree of the second input, or -1 if there's only one
+     * @param count what this counts depends on the type, see getCount
+     * @param nanos how long it took, or 0 for promotions and overflows
+     * @param thread name of the thread it ran on
+     */
+    public ArithmeticEvent(int type, String algorithm, int firstDegree, int secondDegree, long count, long nanos, String thread){
+        this.type = type;
+        this.algorithm = algorithm;
+        this.firstDegree = firstDegree;
+        this.secondDegree = secondDegree;
+        this.count = count;
+        this.nanos = nanos;
+        this.thread = thread;
+    }
+
+    public int getType(){
+        return type;
+    }
+
+    /**
+     * gets which algorithm ran, like "schoolbook" or "long division". For factoring this is the stage, and for
+     * promotions and overflows it's the operation that overflowed
+     */
+    public String getAlgorithm(){
+        return algorithm;
+    }
+
+    /**
+     * @return degree of the first input, or -1 if it's the zero polynomial. Overflows of a Rational report 0
+     */
+    public int getFirstDegree(){
+        return firstDegree;
+    }
+
+    /**
+     * @return degree of the second input, or -1 if there's only one or it's the zero polynomial
+     */
+    public int getSecondDegree(){
+        return secondDegree;
+    }
+
+    /**
+     * gets a count that depends on the type. For a gcd it's the number of remainders taken. For factoring it's 1 if
+     * the irreducibility test succeeded, the number of candidate roots for the divisors stage, how many candidates were
+     * roots for the root search, and the number of factors for deflation. It's 0 for everything else
+     */
+    public long getCount(){
+        return count;
+    }
+
+    public long getNanos(){
+        return nanos;
+    }
+
+    /**
+     * @return false for promotions and overflows, which are reported as they happen instead of timed
+     */
+    public boolean hasDuration(){
+        return type != WIDE_PROMOTION && type != RATIONAL_OVERFLOW;
+    }
+
+    public String getThread(){
+        return thread;
+    }
+
+    public String toString(){
+        String string = TYPE_NAMES[type] + " " + algorithm + " degree " + firstDegree;
+        if(secondDegree != -1){
+            string += " by " + secondDegree;
+        }
+        if(count != 0){
+            string += ", count " + count;
+        }
+        if(hasDuration()){
+            string += ", " + nanos + " ns";
+        }
+        return string + " on " + thread;
+    }
+}
@@ -0,0 +1,98 @@
+package mathClasses;
+
+/**
+ * Listener that keeps the most recent events slower than a threshold, so it can be left on all the time.
+ * Once full, each new event replaces the oldest one. Promotions and overflows are always kept since they don't have a duration
+ */
+public class ArithmeticEventRecorder implements ArithmeticListener {
+    private final ArithmeticEvent[] events;
+    private final long thresholdNanos;
+
+    /**
+     * index the next event goes in
+     */
+    private int next;
+
+    /**
+     * number of events kept, which stops growing once it reaches the capacity
+     */
+    private int size;
+
+    /**
+     * number of events that were slow enough, including ones that have since been replaced
+     */
+    private long recorded;
+
+    /**
+     * @param capacity most events kept at once
+     * @param thresholdNanos events that took less time than this are dropped
+     */
+    public ArithmeticEventRecorder(int capacity, long thresholdNanos){
+        if(capacity < 1){
+            throw new IllegalStateException("Recorder needs room for at least one event");
+        }
+        events = new ArithmeticEvent[capacity];
+        this.thresholdNanos = thresholdNanos;
+    }
+
+    public void onEvent(ArithmeticEvent event){
+        // the threshold never changes, so quick events are turned away without taking the lock
+        if(event.hasDuration() && event.getNanos() < thresholdNanos){
+            return;
+        }
+        synchronized(this){
+            events[next] = event;
+            next = (next + 1) % events.length;
+            if(size < events.length){
+                size++;
+            }
+            recorded++;
+        }
+    }
+
+    public long getThresholdNanos(){
+        return thresholdNanos;
+    }
+
+    /**
+     * @return events kept, oldest first
+     */
+    public synchronized ArithmeticEvent[] getEvents(){
+        ArithmeticEvent[] kept = new ArithmeticEvent[size];
+        int first = size < events.length ? 0 : next;
+        for (int i = 0; i < size; i++) {
+            kept[i] = events[(first + i) % events.length];
+        }
+        return kept;
+    }
+
+    /**
+     * @param type one of the type constants in ArithmeticEvent
+     * @return the slowest kept event of that type, or null if none are kept
+     */
+    public synchronized ArithmeticEvent getSlowest(int type){
+        ArithmeticEvent slowest = null;
+        for (int i = 0; i < size; i++) {
+            if(events[i].getType() == type && (slowest == null || events[i].getNanos() > slowest.getNanos())){
+                slowest = events[i];
+            }
+        }
+        return slowest;
+    }
+
+    /**
+     * gets how many events were slow enough to record, including ones that have since been replaced
+     */
+    public synchronized long getRecorded(){
+        return recorded;
+    }
+
+    public synchronized void clear(){
+        for (int i = 0; i < events.length; i++) {
+            events[i] = null;
+        }
+        next = 0;
+        size = 0;
+        recorded = 0;
+    }
+}
@@ -0,0 +1,76 @@
+package mathClasses;
+
+/**
+ * Reports slow arithmetic to a listener as it happens: polynomial multiplies, divisions, gcds, the stages of
+ * factoring, integer arithmetic that had to switch to WideIntegers, and Rational arithmetic that overflowed. Where
+ * Metrics only keeps totals, events keep the degrees and algorithm of every call, so an ArithmeticEventRecorder left
+ * running can show which inputs were slow.
+ *
+ * Nothing is reported until a listener is set, and while there isn't one each hook is one read of a volatile field.
+ * Timed events quicker than the listener's threshold are dropped before an event is made
+ */
+public class ArithmeticEvents {
+    private static volatile ArithmeticListener listener = null;
+
+    /**
+     * @param newListener listener that gets every event from now on, or null to stop reporting
+     */
+    public static void setListener(ArithmeticListener newListener){
+        listener = newListener;
+    }
+
+    public static ArithmeticListener getListener(){
+        return listener;
+    }
+
+    public static boolean isRecording(){
+        return listener != null;
+    }
+
+    /**
+     * reports arithmetic that just finished
+     * @param type one of the type constants in ArithmeticEvent
+     * @param algorithm algorithm or stage that ran
+     * @param firstDegree degree of the first input
+     * @param secondDegree degree of the second input, or -1 if there's only one
+     * @param count see ArithmeticEvent.getCount
+     * @param start what Metrics.startTimer gave back when it started
+     */
+    public static void emit(int type, String algorithm, int firstDegree, int secondDegree, long count, long start){
+        ArithmeticListener current = listener;
+        if(current == null || start == Metrics.NOT_TIMED){
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        if(nanos >= current.getThresholdNanos()){
+            current.onEvent(new ArithmeticEvent(type, algorithm, firstDegree, secondDegree, count, nanos,
+                    Thread.currentThread().getName()));
+        }
+    }
+
+    /**
+     * reports integer arithmetic that didn't fit in longs
+     * @param operation operation that overflowed
+     * @param degree degree of the result, or of the term being read when parsing
+     */
+    static void promotion(String operation, int degree){
+        ArithmeticListener current = listener;
+        if(current != null){
+            current.onEvent(new ArithmeticEvent(ArithmeticEvent.WIDE_PROMOTION, operation, degree, -1, 0, 0,
+                    Thread.currentThread().getName()));
+        }
+    }
+
+    /**
+     * reports Rational arithmetic whose result doesn't fit in a long. Rationals can't promote, so this is reported
+     * just before the ArithmeticException is thrown
+     * @param operation Rational method that overflowed
+     */
+    static void overflow(String operation){
+        ArithmeticListener current = listener;
+        if(current != null){
+            current.onEvent(new ArithmeticEvent(ArithmeticEvent.RATIONAL_OVERFLOW, operation, 0, -1, 0, 0,
+                    Thread.currentThread().getName()));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package mathClasses;
+
+/**
+ * Receives events from ArithmeticEvents. Events are handed over on the thread that did the arithmetic,
+ * so listeners have to be thread safe and should return quickly
+ */
+public interface ArithmeticListener {
+    void onEvent(ArithmeticEvent event);
+
+    /**
+     * timed events that took less than this many nanoseconds aren't made or passed to onEvent. Promotions and
+     * overflows don't have a duration, so they're always passed on
+     */
+    long getThresholdNanos();
+}
@@ -0,0 +1,140 @@
+package mathClasses;
+
+/**
+ * One large long array that PackedPolynomials are carved out of, so that a big working set of coefficients is a
+ * handful of arrays instead of one Rational object per coefficient.
+ * Every coefficient takes two longs: its numerator with the sign on it, then its positive denominator, always reduced.
+ *
+ * The arena decides how long its polynomials live. reset() hands the space out again and close() lets go of it,
+ * and either one makes every polynomial allocated before it unusable, which is checked on every access
+ */
+public class CoefficientArena {
+    /**
+     * packed coefficients of every polynomial allocated since the last reset. Replaced whenever it has to grow
+     */
+    long[] slab;
+
+    /**
+     * number of coefficients handed out so far
+     */
+    private int used;
+
+    /**
+     * bumped on every reset or close so that older polynomials can tell they aren't valid anymore
+     */
+    private int generation;
+
+    private boolean closed;
+
+    public CoefficientArena(){
+        this(1024);
+    }
+
+    /**
+     * @param capacity how many coefficients there's room for before the arena has to grow
+     */
+    public CoefficientArena(int capacity){
+        slab = new long[2 * (capacity > 0 ? capacity : 1)];
+        used = 0;
+        generation = 0;
+        closed = false;
+    }
+
+    /**
+     * copies a polynomial into the arena
+     * @param poly non null polynomial with finite coefficients
+     * @return packed polynomial that lives in this arena
+     */
+    public PackedPolynomial allocate(RationalPolynomial poly){
+        if(poly.isNull()){
+            throw new IllegalStateException("Cannot pack a null polynomial");
+        }
+        Rational[] coefficients = poly.coefficients;
+        PackedPolynomial packed = allocate(coefficients.length);
+        int index = 2 * packed.offset;
+        for (int i = 0; i < coefficients.length; i++) {
+            if(coefficients[i].isInfinity()){
+                throw new ArithmeticException("Cannot pack an infinite coefficient");
+            }
+            slab[index++] = coefficients[i].getSign() ? -coefficients[i].getNumer() : coefficients[i].getNumer();
+            slab[index++] = coefficients[i].getDenom();
+        }
+        return packed;
+    }
+
+    /**
+     * makes room for a polynomial whose coefficients all start out as 0
+     * @param length number of coefficients
+     */
+    PackedPolynomial allocate(int length){
+        checkOpen();
+        if(2L * (used + (long) length) > Integer.MAX_VALUE - 8){
+            throw new IllegalStateException("Arena can't hold another " + length + " coefficients");
+        }
+        if(2 * (used + length) > slab.length){
+            int capacity = slab.length;
+            while(capacity < 2 * (used + length)){
+                capacity = capacity > (Integer.MAX_VALUE - 8) / 2 ? Integer.MAX_VALUE - 8 : 2 * capacity;
+            }
+            long[] grown = new long[capacity];
+            for (int i = 0; i < 2 * used; i++) {
+                grown[i] = slab[i];
+            }
+            slab = grown;
+        }
+        for (int i = 2 * used; i < 2 * (used + length); i += 2) {
+            slab[i] = 0;
+            slab[i + 1] = 1;
+        }
+        PackedPolynomial packed = new PackedPolynomial(this, used, length, generation);
+        used += length;
+        return packed;
+    }
+
+    /**
+     * gets how many coefficients are being held
+     */
+    public int getUsed(){
+        return used;
+    }
+
+    /**
+     * frees every polynomial at once but keeps the array, so the next batch doesn't allocate
+     */
+    public void reset(){
+        checkOpen();
+        used = 0;
+        generation++;
+    }
+
+    /**
+     * frees every polynomial and lets go of the array. The arena can't be used afterwards
+     */
+    public void close(){
+        closed = true;
+        slab = null;
+        used = 0;
+        generation++;
+    }
+
+    public boolean isClosed(){
+        return closed;
+    }
+
+    /**
+     * makes sure a polynomial from this arena hasn't been freed by a reset or close
+     * @param generation generation the polynomial was allocated in
+     */
+    void checkAlive(int generation){
+        checkOpen();
+        if(generation != this.generation){
+            throw new IllegalStateException("Polynomial was freed when its arena was reset");
+        }
+    }
+
+    private void checkOpen(){
+        if(closed){
+            throw new IllegalStateException("Arena has been closed");
+        }
+    }
+}
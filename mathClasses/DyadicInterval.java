@@ -0,0 +1,112 @@
+package mathClasses;
+
+/**
+ * Interval [lower / 2^exponent, upper / 2^exponent] whose ends can have more bits than a Rational holds.
+ * Refined roots are kept like this so they can be as precise as needed. Instances of DyadicInterval are immutable
+ */
+public class DyadicInterval {
+    private final WideInteger lower;
+    private final WideInteger upper;
+    private final int exponent;
+
+    /**
+     * creates an interval with power of two denominators
+     * @param lower numerator of the lower end
+     * @param upper numerator of the upper end. Can't be less than lower
+     * @param exponent nonnegative power of two both ends are divided by
+     */
+    public DyadicInterval(WideInteger lower, WideInteger upper, int exponent){
+        if(exponent < 0){
+            throw new IllegalStateException("Exponent of a dyadic interval can't be negative");
+        }
+        if(lower.compareTo(upper) > 0){
+            throw new IllegalStateException("Lower end of an interval can't be greater than the upper end");
+        }
+        this.lower = lower;
+        this.upper = upper;
+        this.exponent = exponent;
+    }
+
+    /**
+     * converts an interval whose ends have power of two denominators
+     * @param interval interval like the ones RootIsolation gives
+     * @return the same interval over the larger of the two denominators
+     * @throws IllegalStateException if a denominator isn't a power of two
+     */
+    public static DyadicInterval valueOf(RationalInterval interval){
+        int lowerExponent = powerOfTwoExponent(interval.getLower().getDenom());
+        int upperExponent = powerOfTwoExponent(interval.getUpper().getDenom());
+        int exponent = lowerExponent > upperExponent ? lowerExponent : upperExponent;
+        return new DyadicInterval(numerator(interval.getLower()).shiftLeft(exponent - lowerExponent),
+                numerator(interval.getUpper()).shiftLeft(exponent - upperExponent), exponent);
+    }
+
+    /**
+     * gets the numerator of the lower end
+     */
+    public WideInteger getLower(){
+        return lower;
+    }
+
+    /**
+     * gets the numerator of the upper end
+     */
+    public WideInteger getUpper(){
+        return upper;
+    }
+
+    /**
+     * gets the power of two both ends are divided by
+     */
+    public int getExponent(){
+        return exponent;
+    }
+
+    public boolean isExact(){
+        return lower.equals(upper);
+    }
+
+    /**
+     * converts this to an interval between Rationals
+     * @return interval with the ends in lowest terms
+     * @throws ArithmeticException if an end doesn't fit in a Rational
+     */
+    public RationalInterval toRationalInterval(){
+        WideInteger denominator = WideInteger.ONE.shiftLeft(exponent);
+        return new RationalInterval(Rational.valueOf(lower, denominator), Rational.valueOf(upper, denominator));
+    }
+
+    public boolean equals(DyadicInterval other){
+        // the same interval can be written over different powers of two
+        if(exponent > other.exponent){
+            return lower.equals(other.lower.shiftLeft(exponent - other.exponent)) && upper.equals(other.upper.shiftLeft(exponent - other.exponent));
+        }
+        return lower.shiftLeft(other.exponent - exponent).equals(other.lower) && upper.shiftLeft(other.exponent - exponent).equals(other.upper);
+    }
+
+    public String toString(){
+        String denominator = exponent == 0 ? "" : "/2^" + exponent;
+        if(this.isExact()){
+            return "[" + lower + denominator + "]";
+        }
+        return "(" + lower + denominator + ", " + upper + denominator + ")";
+    }
+
+    private static WideInteger numerator(Rational rat){
+        if(rat.isInfinity()){
+            throw new ArithmeticException("Interval endpoints can't be infinite");
+        }
+        return WideInteger.valueOf(rat.getSign() ? -rat.getNumer() : rat.getNumer());
+    }
+
+    /**
+     * finds k where denominator = 2^k
+     * @throws IllegalStateException if the denominator isn't a power of two
+     */
+    private static int powerOfTwoExponent(long denominator){
+        if((denominator & (denominator - 1)) != 0){
+            throw new IllegalStateException("Can only refine intervals whose ends have power of two denominators");
+        }
+        return Long.numberOfTrailingZeros(denominator);
+    }
+}
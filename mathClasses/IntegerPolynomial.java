@@ -0,0 +1,815 @@
+package mathClasses;
+
+import dataStructures.Pair;
+
+/**
+ * Polynomial with integer coefficients for algorithms that never need fractions.
+ * Coefficients are stored as longs, and a polynomial switches over to WideIntegers when one of its coefficients
+ * doesn't fit in a long. Results that fit in longs again switch back. Instances of IntegerPolynomial are immutable
+ */
+public class IntegerPolynomial {
+    /**
+     * coefficients where later elements have higher degree. Never has trailing zeroes, except that the zero
+     * polynomial is {0}. Null when some coefficient doesn't fit in a long
+     */
+    private final long[] coefficients;
+
+    /**
+     * same layout as coefficients, only used when some coefficient doesn't fit in a long. Null otherwise
+     */
+    private final WideInteger[] wideCoefficients;
+
+    /**
+     * create an integer polynomial of arbitrary degree
+     * @param coefficients integers where further right elements have higher degree
+     */
+    public IntegerPolynomial(long ... coefficients){
+        this(trim(coefficients.clone()), null);
+    }
+
+    /**
+     * precond: exactly one of the arrays is null, and the other one is trimmed and not shared with anything else
+     */
+    private IntegerPolynomial(long[] coefficients, WideInteger[] wideCoefficients){
+        this.coefficients = coefficients;
+        this.wideCoefficients = wideCoefficients;
+    }
+
+    /**
+     * create an integer polynomial from coefficients that might not fit in a long
+     * @param coefficients integers where further right elements have higher degree
+     * @return polynomial, which uses longs if every coefficient fits in one
+     */
+    public static IntegerPolynomial valueOf(WideInteger ... coefficients){
+        return fromWide(coefficients.clone());
+    }
+
+    /**
+     * converts a rational polynomial into an integer one by multiplying it by the lcm of its denominators.
+     * Goes over the coefficients once, scaling the integers made so far whenever the lcm grows
+     * @param poly non null polynomial
+     * @return pair of the integer polynomial and the positive multiplier it was scaled by
+     * @throws ArithmeticException if the lcm of the denominators doesn't fit in a long
+     */
+    public static Pair<IntegerPolynomial, Long> fromRational(RationalPolynomial poly){
+        if(poly.isNull()){
+            throw new IllegalStateException("Cannot convert a null polynomial");
+        }
+        Rational[] rationals = poly.coefficients;
+        long multiplier = 1;
+        long[] integers = new long[rationals.length];
+        // only used once some coefficient doesn't fit in a long
+        WideInteger[] wide = null;
+        long denominator;
+        long growth;
+        long scale;
+        for (int i = 0; i < rationals.length; i++) {
+            denominator = rationals[i].getDenom();
+            growth = denominator / Rational.gcd(multiplier, denominator);
+            if(growth != 1){
+                // the multiplier grows to the lcm so far, so the integers already made are scaled up to match
+                multiplier = Math.multiplyExact(multiplier, growth);
+                for (int j = 0; j < i; j++) {
+                    if(wide == null){
+                        try{
+                            integers[j] = Math.multiplyExact(integers[j], growth);
+                            continue;
+                        }catch(ArithmeticException e){
+                            wide = widen(integers, i, rationals.length);
+                        }
+                    }
+                    wide[j] = wide[j].multiply(growth);
+                }
+            }
+            scale = multiplier / denominator;
+            if(wide == null){
+                try{
+                    integers[i] = Math.multiplyExact(signedNumerator(rationals[i]), scale);
+                    continue;
+                }catch(ArithmeticException e){
+                    wide = widen(integers, i, rationals.length);
+                }
+            }
+            wide[i] = WideInteger.valueOf(signedNumerator(rationals[i])).multiply(scale);
+        }
+        if(wide == null){
+            return new Pair<>(new IntegerPolynomial(integers, null), multiplier);
+        }
+        return new Pair<>(fromWide(wide), multiplier);
+    }
+
+    /**
+     * switches fromRational over to WideIntegers part way through
+     * @param integers coefficients made so far
+     * @param count how many of them have been made
+     * @param length number of coefficients in the whole polynomial
+     * @return array holding the first count integers, with room for the rest
+     */
+    private static WideInteger[] widen(long[] integers, int count, int length){
+        promoted("fromRational", length - 1);
+        WideInteger[] wide = new WideInteger[length];
+        for (int i = 0; i < count; i++) {
+            wide[i] = WideInteger.valueOf(integers[i]);
+        }
+        return wide;
+    }
+
+    /**
+     * converts this into a rational polynomial
+     * @return rational polynomial with the same coefficients
+     * @throws ArithmeticException if a coefficient doesn't fit in a long
+     */
+    public RationalPolynomial toRational(){
+        return toRational(1);
+    }
+
+    /**
+     * converts this divided by an integer into a rational polynomial. Undoes fromRational when given its multiplier
+     * @param denominator nonzero integer every coefficient is divided by
+     * @return rational polynomial equal to this / denominator
+     * @throws ArithmeticException if a coefficient doesn't fit in a long
+     */
+    public RationalPolynomial toRational(long denominator){
+        if(denominator == 0){
+            throw new ArithmeticException("Cannot divide a polynomial by zero");
+        }
+        if(coefficients == null){
+            throw new ArithmeticException("Coefficients are too large to fit in a Rational");
+        }
+        Rational[] rationals = new Rational[coefficients.length];
+        for (int i = 0; i < coefficients.length; i++) {
+            rationals[i] = new Rational(coefficients[i], denominator);
+        }
+        return RationalPolynomial.wrap(rationals);
+    }
+
+    /**
+     * gets the coefficients as longs
+     * @return new array of coefficients, lowest order first
+     * @throws ArithmeticException if a coefficient doesn't fit in a long
+     */
+    public long[] toLongArray(){
+        if(coefficients == null){
+            throw new ArithmeticException("Coefficients are too large to fit in a long");
+        }
+        return coefficients.clone();
+    }
+
+    /**
+     * whether the coefficients are stored as WideIntegers because some don't fit in a long
+     */
+    public boolean isWide(){
+        return coefficients == null;
+    }
+
+    public boolean isZero(){
+        return coefficients != null && coefficients.length == 1 && coefficients[0] == 0;
+    }
+
+    /**
+     * obtains the degree of the current polynomial
+     * @return degree of polynomial
+     */
+    public int getDegree(){
+        if(this.isZero())
+            throw new ArithmeticException("zero polynomial doesn't have a degree");
+
+        return length() - 1;
+    }
+
+    /**
+     * gets the coefficient of x^i
+     * @param i nonnegative power of x
+     * @return coefficient, which is zero past the degree
+     * @throws ArithmeticException if the coefficient doesn't fit in a long
+     */
+    public long getCoefficient(int i){
+        return getWideCoefficient(i).toLong();
+    }
+
+    /**
+     * gets the coefficient of x^i
+     * @param i nonnegative power of x
+     * @return coefficient, which is zero past the degree
+     */
+    public WideInteger getWideCoefficient(int i){
+        if(i < 0){
+            throw new IllegalStateException("Polynomials don't have negative powers");
+        }
+        if(i >= length()){
+            return WideInteger.ZERO;
+        }
+        return coefficients != null ? WideInteger.valueOf(coefficients[i]) : wideCoefficients[i];
+    }
+
+    /**
+     * gets the gcd of the coefficients
+     * @return positive content, or zero for the zero polynomial
+     */
+    public WideInteger getContent(){
+        if(coefficients != null){
+            long content = 0;
+            for (int i = 0; i < coefficients.length && content != 1; i++) {
+                content = Rational.gcd(content, coefficients[i]);
+            }
+            // only the gcd of Long.MIN_VALUE with itself or zero is negative, since it doesn't fit
+            if(content >= 0){
+                return WideInteger.valueOf(content);
+            }
+        }
+        WideInteger[] wide = toWide();
+        WideInteger content = WideInteger.ZERO;
+        for (int i = 0; i < wide.length && !content.equals(WideInteger.ONE); i++) {
+            content = content.gcd(wide[i]);
+        }
+        return content;
+    }
+
+    /**
+     * divides the polynomial by its content. The signs of the coefficients don't change
+     * @return primitive polynomial, or the zero polynomial if this is zero
+     */
+    public IntegerPolynomial getPrimitivePart(){
+        WideInteger content = getContent();
+        if(content.isZero() || content.equals(WideInteger.ONE)){
+            return this;
+        }
+        if(coefficients != null){
+            long divisor = content.toLong();
+            long[] primitive = new long[coefficients.length];
+            for (int i = 0; i < coefficients.length; i++) {
+                primitive[i] = coefficients[i] / divisor;
+            }
+            return new IntegerPolynomial(primitive, null);
+        }
+        WideInteger[] primitive = new WideInteger[wideCoefficients.length];
+        for (int i = 0; i < wideCoefficients.length; i++) {
+            primitive[i] = wideCoefficients[i].divide(content);
+        }
+        return fromWide(primitive);
+    }
+
+    public IntegerPolynomial add(IntegerPolynomial other){
+        return combine(other, false);
+    }
+
+    public IntegerPolynomial subtract(IntegerPolynomial other){
+        return combine(other, true);
+    }
+
+    private IntegerPolynomial combine(IntegerPolynomial other, boolean subtract){
+        int length = this.length() > other.length() ? this.length() : other.length();
+        if(this.coefficients != null && other.coefficients != null){
+            long[] sum = new long[length];
+            long first;
+            long second;
+            try{
+                for (int i = 0; i < length; i++) {
+                    first = i < this.coefficients.length ? this.coefficients[i] : 0;
+                    second = i < other.coefficients.length ? other.coefficients[i] : 0;
+                    sum[i] = subtract ? Math.subtractExact(first, second) : Math.addExact(first, second);
+                }
+                return new IntegerPolynomial(trim(sum), null);
+            }catch(ArithmeticException e){
+                // a coefficient doesn't fit in a long
+                promoted(subtract ? "subtract" : "add", length - 1);
+            }
+        }
+
+        WideInteger[] sum = new WideInteger[length];
+        WideInteger second;
+        for (int i = 0; i < length; i++) {
+            second = other.getWideCoefficient(i);
+            sum[i] = this.getWideCoefficient(i).add(subtract ? second.negate() : second);
+        }
+        return fromWide(sum);
+    }
+
+    public IntegerPolynomial multiply(IntegerPolynomial other){
+        if(this.isZero() || other.isZero()){
+            return new IntegerPolynomial(0);
+        }
+        long start = Metrics.startTimer();
+        if(this.coefficients != null && other.coefficients != null){
+            long[] product = new long[this.coefficients.length + other.coefficients.length - 1];
+            try{
+                for (int i = 0; i < this.coefficients.length; i++) {
+                    if(this.coefficients[i] == 0){
+                        continue;
+                    }
+                    for (int j = 0; j < other.coefficients.length; j++) {
+                        product[i + j] = Math.addExact(product[i + j], Math.multiplyExact(this.coefficients[i], other.coefficients[j]));
+                    }
+                }
+                ArithmeticEvents.emit(ArithmeticEvent.POLYNOMIAL_MULTIPLY, "long", this.length() - 1, other.length() - 1, 0, start);
+                return new IntegerPolynomial(product, null);
+            }catch(ArithmeticException e){
+                // a coefficient doesn't fit in a long
+                promoted("multiply", product.length - 1);
+            }
+        }
+
+        WideInteger[] first = this.toWide();
+        WideInteger[] second = other.toWide();
+        WideInteger[] product = new WideInteger[first.length + second.length - 1];
+        for (int i = 0; i < product.length; i++) {
+            product[i] = WideInteger.ZERO;
+        }
+        for (int i = 0; i < first.length; i++) {
+            if(first[i].isZero()){
+                continue;
+            }
+            for (int j = 0; j < second.length; j++) {
+                product[i + j] = product[i + j].add(first[i].multiply(second[j]));
+            }
+        }
+        ArithmeticEvents.emit(ArithmeticEvent.POLYNOMIAL_MULTIPLY, "wide", this.length() - 1, other.length() - 1, 0, start);
+        return fromWide(product);
+    }
+
+    /**
+     * multiplies every coefficient by an integer
+     * @param scaler integer the polynomial is multiplied by
+     * @return scaled polynomial
+     */
+    public IntegerPolynomial scale(long scaler){
+        if(scaler == 0){
+            return new IntegerPolynomial(0);
+        }
+        if(coefficients != null){
+            long[] scaled = new long[coefficients.length];
+            try{
+                for (int i = 0; i < coefficients.length; i++) {
+                    scaled[i] = Math.multiplyExact(coefficients[i], scaler);
+                }
+                return new IntegerPolynomial(scaled, null);
+            }catch(ArithmeticException e){
+                // a coefficient doesn't fit in a long
+                promoted("scale", coefficients.length - 1);
+            }
+        }
+        WideInteger[] wide = toWide();
+        WideInteger[] scaled = new WideInteger[wide.length];
+        for (int i = 0; i < wide.length; i++) {
+            scaled[i] = wide[i].multiply(scaler);
+        }
+        return fromWide(scaled);
+    }
+
+    /**
+     * takes the derivative with respect to x
+     * @return derivative, which is zero for a constant
+     */
+    public IntegerPolynomial derivative(){
+        if(length() == 1){
+            return new IntegerPolynomial(0);
+        }
+        if(coefficients != null){
+            long[] derivative = new long[coefficients.length - 1];
+            try{
+                for (int i = 1; i < coefficients.length; i++) {
+                    derivative[i - 1] = Math.multiplyExact(coefficients[i], (long) i);
+                }
+                return new IntegerPolynomial(derivative, null);
+            }catch(ArithmeticException e){
+                // a coefficient doesn't fit in a long
+                promoted("derivative", coefficients.length - 2);
+            }
+        }
+        WideInteger[] wide = toWide();
+        WideInteger[] derivative = new WideInteger[wide.length - 1];
+        for (int i = 1; i < wide.length; i++) {
+            derivative[i - 1] = wide[i].multiply(i);
+        }
+        return fromWide(derivative);
+    }
+
+    /**
+     * divides this by a polynomial that is known to divide it with an integer quotient
+     * @param divisor nonzero polynomial
+     * @return quotient
+     * @throws ArithmeticException if divisor doesn't divide this exactly over the integers
+     */
+    public IntegerPolynomial divideExact(IntegerPolynomial divisor){
+        if(divisor.isZero()){
+            throw new ArithmeticException("Cannot divide by zero");
+        }
+        if(this.isZero()){
+            return this;
+        }
+        if(this.length() < divisor.length()){
+            throw new ArithmeticException("Polynomial doesn't divide exactly");
+        }
+        if(this.coefficients != null && divisor.coefficients != null){
+            long[] quotient = divideExact(this.coefficients, divisor.coefficients);
+            if(quotient != null){
+                return new IntegerPolynomial(quotient, null);
+            }
+        }
+
+        WideInteger[] remainder = this.toWide();
+        WideInteger[] wideDivisor = divisor.toWide();
+        WideInteger[] quotient = new WideInteger[remainder.length - wideDivisor.length + 1];
+        WideInteger divisorLeading = wideDivisor[wideDivisor.length - 1];
+        Pair<WideInteger, WideInteger> step;
+        for (int offset = quotient.length - 1; offset >= 0; offset--) {
+            step = remainder[offset + wideDivisor.length - 1].quotientRemainder(divisorLeading);
+            if(!step.getSecond().isZero()){
+                throw new ArithmeticException("Polynomial doesn't divide exactly");
+            }
+            quotient[offset] = step.getFirst();
+            for (int i = 0; i < wideDivisor.length; i++) {
+                remainder[i + offset] = remainder[i + offset].subtract(step.getFirst().multiply(wideDivisor[i]));
+            }
+        }
+        for (int i = 0; i < wideDivisor.length - 1; i++) {
+            if(!remainder[i].isZero()){
+                throw new ArithmeticException("Polynomial doesn't divide exactly");
+            }
+        }
+        return fromWide(quotient);
+    }
+
+    /**
+     * exact division on longs
+     * @return quotient, or null if something didn't fit in a long
+     * @throws ArithmeticException if divisor doesn't divide dividend exactly
+     */
+    private static long[] divideExact(long[] dividend, long[] divisor){
+        long[] remainder = dividend.clone();
+        long[] quotient = new long[dividend.length - divisor.length + 1];
+        long divisorLeading = divisor[divisor.length - 1];
+        long coefficient;
+        for (int offset = quotient.length - 1; offset >= 0; offset--) {
+            if(remainder[offset + divisor.length - 1] % divisorLeading != 0){
+                throw new ArithmeticException("Polynomial doesn't divide exactly");
+            }
+            coefficient = remainder[offset + divisor.length - 1] / divisorLeading;
+            quotient[offset] = coefficient;
+            try{
+                for (int i = 0; i < divisor.length; i++) {
+                    remainder[i + offset] = Math.subtractExact(remainder[i + offset], Math.multiplyExact(coefficient, divisor[i]));
+                }
+            }catch(ArithmeticException e){
+                promoted("divide", dividend.length - 1);
+                return null;
+            }
+        }
+        for (int i = 0; i < divisor.length - 1; i++) {
+            if(remainder[i] != 0){
+                throw new ArithmeticException("Polynomial doesn't divide exactly");
+            }
+        }
+        return quotient;
+    }
+
+    /**
+     * pseudo-division, which divides lc(divisor)^d * this by divisor where d = deg(this) - deg(divisor) + 1.
+     * This never needs fractions, so the quotient and remainder are integer polynomials
+     * @param divisor nonzero polynomial
+     * @return pair of the quotient and the remainder, where the remainder has a lower degree than divisor.
+     * If this has a lower degree than divisor then the quotient is zero and the remainder is this
+     */
+    public Pair<IntegerPolynomial, IntegerPolynomial> pseudoQuotientRemainder(IntegerPolynomial divisor){
+        if(divisor.isZero()){
+            throw new ArithmeticException("Cannot divide by zero");
+        }
+        if(this.isZero() || this.length() < divisor.length()){
+            return new Pair<>(new IntegerPolynomial(0), this);
+        }
+        if(this.coefficients != null && divisor.coefficients != null){
+            long[] quotient = new long[this.coefficients.length - divisor.coefficients.length + 1];
+            long[] remainder = this.coefficients.clone();
+            if(pseudoDivide(remainder, divisor.coefficients, quotient)){
+                return new Pair<>(new IntegerPolynomial(trim(quotient), null), new IntegerPolynomial(trim(remainder), null));
+            }
+        }
+
+        WideInteger[] remainder = this.toWide();
+        WideInteger[] wideDivisor = divisor.toWide();
+        WideInteger[] quotient = new WideInteger[remainder.length - wideDivisor.length + 1];
+        for (int i = 0; i < quotient.length; i++) {
+            quotient[i] = WideInteger.ZERO;
+        }
+        WideInteger divisorLeading = wideDivisor[wideDivisor.length - 1];
+        WideInteger remainderLeading;
+        int offset;
+        // every step multiplies everything by lc(divisor) and cancels the top coefficient of the remainder
+        for (int top = remainder.length - 1; top >= wideDivisor.length - 1; top--) {
+            remainderLeading = remainder[top];
+            offset = top - wideDivisor.length + 1;
+            for (int i = 0; i < quotient.length; i++) {
+                quotient[i] = quotient[i].multiply(divisorLeading);
+            }
+            quotient[offset] = quotient[offset].add(remainderLeading);
+            for (int i = 0; i <= top; i++) {
+                remainder[i] = remainder[i].multiply(divisorLeading);
+            }
+            for (int i = 0; i < wideDivisor.length; i++) {
+                remainder[i + offset] = remainder[i + offset].subtract(remainderLeading.multiply(wideDivisor[i]));
+            }
+        }
+        return new Pair<>(fromWide(quotient), fromWide(remainder));
+    }
+
+    /**
+     * pseudo-division on longs. remainder starts as the dividend and is overwritten with the remainder
+     * @param quotient array of zeroes that the quotient is written into
+     * @return true, or false if something didn't fit in a long
+     */
+    private static boolean pseudoDivide(long[] remainder, long[] divisor, long[] quotient){
+        long divisorLeading = divisor[divisor.length - 1];
+        long remainderLeading;
+        int offset;
+        try{
+            for (int top = remainder.length - 1; top >= divisor.length - 1; top--) {
+                remainderLeading = remainder[top];
+                offset = top - divisor.length + 1;
+                for (int i = 0; i < quotient.length; i++) {
+                    quotient[i] = Math.multiplyExact(quotient[i], divisorLeading);
+                }
+                quotient[offset] = Math.addExact(quotient[offset], remainderLeading);
+                for (int i = 0; i <= top; i++) {
+                    remainder[i] = Math.multiplyExact(remainder[i], divisorLeading);
+                }
+                for (int i = 0; i < divisor.length; i++) {
+                    remainder[i + offset] = Math.subtractExact(remainder[i + offset], Math.multiplyExact(remainderLeading, divisor[i]));
+                }
+            }
+        }catch(ArithmeticException e){
+            promoted("pseudoQuotientRemainder", remainder.length - 1);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * greatest common divisor using the primitive remainder sequence, where every pseudo-remainder is made primitive
+     * so that the coefficients don't grow exponentially
+     * @param other any integer polynomial
+     * @return primitive gcd with a positive leading coefficient, or zero if both are zero
+     */
+    public IntegerPolynomial gcd(IntegerPolynomial other){
+        long start = Metrics.startTimer();
+        IntegerPolynomial larger = this.getPrimitivePart();
+        IntegerPolynomial smaller = other.getPrimitivePart();
+        IntegerPolynomial remainder;
+        int remainders = 0;
+        while(!smaller.isZero()){
+            remainder = larger.pseudoQuotientRemainder(smaller).getSecond().getPrimitivePart();
+            larger = smaller;
+            smaller = remainder;
+            remainders++;
+        }
+        ArithmeticEvents.emit(ArithmeticEvent.GCD, "primitive remainder sequence", this.length() - 1, other.length() - 1, remainders, start);
+        if(larger.getWideCoefficient(larger.length() - 1).signum() < 0){
+            return larger.scale(-1);
+        }
+        return larger;
+    }
+
+    /**
+     * removes repeated factors by dividing by gcd(p, p').
+     * Done on integer coefficients since the rational version of euclid's algorithm quickly overflows
+     * precond: the polynomial is primitive and not constant
+     * @return primitive integer polynomial with the same roots, all of them simple
+     */
+    public IntegerPolynomial getSquareFreePart(){
+        IntegerPolynomial derivative = derivative();
+        // the exact gcd is expensive, so first check whether there's anything to remove by working modulo a prime
+        if(!derivative.isWide() && coefficients != null){
+            if(coefficients[coefficients.length - 1] % MODULUS != 0 && isCoprimeModPrime(coefficients, derivative.toLongArray())){
+                return this;
+            }
+        }
+        IntegerPolynomial gcd = gcd(derivative);
+        if(gcd.getDegree() == 0){
+            return this;
+        }
+        return divideExact(gcd).getPrimitivePart();
+    }
+
+    /**
+     * Prime used to check for repeated roots. Small enough that the product of two residues fits in a long
+     */
+    private static final long MODULUS = 2147483647L;
+
+    /**
+     * checks whether gcd(p, p') is a constant when the coefficients are taken modulo a prime.
+     * Reducing can only make the gcd bigger, so a constant gcd here means p has no repeated roots
+     * precond: the leading coefficient of poly isn't divisible by MODULUS
+     * @param poly integer polynomial
+     * @param derivative derivative of poly
+     * @return true if poly definitely has no repeated roots
+     */
+    private static boolean isCoprimeModPrime(long[] poly, long[] derivative){
+        long[] larger = reduce(poly);
+        long[] smaller = reduce(derivative);
+        long[] remainder;
+        while(smaller.length > 0){
+            remainder = remainderModPrime(larger, smaller);
+            larger = smaller;
+            smaller = remainder;
+        }
+        return larger.length == 1;
+    }
+
+    /**
+     * reduces every coefficient into [0, MODULUS) and drops trailing zeroes. The zero polynomial has no coefficients
+     */
+    private static long[] reduce(long[] poly){
+        int length = poly.length;
+        while(length > 0 && poly[length - 1] % MODULUS == 0){
+            length--;
+        }
+        long[] reduced = new long[length];
+        for (int i = 0; i < length; i++) {
+            reduced[i] = ((poly[i] % MODULUS) + MODULUS) % MODULUS;
+        }
+        return reduced;
+    }
+
+    /**
+     * remainder of polynomial division with coefficients modulo MODULUS
+     */
+    private static long[] remainderModPrime(long[] dividend, long[] divisor){
+        long[] remainder = dividend.clone();
+        long inverseLeading = powerModPrime(divisor[divisor.length - 1], MODULUS - 2);
+        long coefficient;
+        int offset;
+        for (int top = remainder.length - 1; top >= divisor.length - 1; top--) {
+            coefficient = remainder[top] * inverseLeading % MODULUS;
+            if(coefficient == 0){
+                continue;
+            }
+            offset = top - divisor.length + 1;
+            for (int i = 0; i < divisor.length; i++) {
+                remainder[i + offset] = (remainder[i + offset] + (MODULUS - coefficient) * divisor[i]) % MODULUS;
+            }
+        }
+        return reduce(remainder.length < divisor.length ? remainder : shorten(remainder, divisor.length - 1));
+    }
+
+    private static long[] shorten(long[] poly, int length){
+        long[] shortened = new long[length];
+        for (int i = 0; i < length; i++) {
+            shortened[i] = poly[i];
+        }
+        return shortened;
+    }
+
+    /**
+     * computes base^exp modulo MODULUS by repeated squaring
+     */
+    private static long powerModPrime(long base, long exp){
+        long result = 1;
+        base %= MODULUS;
+        while(exp > 0){
+            if((exp & 1) == 1){
+                result = result * base % MODULUS;
+            }
+            base = base * base % MODULUS;
+            exp >>= 1;
+        }
+        return result;
+    }
+
+    public boolean equals(IntegerPolynomial other){
+        if(this.length() != other.length()){
+            return false;
+        }
+        // a polynomial is only stored with WideIntegers when it has to be, so the two ways never hold the same value
+        if(this.coefficients != null && other.coefficients != null){
+            for (int i = 0; i < coefficients.length; i++) {
+                if(this.coefficients[i] != other.coefficients[i]){
+                    return false;
+                }
+            }
+            return true;
+        }
+        if(this.coefficients != null || other.coefficients != null){
+            return false;
+        }
+        for (int i = 0; i < wideCoefficients.length; i++) {
+            if(!this.wideCoefficients[i].equals(other.wideCoefficients[i])){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean equals(Object other){
+        return other instanceof IntegerPolynomial && this.equals((IntegerPolynomial) other);
+    }
+
+    public int hashCode(){
+        int result = 1;
+        for (int i = 0; i < length(); i++) {
+            result = 31 * result + (coefficients != null ? Long.hashCode(coefficients[i]) : wideCoefficients[i].hashCode());
+        }
+        return result;
+    }
+
+    /**
+     * creates a string representation of the polynomial on one line, lowest order term first
+     * @return string of the polynomial
+     */
+    public String toString(){
+        StringBuilder outString = new StringBuilder();
+        WideInteger coefficient;
+        for (int i = 0; i < length(); i++) {
+            coefficient = getWideCoefficient(i);
+            if(i == 0){
+                outString.append(coefficient.toString());
+            }else{
+                outString.append(coefficient.signum() < 0 ? " - " : " + ").append(coefficient.abs().toString()).append(i == 1 ? "*x" : "*x^" + i);
+            }
+        }
+        return outString.toString();
+    }
+
+    private int length(){
+        return coefficients != null ? coefficients.length : wideCoefficients.length;
+    }
+
+    /**
+     * gets the coefficients as WideIntegers
+     * @return new array that can be changed freely
+     */
+    private WideInteger[] toWide(){
+        if(wideCoefficients != null){
+            return wideCoefficients.clone();
+        }
+        WideInteger[] wide = new WideInteger[coefficients.length];
+        for (int i = 0; i < coefficients.length; i++) {
+            wide[i] = WideInteger.valueOf(coefficients[i]);
+        }
+        return wide;
+    }
+
+    /**
+     * builds a polynomial from WideIntegers, switching back to longs if every coefficient fits
+     * @param coefficients array that isn't shared with anything else
+     */
+    private static IntegerPolynomial fromWide(WideInteger[] coefficients){
+        if(coefficients.length == 0){
+            throw new IllegalStateException("An integer polynomial needs at least one coefficient");
+        }
+        int length = coefficients.length;
+        while(length > 1 && coefficients[length - 1].isZero()){
+            length--;
+        }
+        boolean fits = true;
+        for (int i = 0; i < length && fits; i++) {
+            fits = coefficients[i].fitsInLong();
+        }
+        if(fits){
+            long[] narrow = new long[length];
+            for (int i = 0; i < length; i++) {
+                narrow[i] = coefficients[i].toLong();
+            }
+            return new IntegerPolynomial(narrow, null);
+        }
+        WideInteger[] trimmed = new WideInteger[length];
+        for (int i = 0; i < length; i++) {
+            trimmed[i] = coefficients[i];
+        }
+        return new IntegerPolynomial(null, trimmed);
+    }
+
+    /**
+     * removes trailing zeroes, keeping one coefficient for the zero polynomial
+     * @return coefficients if there weren't any trailing zeroes, and a shorter copy otherwise
+     */
+    private static long[] trim(long[] coefficients){
+        if(coefficients.length == 0){
+            throw new IllegalStateException("An integer polynomial needs at least one coefficient");
+        }
+        int length = coefficients.length;
+        while(length > 1 && coefficients[length - 1] == 0){
+            length--;
+        }
+        if(length == coefficients.length){
+            return coefficients;
+        }
+        long[] trimmed = new long[length];
+        for (int i = 0; i < length; i++) {
+            trimmed[i] = coefficients[i];
+        }
+        return trimmed;
+    }
+
+    private static long signedNumerator(Rational rational){
+        return rational.getSign() ? -rational.getNumer() : rational.getNumer();
+    }
+
+    /**
+     * counts and reports arithmetic on longs that overflowed and is about to be redone with WideIntegers
+     * @param operation name of the method that overflowed
+     * @param degree degree of the result
+     */
+    private static void promoted(String operation, int degree){
+        Metrics.count(Metrics.WIDE_PROMOTION);
+        ArithmeticEvents.promotion(operation, degree);
+    }
+}
@@ -0,0 +1,98 @@
+package mathClasses;
+
+import dataStructures.DoublyLinkedList;
+import mathClasses.RationalOperations.RationalOperationOutput;
+
+/**
+ * Real roots of a polynomial, each one given by an interval that contains only that root.
+ * Intervals are stored in increasing order. An exact interval [r] means r itself is the root,
+ * otherwise the root lies strictly between the two ends of the interval
+ */
+public class IsolatedRoots implements RationalOperationOutput {
+    /**
+     * intervals containing one root each, from least to greatest
+     */
+    private DoublyLinkedList<RationalInterval> intervals;
+
+    /**
+     * creates a collection of isolated roots
+     * @param intervals sequence of disjoint intervals in increasing order
+     */
+    public IsolatedRoots(RationalInterval ... intervals){
+        this.intervals = new DoublyLinkedList<>();
+        for(RationalInterval x : intervals){
+            this.intervals.insert(x);
+        }
+    }
+
+    public int getSize(){
+        return intervals.getSize();
+    }
+
+    /**
+     * adds an interval after every other interval. It must lie above all the intervals that are already present
+     * @param interval interval containing exactly one root
+     */
+    public void insertInterval(RationalInterval interval){
+        if(intervals.getSize() != 0){
+            intervals.goLast();
+        }
+        intervals.insert(interval);
+    }
+
+    public void goFirst(){
+        intervals.goFirst();
+    }
+
+    public void goForth(){
+        intervals.goForth();
+    }
+
+    public void goLast(){
+        intervals.goLast();
+    }
+
+    public void goBack(){
+        intervals.goBack();
+    }
+
+    public boolean isAfter(){
+        return intervals.isAfter();
+    }
+
+    public RationalInterval getInterval(){
+        return intervals.item().item();
+    }
+
+    public boolean equals(IsolatedRoots other){
+        if(this.getSize() != other.getSize()){
+            return false;
+        }
+        if(this.getSize() == 0){
+            return true;
+        }
+        this.goFirst();
+        other.goFirst();
+        while(!this.isAfter()){
+            if(!this.getInterval().equals(other.getInterval())){
+                return false;
+            }
+            this.goForth();
+            other.goForth();
+        }
+        return true;
+    }
+
+    public String toString(){
+        if(intervals.getSize() == 0){
+            return "no real roots";
+        }
+        String outputString = "";
+        this.goFirst();
+        while(!this.isAfter()){
+            outputString += getInterval().toString() + "\n";
+            this.goForth();
+        }
+        return outputString;
+    }
+}
@@ -0,0 +1,295 @@
+package mathClasses;
+
+/**
+ * Opt-in counters and timings for the arithmetic kernels and the operations, so it's possible to see where the time
+ * goes without attaching a profiler. Everything is off until enable() is called, and while it's off every hook is one
+ * read of a volatile boolean. snapshot() copies what's been recorded so far into a MetricsSnapshot.
+ *
+ * Latencies go into histograms with one bucket per power of two nanoseconds, and coefficient sizes into a histogram
+ * with one bucket per bit length, so recording never allocates. Kernel and coefficient counts are split into stripes,
+ * each thread always using the same one, so threads working in parallel rarely wait on each other's locks
+ */
+public class Metrics {
+    /**
+     * kernels that are counted
+     */
+    public static final int RATIONAL_ADD = 0;
+    public static final int RATIONAL_MULTIPLY = 1;
+    public static final int RATIONAL_GCD = 2;
+    public static final int POLYNOMIAL_MULTIPLY = 3;
+    public static final int POLYNOMIAL_QUOTIENT_REMAINDER = 4;
+    public static final int POLYNOMIAL_SOLVE = 5;
+
+    /**
+     * integer polynomial arithmetic that overflowed a long and was redone with WideIntegers
+     */
+    public static final int WIDE_PROMOTION = 6;
+
+    static final String[] KERNEL_NAMES = {"Rational.add", "Rational.multiply", "Rational.gcd", "RationalPolynomial.multiply",
+            "RationalPolynomial.quotientRemainder", "RationalPolynomial.solve", "WideInteger promotion"};
+
+    /**
+     * bucket i of a latency histogram counts times that took between 2^(i-1) and 2^i nanoseconds
+     */
+    static final int BUCKETS = 64;
+
+    /**
+     * what startTimer gives back while metrics and events are off, which tells record not to record anything
+     */
+    static final long NOT_TIMED = Long.MIN_VALUE;
+
+    /**
+     * number of stripes the kernel and coefficient counts are split into. Must be a power of two
+     */
+    static final int STRIPES = 16;
+
+    private static volatile boolean enabled = false;
+
+    private static final Stripe[] stripes = new Stripe[STRIPES];
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * hands out stripes to threads in turn the first time they record something
+     */
+    private static int nextStripe = 0;
+
+    private static final ThreadLocal<Stripe> threadStripe = new ThreadLocal<Stripe>() {
+        protected Stripe initialValue(){
+            synchronized(Metrics.class){
+                return stripes[nextStripe++ & (STRIPES - 1)];
+            }
+        }
+    };
+
+    /**
+     * operations are told apart by the simple name of their class. Only the first operationTypes elements are used
+     */
+    private static String[] operationNames = new String[8];
+    private static long[] operationCounts = new long[8];
+    private static long[] operationNanos = new long[8];
+    private static long[][] operationHistograms = new long[8][BUCKETS];
+    private static int operationTypes = 0;
+
+    public static void enable(){
+        enabled = true;
+    }
+
+    public static void disable(){
+        enabled = false;
+    }
+
+    public static boolean isEnabled(){
+        return enabled;
+    }
+
+    /**
+     * forgets everything recorded so far. Doesn't change whether metrics are on
+     */
+    public static synchronized void reset(){
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i].clear();
+        }
+        operationNames = new String[8];
+        operationCounts = new long[8];
+        operationNanos = new long[8];
+        operationHistograms = new long[8][BUCKETS];
+        operationTypes = 0;
+    }
+
+    /**
+     * copies everything recorded so far
+     * @return snapshot that doesn't change as more is recorded
+     */
+    public static synchronized MetricsSnapshot snapshot(){
+        String[] names = new String[operationTypes];
+        long[] counts = new long[operationTypes];
+        long[] nanos = new long[operationTypes];
+        long[][] histograms = new long[operationTypes][];
+        for (int i = 0; i < operationTypes; i++) {
+            names[i] = operationNames[i];
+            counts[i] = operationCounts[i];
+            nanos[i] = operationNanos[i];
+            histograms[i] = operationHistograms[i].clone();
+        }
+        long[] kernelCounts = new long[KERNEL_NAMES.length];
+        long[] kernelNanos = new long[KERNEL_NAMES.length];
+        long[][] kernelHistograms = new long[KERNEL_NAMES.length][BUCKETS];
+        long[] coefficientBits = new long[BUCKETS + 1];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i].addTo(kernelCounts, kernelNanos, kernelHistograms, coefficientBits);
+        }
+        return new MetricsSnapshot(kernelCounts, kernelNanos, kernelHistograms,
+                names, counts, nanos, histograms, coefficientBits);
+    }
+
+    /**
+     * counts a call to a kernel that's too quick to be worth timing
+     * @param kernel one of the kernel constants
+     */
+    public static void count(int kernel){
+        if(enabled){
+            add(kernel, NOT_TIMED);
+        }
+    }
+
+    /**
+     * starts timing a kernel or operation. The same start time is used for metrics and for ArithmeticEvents
+     * @return start time to pass to record, or a marker that nothing should be recorded if metrics and events are off
+     */
+    public static long startTimer(){
+        return enabled || ArithmeticEvents.isRecording() ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * counts and times a call to a kernel
+     * @param kernel one of the kernel constants
+     * @param start what startTimer gave back when the call started
+     */
+    public static void record(int kernel, long start){
+        if(start != NOT_TIMED && enabled){
+            add(kernel, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * counts and times an operation. Operations call this from a finally block, so ones that throw are counted too
+     * @param operation operation that just finished
+     * @param start what startTimer gave back when it started
+     */
+    public static void recordOperation(Object operation, long start){
+        if(start != NOT_TIMED && enabled){
+            addOperation(operation.getClass().getSimpleName(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * records how large a coefficient of a polynomial product is, to see how quickly coefficients grow
+     */
+    static void recordCoefficient(Rational coefficient){
+        if(enabled){
+            long numerator = coefficient.getNumer();
+            numerator = numerator > -numerator ? numerator : -numerator;
+            long denominator = coefficient.getDenom();
+            addCoefficient(bits(numerator > denominator ? numerator : denominator));
+        }
+    }
+
+    private static void add(int kernel, long nanos){
+        Stripe stripe = threadStripe.get();
+        synchronized(stripe){
+            stripe.kernelCounts[kernel]++;
+            if(nanos != NOT_TIMED){
+                stripe.kernelNanos[kernel] += nanos;
+                stripe.kernelHistograms[kernel][bucketOf(nanos)]++;
+            }
+        }
+    }
+
+    private static synchronized void addOperation(String name, long nanos){
+        int index = 0;
+        while(index < operationTypes && !operationNames[index].equals(name)){
+            index++;
+        }
+        if(index == operationTypes){
+            if(operationTypes == operationNames.length){
+                growOperations();
+            }
+            operationNames[index] = name;
+            operationTypes++;
+        }
+        operationCounts[index]++;
+        operationNanos[index] += nanos;
+        operationHistograms[index][bucketOf(nanos)]++;
+    }
+
+    private static void addCoefficient(int bits){
+        Stripe stripe = threadStripe.get();
+        synchronized(stripe){
+            stripe.coefficientBits[bits]++;
+        }
+    }
+
+    private static void growOperations(){
+        int capacity = 2 * operationNames.length;
+        String[] names = new String[capacity];
+        long[] counts = new long[capacity];
+        long[] nanos = new long[capacity];
+        long[][] histograms = new long[capacity][];
+        for (int i = 0; i < operationTypes; i++) {
+            names[i] = operationNames[i];
+            counts[i] = operationCounts[i];
+            nanos[i] = operationNanos[i];
+            histograms[i] = operationHistograms[i];
+        }
+        for (int i = operationTypes; i < capacity; i++) {
+            histograms[i] = new long[BUCKETS];
+        }
+        operationNames = names;
+        operationCounts = counts;
+        operationNanos = nanos;
+        operationHistograms = histograms;
+    }
+
+    /**
+     * @param nanos nonnegative duration
+     * @return histogram bucket, which is how many bits the duration takes
+     */
+    private static int bucketOf(long nanos){
+        int bucket = bits(nanos < 0 ? 0 : nanos);
+        return bucket < BUCKETS ? bucket : BUCKETS - 1;
+    }
+
+    /**
+     * @return number of bits needed to write a nonnegative number, which is 0 for 0
+     */
+    private static int bits(long value){
+        return 64 - Long.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * one share of the kernel and coefficient counts. Every field is guarded by the Stripe itself
+     */
+    private static class Stripe {
+        private final long[] kernelCounts = new long[KERNEL_NAMES.length];
+        private final long[] kernelNanos = new long[KERNEL_NAMES.length];
+        private final long[][] kernelHistograms = new long[KERNEL_NAMES.length][BUCKETS];
+
+        /**
+         * coefficientBits[b] counts coefficients of polynomial products whose numerator or denominator takes b bits
+         */
+        private final long[] coefficientBits = new long[BUCKETS + 1];
+
+        synchronized void clear(){
+            for (int i = 0; i < KERNEL_NAMES.length; i++) {
+                kernelCounts[i] = 0;
+                kernelNanos[i] = 0;
+                for (int b = 0; b < BUCKETS; b++) {
+                    kernelHistograms[i][b] = 0;
+                }
+            }
+            for (int b = 0; b <= BUCKETS; b++) {
+                coefficientBits[b] = 0;
+            }
+        }
+
+        /**
+         * adds this stripe's counts onto totals of the same shape
+         */
+        synchronized void addTo(long[] counts, long[] nanos, long[][] histograms, long[] bits){
+            for (int i = 0; i < KERNEL_NAMES.length; i++) {
+                counts[i] += kernelCounts[i];
+                nanos[i] += kernelNanos[i];
+                for (int b = 0; b < BUCKETS; b++) {
+                    histograms[i][b] += kernelHistograms[i][b];
+                }
+            }
+            for (int b = 0; b <= BUCKETS; b++) {
+                bits[b] += coefficientBits[b];
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package mathClasses;
+
+/**
+ * Copy of everything Metrics had recorded at one moment. Instances of MetricsSnapshot are immutable,
+ * and every array they hand out is a copy
+ */
+public class MetricsSnapshot {
+    private final long[] kernelCounts;
+    private final long[] kernelNanos;
+    private final long[][] kernelHistograms;
+
+    private final String[] operationNames;
+    private final long[] operationCounts;
+    private final long[] operationNanos;
+    private final long[][] operationHistograms;
+
+    private final long[] coefficientBits;
+
+    /**
+     * precond: none of the arrays are shared with anything else
+     */
+    MetricsSnapshot(long[] kernelCounts, long[] kernelNanos, long[][] kernelHistograms, String[] operationNames,
+                    long[] operationCounts, long[] operationNanos, long[][] operationHistograms, long[] coefficientBits){
+        this.kernelCounts = kernelCounts;
+        this.kernelNanos = kernelNanos;
+        this.kernelHistograms = kernelHistograms;
+        this.operationNames = operationNames;
+        this.operationCounts = operationCounts;
+        this.operationNanos = operationNanos;
+        this.operationHistograms = operationHistograms;
+        this.coefficientBits = coefficientBits;
+    }
+
+    /**
+     * @param kernel one of the kernel constants in Metrics
+     * @return how many times the kernel was called
+     */
+    public long getCount(int kernel){
+        return kernelCounts[kernel];
+    }
+
+    /**
+     * @param kernel one of the kernel constants in Metrics
+     * @return total nanoseconds spent in the kernel, or 0 for kernels that are only counted
+     */
+    public long getTotalNanos(int kernel){
+        return kernelNanos[kernel];
+    }
+
+    /**
+     * @param kernel one of the kernel constants in Metrics
+     * @return histogram where element i counts calls that took between 2^(i-1) and 2^i nanoseconds
+     */
+    public long[] getHistogram(int kernel){
+        return kernelHistograms[kernel].clone();
+    }
+
+    public static String getKernelName(int kernel){
+        return Metrics.KERNEL_NAMES[kernel];
+    }
+
+    public long getGcdCount(){
+        return kernelCounts[Metrics.RATIONAL_GCD];
+    }
+
+    public long getWidePromotions(){
+        return kernelCounts[Metrics.WIDE_PROMOTION];
+    }
+
+    /**
+     * gets the simple class names of every operation that has finished at least once, in the order they first finished
+     */
+    public String[] getOperationNames(){
+        return operationNames.clone();
+    }
+
+    /**
+     * @param name simple class name of an operation, such as "Derivative"
+     * @return how many times it finished
+     */
+    public long getOperationCount(String name){
+        int index = indexOf(name);
+        return index == -1 ? 0 : operationCounts[index];
+    }
+
+    /**
+     * @param name simple class name of an operation
+     * @return total nanoseconds spent computing it
+     */
+    public long getOperationNanos(String name){
+        int index = indexOf(name);
+        return index == -1 ? 0 : operationNanos[index];
+    }
+
+    /**
+     * @param name simple class name of an operation
+     * @return histogram where element i counts runs that took between 2^(i-1) and 2^i nanoseconds
+     */
+    public long[] getOperationHistogram(String name){
+        int index = indexOf(name);
+        return index == -1 ? new long[Metrics.BUCKETS] : operationHistograms[index].clone();
+    }
+
+    /**
+     * gets how large the coefficients of polynomial products were
+     * @return histogram where element b counts coefficients whose larger of numerator and denominator takes b bits
+     */
+    public long[] getCoefficientBits(){
+        return coefficientBits.clone();
+    }
+
+    /**
+     * gets the most bits any coefficient of a polynomial product took
+     */
+    public int getMaxCoefficientBits(){
+        for (int b = coefficientBits.length - 1; b >= 0; b--) {
+            if(coefficientBits[b] != 0){
+                return b;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * lists the counts and total times, one kernel or operation per line, leaving out anything that never happened
+     */
+    public String toString(){
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < kernelCounts.length; i++) {
+            if(kernelCounts[i] != 0){
+                appendLine(builder, Metrics.KERNEL_NAMES[i], kernelCounts[i], kernelNanos[i]);
+            }
+        }
+        for (int i = 0; i < operationNames.length; i++) {
+            appendLine(builder, operationNames[i], operationCounts[i], operationNanos[i]);
+        }
+        builder.append("largest product coefficient: ").append(getMaxCoefficientBits()).append(" bits");
+        return builder.toString();
+    }
+
+    private static void appendLine(StringBuilder builder, String name, long count, long nanos){
+        builder.append(name).append(": ").append(count).append(" calls");
+        if(nanos != 0){
+            builder.append(", ").append(nanos / 1000).append(" us total");
+        }
+        builder.append('\n');
+    }
+
+    private int indexOf(String name){
+        for (int i = 0; i < operationNames.length; i++) {
+            if(operationNames[i].equals(name)){
+                return i;
+            }
+        }
+        return -1;
+    }
+}
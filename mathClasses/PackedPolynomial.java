@@ -0,0 +1,251 @@
+package mathClasses;
+
+/**
+ * Polynomial whose coefficients are packed into the long array of a CoefficientArena instead of being Rational objects.
+ * add, subtract, multiply, and evaluate work straight on the packed longs, so a long running batch can keep lots of
+ * polynomials around without the garbage collector having to look at every coefficient.
+ * Arithmetic is exact, and throws an ArithmeticException instead of overflowing.
+ * Instances are immutable, but only usable until their arena is reset or closed
+ */
+public class PackedPolynomial {
+    private final CoefficientArena arena;
+
+    /**
+     * index of the first coefficient in the arena, counted in coefficients rather than longs
+     */
+    final int offset;
+
+    /**
+     * number of coefficients, which is the degree plus one unless there are trailing zeroes
+     */
+    private final int length;
+
+    /**
+     * generation of the arena this was allocated in
+     */
+    private final int generation;
+
+    /**
+     * precond: the coefficients from offset to offset + length in the arena belong to this polynomial
+     */
+    PackedPolynomial(CoefficientArena arena, int offset, int length, int generation){
+        this.arena = arena;
+        this.offset = offset;
+        this.length = length;
+        this.generation = generation;
+    }
+
+    public CoefficientArena getArena(){
+        return arena;
+    }
+
+    /**
+     * gets the number of coefficients, which might include trailing zeroes just like in RationalPolynomial
+     */
+    public int getLength(){
+        return length;
+    }
+
+    public boolean isZero(){
+        arena.checkAlive(generation);
+        long[] slab = arena.slab;
+        for (int i = 2 * offset; i < 2 * (offset + length); i += 2) {
+            if(slab[i] != 0){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * obtains the degree of the current polynomial
+     * @return degree of polynomial
+     */
+    public int getDegree(){
+        arena.checkAlive(generation);
+        long[] slab = arena.slab;
+        for (int i = length - 1; i >= 0; i--) {
+            if(slab[2 * (offset + i)] != 0){
+                return i;
+            }
+        }
+        throw new ArithmeticException("zero polynomial doesn't have a degree");
+    }
+
+    /**
+     * gets a coefficient as a Rational
+     * @param i power of x the coefficient belongs to
+     * @return coefficient
+     */
+    public Rational getCoefficient(int i){
+        arena.checkAlive(generation);
+        if(i < 0 || i >= length){
+            throw new IllegalStateException("No coefficient for x^" + i);
+        }
+        return new Rational(arena.slab[2 * (offset + i)], arena.slab[2 * (offset + i) + 1]);
+    }
+
+    /**
+     * copies this back onto the heap
+     * @return rational polynomial with the same coefficients
+     */
+    public RationalPolynomial toRational(){
+        arena.checkAlive(generation);
+        long[] slab = arena.slab;
+        Rational[] coefficients = new Rational[length];
+        for (int i = 0; i < length; i++) {
+            coefficients[i] = new Rational(slab[2 * (offset + i)], slab[2 * (offset + i) + 1]);
+        }
+        return RationalPolynomial.wrap(coefficients);
+    }
+
+    /**
+     * adds two polynomials together
+     * @param other polynomial from any arena that is still open
+     * @return sum, allocated in this polynomial's arena
+     */
+    public PackedPolynomial add(PackedPolynomial other){
+        return combine(other, false);
+    }
+
+    /**
+     * subtracts two polynomials with form of 'this - other'
+     * @param other polynomial from any arena that is still open
+     * @return difference, allocated in this polynomial's arena
+     */
+    public PackedPolynomial subtract(PackedPolynomial other){
+        return combine(other, true);
+    }
+
+    /**
+     * adds or subtracts term by term. Gives the same length as RationalPolynomial does for the same polynomials
+     */
+    private PackedPolynomial combine(PackedPolynomial other, boolean subtract){
+        arena.checkAlive(generation);
+        other.arena.checkAlive(other.generation);
+        if(other.isZero()){
+            return this;
+        }
+        if(this.isZero() && !subtract){
+            return other.arena == arena ? other : arena.allocate(other.toRational());
+        }
+
+        PackedPolynomial sum = arena.allocate(length > other.length ? length : other.length);
+        // allocating can grow the slab, so it's only looked up afterwards
+        long[] slab = arena.slab;
+        long[] otherSlab = other.arena.slab;
+        int target = 2 * sum.offset;
+        for (int i = 0; i < length; i++) {
+            slab[target + 2 * i] = slab[2 * (offset + i)];
+            slab[target + 2 * i + 1] = slab[2 * (offset + i) + 1];
+        }
+        int source;
+        for (int i = 0; i < other.length; i++) {
+            source = 2 * (other.offset + i);
+            accumulate(slab, target + 2 * i, subtract ? -otherSlab[source] : otherSlab[source], otherSlab[source + 1]);
+        }
+        return sum;
+    }
+
+    /**
+     * multiplies two polynomials
+     * @param other polynomial from any arena that is still open
+     * @return product, allocated in this polynomial's arena
+     */
+    public PackedPolynomial multiply(PackedPolynomial other){
+        arena.checkAlive(generation);
+        other.arena.checkAlive(other.generation);
+        if(this.isZero() || other.isZero()){
+            return arena.allocate(1);
+        }
+        int thisDegree = this.getDegree();
+        int otherDegree = other.getDegree();
+
+        PackedPolynomial product = arena.allocate(thisDegree + otherDegree + 1);
+        long[] slab = arena.slab;
+        long[] otherSlab = other.arena.slab;
+        int target = 2 * product.offset;
+        long thisNumer, thisDenom, otherNumer, otherDenom, g1, g2;
+        for (int i = 0; i <= thisDegree; i++) {
+            thisNumer = slab[2 * (offset + i)];
+            if(thisNumer == 0){
+                continue;
+            }
+            thisDenom = slab[2 * (offset + i) + 1];
+            for (int j = 0; j <= otherDegree; j++) {
+                otherNumer = otherSlab[2 * (other.offset + j)];
+                if(otherNumer == 0){
+                    continue;
+                }
+                otherDenom = otherSlab[2 * (other.offset + j) + 1];
+                // cancel before multiplying so the product is already reduced and less likely to overflow
+                g1 = Rational.gcd(thisNumer, otherDenom);
+                g2 = Rational.gcd(otherNumer, thisDenom);
+                accumulate(slab, target + 2 * (i + j),
+                        Math.multiplyExact(thisNumer / g1, otherNumer / g2),
+                        Math.multiplyExact(thisDenom / g2, otherDenom / g1));
+            }
+        }
+        return product;
+    }
+
+    /**
+     * evaluates the polynomial at a point with Horner's method, keeping the running total in two longs
+     * @param x point we evaluate at
+     * @return value of the polynomial at x
+     */
+    public Rational evaluate(Rational x){
+        arena.checkAlive(generation);
+        if(x.isInfinity()){
+            // only the leading term matters, which RationalPolynomial already handles
+            return toRational().solve(x);
+        }
+        long xNumer = x.getSign() ? -x.getNumer() : x.getNumer();
+        long xDenom = x.getDenom();
+        long[] slab = arena.slab;
+        long numer = slab[2 * (offset + length - 1)];
+        long denom = slab[2 * (offset + length - 1) + 1];
+        long g1, g2;
+        for (int i = length - 2; i >= 0; i--) {
+            // total = total * x + c_i
+            g1 = Rational.gcd(numer, xDenom);
+            g2 = Rational.gcd(xNumer, denom);
+            if(numer == 0 || xNumer == 0){
+                numer = 0;
+                denom = 1;
+            }else{
+                numer = Math.multiplyExact(numer / g1, xNumer / g2);
+                denom = Math.multiplyExact(denom / g2, xDenom / g1);
+            }
+            numer = addNumerator(numer, denom, slab[2 * (offset + i)], slab[2 * (offset + i) + 1]);
+            denom = addDenominator(denom, slab[2 * (offset + i) + 1]);
+            g1 = Rational.gcd(numer, denom);
+            numer /= g1;
+            denom /= g1;
+        }
+        return new Rational(numer, denom);
+    }
+
+    /**
+     * adds numer / denom to the coefficient packed at index, leaving it reduced
+     */
+    private static void accumulate(long[] slab, int index, long numer, long denom){
+        long sumNumer = addNumerator(slab[index], slab[index + 1], numer, denom);
+        long sumDenom = addDenominator(slab[index + 1], denom);
+        long g = Rational.gcd(sumNumer, sumDenom);
+        slab[index] = sumNumer / g;
+        slab[index + 1] = sumDenom / g;
+    }
+
+    /**
+     * numerator of a/b + c/d over the denominator given by addDenominator, which is the lcm of b and d
+     */
+    private static long addNumerator(long a, long b, long c, long d){
+        long g = Rational.gcd(b, d);
+        return Math.addExact(Math.multiplyExact(a, d / g), Math.multiplyExact(c, b / g));
+    }
+
+    private static long addDenominator(long b, long d){
+        return Math.multiplyExact(b / Rational.gcd(b, d), d);
+    }
+}
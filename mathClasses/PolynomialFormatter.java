@@ -0,0 +1,297 @@
+package mathClasses;
+
+/**
+ * Writes polynomials as text, either on one line or in the three line form with the fractions stacked.
+ * The text is built in one buffer that is sized up front, so formatting takes time proportional to its length.
+ * Long polynomials can be truncated to their first and last few terms, which is useful for logging.
+ * Instances of PolynomialFormatter are immutable, so one formatter can be shared between threads
+ */
+public class PolynomialFormatter {
+    /**
+     * formatter that writes every term
+     */
+    public static final PolynomialFormatter FULL = new PolynomialFormatter();
+
+    private static final String ELLIPSIS = "...";
+
+    /**
+     * number of lowest order terms written when truncating
+     */
+    private final int headTerms;
+
+    /**
+     * number of highest order terms written when truncating
+     */
+    private final int tailTerms;
+
+    private final boolean truncate;
+
+    /**
+     * constructs a formatter that writes every term
+     */
+    public PolynomialFormatter(){
+        headTerms = 0;
+        tailTerms = 0;
+        truncate = false;
+    }
+
+    /**
+     * constructs a formatter that only writes the first and last few terms of long polynomials.
+     * The terms in between are replaced with "..."
+     * @param headTerms number of lowest order terms to write
+     * @param tailTerms number of highest order terms to write
+     */
+    public PolynomialFormatter(int headTerms, int tailTerms){
+        if(headTerms < 0 || tailTerms < 0){
+            throw new IllegalStateException("Cannot write a negative number of terms");
+        }
+        this.headTerms = headTerms;
+        this.tailTerms = tailTerms;
+        truncate = true;
+    }
+
+    /**
+     * formats a polynomial on one line, lowest order term first
+     * @param poly polynomial being formatted
+     * @return string like 1/2 - 2/3*x + 1/1*x^2
+     */
+    public String oneLine(RationalPolynomial poly){
+        StringBuilder buffer = new StringBuilder(oneLineLength(poly.coefficients));
+        writeOneLine(poly.coefficients, buffer);
+        return buffer.toString();
+    }
+
+    /**
+     * formats a polynomial on one line and writes it to out
+     * @param poly polynomial being formatted
+     * @param out where the text is written
+     */
+    public void appendOneLine(RationalPolynomial poly, Appendable out){
+        if(out instanceof StringBuilder){
+            StringBuilder builder = (StringBuilder) out;
+            builder.ensureCapacity(builder.length() + oneLineLength(poly.coefficients));
+            writeOneLine(poly.coefficients, builder);
+            return;
+        }
+        write(oneLine(poly), out);
+    }
+
+    /**
+     * formats a polynomial on three lines, with the numerators above the denominators
+     * @param poly polynomial being formatted
+     * @return three lines separated by newlines
+     */
+    public String pretty(RationalPolynomial poly){
+        StringBuilder buffer = new StringBuilder(prettyLength(poly.coefficients));
+        writePretty(poly.coefficients, buffer);
+        return buffer.toString();
+    }
+
+    /**
+     * formats a polynomial on three lines and writes it to out
+     * @param poly polynomial being formatted
+     * @param out where the text is written
+     */
+    public void appendPretty(RationalPolynomial poly, Appendable out){
+        if(out instanceof StringBuilder){
+            StringBuilder builder = (StringBuilder) out;
+            builder.ensureCapacity(builder.length() + prettyLength(poly.coefficients));
+            writePretty(poly.coefficients, builder);
+            return;
+        }
+        write(pretty(poly), out);
+    }
+
+    private static void write(String text, Appendable out){
+        try{
+            out.append(text);
+        }catch(RuntimeException e){
+            throw e;
+        }catch(Exception e){
+            // Appendable can throw an IOException, which we catch as an Exception to avoid importing it
+            throw new IllegalStateException("Couldn't write the polynomial", e);
+        }
+    }
+
+    /**
+     * whether the term at index i is replaced by the ellipsis. Only the first replaced term writes it
+     */
+    private boolean isHidden(int i, int length){
+        return truncate && length > headTerms + tailTerms && i >= headTerms && i < length - tailTerms;
+    }
+
+    private void writeOneLine(Rational[] coefficients, StringBuilder out){
+        // absolute values are written so that we don't get a string like 1/2 - -2/3*x
+        for (int i = 0; i < coefficients.length; i++) {
+            if(isHidden(i, coefficients.length)){
+                if(i == headTerms){
+                    out.append(ELLIPSIS);
+                    if(tailTerms != 0){
+                        out.append(coefficients[coefficients.length - tailTerms].getSign() ? " - " : " + ");
+                    }
+                }
+                continue;
+            }
+
+            if(i == 0 && coefficients[0].getSign()){
+                out.append('-');
+            }
+            out.append(coefficients[i].getNumer()).append('/').append(coefficients[i].getDenom());
+            if(i == 1){
+                out.append("*x");
+            }else if(i > 1){
+                out.append("*x^").append(i);
+            }
+
+            if(i != coefficients.length - 1){
+                if(isHidden(i + 1, coefficients.length)){
+                    out.append(" + ");
+                }else{
+                    out.append(coefficients[i + 1].getSign() ? " - " : " + ");
+                }
+            }
+        }
+    }
+
+    private int oneLineLength(Rational[] coefficients){
+        int length = 0;
+        for (int i = 0; i < coefficients.length; i++) {
+            if(isHidden(i, coefficients.length)){
+                if(i == headTerms){
+                    length += ELLIPSIS.length() + (tailTerms != 0 ? 3 : 0);
+                }
+                continue;
+            }
+            if(i == 0 && coefficients[0].getSign()){
+                length++;
+            }
+            length += digits(coefficients[i].getNumer()) + 1 + digits(coefficients[i].getDenom());
+            if(i == 1){
+                length += 2;
+            }else if(i > 1){
+                length += 3 + digits(i);
+            }
+            if(i != coefficients.length - 1){
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Writes the numerators, the fraction bars with the powers of x, and the denominators one line after the other.
+     * Every term takes up the same width on all three lines, except that the last term doesn't pad the middle line
+     */
+    private void writePretty(Rational[] coefficients, StringBuilder out){
+        if(coefficients.length == 0){
+            out.append('0');
+            return;
+        }
+        writePrettyLine(coefficients, 0, out);
+        out.append('\n');
+        writePrettyLine(coefficients, 1, out);
+        out.append('\n');
+        writePrettyLine(coefficients, 2, out);
+    }
+
+    /**
+     * writes one of the three lines
+     * @param line 0 for the numerators, 1 for the fraction bars, 2 for the denominators
+     */
+    private void writePrettyLine(Rational[] coefficients, int line, StringBuilder out){
+        Rational current;
+        long number;
+        int numDigits;
+        int width;
+        String nextSign = "";
+        for (int i = 0; i < coefficients.length; i++) {
+            if(isHidden(i, coefficients.length)){
+                if(i == headTerms){
+                    if(line == 1){
+                        out.append(ELLIPSIS);
+                        if(tailTerms != 0){
+                            out.append(coefficients[coefficients.length - tailTerms].getSign() ? " - " : " + ");
+                        }
+                    }else{
+                        appendSpaces(ELLIPSIS.length() + (tailTerms != 0 ? 3 : 0), out);
+                    }
+                }
+                continue;
+            }
+
+            current = coefficients[i];
+            numDigits = Math.max(digits(current.getNumer()), digits(current.getDenom()));
+            if(i != coefficients.length - 1){
+                // the sign of the next term goes after this one
+                nextSign = isHidden(i + 1, coefficients.length) || !coefficients[i + 1].getSign() ? "+" : "-";
+            }
+
+            // a negative constant term gets its sign in front of it
+            if(i == 0 && current.getSign()){
+                out.append(line == 1 ? "- " : "  ");
+            }
+
+            // the width of a term is its fraction, the x with its exponent, and the sign of the next term
+            if(i == 0){
+                width = 3 + numDigits;
+            }else if(i == coefficients.length - 1 || i != 1){
+                width = 6 + digits(i) + numDigits;
+            }else{
+                width = 5 + numDigits;
+            }
+
+            if(line == 1){
+                for (int k = 0; k < numDigits; k++) {
+                    out.append('\u2014'); // emdash makes the fraction bar look nice
+                }
+                if(i == 1){
+                    out.append(" x");
+                }else if(i > 1){
+                    out.append(" x^").append(i);
+                }
+                if(i != coefficients.length - 1){
+                    out.append(' ').append(nextSign).append(' ');
+                }
+            }else{
+                number = line == 0 ? current.getNumer() : current.getDenom();
+                out.append(number);
+                appendSpaces(width - digits(number), out);
+            }
+        }
+    }
+
+    private int prettyLength(Rational[] coefficients){
+        if(coefficients.length == 0){
+            return 1;
+        }
+        int lineLength = 0;
+        for (int i = 0; i < coefficients.length; i++) {
+            if(isHidden(i, coefficients.length)){
+                if(i == headTerms){
+                    lineLength += ELLIPSIS.length() + 3;
+                }
+                continue;
+            }
+            lineLength += 6 + digits(i) + Math.max(digits(coefficients[i].getNumer()), digits(coefficients[i].getDenom()));
+        }
+        return 3 * lineLength + 2;
+    }
+
+    private static void appendSpaces(int n, StringBuilder out){
+        for (int i = 0; i < n; i++) {
+            out.append(' ');
+        }
+    }
+
+    /**
+     * number of characters needed to write a nonnegative number
+     */
+    private static int digits(long value){
+        int digits = 1;
+        while(value >= 10){
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+}
@@ -0,0 +1,26 @@
+package mathClasses;
+
+/**
+ * Thrown when text can't be read as a polynomial. Knows which character the problem was found at
+ */
+public class PolynomialParseException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * index of the character where the problem was found
+     */
+    private final int position;
+
+    /**
+     * @param message what was wrong
+     * @param position index of the character where the problem was found
+     */
+    public PolynomialParseException(String message, int position){
+        super(message + " at position " + position);
+        this.position = position;
+    }
+
+    public int getPosition(){
+        return position;
+    }
+}
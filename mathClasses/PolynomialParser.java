@@ -0,0 +1,325 @@
+package mathClasses;
+
+/**
+ * Reads polynomials from text like "3/4*x^5 - 2*x + 1/7".
+ * Terms can be in any order, the same power can show up more than once, and powers that are missing are zero.
+ * The '*' between a coefficient and x is optional, and spaces are allowed between any two parts of a term.
+ * Numbers are read straight into longs, and the coefficients are added into one array indexed by power,
+ * so no objects are made for the terms themselves
+ */
+public class PolynomialParser {
+    /**
+     * highest power that can be read, so that a typo can't ask for an enormous array
+     */
+    public static final int MAX_DEGREE = 1 << 24;
+
+    private final CharSequence text;
+
+    /**
+     * index of the next character to read
+     */
+    private int position;
+
+    /**
+     * whether coefficients are being added up as integers instead of Rationals
+     */
+    private final boolean integerMode;
+
+    /**
+     * coefficients read so far indexed by power. A null element means nothing has been read for that power
+     */
+    private Rational[] rationals;
+
+    /**
+     * coefficients read so far for integer polynomials. wideIntegers replaces integers once something doesn't fit in a long
+     */
+    private long[] integers;
+    private WideInteger[] wideIntegers;
+
+    /**
+     * one more than the highest power read so far
+     */
+    private int length;
+
+    /**
+     * last number read by readNumber. wideNumber holds it instead if it doesn't fit in a long, and is null otherwise
+     */
+    private long number;
+    private WideInteger wideNumber;
+
+    private PolynomialParser(CharSequence text, boolean integerMode){
+        this.text = text;
+        this.integerMode = integerMode;
+        position = 0;
+        length = 0;
+        if(integerMode){
+            integers = new long[4];
+        }else{
+            rationals = new Rational[4];
+        }
+    }
+
+    /**
+     * reads a polynomial with rational coefficients
+     * @param text polynomial such as "3/4*x^5 - 2*x + 1/7". A CharBuffer can be passed in directly
+     * @return polynomial
+     * @throws PolynomialParseException if the text isn't a polynomial, a number doesn't fit in a long,
+     * or the terms for some power add up to more than a Rational can hold
+     */
+    public static RationalPolynomial parse(CharSequence text){
+        PolynomialParser parser = new PolynomialParser(text, false);
+        parser.parsePolynomial();
+        Rational zero = new Rational(0);
+        Rational[] coefficients = new Rational[parser.length];
+        for (int i = 0; i < parser.length; i++) {
+            coefficients[i] = parser.rationals[i] == null ? zero : parser.rationals[i];
+        }
+        return RationalPolynomial.wrap(coefficients);
+    }
+
+    /**
+     * reads a polynomial with integer coefficients. Coefficients too large for a long are kept as WideIntegers
+     * @param text polynomial such as "12*x^3 - 5*x + 1"
+     * @return polynomial
+     * @throws PolynomialParseException if the text isn't a polynomial or has a fraction in it
+     */
+    public static IntegerPolynomial parseInteger(CharSequence text){
+        PolynomialParser parser = new PolynomialParser(text, true);
+        parser.parsePolynomial();
+        if(parser.wideIntegers != null){
+            WideInteger[] coefficients = new WideInteger[parser.length];
+            for (int i = 0; i < parser.length; i++) {
+                coefficients[i] = parser.wideIntegers[i] == null ? WideInteger.ZERO : parser.wideIntegers[i];
+            }
+            return IntegerPolynomial.valueOf(coefficients);
+        }
+        long[] coefficients = new long[parser.length];
+        for (int i = 0; i < parser.length; i++) {
+            coefficients[i] = parser.integers[i];
+        }
+        return new IntegerPolynomial(coefficients);
+    }
+
+    private void parsePolynomial(){
+        skipSpaces();
+        if(isAtEnd()){
+            throw new PolynomialParseException("Expected a term", position);
+        }
+        boolean negative;
+        boolean first = true;
+        while(!isAtEnd()){
+            negative = false;
+            if(peek() == '+' || peek() == '-'){
+                negative = peek() == '-';
+                position++;
+                skipSpaces();
+            }else if(!first){
+                throw new PolynomialParseException("Expected + or -", position);
+            }
+            parseTerm(negative);
+            first = false;
+            skipSpaces();
+        }
+    }
+
+    /**
+     * reads something like 3/4*x^5, 2x, x, or 1/7
+     * @param negative whether the term had a minus sign in front of it
+     */
+    private void parseTerm(boolean negative){
+        long numerator = 1;
+        WideInteger wideNumerator = null;
+        long denominator = 1;
+        boolean hasCoefficient = false;
+        int termStart = position;
+        int start;
+
+        if(isDigit()){
+            start = position;
+            readNumber();
+            numerator = number;
+            wideNumerator = wideNumber;
+            if(wideNumerator != null && !integerMode){
+                throw new PolynomialParseException("Number doesn't fit in a long", start);
+            }
+            hasCoefficient = true;
+            skipSpaces();
+
+            if(!isAtEnd() && peek() == '/'){
+                if(integerMode){
+                    throw new PolynomialParseException("Integer polynomials can't have fractions", position);
+                }
+                position++;
+                skipSpaces();
+                start = position;
+                if(!isDigit()){
+                    throw new PolynomialParseException("Expected a denominator", position);
+                }
+                readNumber();
+                if(wideNumber != null){
+                    throw new PolynomialParseException("Number doesn't fit in a long", start);
+                }
+                if(number == 0){
+                    throw new PolynomialParseException("Denominator can't be 0", start);
+                }
+                denominator = number;
+                skipSpaces();
+            }
+
+            if(!isAtEnd() && peek() == '*'){
+                position++;
+                skipSpaces();
+                if(isAtEnd() || peek() != 'x'){
+                    throw new PolynomialParseException("Expected x", position);
+                }
+            }
+        }
+
+        int power = 0;
+        if(!isAtEnd() && peek() == 'x'){
+            position++;
+            power = 1;
+            skipSpaces();
+            if(!isAtEnd() && peek() == '^'){
+                position++;
+                skipSpaces();
+                start = position;
+                if(!isDigit()){
+                    throw new PolynomialParseException("Expected a power", position);
+                }
+                readNumber();
+                if(wideNumber != null || number > MAX_DEGREE){
+                    throw new PolynomialParseException("Power is larger than " + MAX_DEGREE, start);
+                }
+                power = (int) number;
+            }
+        }else if(!hasCoefficient){
+            throw new PolynomialParseException("Expected a number or x", position);
+        }
+
+        if(integerMode){
+            addInteger(power, negative, numerator, wideNumerator);
+        }else{
+            addRational(power, new Rational(negative ? -numerator : numerator, denominator), termStart);
+        }
+    }
+
+    /**
+     * @param termStart index of the term's first character, which is reported if the sum doesn't fit in a Rational
+     */
+    private void addRational(int power, Rational term, int termStart){
+        makeRoom(power);
+        if(rationals[power] == null){
+            rationals[power] = term;
+            return;
+        }
+        try{
+            rationals[power] = rationals[power].add(term);
+        }catch(ArithmeticException e){
+            throw new PolynomialParseException("Sum of the x^" + power + " terms doesn't fit in a Rational", termStart);
+        }
+    }
+
+    private void addInteger(int power, boolean negative, long term, WideInteger wideTerm){
+        makeRoom(power);
+        if(wideIntegers == null){
+            if(wideTerm == null){
+                try{
+                    integers[power] = Math.addExact(integers[power], negative ? -term : term);
+                    return;
+                }catch(ArithmeticException e){
+                    // the sum doesn't fit in a long
+                }
+            }
+            Metrics.count(Metrics.WIDE_PROMOTION);
+            ArithmeticEvents.promotion("parse", power);
+            wideIntegers = new WideInteger[integers.length];
+            for (int i = 0; i < length; i++) {
+                wideIntegers[i] = WideInteger.valueOf(integers[i]);
+            }
+            integers = null;
+        }
+        if(wideTerm == null){
+            wideTerm = WideInteger.valueOf(term);
+        }
+        if(negative){
+            wideTerm = wideTerm.negate();
+        }
+        wideIntegers[power] = wideIntegers[power] == null ? wideTerm : wideIntegers[power].add(wideTerm);
+    }
+
+    /**
+     * makes sure the coefficient arrays are long enough to hold the given power, doubling them if they aren't
+     */
+    private void makeRoom(int power){
+        int capacity = integerMode ? (wideIntegers != null ? wideIntegers.length : integers.length) : rationals.length;
+        if(power >= capacity){
+            int newCapacity = capacity;
+            while(newCapacity <= power){
+                newCapacity *= 2;
+            }
+            if(!integerMode){
+                Rational[] grown = new Rational[newCapacity];
+                for (int i = 0; i < length; i++) {
+                    grown[i] = rationals[i];
+                }
+                rationals = grown;
+            }else if(wideIntegers != null){
+                WideInteger[] grown = new WideInteger[newCapacity];
+                for (int i = 0; i < length; i++) {
+                    grown[i] = wideIntegers[i];
+                }
+                wideIntegers = grown;
+            }else{
+                long[] grown = new long[newCapacity];
+                for (int i = 0; i < length; i++) {
+                    grown[i] = integers[i];
+                }
+                integers = grown;
+            }
+        }
+        if(power >= length){
+            length = power + 1;
+        }
+    }
+
+    /**
+     * reads a run of digits into number, or into wideNumber if it doesn't fit in a long
+     * precond: the next character is a digit
+     */
+    private void readNumber(){
+        number = 0;
+        wideNumber = null;
+        int digit;
+        while(isDigit()){
+            digit = peek() - '0';
+            position++;
+            if(wideNumber == null){
+                if(number <= (Long.MAX_VALUE - digit) / 10){
+                    number = number * 10 + digit;
+                    continue;
+                }
+                wideNumber = WideInteger.valueOf(number);
+            }
+            wideNumber = wideNumber.multiply(10).add(WideInteger.valueOf(digit));
+        }
+    }
+
+    private void skipSpaces(){
+        while(!isAtEnd() && Character.isWhitespace(peek())){
+            position++;
+        }
+    }
+
+    private boolean isDigit(){
+        return !isAtEnd() && peek() >= '0' && peek() <= '9';
+    }
+
+    private boolean isAtEnd(){
+        return position >= text.length();
+    }
+
+    private char peek(){
+        return text.charAt(position);
+    }
+}
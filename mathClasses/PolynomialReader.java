@@ -0,0 +1,300 @@
+package mathClasses;
+
+/**
+ * Reads Rationals and RationalPolynomials written by PolynomialWriter.
+ * Reads straight out of the given array without copying it, and the header of a polynomial can be looked at
+ * without reading its coefficients
+ */
+public class PolynomialReader {
+    private final byte[] buffer;
+
+    /**
+     * index after the last byte that can be read
+     */
+    private final int end;
+
+    /**
+     * index of the next byte to read
+     */
+    private int position;
+
+    /**
+     * state of the polynomial whose terms are being gone through by nextTerm
+     */
+    private boolean termsSparse;
+    private int termsLength;
+    private long termsLeft;
+    private int termPower;
+
+    /**
+     * shared denominator of the polynomial being gone through, or 0 if each coefficient has its own
+     */
+    private long termDenominator;
+
+    /**
+     * reads a whole array
+     * @param buffer bytes written by PolynomialWriter. Not copied, so it shouldn't change while it's being read
+     */
+    public PolynomialReader(byte[] buffer){
+        this(buffer, 0, buffer.length);
+    }
+
+    /**
+     * reads part of an array
+     * @param buffer bytes written by PolynomialWriter. Not copied, so it shouldn't change while it's being read
+     * @param offset index of the first byte to read
+     * @param length how many bytes can be read
+     */
+    public PolynomialReader(byte[] buffer, int offset, int length){
+        if(offset < 0 || length < 0 || offset + length > buffer.length){
+            throw new IllegalStateException("Range doesn't fit in the buffer");
+        }
+        this.buffer = buffer;
+        this.position = offset;
+        this.end = offset + length;
+    }
+
+    public int getPosition(){
+        return position;
+    }
+
+    /**
+     * moves to another byte, such as the start of a polynomial found through an index
+     */
+    public void setPosition(int position){
+        if(position < 0 || position > end){
+            throw new IllegalStateException("Position " + position + " is outside of the buffer");
+        }
+        this.position = position;
+    }
+
+    public boolean hasRemaining(){
+        return position < end;
+    }
+
+    /**
+     * reads a varint
+     * @return number, which is unsigned
+     */
+    public long readVarLong(){
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do{
+            if(position >= end){
+                throw new IllegalStateException("Varint runs past the end of the buffer at byte " + position);
+            }
+            if(shift > 63){
+                throw new IllegalStateException("Varint is too long at byte " + position);
+            }
+            current = buffer[position++];
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        }while((current & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * reads a zig-zag varint
+     * @return signed number
+     */
+    public long readZigZag(){
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public Rational readRational(){
+        long numerator = readZigZag();
+        long denominator = readVarLong();
+        if(denominator == 0){
+            return numerator < 0 ? Rational.makeNegativeInfinity() : Rational.makePositiveInfinity();
+        }
+        return new Rational(numerator, denominator);
+    }
+
+    /**
+     * reads the number of coefficients of the next polynomial and leaves the position where it was
+     * @return number of coefficients, which is the degree plus one, or zero for the null polynomial
+     */
+    public int peekLength(){
+        int start = position;
+        readHeader();
+        int length = (int) readVarLong();
+        position = start;
+        return length;
+    }
+
+    /**
+     * moves past the next polynomial without building it
+     */
+    public void skipPolynomial(){
+        beginTerms();
+        skipTerms();
+    }
+
+    /**
+     * reads the next polynomial
+     * @return polynomial, which is built without any intermediate objects besides its coefficients
+     */
+    public RationalPolynomial readPolynomial(){
+        int length = beginTerms();
+        Rational[] coefficients = new Rational[length];
+        while(nextTerm()){
+            coefficients[termPower] = readCoefficient(termDenominator);
+        }
+        if(termsSparse){
+            Rational zero = new Rational(0);
+            for (int i = 0; i < length; i++) {
+                if(coefficients[i] == null){
+                    coefficients[i] = zero;
+                }
+            }
+        }
+        return RationalPolynomial.wrap(coefficients);
+    }
+
+    /**
+     * evaluates the next polynomial at a point straight from its bytes, without building the polynomial
+     * @param x point we evaluate at
+     * @return value of the polynomial at x
+     */
+    public Rational evaluatePolynomial(Rational x){
+        if(x.isInfinity()){
+            // only the leading term matters, which is easiest to get at from the polynomial itself
+            return readPolynomial().solve(x);
+        }
+        if(beginTerms() == 0){
+            throw new IllegalStateException("Cannot solve for a null polynomial");
+        }
+        Rational total = new Rational(0);
+        Rational power = new Rational(1);
+        int previousPower = 0;
+        while(nextTerm()){
+            // Rational.power doesn't give 1 for a power of 0, so only step up when the power actually changes
+            if(termPower > previousPower){
+                power = power.multiply(x.power(termPower - previousPower));
+                previousPower = termPower;
+            }
+            total = total.add(readCoefficient(termDenominator).multiply(power));
+        }
+        return total;
+    }
+
+    /**
+     * reads the derivative of the next polynomial, without building the polynomial itself
+     * @return derivative, which is zero for a constant
+     */
+    public RationalPolynomial readDerivative(){
+        int length = beginTerms();
+        if(length == 0){
+            throw new IllegalStateException("Can't take derivative of null polynomial");
+        }
+        Rational zero = new Rational(0);
+        if(length == 1){
+            skipTerms();
+            return new RationalPolynomial(zero);
+        }
+        Rational[] derivative = new Rational[length - 1];
+        Rational coefficient;
+        while(nextTerm()){
+            coefficient = readCoefficient(termDenominator);
+            if(termPower > 0){
+                derivative[termPower - 1] = coefficient.multiply(new Rational(termPower));
+            }
+        }
+        for (int i = 0; i < derivative.length; i++) {
+            if(derivative[i] == null){
+                derivative[i] = zero;
+            }
+        }
+        return RationalPolynomial.wrap(derivative);
+    }
+
+    /**
+     * reads the header of a polynomial and gets ready to go through its terms with nextTerm
+     * @return number of coefficients
+     */
+    private int beginTerms(){
+        int flags = readHeader();
+        termsSparse = (flags & PolynomialWriter.SPARSE) != 0;
+        termsLength = readLength(termsSparse);
+        termsLeft = termsSparse ? readVarLong() : termsLength;
+        if(termsLeft > termsLength){
+            throw new IllegalStateException("Polynomial has more terms than coefficients at byte " + position);
+        }
+        termDenominator = (flags & PolynomialWriter.SHARED_DENOMINATOR) != 0 ? readVarLong() : 0;
+        termPower = -1;
+        return termsLength;
+    }
+
+    /**
+     * moves on to the next term, after which its coefficient has to be read with readCoefficient
+     * @return false once there are no terms left
+     */
+    private boolean nextTerm(){
+        if(termsLeft == 0){
+            return false;
+        }
+        termsLeft--;
+        long power = termsSparse ? termPower + 1 + readVarLong() : termPower + 1;
+        // a huge gap wraps around to a negative number
+        if(power < 0 || power >= termsLength){
+            throw new IllegalStateException("Term is past the last coefficient at byte " + position);
+        }
+        termPower = (int) power;
+        return true;
+    }
+
+    private void skipTerms(){
+        while(nextTerm()){
+            readVarLong();
+            if(termDenominator == 0){
+                readVarLong();
+            }
+        }
+    }
+
+    /**
+     * @param denominator shared denominator, or 0 if each coefficient has its own
+     */
+    private Rational readCoefficient(long denominator){
+        long numerator = readZigZag();
+        if(denominator == 0){
+            denominator = readVarLong();
+            if(denominator == 0){
+                throw new IllegalStateException("Coefficient has a denominator of zero at byte " + position);
+            }
+        }
+        return new Rational(numerator, denominator);
+    }
+
+    /**
+     * reads the version and flags
+     * @return flags
+     */
+    private int readHeader(){
+        if(end - position < 2){
+            throw new IllegalStateException("Polynomial header runs past the end of the buffer at byte " + position);
+        }
+        int version = buffer[position];
+        if(version != PolynomialWriter.VERSION){
+            throw new IllegalStateException("Unknown polynomial format version " + version + " at byte " + position);
+        }
+        int flags = buffer[position + 1];
+        if((flags & ~(PolynomialWriter.SPARSE | PolynomialWriter.SHARED_DENOMINATOR)) != 0){
+            throw new IllegalStateException("Unknown polynomial flags " + flags + " at byte " + (position + 1));
+        }
+        position += 2;
+        return flags;
+    }
+
+    private int readLength(boolean sparse){
+        long length = readVarLong();
+        // every dense coefficient takes at least one byte, so a length longer than what's left is corrupt
+        long most = sparse ? PolynomialParser.MAX_DEGREE + 1L : end - position;
+        if(length > most){
+            throw new IllegalStateException("Polynomial claims " + length + " coefficients at byte " + position);
+        }
+        return (int) length;
+    }
+}
@@ -0,0 +1,169 @@
+package mathClasses;
+
+/**
+ * Append-only store of many polynomials kept in their binary form (see PolynomialWriter) in one byte array,
+ * with an index of where each one starts. Polynomials are looked up by the id append gave them.
+ * The degree, value at a point, and derivative of a stored polynomial are worked out straight from its bytes,
+ * and a RationalPolynomial is only built when get is called.
+ * The whole store can be turned into bytes and back, so it can be saved and loaded by whatever does the file handling.
+ * All methods are synchronized, so one store can be shared between threads
+ */
+public class PolynomialStore {
+    /**
+     * encoded polynomials one after another
+     */
+    private final PolynomialWriter data;
+
+    /**
+     * offsets[id] is where polynomial id starts in data
+     */
+    private int[] offsets;
+
+    private int size;
+
+    public PolynomialStore(){
+        data = new PolynomialWriter(1024);
+        offsets = new int[16];
+        size = 0;
+    }
+
+    /**
+     * loads a store from bytes made by toByteArray, rebuilding the index by skipping over each polynomial
+     * @param bytes encoded polynomials one after another. Copied, so it can be changed afterwards
+     * @return store holding the polynomials in the same order
+     */
+    public static PolynomialStore fromByteArray(byte[] bytes){
+        PolynomialStore store = new PolynomialStore();
+        PolynomialReader reader = new PolynomialReader(bytes);
+        int start;
+        while(reader.hasRemaining()){
+            start = reader.getPosition();
+            reader.skipPolynomial();
+            store.appendBytes(bytes, start, reader.getPosition());
+        }
+        return store;
+    }
+
+    /**
+     * gets every stored polynomial as bytes, which can be loaded again with fromByteArray
+     */
+    public synchronized byte[] toByteArray(){
+        return data.toByteArray();
+    }
+
+    /**
+     * adds a polynomial to the end of the store
+     * @param poly polynomial being stored
+     * @return id of the polynomial, which is how many polynomials were stored before it
+     */
+    public synchronized int append(RationalPolynomial poly){
+        int id = nextId();
+        data.writePolynomial(poly);
+        return id;
+    }
+
+    public synchronized int getSize(){
+        return size;
+    }
+
+    /**
+     * gets how many bytes the stored polynomials take up
+     */
+    public synchronized int getByteSize(){
+        return data.getSize();
+    }
+
+    /**
+     * builds a stored polynomial
+     * @param id id given by append
+     * @return polynomial
+     */
+    public synchronized RationalPolynomial get(int id){
+        return readerAt(id).readPolynomial();
+    }
+
+    /**
+     * gets the degree of a stored polynomial from its header, without reading its coefficients
+     * @param id id given by append
+     * @return degree of polynomial
+     */
+    public synchronized int getDegree(int id){
+        int length = readerAt(id).peekLength();
+        if(length == 0){
+            throw new ArithmeticException("zero polynomial doesn't have a degree");
+        }
+        // the zero polynomial is the only one with one coefficient that could be zero
+        if(length == 1 && readerAt(id).readPolynomial().isZero()){
+            throw new ArithmeticException("zero polynomial doesn't have a degree");
+        }
+        return length - 1;
+    }
+
+    /**
+     * evaluates a stored polynomial at a point straight from its bytes
+     * @param id id given by append
+     * @param x point we evaluate at
+     * @return value of the polynomial at x
+     */
+    public synchronized Rational evaluate(int id, Rational x){
+        return readerAt(id).evaluatePolynomial(x);
+    }
+
+    /**
+     * evaluates every stored polynomial at the same point in one pass over the bytes
+     * @param x point we evaluate at
+     * @return array where the ith element is the value of polynomial i at x
+     */
+    public synchronized Rational[] evaluateAll(Rational x){
+        Rational[] values = new Rational[size];
+        PolynomialReader reader = new PolynomialReader(data.getBuffer(), 0, data.getSize());
+        for (int i = 0; i < size; i++) {
+            values[i] = reader.evaluatePolynomial(x);
+        }
+        return values;
+    }
+
+    /**
+     * takes the derivative of a stored polynomial straight from its bytes and stores it
+     * @param id id given by append
+     * @return id of the derivative
+     */
+    public synchronized int appendDerivative(int id){
+        return append(readerAt(id).readDerivative());
+    }
+
+    private PolynomialReader readerAt(int id){
+        if(id < 0 || id >= size){
+            throw new IllegalStateException("No polynomial with id " + id);
+        }
+        PolynomialReader reader = new PolynomialReader(data.getBuffer(), 0, data.getSize());
+        reader.setPosition(offsets[id]);
+        return reader;
+    }
+
+    /**
+     * copies an already encoded polynomial into the store
+     */
+    private void appendBytes(byte[] bytes, int from, int to){
+        nextId();
+        for (int i = from; i < to; i++) {
+            data.writeByte(bytes[i]);
+        }
+    }
+
+    /**
+     * records that a polynomial starts at the end of data
+     * @return id of that polynomial
+     */
+    private int nextId(){
+        if(size == offsets.length){
+            int[] grown = new int[2 * offsets.length];
+            for (int i = 0; i < size; i++) {
+                grown[i] = offsets[i];
+            }
+            offsets = grown;
+        }
+        offsets[size] = data.getSize();
+        return size++;
+    }
+}
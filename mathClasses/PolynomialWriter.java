@@ -0,0 +1,279 @@
+package mathClasses;
+
+/**
+ * Writes Rationals and RationalPolynomials in a compact binary format, read back with PolynomialReader.
+ * Integers are written as varints, 7 bits per byte with the high bit set on every byte but the last, and signed
+ * integers are zig-zag encoded first so that small negative numbers stay short.
+ *
+ * A polynomial is written as
+ *   version byte, flags byte, varint number of coefficients, [varint number of nonzero terms if SPARSE],
+ *   [varint denominator if SHARED_DENOMINATOR], then the terms
+ * Dense polynomials write every coefficient in order. Sparse ones only write the nonzero coefficients, each one
+ * after a varint gap of how many zero coefficients were skipped. A coefficient is a zig-zag numerator followed by a
+ * varint denominator, or only the numerator over the shared denominator. Whichever layout is smallest is picked.
+ *
+ * Everything is written straight into one growable byte array, and reset() lets the same array be reused
+ */
+public class PolynomialWriter {
+    public static final int VERSION = 1;
+
+    /**
+     * flag for only writing nonzero coefficients
+     */
+    public static final int SPARSE = 1;
+
+    /**
+     * flag for writing every coefficient over one denominator
+     */
+    public static final int SHARED_DENOMINATOR = 2;
+
+    private byte[] buffer;
+
+    private int size;
+
+    public PolynomialWriter(){
+        this(64);
+    }
+
+    /**
+     * @param capacity how many bytes there's room for before the buffer has to grow
+     */
+    public PolynomialWriter(int capacity){
+        buffer = new byte[capacity > 0 ? capacity : 1];
+        size = 0;
+    }
+
+    /**
+     * gets how many bytes have been written
+     */
+    public int getSize(){
+        return size;
+    }
+
+    /**
+     * forgets everything written so far but keeps the buffer, so writing again doesn't allocate
+     */
+    public void reset(){
+        size = 0;
+    }
+
+    /**
+     * gets the bytes that have been written
+     * @return new array holding exactly getSize() bytes
+     */
+    public byte[] toByteArray(){
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = buffer[i];
+        }
+        return bytes;
+    }
+
+    /**
+     * gets the array being written into without copying it. Only the first getSize() bytes mean anything, and the
+     * array is replaced whenever it has to grow
+     */
+    byte[] getBuffer(){
+        return buffer;
+    }
+
+    /**
+     * writes one byte as is, such as when copying bytes that are already encoded
+     */
+    void writeByte(byte value){
+        ensureRoom(1);
+        buffer[size++] = value;
+    }
+
+    /**
+     * writes a nonnegative number as a varint
+     * @param value number, which is treated as unsigned
+     */
+    public void writeVarLong(long value){
+        ensureRoom(10);
+        while((value & ~0x7FL) != 0){
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    /**
+     * writes a signed number as a zig-zag varint, which maps 0, -1, 1, -2, ... to 0, 1, 2, 3, ...
+     */
+    public void writeZigZag(long value){
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * writes a rational as its signed numerator and its denominator. Infinity is written with a denominator of zero
+     */
+    public void writeRational(Rational rational){
+        if(rational.isInfinity()){
+            writeZigZag(rational.getSign() ? -1 : 1);
+            writeVarLong(0);
+            return;
+        }
+        writeZigZag(signedNumerator(rational));
+        writeVarLong(rational.getDenom());
+    }
+
+    /**
+     * writes a polynomial, using whichever of the dense, sparse, and shared denominator layouts is smallest
+     * @param poly polynomial being written. Can be the null polynomial
+     */
+    public void writePolynomial(RationalPolynomial poly){
+        Rational[] coefficients = poly.coefficients;
+        long denominator = sharedDenominator(coefficients);
+        int flags = chooseLayout(coefficients, denominator);
+        int nonzero = countNonzero(coefficients);
+
+        ensureRoom(encodedSize(coefficients, denominator, flags, nonzero));
+        buffer[size++] = (byte) VERSION;
+        buffer[size++] = (byte) flags;
+        writeVarLong(coefficients.length);
+        if((flags & SPARSE) != 0){
+            writeVarLong(nonzero);
+        }
+        if((flags & SHARED_DENOMINATOR) != 0){
+            writeVarLong(denominator);
+        }
+
+        int previous = -1;
+        for (int i = 0; i < coefficients.length; i++) {
+            if((flags & SPARSE) != 0){
+                if(coefficients[i].getNumer() == 0){
+                    continue;
+                }
+                writeVarLong(i - previous - 1);
+                previous = i;
+            }
+            if((flags & SHARED_DENOMINATOR) != 0){
+                writeZigZag(signedNumerator(coefficients[i]) * (denominator / coefficients[i].getDenom()));
+            }else{
+                writeZigZag(signedNumerator(coefficients[i]));
+                writeVarLong(coefficients[i].getDenom());
+            }
+        }
+    }
+
+    /**
+     * gets how many bytes writePolynomial would write, without writing anything
+     */
+    public static int encodedSize(RationalPolynomial poly){
+        long denominator = sharedDenominator(poly.coefficients);
+        return encodedSize(poly.coefficients, denominator, chooseLayout(poly.coefficients, denominator), countNonzero(poly.coefficients));
+    }
+
+    /**
+     * picks the flags for the smallest layout
+     * @param denominator shared denominator, or 0 if there isn't one that fits in a long
+     */
+    private static int chooseLayout(Rational[] coefficients, long denominator){
+        int nonzero = countNonzero(coefficients);
+        int best = 0;
+        int bestSize = encodedSize(coefficients, denominator, 0, nonzero);
+        int size;
+        for (int flags = 1; flags <= (SPARSE | SHARED_DENOMINATOR); flags++) {
+            if((flags & SHARED_DENOMINATOR) != 0 && denominator == 0){
+                continue;
+            }
+            size = encodedSize(coefficients, denominator, flags, nonzero);
+            if(size < bestSize){
+                best = flags;
+                bestSize = size;
+            }
+        }
+        return best;
+    }
+
+    private static int encodedSize(Rational[] coefficients, long denominator, int flags, int nonzero){
+        int size = 2 + varLongSize(coefficients.length);
+        if((flags & SPARSE) != 0){
+            size += varLongSize(nonzero);
+        }
+        if((flags & SHARED_DENOMINATOR) != 0){
+            size += varLongSize(denominator);
+        }
+        int previous = -1;
+        for (int i = 0; i < coefficients.length; i++) {
+            if((flags & SPARSE) != 0){
+                if(coefficients[i].getNumer() == 0){
+                    continue;
+                }
+                size += varLongSize(i - previous - 1);
+                previous = i;
+            }
+            if((flags & SHARED_DENOMINATOR) != 0){
+                size += zigZagSize(signedNumerator(coefficients[i]) * (denominator / coefficients[i].getDenom()));
+            }else{
+                size += zigZagSize(signedNumerator(coefficients[i])) + varLongSize(coefficients[i].getDenom());
+            }
+        }
+        return size;
+    }
+
+    /**
+     * finds the lcm of the denominators
+     * @return lcm, or 0 if the lcm or any numerator scaled up to it doesn't fit in a long
+     */
+    private static long sharedDenominator(Rational[] coefficients){
+        long denominator = 1;
+        try{
+            for (int i = 0; i < coefficients.length; i++) {
+                denominator = Math.multiplyExact(denominator / Rational.gcd(denominator, coefficients[i].getDenom()), coefficients[i].getDenom());
+            }
+            for (int i = 0; i < coefficients.length; i++) {
+                Math.multiplyExact(signedNumerator(coefficients[i]), denominator / coefficients[i].getDenom());
+            }
+        }catch(ArithmeticException e){
+            return 0;
+        }
+        return denominator;
+    }
+
+    private static int countNonzero(Rational[] coefficients){
+        int nonzero = 0;
+        for (int i = 0; i < coefficients.length; i++) {
+            if(coefficients[i].getNumer() != 0){
+                nonzero++;
+            }
+        }
+        return nonzero;
+    }
+
+    private static int varLongSize(long value){
+        int bytes = 1;
+        while((value & ~0x7FL) != 0){
+            value >>>= 7;
+            bytes++;
+        }
+        return bytes;
+    }
+
+    private static int zigZagSize(long value){
+        return varLongSize((value << 1) ^ (value >> 63));
+    }
+
+    private static long signedNumerator(Rational rational){
+        return rational.getSign() ? -rational.getNumer() : rational.getNumer();
+    }
+
+    /**
+     * grows the buffer so there's room for at least n more bytes
+     */
+    private void ensureRoom(int n){
+        if(size + n <= buffer.length){
+            return;
+        }
+        int capacity = buffer.length;
+        while(capacity < size + n){
+            capacity *= 2;
+        }
+        byte[] grown = new byte[capacity];
+        for (int i = 0; i < size; i++) {
+            grown[i] = buffer[i];
+        }
+        buffer = grown;
+    }
+}
@@ -0,0 +1,182 @@
+package mathClasses;
+
+import dataStructures.DoublyLinkedListIterator;
+import dataStructures.Pair;
+
+/**
+ * Class that iterates over the coefficients of a ProductOfPolynomial, lowest order first, without expanding it.
+ * If P_j is the product of the constant and the first j factors then P_j[n] = sum over t of f_j[t] * P_(j-1)[n - t],
+ * so each coefficient only needs the last deg(f_j) + 1 coefficients of the level below it. Only those are kept
+ */
+public class ProductCoefficientIterator {
+    /**
+     * coefficients of each factor, lowest order first. A factor with multiplicity m shows up m times
+     */
+    private final Rational[][] factors;
+
+    /**
+     * history[j] holds the most recent coefficients of P_j as a ring buffer, where P_0 is the constant.
+     * It's long enough to hold everything level j + 1 needs
+     */
+    private final Rational[][] history;
+
+    private final Rational constant;
+
+    private final int degree;
+
+    /**
+     * power of x the iterator is currently on
+     */
+    private int power;
+
+    private Rational current;
+
+    /**
+     * constructs an iterator on the constant term of a product
+     * @param product product being expanded. Later changes to it don't affect the iterator, and its cursor isn't moved
+     */
+    public ProductCoefficientIterator(ProductOfPolynomial product){
+        Rational zero = new Rational(0);
+        constant = product.getConstant();
+
+        // walk the factors with a separate iterator so the product's cursor stays where the caller left it
+        DoublyLinkedListIterator<Pair<RationalPolynomial, Integer>> iterator = product.firstFactor();
+        int numFactors = 0;
+        while(!iterator.isAfter()){
+            numFactors += iterator.item().getSecond();
+            iterator.goForth();
+        }
+
+        Rational[][] coefficients = new Rational[numFactors][];
+        boolean isZero = constant.equals(zero);
+        int totalDegree = 0;
+        int index = 0;
+        iterator = product.firstFactor();
+        while(!iterator.isAfter()){
+            Rational[] factor = toArray(iterator.item().getFirst());
+            if(factor.length == 0){
+                isZero = true;
+            }
+            for (int i = 0; i < iterator.item().getSecond(); i++) {
+                coefficients[index] = factor;
+                totalDegree += factor.length - 1;
+                index++;
+            }
+            iterator.goForth();
+        }
+
+        if(isZero){
+            // a product of zero is the constant zero
+            factors = new Rational[0][];
+            this.degree = 0;
+        }else{
+            factors = coefficients;
+            this.degree = totalDegree;
+        }
+
+        history = new Rational[factors.length + 1][];
+        for (int j = 0; j <= factors.length; j++) {
+            history[j] = new Rational[j < factors.length ? factors[j].length : 1];
+            for (int i = 0; i < history[j].length; i++) {
+                history[j][i] = zero;
+            }
+        }
+        power = -1;
+        goForth();
+    }
+
+    /**
+     * gets the coefficient the iterator is on
+     * @return coefficient of x^getPower()
+     */
+    public Rational currentRational(){
+        if(isAfter()){
+            throw new IllegalStateException("Iterator is past the last coefficient");
+        }
+        return current;
+    }
+
+    /**
+     * gets which power of x the current coefficient belongs to
+     */
+    public int getPower(){
+        return power;
+    }
+
+    /**
+     * gets the degree of the whole product
+     */
+    public int getDegree(){
+        return degree;
+    }
+
+    public boolean isLast(){
+        return power == degree;
+    }
+
+    public boolean isAfter(){
+        return power > degree;
+    }
+
+    /**
+     * moves on to the next coefficient. Each step takes time proportional to the degree of the product
+     */
+    public void goForth(){
+        if(isAfter()){
+            throw new IllegalStateException("Cannot go to the next item while already after");
+        }
+        power++;
+        if(isAfter()){
+            current = null;
+            return;
+        }
+
+        Rational zero = new Rational(0);
+        Rational value = power == 0 ? constant : zero;
+        push(0, value);
+        Rational[] factor;
+        Rational[] below;
+        for (int j = 1; j <= factors.length; j++) {
+            factor = factors[j - 1];
+            below = history[j - 1];
+            value = zero;
+            // below[(power - t) mod length] is P_(j-1)[power - t]
+            for (int t = 0; t < factor.length && t <= power; t++) {
+                if(!factor[t].equals(zero)){
+                    value = value.add(factor[t].multiply(below[(power - t) % below.length]));
+                }
+            }
+            push(j, value);
+        }
+        current = value;
+    }
+
+    private void push(int level, Rational value){
+        history[level][power % history[level].length] = value;
+    }
+
+    /**
+     * coefficients of a polynomial without trailing zeroes. The zero polynomial has no coefficients
+     */
+    private static Rational[] toArray(RationalPolynomial poly){
+        Rational zero = new Rational(0);
+        RationalPolyIterator iterator = poly.getIterator();
+        int length = 0;
+        int i = 0;
+        iterator.goFirst();
+        while(!iterator.isAfter()){
+            i++;
+            if(!iterator.currentRational().equals(zero)){
+                length = i;
+            }
+            iterator.goForth();
+        }
+        Rational[] coefficients = new Rational[length];
+        iterator.goFirst();
+        for (int k = 0; k < length; k++) {
+            coefficients[k] = iterator.currentRational();
+            iterator.goForth();
+        }
+        return coefficients;
+    }
+}
@@ -2,16 +2,19 @@ package mathClasses;
 
 import dataStructures.DoublyLinkedList;
 import dataStructures.DoublyLinkedListIterator;
+import dataStructures.Pair;
 import mathClasses.RationalOperations.RationalOperationOutput;
 
 /**
  * product of many distinct RationalPolynomials
+ * Each factor is stored with how many times it appears in the product. Multiplying, taking powers, gcds, lcms, and
+ * checking equality all work on the factors directly, and the product is only expanded by multiplyTogether()
  */
 public class ProductOfPolynomial implements RationalOperationOutput {
     /**
-     * Collections of all polynomials in the full producty
+     * Collections of all polynomials in the full producty, each paired with its multiplicity
      */
-    private DoublyLinkedList<RationalPolynomial> listOfPolys;
+    private DoublyLinkedList<Pair<RationalPolynomial, Integer>> listOfPolys;
 
     /**
      * Constant by which this polynomial is scaled by
@@ -27,37 +30,289 @@ public class ProductOfPolynomial implements RationalOperationOutput {
         this.constant = constant;
         listOfPolys = new DoublyLinkedList<>();
         for(RationalPolynomial x : polys){
-            listOfPolys.insert(x);
+            listOfPolys.insert(new Pair<>(x, 1));
         }
     }
 
+    /**
+     * Products of fewer factors than this are multiplied on the calling thread since handing work to the pool costs more than it saves
+     */
+    private static final int PARALLEL_THRESHOLD = 8;
+
     /**
      * multiply all the polynomials in this product together
+     * Each factor is raised to its multiplicity by repeated squaring, and then the powers are multiplied pairwise in a
+     * balanced tree so both sides of each multiplication grow at the same rate
      * @return RationalPolynomial representing the product of all terms
      */
     public RationalPolynomial multiplyTogether(){
-        DoublyLinkedListIterator<RationalPolynomial> iterator = listOfPolys.getIterator();
         if(listOfPolys.getSize() == 0){
             return new RationalPolynomial(constant);
         }
 
-        // iterate through all polynomials and multiply them all into the final product
+        // factors that were cancelled out while comparing have a multiplicity of zero, and don't get a leaf
+        int numLeaves = 0;
+        DoublyLinkedListIterator<Pair<RationalPolynomial, Integer>> iterator = listOfPolys.getIterator();
+        iterator.goFirst();
+        while(!iterator.isAfter()){
+            if(iterator.item().getSecond() > 0){
+                numLeaves++;
+            }
+            iterator.goForth();
+        }
+        if(numLeaves == 0){
+            return new RationalPolynomial(constant);
+        }
+
+        RationalPolynomial[] factors = new RationalPolynomial[numLeaves];
+        int[] multiplicities = new int[numLeaves];
+        int leaf = 0;
         iterator.goFirst();
-        RationalPolynomial product = new RationalPolynomial(constant);
         while(!iterator.isAfter()){
-            product = product.multiply(iterator.item());
+            if(iterator.item().getSecond() > 0){
+                factors[leaf] = iterator.item().getFirst();
+                multiplicities[leaf] = iterator.item().getSecond();
+                leaf++;
+            }
             iterator.goForth();
         }
+
+        // each split hands half of the work to the shared pool, and halves the number of threads left for its subtrees
+        int numWorkers = factors.length < PARALLEL_THRESHOLD ? 1 : WorkerPool.getShared().getThreadCount() + 1;
+        SubtreeProduct root = new SubtreeProduct(factors, multiplicities, 0, factors.length, numWorkers);
+        root.run();
+        return new RationalPolynomial(constant).multiply(root.product);
+    }
+
+    /**
+     * Multiplies factors[start..end-1] together with a balanced product tree, where each leaf is a factor raised to its
+     * multiplicity. If more than one thread is allowed, the two subtrees are handed to the shared WorkerPool together
+     */
+    private static class SubtreeProduct implements Runnable{
+        private final RationalPolynomial[] factors;
+        private final int[] multiplicities;
+        private final int start;
+        private final int end;
+        private final int numWorkers;
+
+        private RationalPolynomial product;
+
+        SubtreeProduct(RationalPolynomial[] factors, int[] multiplicities, int start, int end, int numWorkers){
+            this.factors = factors;
+            this.multiplicities = multiplicities;
+            this.start = start;
+            this.end = end;
+            this.numWorkers = numWorkers;
+        }
+
+        public void run(){
+            product = multiply(start, end, numWorkers);
+        }
+
+        private RationalPolynomial multiply(int from, int to, int workers){
+            if(to - from == 1){
+                return power(factors[from], multiplicities[from]);
+            }
+            int middle = (from + to) / 2;
+            if(workers < 2 || to - from < PARALLEL_THRESHOLD){
+                return multiply(from, middle, 1).multiply(multiply(middle, to, 1));
+            }
+
+            SubtreeProduct left = new SubtreeProduct(factors, multiplicities, from, middle, workers - workers / 2);
+            SubtreeProduct right = new SubtreeProduct(factors, multiplicities, middle, to, workers / 2);
+            WorkerPool.getShared().runAll(new Runnable[]{left, right});
+            return left.product.multiply(right.product);
+        }
+    }
+
+    /**
+     * raises a polynomial to a power by repeated squaring
+     * @param poly polynomial being raised
+     * @param k positive exponent
+     * @return poly^k
+     */
+    private static RationalPolynomial power(RationalPolynomial poly, int k){
+        RationalPolynomial result = null;
+        RationalPolynomial square = poly;
+        while(true){
+            if((k & 1) == 1){
+                result = result == null ? square : result.multiply(square);
+            }
+            k >>= 1;
+            if(k == 0){
+                return result;
+            }
+            square = square.multiply(square);
+        }
+    }
+
+    /**
+     * gets an iterator over the coefficients of the expanded product, lowest order first.
+     * Coefficients are worked out one at a time as the iterator moves, so the full product is never built
+     * @return iterator on the constant term
+     */
+    public ProductCoefficientIterator getCoefficientIterator(){
+        return new ProductCoefficientIterator(this);
+    }
+
+    /**
+     * expands the product modulo x^k, which only needs the lowest k coefficients
+     * @param k positive number of coefficients to keep
+     * @return expanded product with every term of degree k or more removed
+     */
+    public RationalPolynomial truncate(int k){
+        if(k < 1){
+            throw new IllegalStateException("Must keep at least one coefficient");
+        }
+        ProductCoefficientIterator iterator = getCoefficientIterator();
+        int length = k < iterator.getDegree() + 1 ? k : iterator.getDegree() + 1;
+        Rational[] coefficients = new Rational[length];
+        for (int i = 0; i < length; i++) {
+            coefficients[i] = iterator.currentRational();
+            iterator.goForth();
+        }
+        return new RationalPolynomial(coefficients);
+    }
+
+    /**
+     * finds one coefficient of the expanded product without building the rest of it
+     * @param power nonnegative power of x
+     * @return coefficient of x^power
+     */
+    public Rational getCoefficient(int power){
+        if(power < 0){
+            throw new IllegalStateException("Polynomials don't have negative powers");
+        }
+        ProductCoefficientIterator iterator = getCoefficientIterator();
+        if(power > iterator.getDegree()){
+            return new Rational(0);
+        }
+        while(iterator.getPower() < power){
+            iterator.goForth();
+        }
+        return iterator.currentRational();
+    }
+
+    /**
+     * multiplies two products without expanding either of them
+     * @param other product we multiply by
+     * @return product with the factors of both and the product of both constants
+     */
+    public ProductOfPolynomial multiply(ProductOfPolynomial other){
+        ProductOfPolynomial product = new ProductOfPolynomial(this.constant.multiply(other.constant));
+        product.appendFactors(this, 1);
+        product.appendFactors(other, 1);
         return product;
     }
 
+    /**
+     * raises this product to a power without expanding it
+     * @param k nonnegative exponent
+     * @return product whose multiplicities are k times the ones in this
+     */
+    public ProductOfPolynomial power(int k){
+        if(k < 0){
+            throw new ArithmeticException("Cannot raise a product of polynomials to a negative power");
+        }
+        if(k == 0){
+            return new ProductOfPolynomial(new Rational(1));
+        }
+        ProductOfPolynomial product = new ProductOfPolynomial(constant.power(k));
+        product.appendFactors(this, k);
+        return product;
+    }
+
+    /**
+     * greatest common divisor found by matching up factors and keeping the smaller multiplicity.
+     * precond: the factors of both products are irreducible, like the output of RationalFactoring. Otherwise common
+     * divisors hidden inside different factors are missed
+     * @param other other product
+     * @return monic greatest common divisor, as a product
+     */
+    public ProductOfPolynomial gcd(ProductOfPolynomial other){
+        ProductOfPolynomial first = this.canonicalize();
+        ProductOfPolynomial second = other.canonicalize();
+        // everything divides zero
+        if(first.constant.equals(new Rational(0))){
+            second.constant = new Rational(1);
+            return second;
+        }
+        if(second.constant.equals(new Rational(0))){
+            first.constant = new Rational(1);
+            return first;
+        }
+        return matchFactors(first, second, true);
+    }
+
+    /**
+     * lowest common multiple found by matching up factors and keeping the larger multiplicity.
+     * precond: the factors of both products are irreducible, like the output of RationalFactoring
+     * @param other other product
+     * @return monic lowest common multiple, as a product
+     */
+    public ProductOfPolynomial lcm(ProductOfPolynomial other){
+        ProductOfPolynomial first = this.canonicalize();
+        ProductOfPolynomial second = other.canonicalize();
+        if(first.constant.equals(new Rational(0)) || second.constant.equals(new Rational(0))){
+            return new ProductOfPolynomial(new Rational(0));
+        }
+        return matchFactors(first, second, false);
+    }
+
+    /**
+     * checks if two products are the same polynomial. Factors that show up in both are cancelled without being expanded.
+     * Only the factors left over, if any, are multiplied out and compared
+     * @param other other product
+     * @return whether both products expand to the same polynomial
+     */
     public boolean equals(ProductOfPolynomial other){
-        // TODO more efficient check where we compare the factors against eachother
-        // for now we'll just multiply each together and check if they're equal
-        RationalPolynomial first = this.multiplyTogether();
-        RationalPolynomial second = other.multiplyTogether();
+        ProductOfPolynomial first = this.canonicalize();
+        ProductOfPolynomial second = other.canonicalize();
 
-        return first.equals(second);
+        // with every factor monic the constant is the leading coefficient of the whole product
+        if(!first.constant.equals(second.constant)){
+            return false;
+        }
+        if(first.constant.equals(new Rational(0))){
+            return true;
+        }
+
+        // cancel the factors the two have in common
+        ProductOfPolynomial firstLeft = new ProductOfPolynomial(new Rational(1));
+        ProductOfPolynomial secondLeft = second.copyStructure();
+        secondLeft.constant = new Rational(1);
+        int firstDegree = 0;
+        int secondDegree = 0;
+        Pair<RationalPolynomial, Integer> match;
+        int remaining;
+        DoublyLinkedListIterator<Pair<RationalPolynomial, Integer>> iterator = first.firstFactor();
+        while(!iterator.isAfter()){
+            remaining = iterator.item().getSecond();
+            match = secondLeft.find(iterator.item().getFirst());
+            if(match != null){
+                int cancelled = remaining < match.getSecond() ? remaining : match.getSecond();
+                remaining -= cancelled;
+                match.setSecond(match.getSecond() - cancelled);
+            }
+            if(remaining > 0){
+                firstLeft.insertFactor(iterator.item().getFirst(), remaining);
+                firstDegree += remaining * iterator.item().getFirst().getDegree();
+            }
+            iterator.goForth();
+        }
+        iterator = secondLeft.firstFactor();
+        while(!iterator.isAfter()){
+            secondDegree += iterator.item().getSecond() * iterator.item().getFirst().getDegree();
+            iterator.goForth();
+        }
+
+        if(firstDegree != secondDegree){
+            return false;
+        }
+        if(firstDegree == 0){
+            return true;
+        }
+        return firstLeft.multiplyTogether().equals(secondLeft.multiplyTogether());
     }
 
     public int getSize(){
@@ -73,7 +328,19 @@ public class ProductOfPolynomial implements RationalOperationOutput {
     }
 
     public void insertFactor(RationalPolynomial poly){
-        listOfPolys.insert(poly);
+        insertFactor(poly, 1);
+    }
+
+    /**
+     * inserts a factor that appears multiple times in the product
+     * @param poly factor
+     * @param multiplicity how many times poly is multiplied in. Must be positive
+     */
+    public void insertFactor(RationalPolynomial poly, int multiplicity){
+        if(multiplicity < 1){
+            throw new IllegalStateException("A factor has to appear at least once");
+        }
+        listOfPolys.insert(new Pair<>(poly, multiplicity));
     }
 
     public void goFirst(){
@@ -97,17 +364,173 @@ public class ProductOfPolynomial implements RationalOperationOutput {
     }
 
     public RationalPolynomial getFactor(){
-        return listOfPolys.item().item();
+        return listOfPolys.item().item().getFirst();
+    }
+
+    /**
+     * gets how many times the current factor appears in the product
+     * @return multiplicity of the current factor
+     */
+    public int getMultiplicity(){
+        return listOfPolys.item().item().getSecond();
     }
 
     public String toString(){
         String outputString = constant.toString() + "\n";
+        if(listOfPolys.getSize() == 0){
+            return outputString;
+        }
         this.goFirst();
         while(!this.isAfter()){
             outputString += getFactor().toString() + "\n";
+            if(getMultiplicity() != 1){
+                outputString += "^" + getMultiplicity() + "\n";
+            }
             this.goForth();
         }
         return outputString;
     }
 
+    /**
+     * rewrites the product so every factor is monic with degree at least one, and no factor appears twice.
+     * Leading coefficients and constant factors are moved into the constant. A product equal to zero becomes
+     * the constant zero with no factors
+     * @return new product. The factors are new polynomials so this product isn't affected
+     */
+    private ProductOfPolynomial canonicalize(){
+        Rational zero = new Rational(0);
+        ProductOfPolynomial canonical = new ProductOfPolynomial(constant);
+        if(constant.equals(zero)){
+            return canonical;
+        }
+
+        RationalPolynomial factor;
+        Rational leading;
+        int multiplicity;
+        Pair<RationalPolynomial, Integer> match;
+        DoublyLinkedListIterator<Pair<RationalPolynomial, Integer>> iterator = firstFactor();
+        while(!iterator.isAfter()){
+            factor = iterator.item().getFirst();
+            multiplicity = iterator.item().getSecond();
+            iterator.goForth();
+            if(factor.equals(new RationalPolynomial(zero))){
+                return new ProductOfPolynomial(zero);
+            }
+            leading = factor.getLast();
+            canonical.constant = canonical.constant.multiply(leading.power(multiplicity));
+            if(factor.getDegree() == 0){
+                continue;
+            }
+            factor = factor.scale(leading.getInverse());
+            match = canonical.find(factor);
+            if(match != null){
+                match.setSecond(match.getSecond() + multiplicity);
+            }else{
+                canonical.insertFactor(factor, multiplicity);
+            }
+        }
+        return canonical;
+    }
+
+    /**
+     * gcd or lcm of two canonical products by keeping the smaller or larger multiplicity of each factor
+     */
+    private static ProductOfPolynomial matchFactors(ProductOfPolynomial first, ProductOfPolynomial second, boolean keepSmaller){
+        ProductOfPolynomial result = new ProductOfPolynomial(new Rational(1));
+        ProductOfPolynomial secondLeft = second.copyStructure();
+        Pair<RationalPolynomial, Integer> match;
+        int multiplicity;
+        DoublyLinkedListIterator<Pair<RationalPolynomial, Integer>> iterator = first.firstFactor();
+        while(!iterator.isAfter()){
+            multiplicity = iterator.item().getSecond();
+            match = secondLeft.find(iterator.item().getFirst());
+            if(match == null){
+                multiplicity = keepSmaller ? 0 : multiplicity;
+            }else{
+                // the gcd keeps the smaller multiplicity and the lcm keeps the larger one
+                if(keepSmaller){
+                    multiplicity = Math.min(multiplicity, match.getSecond());
+                }else{
+                    multiplicity = Math.max(multiplicity, match.getSecond());
+                }
+                // mark it as used so the second pass skips it
+                match.setSecond(0);
+            }
+            if(multiplicity > 0){
+                result.insertFactor(iterator.item().getFirst(), multiplicity);
+            }
+            iterator.goForth();
+        }
+        if(keepSmaller){
+            return result;
+        }
+        iterator = secondLeft.firstFactor();
+        while(!iterator.isAfter()){
+            if(iterator.item().getSecond() > 0){
+                result.insertFactor(iterator.item().getFirst(), iterator.item().getSecond());
+            }
+            iterator.goForth();
+        }
+        return result;
+    }
+
+    /**
+     * adds every factor of another product to the end of this one
+     * @param other product whose factors are added
+     * @param multiplier every multiplicity is multiplied by this
+     */
+    private void appendFactors(ProductOfPolynomial other, int multiplier){
+        DoublyLinkedListIterator<Pair<RationalPolynomial, Integer>> iterator = other.listOfPolys.getIterator();
+        if(other.listOfPolys.getSize() == 0){
+            return;
+        }
+        if(listOfPolys.getSize() != 0){
+            listOfPolys.goLast();
+        }
+        iterator.goFirst();
+        while(!iterator.isAfter()){
+            insertFactor(iterator.item().getFirst(), Math.multiplyExact(iterator.item().getSecond(), multiplier));
+            iterator.goForth();
+        }
+    }
+
+    /**
+     * copies the list of factors so the multiplicities can be changed. The polynomials themselves are shared
+     */
+    private ProductOfPolynomial copyStructure(){
+        ProductOfPolynomial copy = new ProductOfPolynomial(constant);
+        copy.appendFactors(this, 1);
+        return copy;
+    }
+
+    /**
+     * finds the entry holding a factor equal to poly
+     * @return the factor and its multiplicity, or null if poly isn't a factor
+     */
+    private Pair<RationalPolynomial, Integer> find(RationalPolynomial poly){
+        DoublyLinkedListIterator<Pair<RationalPolynomial, Integer>> iterator = listOfPolys.getIterator();
+        if(listOfPolys.getSize() == 0){
+            return null;
+        }
+        iterator.goFirst();
+        while(!iterator.isAfter()){
+            if(iterator.item().getFirst().equals(poly)){
+                return iterator.item();
+            }
+            iterator.goForth();
+        }
+        return null;
+    }
+
+    /**
+     * gets an iterator on the first factor, or one that is already after the end if there are no factors.
+     * It moves independently of the product's own cursor
+     */
+    DoublyLinkedListIterator<Pair<RationalPolynomial, Integer>> firstFactor(){
+        DoublyLinkedListIterator<Pair<RationalPolynomial, Integer>> iterator = listOfPolys.getIterator();
+        if(listOfPolys.getSize() != 0){
+            iterator.goFirst();
+        }
+        return iterator;
+    }
 }
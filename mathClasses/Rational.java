@@ -9,22 +9,22 @@ public class Rational implements Comparable<Rational>, RationalOperationOutput,
     /**
      * numerator for the given rational number
      */
-    private long numer;
+    private final long numer;
 
     /**
      * denominator for the given rational number
      */
-    private long denom;
+    private final long denom;
 
     /**
      * sign for the given rational number. 1 indicates a negative rational, and 0 indicates a positive rational
      */
-    private boolean sign;
+    private final boolean sign;
 
     /**
      * whether or not the rational is +- infinity
      */
-    private boolean infinity;
+    private final boolean infinity;
 
     /**
      * create a finite rational number
@@ -54,6 +54,21 @@ public class Rational implements Comparable<Rational>, RationalOperationOutput,
 
     }
 
+    /**
+     * creates a rational from parts that are already in lowest terms, without going through the gcd.
+     * Every field is final, so a Rational handed to another thread without locking is always seen whole
+     * @param numer nonnegative numerator
+     * @param denom positive denominator
+     * @param sign true for negative rationals
+     * @param infinity whether this is +- infinity
+     */
+    private Rational(long numer, long denom, boolean sign, boolean infinity){
+        this.numer = numer;
+        this.denom = denom;
+        this.sign = sign;
+        this.infinity = infinity;
+    }
+
     /**
      * create a finite rational number
      * @param numerator top of the fraction
@@ -79,15 +94,35 @@ public class Rational implements Comparable<Rational>, RationalOperationOutput,
      */
     public static Rational R(int n, int d){return new Rational((long) n, (long) d);}
 
+    /**
+     * create a finite rational number from integers that might not fit in a long
+     * @param numerator top of the fraction
+     * @param denominator bottom of the fraction
+     * @return new Rational in lowest terms
+     * @throws ArithmeticException if the fraction in lowest terms doesn't fit in a Rational
+     */
+    public static Rational valueOf(WideInteger numerator, WideInteger denominator){
+        if(denominator.isZero()){
+            throw new IllegalStateException("Denominator can't be 0");
+        }
+        WideInteger divisor = numerator.gcd(denominator);
+        if(!divisor.equals(WideInteger.ONE)){
+            numerator = numerator.divide(divisor);
+            denominator = denominator.divide(divisor);
+        }
+        // the magnitudes are stored as longs, so Long.MIN_VALUE doesn't fit either
+        if(numerator.bitLength() >= 64 || denominator.bitLength() >= 64){
+            throw new ArithmeticException("Fraction is too large to fit in a Rational");
+        }
+        return new Rational(numerator.toLong(), denominator.toLong());
+    }
+
     /**
      * Creates a positive infinity rational number
      * @return positive infinity
      */
     public static Rational makePositiveInfinity(){
-        Rational temp = new Rational(0,1);
-        temp.infinity = true;
-        temp.sign = false;
-        return temp;
+        return new Rational(0, 1, false, true);
     }
 
     /**
@@ -95,10 +130,7 @@ public class Rational implements Comparable<Rational>, RationalOperationOutput,
      * @return negative infinity
      */
     public static Rational makeNegativeInfinity(){
-        Rational temp = new Rational(0,1);
-        temp.infinity = true;
-        temp.sign = true;
-        return temp;
+        return new Rational(0, 1, true, true);
     }
 
     /**
@@ -141,6 +173,21 @@ public class Rational implements Comparable<Rational>, RationalOperationOutput,
         return new Rational(this.getNumer(), this.getDenom());
     }
 
+    /**
+     * get the additive inverse of this
+     * @return -this
+     */
+    public Rational negate(){
+        if(this.isInfinity()){
+            return this.getSign() ? makePositiveInfinity() : makeNegativeInfinity();
+        }
+        if(this.getNumer() == 0){
+            return this;
+        }
+        // already in lowest terms so there's no need to go through the gcd again
+        return new Rational(this.numer, this.denom, !this.sign, false);
+    }
+
     /**
      * get the multiplicitave inverse of this
      * @return inverse of this
@@ -157,6 +204,7 @@ public class Rational implements Comparable<Rational>, RationalOperationOutput,
      * @return greatest common denominator of the two numbers
      */
     public static long gcd(long num1, long num2){
+        Metrics.count(Metrics.RATIONAL_GCD);
         // makes it so gcdRecusrsive is called with larger number being the first parameter, and the smaller one being the second
         long newGcd;
         if(num1 > num2){
@@ -190,15 +238,21 @@ public class Rational implements Comparable<Rational>, RationalOperationOutput,
      */
     public static long lcm(long num1, long num2){
         // uses the fact that l * m = gcd(l,m) * lcm(l,m) => lcm(l,m) = l * m / gcd(l,m)
-        return num1 * num2 / gcd(num1, num2);
+        try{
+            return Math.multiplyExact(num1 / gcd(num1, num2), num2);
+        }catch(ArithmeticException e){
+            throw overflow("lcm");
+        }
     }
 
     /**
      * multiply the current rational number by a different one
      * @param other a rational number other than the current one
      * @return the product of the two rational numbers
+     * @throws ArithmeticException if the product doesn't fit in a Rational
      */
     public Rational multiply(Rational other) {
+        Metrics.count(Metrics.RATIONAL_MULTIPLY);
         // test to see if we're multiplying 0 by infinity
         if (this.equals(new Rational(0)) && other.isInfinity()) {
             throw new ArithmeticException("cannot multiply 0 by infinity");
@@ -224,14 +278,17 @@ public class Rational implements Comparable<Rational>, RationalOperationOutput,
         // reminder: ^ is logical xor, not exponentiation
         boolean newSign = this.getSign() ^ other.getSign();
 
-        // multiply the numerator and denominators
-        long newNum = this.getNumer() * other.getNumer();
-        long newDen = this.getDenom() * other.getDenom();
-
-        // reduce the numerator and denominator
-        long newGcd = gcd(newNum, newDen);
-        newNum = newNum / newGcd;
-        newDen = newDen / newGcd;
+        // cancel across before multiplying so the products are already in lowest terms and only overflow if they have to
+        long firstGcd = gcd(this.getNumer(), other.getDenom());
+        long secondGcd = gcd(other.getNumer(), this.getDenom());
+        long newNum;
+        long newDen;
+        try{
+            newNum = Math.multiplyExact(this.getNumer() / firstGcd, other.getNumer() / secondGcd);
+            newDen = Math.multiplyExact(this.getDenom() / secondGcd, other.getDenom() / firstGcd);
+        }catch(ArithmeticException e){
+            throw overflow("multiply");
+        }
         if (newSign) {
             return new Rational(-newNum, newDen);
         } else {
@@ -280,11 +337,16 @@ public class Rational implements Comparable<Rational>, RationalOperationOutput,
      * @param base long, usually a numerator or denominator
      * @param exp int, power
      * @return long which is the result of base^exp
+     * @throws ArithmeticException if the result doesn't fit in a long
      */
     protected static long pow(long base, int exp){
         long tempBase = 1;
-        for (int i = 0; i < exp; i++) {
-            tempBase = tempBase * base;
+        try{
+            for (int i = 0; i < exp; i++) {
+                tempBase = Math.multiplyExact(tempBase, base);
+            }
+        }catch(ArithmeticException e){
+            throw overflow("power");
         }
         return tempBase;
     }
@@ -293,6 +355,7 @@ public class Rational implements Comparable<Rational>, RationalOperationOutput,
      * divide the current rational number by a different one
      * @param other a rational number other than the current one
      * @return the dividend of the two rational numbers
+     * @throws ArithmeticException if the quotient doesn't fit in a Rational
      */
     public Rational divide(Rational other){
         // ensure we're not trying to divide by infinity
@@ -321,14 +384,17 @@ public class Rational implements Comparable<Rational>, RationalOperationOutput,
         int thisSign = this.getSign() ? -1 : 1;
         int otherSign = other.getSign() ? -1 : 1;
 
-        // inverse of multiplication
-        long newNum = thisSign * this.getNumer() * other.getDenom();
-        long newDen = otherSign * this.getDenom() * other.getNumer();
-
-        // reduce by gcd and return
-        long newGcd = gcd(newNum, newDen);
-        newNum = newNum/newGcd;
-        newDen = newDen/newGcd;
+        // inverse of multiplication, cancelling across first like multiply does
+        long numerGcd = gcd(this.getNumer(), other.getNumer());
+        long denomGcd = gcd(this.getDenom(), other.getDenom());
+        long newNum;
+        long newDen;
+        try{
+            newNum = Math.multiplyExact(thisSign * (this.getNumer() / numerGcd), other.getDenom() / denomGcd);
+            newDen = Math.multiplyExact(otherSign * (this.getDenom() / denomGcd), other.getNumer() / numerGcd);
+        }catch(ArithmeticException e){
+            throw overflow("divide");
+        }
         return new Rational(newNum, newDen);
     }
 
@@ -336,8 +402,10 @@ public class Rational implements Comparable<Rational>, RationalOperationOutput,
      * add the current rational number by a different one
      * @param other a rational number other than the current one
      * @return the sum of the two rational numbers
+     * @throws ArithmeticException if the sum doesn't fit in a Rational
      */
     public Rational add(Rational other){
+        Metrics.count(Metrics.RATIONAL_ADD);
         // if both are infinite
         if(this.isInfinity() && other.isInfinity()){
             // if trying: inf - inf or -inf + inf throw exception
@@ -366,21 +434,26 @@ public class Rational implements Comparable<Rational>, RationalOperationOutput,
 
         // case for finite numbers
 
-        // a   c   a * d + c * b
-        // - + - = -------------
-        // b   d       b * d
+        // a   c   a * (l / b) + c * (l / d)
+        // - + - = -------------------------   where l = lcm(b, d)
+        // b   d               l
 
         int thisSign = this.getSign() ? -1 : 1;
         int otherSign = other.getSign() ? -1 : 1;
 
-        // add like above
-        long newNum = thisSign * this.getNumer() * other.getDenom() + otherSign * this.getDenom() * other.getNumer();
-        long newDen = this.getDenom() * other.getDenom();
+        // add like above. Using the lcm instead of b * d keeps denominators like powers of two from overflowing
+        long denomGcd = gcd(this.getDenom(), other.getDenom());
+        long newNum;
+        long newDen;
+        try{
+            newNum = Math.addExact(Math.multiplyExact(thisSign * this.getNumer(), other.getDenom() / denomGcd),
+                    Math.multiplyExact(otherSign * (this.getDenom() / denomGcd), other.getNumer()));
+            newDen = Math.multiplyExact(this.getDenom() / denomGcd, other.getDenom());
+        }catch(ArithmeticException e){
+            throw overflow("add");
+        }
 
-        // reduce and return
-        long newGcd = gcd(newNum, newDen);
-        newNum = newNum/newGcd;
-        newDen = newDen/newGcd;
+        // the constructor reduces by the gcd
         return new Rational(newNum, newDen);
     }
 
@@ -467,9 +540,7 @@ public class Rational implements Comparable<Rational>, RationalOperationOutput,
      */
     public Rational subtract(Rational other){
         // flip sign of other then add them
-        Rational inverseOfOther = other.clone();
-        inverseOfOther.sign = !other.getSign();
-        return this.add(inverseOfOther);
+        return this.add(other.negate());
     }
 
     /**
@@ -503,13 +574,25 @@ public class Rational implements Comparable<Rational>, RationalOperationOutput,
 
         // case for if they're both finite
 
-        Rational difference = this.subtract(other);
-        // if this - other is negative then this < other
-        if(difference.getSign()){
-            return -1;
+        // if the signs are different then the negative one is smaller
+        if(this.getSign() != other.getSign()){
+            return this.getSign() ? -1 : 1;
+        }
+
+        //  a   c
+        //  - < -  <=> a * d < c * b
+        //  b   d
+        // the products are compared as 128 bit numbers so large denominators can't overflow
+        long thisHigh = Math.multiplyHigh(this.getNumer(), other.getDenom());
+        long otherHigh = Math.multiplyHigh(other.getNumer(), this.getDenom());
+        int magnitudeComparison;
+        if(thisHigh != otherHigh){
+            magnitudeComparison = thisHigh < otherHigh ? -1 : 1;
         }else{
-            return 1;
+            magnitudeComparison = Long.compareUnsigned(this.getNumer() * other.getDenom(), other.getNumer() * this.getDenom()) < 0 ? -1 : 1;
         }
+        // if both are negative then the one with the larger magnitude is smaller
+        return this.getSign() ? -magnitudeComparison : magnitudeComparison;
 
     }
 
@@ -597,6 +680,16 @@ public class Rational implements Comparable<Rational>, RationalOperationOutput,
         return sign * rat.getNumer();
     }
 
+    /**
+     * makes the exception thrown when the result of some arithmetic doesn't fit in a long, and reports the overflow
+     * to ArithmeticEvents
+     * @param operation name of the method that overflowed
+     */
+    private static ArithmeticException overflow(String operation){
+        ArithmeticEvents.overflow(operation);
+        return new ArithmeticException("Result of " + operation + " is too large to fit in a Rational");
+    }
+
     /**
      * clones the current polynomial
      * @return cloned Rational
@@ -0,0 +1,89 @@
+package mathClasses;
+
+import mathClasses.RationalOperations.RationalOperationOutput;
+
+/**
+ * Interval between two finite Rationals. Instances of RationalInterval are immutable
+ */
+public class RationalInterval implements RationalOperationOutput {
+    /**
+     * lower end of the interval
+     */
+    private final Rational lower;
+
+    /**
+     * upper end of the interval
+     */
+    private final Rational upper;
+
+    /**
+     * creates an interval between two rationals
+     * @param lower lower end of the interval
+     * @param upper upper end of the interval. Can't be less than lower
+     */
+    public RationalInterval(Rational lower, Rational upper){
+        if(lower.isInfinity() || upper.isInfinity()){
+            throw new ArithmeticException("Interval endpoints can't be infinite");
+        }
+        if(lower.compareTo(upper) > 0){
+            throw new IllegalStateException("Lower end of an interval can't be greater than the upper end");
+        }
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    /**
+     * creates an interval containing only one number
+     * @param point the only number in the interval
+     */
+    public RationalInterval(Rational point){
+        this(point, point);
+    }
+
+    public Rational getLower(){
+        return lower;
+    }
+
+    public Rational getUpper(){
+        return upper;
+    }
+
+    /**
+     * gets the distance between the two ends of the interval
+     * @return upper - lower
+     */
+    public Rational getWidth(){
+        return upper.subtract(lower);
+    }
+
+    /**
+     * whether the interval only contains a single number
+     * @return true if lower = upper
+     */
+    public boolean isExact(){
+        return lower.equals(upper);
+    }
+
+    /**
+     * checks whether a rational lies strictly between the two ends of the interval
+     * @param x rational we're checking
+     * @return true if lower < x < upper, or if the interval is exact and x = lower
+     */
+    public boolean contains(Rational x){
+        if(this.isExact()){
+            return lower.equals(x);
+        }
+        return lower.compareTo(x) < 0 && x.compareTo(upper) < 0;
+    }
+
+    public boolean equals(RationalInterval other){
+        return lower.equals(other.lower) && upper.equals(other.upper);
+    }
+
+    public String toString(){
+        if(this.isExact()){
+            return "[" + lower.toString() + "]";
+        }
+        return "(" + lower.toString() + ", " + upper.toString() + ")";
+    }
+}
@@ -0,0 +1,16 @@
+package mathClasses.RationalOperations;
+
+import mathClasses.RationalPolynomial;
+
+/**
+ * Work done to every polynomial of a batch, in place of building an Operation for each one
+ * @param <T> output type
+ */
+public interface BatchFunction<T extends RationalOperationOutput> {
+    /**
+     * @param poly polynomial from the batch
+     * @param scratch buffers belonging to the thread this is called on, which can be reused from one call to the next
+     * @return output for poly
+     */
+    T apply(RationalPolynomial poly, BatchScratch scratch);
+}
@@ -0,0 +1,69 @@
+package mathClasses.RationalOperations;
+
+import mathClasses.Rational;
+
+/**
+ * Buffers that belong to one thread of an OperationBatch and are kept from one polynomial to the next.
+ * Holds the small integers and their reciprocals that derivatives and integrals multiply coefficients by,
+ * so they're only made once per thread instead of once per coefficient
+ */
+public class BatchScratch {
+    /**
+     * integers[i] is i, and reciprocals[i] is 1/i. Filled in up to filled
+     */
+    private Rational[] integers;
+    private Rational[] reciprocals;
+    private int filled;
+
+    public BatchScratch(){
+        integers = new Rational[16];
+        reciprocals = new Rational[16];
+        integers[0] = new Rational(0);
+        filled = 1;
+    }
+
+    /**
+     * @param i nonnegative integer
+     * @return i as a Rational
+     */
+    public Rational integer(int i){
+        fillTo(i);
+        return integers[i];
+    }
+
+    /**
+     * @param i positive integer
+     * @return 1/i
+     */
+    public Rational reciprocal(int i){
+        if(i == 0){
+            throw new ArithmeticException("0 doesn't have a reciprocal");
+        }
+        fillTo(i);
+        return reciprocals[i];
+    }
+
+    private void fillTo(int i){
+        if(i < filled){
+            return;
+        }
+        if(i >= integers.length){
+            int capacity = integers.length;
+            while(capacity <= i){
+                capacity *= 2;
+            }
+            Rational[] grownIntegers = new Rational[capacity];
+            Rational[] grownReciprocals = new Rational[capacity];
+            for (int j = 0; j < filled; j++) {
+                grownIntegers[j] = integers[j];
+                grownReciprocals[j] = reciprocals[j];
+            }
+            integers = grownIntegers;
+            reciprocals = grownReciprocals;
+        }
+        for (; filled <= i; filled++) {
+            integers[filled] = new Rational(filled);
+            reciprocals[filled] = new Rational(1, filled);
+        }
+    }
+}
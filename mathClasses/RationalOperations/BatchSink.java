@@ -0,0 +1,13 @@
+package mathClasses.RationalOperations;
+
+/**
+ * Receives the outputs of an OperationBatch. Only called by one thread at a time
+ * @param <T> output type
+ */
+public interface BatchSink<T extends RationalOperationOutput> {
+    /**
+     * @param index position of the input the output belongs to, counting from 0
+     * @param output output for that input
+     */
+    void accept(long index, T output);
+}
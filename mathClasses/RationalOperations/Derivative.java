@@ -1,8 +1,8 @@
 package mathClasses.RationalOperations;
 
 import dataStructures.DoublyLinkedList;
+import mathClasses.Metrics;
 import mathClasses.Rational;
-import mathClasses.RationalPolyIterator;
 import mathClasses.RationalPolynomial;
 
 /**
@@ -15,7 +15,12 @@ public class Derivative extends Operation {
     }
 
     public void compute(){
-        getDerivative();
+        long start = Metrics.startTimer();
+        try{
+            getDerivative();
+        }finally{
+            Metrics.recordOperation(this, start);
+        }
     }
 
     public RationalPolynomial getOutput(){
@@ -23,27 +28,27 @@ public class Derivative extends Operation {
     }
 
     private void getDerivative(){
-        if(firstPoly.isNull()){
+        output = derivativeOf(firstPoly, new BatchScratch(), budget);
+    }
+
+    /**
+     * derivative of a polynomial, shared with OperationBatch
+     * @param poly polynomial
+     * @param scratch where the integers coefficients are multiplied by come from
+     * @param budget budget counted once per coefficient, or null
+     */
+    static RationalPolynomial derivativeOf(RationalPolynomial poly, BatchScratch scratch, OperationBudget budget){
+        if(poly.isNull()){
             throw new IllegalStateException("Can't take derivative of null polynomial");
         }
-
-        if(firstPoly.getDegree() == 0){ // derivative of a constant is zero
-            output = new RationalPolynomial(new Rational(0));
-        }else{
-            RationalPolyIterator iterator = firstPoly.getIterator();
-            iterator.goFirst();
-            iterator.goForth();
-            DoublyLinkedList<Rational> newPoly = new DoublyLinkedList<>();
-            int i = 1;
-            Rational currentRat;
-            while(!iterator.isAfter()){
-                currentRat = iterator.currentRational().multiply(new Rational(i));
-                newPoly.insert(currentRat);
-                iterator.goForth();
-                i++;
-            }
-            output = new RationalPolynomial(newPoly);
+        if(poly.isZero() || poly.getDegree() == 0){ // derivative of a constant is zero
+            return new RationalPolynomial(scratch.integer(0));
         }
-
+        Rational[] derivative = new Rational[poly.getDegree()];
+        for (int i = 1; i <= derivative.length; i++) {
+            OperationBudget.step(budget);
+            derivative[i - 1] = poly.getCoefficient(i).multiply(scratch.integer(i));
+        }
+        return new RationalPolynomial(derivative);
     }
 }
@@ -0,0 +1,249 @@
+package mathClasses.RationalOperations;
+
+import mathClasses.ProductOfPolynomial;
+import mathClasses.Rational;
+
+/**
+ * Bounded cache of factorizations, keyed by the canonical form of a polynomial: its primitive integer coefficients
+ * with a positive leading coefficient. Every polynomial that is a rational multiple of another shares its entry.
+ * When the cache is full the least recently used entry is evicted. All methods are synchronized, so one cache can
+ * be shared between threads
+ */
+public class FactorizationCache {
+    /**
+     * most factorizations that can be stored at once
+     */
+    private final int capacity;
+
+    /**
+     * hash table of entries, chained through Entry.nextInBucket. Length is a power of two
+     */
+    private final Entry[] buckets;
+
+    /**
+     * most and least recently used entries. Entries are linked from newest to oldest through Entry.older
+     */
+    private Entry newest;
+    private Entry oldest;
+
+    private int size;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * constructs an empty cache
+     * @param capacity most factorizations kept at once. Must be positive
+     */
+    public FactorizationCache(int capacity){
+        if(capacity < 1){
+            throw new IllegalStateException("Cache needs room for at least one factorization");
+        }
+        this.capacity = capacity;
+        int numBuckets = 1;
+        while(numBuckets < 2 * capacity){
+            numBuckets <<= 1;
+        }
+        buckets = new Entry[numBuckets];
+    }
+
+    /**
+     * looks up the factorization of a canonical polynomial, and marks it as the most recently used
+     * @param key primitive integer coefficients with a positive leading coefficient, lowest order first
+     * @param scaler constant the polynomial being factored is key multiplied by
+     * @return copy of the cached factorization with its constant multiplied by scaler, or null if it isn't cached
+     */
+    public synchronized ProductOfPolynomial lookup(long[] key, Rational scaler){
+        long hash = hash(key);
+        Entry entry = find(key, hash);
+        if(entry == null){
+            misses++;
+            return null;
+        }
+        hits++;
+        unlink(entry);
+        linkNewest(entry);
+        return copy(entry.factorization, scaler);
+    }
+
+    /**
+     * stores the factorization of a canonical polynomial, evicting the least recently used entry if the cache is full
+     * @param key primitive integer coefficients with a positive leading coefficient, lowest order first
+     * @param factorization factorization of key. A copy is stored so later changes to it don't affect the cache
+     */
+    public synchronized void store(long[] key, ProductOfPolynomial factorization){
+        long hash = hash(key);
+        Entry entry = find(key, hash);
+        if(entry != null){
+            // another thread factored the same polynomial at the same time
+            entry.factorization = copy(factorization, new Rational(1));
+            unlink(entry);
+            linkNewest(entry);
+            return;
+        }
+
+        if(size == capacity){
+            Entry evicted = oldest;
+            unlink(evicted);
+            removeFromBucket(evicted);
+            size--;
+            evictions++;
+        }
+
+        entry = new Entry(key.clone(), hash, copy(factorization, new Rational(1)));
+        int bucket = bucketOf(hash);
+        entry.nextInBucket = buckets[bucket];
+        buckets[bucket] = entry;
+        linkNewest(entry);
+        size++;
+    }
+
+    /**
+     * removes every factorization. The hit, miss, and eviction counts are kept
+     */
+    public synchronized void clear(){
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = null;
+        }
+        newest = null;
+        oldest = null;
+        size = 0;
+    }
+
+    public synchronized int getSize(){
+        return size;
+    }
+
+    public int getCapacity(){
+        return capacity;
+    }
+
+    /**
+     * gets how many lookups found a cached factorization
+     */
+    public synchronized long getHits(){
+        return hits;
+    }
+
+    /**
+     * gets how many lookups didn't find a cached factorization
+     */
+    public synchronized long getMisses(){
+        return misses;
+    }
+
+    /**
+     * gets how many factorizations were removed to make room for new ones
+     */
+    public synchronized long getEvictions(){
+        return evictions;
+    }
+
+    private Entry find(long[] key, long hash){
+        Entry entry = buckets[bucketOf(hash)];
+        while(entry != null){
+            if(entry.hash == hash && sameCoefficients(entry.key, key)){
+                return entry;
+            }
+            entry = entry.nextInBucket;
+        }
+        return null;
+    }
+
+    private int bucketOf(long hash){
+        return (int) (hash & (buckets.length - 1));
+    }
+
+    private void removeFromBucket(Entry entry){
+        int bucket = bucketOf(entry.hash);
+        if(buckets[bucket] == entry){
+            buckets[bucket] = entry.nextInBucket;
+            return;
+        }
+        Entry previous = buckets[bucket];
+        while(previous.nextInBucket != entry){
+            previous = previous.nextInBucket;
+        }
+        previous.nextInBucket = entry.nextInBucket;
+    }
+
+    private void linkNewest(Entry entry){
+        entry.newer = null;
+        entry.older = newest;
+        if(newest != null){
+            newest.newer = entry;
+        }
+        newest = entry;
+        if(oldest == null){
+            oldest = entry;
+        }
+    }
+
+    private void unlink(Entry entry){
+        if(entry.newer != null){
+            entry.newer.older = entry.older;
+        }else{
+            newest = entry.older;
+        }
+        if(entry.older != null){
+            entry.older.newer = entry.newer;
+        }else{
+            oldest = entry.newer;
+        }
+        entry.newer = null;
+        entry.older = null;
+    }
+
+    /**
+     * 64 bit hash of the coefficients. Every coefficient is mixed in so polynomials that only differ in one
+     * coefficient land in different buckets. Equal hashes are still checked coefficient by coefficient
+     */
+    private static long hash(long[] key){
+        long hash = key.length;
+        for (int i = 0; i < key.length; i++) {
+            hash = (hash ^ key[i]) * 0x9E3779B97F4A7C15L;
+            hash ^= hash >>> 29;
+        }
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    private static boolean sameCoefficients(long[] first, long[] second){
+        if(first.length != second.length){
+            return false;
+        }
+        for (int i = 0; i < first.length; i++) {
+            if(first[i] != second[i]){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * copies the structure of a factorization so that the copy can be changed freely. The factors themselves never
+     * change so they are shared. Multiplying goes over the factors with its own iterator, so the cursor of
+     * factorization stays where its owner left it
+     */
+    private static ProductOfPolynomial copy(ProductOfPolynomial factorization, Rational scaler){
+        return new ProductOfPolynomial(scaler).multiply(factorization);
+    }
+
+    /**
+     * A cached factorization. Each entry is in one hash bucket and in the recently used list at the same time
+     */
+    private static class Entry{
+        private final long[] key;
+        private final long hash;
+        private ProductOfPolynomial factorization;
+        private Entry nextInBucket;
+        private Entry newer;
+        private Entry older;
+
+        Entry(long[] key, long hash, ProductOfPolynomial factorization){
+            this.key = key;
+            this.hash = hash;
+            this.factorization = factorization;
+        }
+    }
+}
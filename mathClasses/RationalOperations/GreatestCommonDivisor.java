@@ -1,5 +1,8 @@
 package mathClasses.RationalOperations;
 
+import mathClasses.ArithmeticEvent;
+import mathClasses.ArithmeticEvents;
+import mathClasses.Metrics;
 import mathClasses.Rational;
 import mathClasses.RationalPolynomial;
 
@@ -13,7 +16,12 @@ public class GreatestCommonDivisor extends Operation {
     }
 
     public void compute(){
-        output = euclid();
+        long start = Metrics.startTimer();
+        try{
+            output = euclid();
+        }finally{
+            Metrics.recordOperation(this, start);
+        }
     }
 
     public RationalPolynomial getOutput(){
@@ -23,9 +31,9 @@ public class GreatestCommonDivisor extends Operation {
     private RationalPolynomial euclid(){
         RationalPolynomial gcd;
         if(firstPoly.getDegree() < secondPoly.getDegree()){
-            gcd = euclidRecursive(firstPoly, secondPoly);
+            gcd = euclid(firstPoly, secondPoly);
         }else{
-            gcd = euclidRecursive(secondPoly, firstPoly);
+            gcd = euclid(secondPoly, firstPoly);
         }
         // at this point it's true that the poly in 'gcd' divides both, but it is not unique
         // to make it unique we scale the poly so that it is monic, and positive
@@ -34,11 +42,24 @@ public class GreatestCommonDivisor extends Operation {
         return gcd;
     }
 
-    private static RationalPolynomial euclidRecursive(RationalPolynomial lessDegree, RationalPolynomial greaterDegree){
-        if(lessDegree.equals(new RationalPolynomial(new Rational(0,1)))){
-            return greaterDegree;
-        }else{
-            return euclidRecursive(greaterDegree.remainder(lessDegree), lessDegree);
+    /**
+     * euclidean algorithm, written as a loop so every remainder can be counted against the budget
+     */
+    private RationalPolynomial euclid(RationalPolynomial lessDegree, RationalPolynomial greaterDegree){
+        long start = Metrics.startTimer();
+        // the zero polynomial doesn't have a degree, so it's reported as -1
+        int firstDegree = greaterDegree.isZero() ? -1 : greaterDegree.getDegree();
+        int secondDegree = lessDegree.isZero() ? -1 : lessDegree.getDegree();
+        RationalPolynomial remainder;
+        int remainders = 0;
+        while(!lessDegree.isZero()){
+            checkedStep();
+            remainder = greaterDegree.remainder(lessDegree);
+            greaterDegree = lessDegree;
+            lessDegree = remainder;
+            remainders++;
         }
+        ArithmeticEvents.emit(ArithmeticEvent.GCD, "euclid", firstDegree, secondDegree, remainders, start);
+        return greaterDegree;
     }
 }
@@ -1,8 +1,8 @@
 package mathClasses.RationalOperations;
 
 import dataStructures.DoublyLinkedList;
+import mathClasses.Metrics;
 import mathClasses.Rational;
-import mathClasses.RationalPolyIterator;
 import mathClasses.RationalPolynomial;
 
 /**
@@ -17,7 +17,12 @@ public class Integrate extends Operation {
     }
 
     public void compute() {
-        output = getIntegral();
+        long start = Metrics.startTimer();
+        try{
+            output = getIntegral();
+        }finally{
+            Metrics.recordOperation(this, start);
+        }
     }
 
     public RationalPolynomial getOutput(){
@@ -25,19 +30,28 @@ public class Integrate extends Operation {
     }
 
     private RationalPolynomial getIntegral(){
-        if(firstPoly.isNull()){
+        return integralOf(firstPoly, new BatchScratch(), budget);
+    }
+
+    /**
+     * integral of a polynomial with a constant term of zero, shared with OperationBatch
+     * @param poly polynomial
+     * @param scratch where the reciprocals coefficients are multiplied by come from
+     * @param budget budget counted once per coefficient, or null
+     */
+    static RationalPolynomial integralOf(RationalPolynomial poly, BatchScratch scratch, OperationBudget budget){
+        if(poly.isNull()){
             throw new IllegalStateException("Can't compute integral of null polynomial");
         }
-        RationalPolyIterator iterator = firstPoly.getIterator();
-        DoublyLinkedList<Rational> newPoly = new DoublyLinkedList<>();
-        newPoly.insert(new Rational(0)); // TODO fix this after I implement generic scaler Rational terms
-        iterator.goFirst();
-        int i = 1;
-        Rational currentRat;
-        while(!iterator.isAfter()){
-            currentRat = iterator.currentRational().divide(new Rational(i));
-            newPoly.insert(currentRat);
+        if(poly.isZero()){
+            return new RationalPolynomial(scratch.integer(0));
+        }
+        Rational[] integral = new Rational[poly.getDegree() + 2];
+        integral[0] = scratch.integer(0); // TODO fix this after I implement generic scaler Rational terms
+        for (int i = 1; i < integral.length; i++) {
+            OperationBudget.step(budget);
+            integral[i] = poly.getCoefficient(i - 1).multiply(scratch.reciprocal(i));
         }
-        return new RationalPolynomial(newPoly);
+        return new RationalPolynomial(integral);
     }
 }
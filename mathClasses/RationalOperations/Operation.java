@@ -27,6 +27,16 @@ public abstract class Operation {
      */
     protected RationalOperationOutput output;
 
+    /**
+     * limits how long compute can run for, or null if it can take as long as it needs
+     */
+    protected OperationBudget budget;
+
+    /**
+     * what compute had worked out before its budget ran out, or null if it didn't stop early
+     */
+    protected RationalOperationOutput partialOutput;
+
     /**
      * constructs a new operation
      * @param firstPoly first input to the operation
@@ -70,6 +80,83 @@ public abstract class Operation {
      */
     public abstract void compute(); // the only requirement of compute is that it must set 'output' to the result of the computation
 
+    /**
+     * limits how long compute can run. Once the budget runs out compute throws an OperationStoppedException
+     * @param budget budget, which can be shared with other operations, or null to take as long as it needs
+     */
+    public void setBudget(OperationBudget budget){
+        this.budget = budget;
+    }
+
+    public OperationBudget getBudget(){
+        return budget;
+    }
+
+    /**
+     * gets what compute had worked out before its budget ran out, such as the factors found so far
+     * @return partial output, or null if compute didn't stop early or had nothing to report
+     */
+    public RationalOperationOutput getPartialOutput(){
+        return partialOutput;
+    }
+
+    /**
+     * counts one step of an inner loop against the budget
+     * @throws OperationStoppedException if the budget has run out
+     */
+    protected void step(){
+        OperationBudget.step(budget);
+    }
+
+    /**
+     * counts one step of an expensive loop, like one remainder of the euclidean algorithm, and always reads the clock
+     * @throws OperationStoppedException if the budget has run out
+     */
+    protected void checkedStep(){
+        OperationBudget.checkedStep(budget);
+    }
+
+    /**
+     * gets any input besides the two polynomials and the constant, so that an OperationSession doesn't mix up two
+     * operations that only differ in it. Subclasses with more inputs override this
+     * @return extra input, compared by identity, or null if there isn't one
+     */
+    protected Object getExtraInput(){
+        return null;
+    }
+
+    /**
+     * checks whether another operation is the same kind of operation on equal inputs, so it would give the same output
+     * @param other another operation
+     * @return whether the two are interchangeable
+     */
+    boolean sameInputs(Operation other){
+        return this.getClass() == other.getClass()
+                && samePolynomial(this.firstPoly, other.firstPoly)
+                && samePolynomial(this.secondPoly, other.secondPoly)
+                && (this.constant == null ? other.constant == null : other.constant != null && this.constant.equals(other.constant))
+                && this.getExtraInput() == other.getExtraInput();
+    }
+
+    /**
+     * hashes the kind of operation and its inputs in the same way sameInputs compares them
+     */
+    int inputHash(){
+        int result = getClass().getName().hashCode();
+        result = 31 * result + (firstPoly == null ? 0 : firstPoly.hashCode());
+        result = 31 * result + (secondPoly == null ? 0 : secondPoly.hashCode());
+        if(constant != null){
+            result = 31 * result + (constant.isInfinity() ? (constant.getSign() ? -1 : 1) : 0);
+            result = 31 * result + (constant.getSign() ? -1 : 1) * Long.hashCode(constant.getNumer());
+            result = 31 * result + Long.hashCode(constant.getDenom());
+        }
+        return 31 * result + System.identityHashCode(getExtraInput());
+    }
+
+    private static boolean samePolynomial(RationalPolynomial first, RationalPolynomial second){
+        return first == null ? second == null : second != null && (first == second || first.equals(second));
+    }
+
     /**
      * Retrieves the output of the operation.
      * @return output of operation
@@ -0,0 +1,350 @@
+package mathClasses.RationalOperations;
+
+import mathClasses.ProductOfPolynomial;
+import mathClasses.RationalPolynomial;
+import mathClasses.WorkerPool;
+
+/**
+ * Applies the same work to every polynomial from an Iterable, such as a million derivatives, without building an
+ * Operation for each one. Polynomials are read in windows of a fixed size, and a window is spread over the shared
+ * WorkerPool before the next one is read, so no more than one window of inputs and outputs is held at once however
+ * long the input is. Every task keeps its own BatchScratch for the whole run.
+ *
+ * Outputs go to a BatchSink, either in input order once each window is done, or as soon as each one is ready
+ * @param <T> output type
+ */
+public class OperationBatch<T extends RationalOperationOutput> {
+    /**
+     * derivatives, the same as Derivative gives
+     */
+    public static final BatchFunction<RationalPolynomial> DERIVATIVE = new DerivativeFunction();
+
+    /**
+     * integrals with a constant term of zero, the same as Integrate gives
+     */
+    public static final BatchFunction<RationalPolynomial> INTEGRATE = new IntegrateFunction();
+
+    /**
+     * factorizations, the same as RationalFactoring gives. Shares RationalFactoring's cache
+     */
+    public static final BatchFunction<ProductOfPolynomial> FACTORING = new FactoringFunction();
+
+    private final BatchFunction<T> function;
+
+    /**
+     * most tasks a window is split into, counting the thread that calls run. The pool decides how many run at once
+     */
+    private final int threads;
+
+    /**
+     * most polynomials read in at once
+     */
+    private final int window;
+
+    /**
+     * makes a batch with a thread for each processor and windows of 1024 polynomials
+     * @param function work done to every polynomial
+     */
+    public OperationBatch(BatchFunction<T> function){
+        this(function, Runtime.getRuntime().availableProcessors(), 1024);
+    }
+
+    /**
+     * @param function work done to every polynomial
+     * @param threads threads working at once, counting the one that calls run. 1 does everything on the calling thread
+     * @param window most polynomials held at once
+     */
+    public OperationBatch(BatchFunction<T> function, int threads, int window){
+        if(threads < 1 || window < 1){
+            throw new IllegalStateException("Batch needs at least one thread and room for at least one polynomial");
+        }
+        this.function = function;
+        this.threads = threads;
+        this.window = window;
+    }
+
+    /**
+     * batch of derivatives with the default threads and window
+     */
+    public static OperationBatch<RationalPolynomial> derivative(){
+        return new OperationBatch<>(DERIVATIVE);
+    }
+
+    /**
+     * batch of integrals with the default threads and window
+     */
+    public static OperationBatch<RationalPolynomial> integrate(){
+        return new OperationBatch<>(INTEGRATE);
+    }
+
+    /**
+     * batch of factorizations with the default threads and window
+     */
+    public static OperationBatch<ProductOfPolynomial> factoring(){
+        return new OperationBatch<>(FACTORING);
+    }
+
+    /**
+     * runs the batch
+     * @param inputs polynomials, only gone through once
+     * @param sink receives every output
+     * @param ordered whether outputs have to reach the sink in the same order as the inputs
+     * @return number of polynomials processed
+     * @throws RuntimeException the first exception the function threw. Windows after it aren't started
+     */
+    public long run(Iterable<RationalPolynomial> inputs, BatchSink<T> sink, boolean ordered){
+        Run<T> run = new Run<>(function, sink, ordered, window, threads);
+        for(RationalPolynomial poly: inputs){
+            run.add(poly);
+        }
+        return run.flush();
+    }
+
+    /**
+     * runs the batch over an array
+     * @param inputs polynomials
+     * @param sink receives every output
+     * @param ordered whether outputs have to reach the sink in the same order as the inputs
+     * @return number of polynomials processed
+     */
+    public long run(RationalPolynomial[] inputs, BatchSink<T> sink, boolean ordered){
+        Run<T> run = new Run<>(function, sink, ordered, window, threads);
+        for (int i = 0; i < inputs.length; i++) {
+            run.add(inputs[i]);
+        }
+        return run.flush();
+    }
+
+    /**
+     * runs the batch over an array and collects the outputs
+     * @param inputs polynomials
+     * @return array where the ith element is the output for the ith input
+     */
+    public RationalOperationOutput[] apply(RationalPolynomial ... inputs){
+        RationalOperationOutput[] outputs = new RationalOperationOutput[inputs.length];
+        run(inputs, new ArraySink<T>(outputs), false);
+        return outputs;
+    }
+
+    /**
+     * state of one call to run. Windows are worked through by tasks on the shared WorkerPool, each with its own
+     * BatchScratch that's kept from one window to the next. Fields the tasks share are guarded by the Run itself
+     */
+    private static class Run<T extends RationalOperationOutput> {
+        private final BatchFunction<T> function;
+        private final BatchSink<T> sink;
+        private final boolean ordered;
+
+        /**
+         * current window of inputs, and outputs in the same positions
+         */
+        private final RationalPolynomial[] items;
+        private final Object[] outputs;
+
+        /**
+         * one task for each thread working on a window, and the scratch each one uses
+         */
+        private final Runnable[] tasks;
+        private final BatchScratch[] scratches;
+
+        /**
+         * number of inputs in the window. Only changed by the calling thread while no one else is working
+         */
+        private int filled;
+
+        /**
+         * index of the next input in the window to hand out
+         */
+        private int claimed;
+
+        /**
+         * index of the first input of the window counting from the start of the batch
+         */
+        private long base;
+
+        /**
+         * number of inputs in earlier windows
+         */
+        private long processed;
+
+        /**
+         * first exception or error thrown by the function or the sink
+         */
+        private Throwable failure;
+
+        Run(BatchFunction<T> function, BatchSink<T> sink, boolean ordered, int window, int threads){
+            this.function = function;
+            this.sink = sink;
+            this.ordered = ordered;
+            items = new RationalPolynomial[window];
+            outputs = new Object[window];
+            int numTasks = threads < window ? threads : window;
+            tasks = new Runnable[numTasks];
+            scratches = new BatchScratch[numTasks];
+            for (int i = 0; i < numTasks; i++) {
+                scratches[i] = new BatchScratch();
+                tasks[i] = new Work<>(this, scratches[i]);
+            }
+        }
+
+        /**
+         * adds an input to the window, and processes the window once it's full
+         */
+        void add(RationalPolynomial poly){
+            items[filled++] = poly;
+            if(filled == items.length){
+                processed += process(processed);
+            }
+        }
+
+        /**
+         * processes whatever is left in the window
+         * @return number of inputs processed over the whole batch
+         */
+        long flush(){
+            if(filled > 0){
+                processed += process(processed);
+            }
+            return processed;
+        }
+
+        /**
+         * works through the window on the shared pool and hands the outputs to the sink
+         * @param base index of the first input of the window
+         * @return number of inputs in the window
+         */
+        @SuppressWarnings("unchecked")
+        int process(long base){
+            synchronized(this){
+                this.base = base;
+                claimed = 0;
+            }
+            if(tasks.length == 1 || filled == 1){
+                tasks[0].run();
+            }else{
+                WorkerPool.getShared().runAll(tasks);
+            }
+
+            synchronized(this){
+                if(failure instanceof RuntimeException){
+                    throw (RuntimeException) failure;
+                }
+                if(failure instanceof Error){
+                    throw (Error) failure;
+                }
+                if(failure != null){
+                    throw new IllegalStateException("Batch function failed", failure);
+                }
+                if(ordered){
+                    for (int i = 0; i < filled; i++) {
+                        sink.accept(base + i, (T) outputs[i]);
+                    }
+                }
+                int count = filled;
+                for (int i = 0; i < filled; i++) {
+                    // let go of the window so it can be collected while the next one is read
+                    items[i] = null;
+                    outputs[i] = null;
+                }
+                filled = 0;
+                return count;
+            }
+        }
+
+        /**
+         * takes inputs from the window until there are none left
+         */
+        void work(BatchScratch scratch){
+            int index = claim();
+            T output;
+            while(index >= 0){
+                output = null;
+                Throwable thrown = null;
+                try{
+                    output = function.apply(items[index], scratch);
+                }catch(Throwable e){
+                    // errors are recorded too, so they're thrown on the calling thread like any other failure
+                    thrown = e;
+                }
+                finish(index, output, thrown);
+                index = claim();
+            }
+        }
+
+        /**
+         * @return index of an input nobody has taken yet, or -1 if the window is used up
+         */
+        private synchronized int claim(){
+            if(failure != null || claimed >= filled){
+                return -1;
+            }
+            return claimed++;
+        }
+
+        private synchronized void finish(int index, T output, Throwable thrown){
+            if(thrown == null && !ordered && failure == null){
+                try{
+                    sink.accept(base + index, output);
+                }catch(Throwable e){
+                    thrown = e;
+                }
+            }
+            if(thrown != null){
+                if(failure == null){
+                    failure = thrown;
+                }
+            }else if(ordered){
+                outputs[index] = output;
+            }
+        }
+    }
+
+    /**
+     * one thread's share of a window
+     */
+    private static class Work<T extends RationalOperationOutput> implements Runnable {
+        private final Run<T> run;
+        private final BatchScratch scratch;
+
+        Work(Run<T> run, BatchScratch scratch){
+            this.run = run;
+            this.scratch = scratch;
+        }
+
+        public void run(){
+            run.work(scratch);
+        }
+    }
+
+    private static class DerivativeFunction implements BatchFunction<RationalPolynomial> {
+        public RationalPolynomial apply(RationalPolynomial poly, BatchScratch scratch){
+            return Derivative.derivativeOf(poly, scratch, null);
+        }
+    }
+
+    private static class IntegrateFunction implements BatchFunction<RationalPolynomial> {
+        public RationalPolynomial apply(RationalPolynomial poly, BatchScratch scratch){
+            return Integrate.integralOf(poly, scratch, null);
+        }
+    }
+
+    private static class FactoringFunction implements BatchFunction<ProductOfPolynomial> {
+        public ProductOfPolynomial apply(RationalPolynomial poly, BatchScratch scratch){
+            RationalFactoring factoring = new RationalFactoring(poly);
+            factoring.compute();
+            return factoring.getOutput();
+        }
+    }
+
+    private static class ArraySink<T extends RationalOperationOutput> implements BatchSink<T> {
+        private final RationalOperationOutput[] outputs;
+
+        ArraySink(RationalOperationOutput[] outputs){
+            this.outputs = outputs;
+        }
+
+        public void accept(long index, T output){
+            outputs[(int) index] = output;
+        }
+    }
+}
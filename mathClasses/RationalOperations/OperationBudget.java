@@ -0,0 +1,157 @@
+package mathClasses.RationalOperations;
+
+/**
+ * Limits how long an operation can run. An operation given a budget calls step() in its inner loops, which throws an
+ * OperationStoppedException once the budget has been cancelled, its deadline has passed, or it has run out of steps.
+ * Steps that cost much more than reading the clock call checkedStep() instead, so their deadline is always seen.
+ * One budget can be shared by several operations, or by the threads of one operation, and cancel() can be called from
+ * any thread. Steps taken on different threads at the same moment might not all be counted, so the step limit is only
+ * approximate when the budget is shared
+ */
+public class OperationBudget {
+    /**
+     * reasons an operation was stopped
+     */
+    public static final int CANCELLED = 1;
+    public static final int TIMED_OUT = 2;
+    public static final int OUT_OF_STEPS = 3;
+
+    /**
+     * the clock is only read once every this many steps, since reading it costs more than a step usually does
+     */
+    private static final int CLOCK_INTERVAL = 1024;
+
+    /**
+     * System.nanoTime() after which operations are stopped, or Long.MAX_VALUE if there's no deadline
+     */
+    private final long deadline;
+    private final boolean hasDeadline;
+
+    private final long maxSteps;
+
+    private long steps;
+
+    private volatile boolean cancelled;
+
+    /**
+     * reason the budget ran out, or 0 if it hasn't. Once set it stays set
+     */
+    private volatile int stopReason;
+
+    /**
+     * makes a budget that only stops when it's cancelled
+     */
+    public OperationBudget(){
+        this(-1, -1);
+    }
+
+    /**
+     * @param timeoutMillis how many milliseconds operations can run for, or a negative number for no deadline
+     * @param maxSteps how many steps operations can take, or a negative number for no limit
+     */
+    public OperationBudget(long timeoutMillis, long maxSteps){
+        hasDeadline = timeoutMillis >= 0;
+        deadline = hasDeadline ? System.nanoTime() + timeoutMillis * 1000000L : Long.MAX_VALUE;
+        this.maxSteps = maxSteps >= 0 ? maxSteps : Long.MAX_VALUE;
+        steps = 0;
+        cancelled = false;
+        stopReason = 0;
+    }
+
+    /**
+     * asks every operation using this budget to stop at its next step
+     */
+    public void cancel(){
+        cancelled = true;
+    }
+
+    public boolean isCancelled(){
+        return cancelled;
+    }
+
+    /**
+     * gets how many steps have been taken
+     */
+    public long getSteps(){
+        return steps;
+    }
+
+    /**
+     * gets why the budget ran out
+     * @return CANCELLED, TIMED_OUT, or OUT_OF_STEPS, or 0 if it hasn't run out
+     */
+    public int getStopReason(){
+        return stopReason;
+    }
+
+    /**
+     * counts one step of work
+     * @throws OperationStoppedException if the budget has run out
+     */
+    public void step(){
+        steps++;
+        if(cancelled){
+            stop(CANCELLED);
+        }
+        if(steps > maxSteps){
+            stop(OUT_OF_STEPS);
+        }
+        if(hasDeadline && steps % CLOCK_INTERVAL == 0 && System.nanoTime() - deadline > 0){
+            stop(TIMED_OUT);
+        }
+    }
+
+    /**
+     * counts one step of work that costs much more than reading the clock, such as a polynomial remainder or a
+     * bisection, and checks the deadline every time. step() only reads the clock now and then, so an operation
+     * taking a few of these would otherwise never see its deadline
+     * @throws OperationStoppedException if the budget has run out
+     */
+    public void checkedStep(){
+        steps++;
+        check();
+    }
+
+    /**
+     * checks the budget without counting a step, reading the clock every time. Used between big pieces of work
+     * @throws OperationStoppedException if the budget has run out
+     */
+    public void check(){
+        if(cancelled){
+            stop(CANCELLED);
+        }
+        if(steps > maxSteps){
+            stop(OUT_OF_STEPS);
+        }
+        if(hasDeadline && System.nanoTime() - deadline > 0){
+            stop(TIMED_OUT);
+        }
+    }
+
+    private void stop(int reason){
+        if(stopReason == 0){
+            stopReason = reason;
+        }
+        throw new OperationStoppedException(stopReason, null);
+    }
+
+    /**
+     * counts a step on a budget that might not be there
+     * @param budget budget, or null if the operation can run for as long as it needs
+     */
+    static void step(OperationBudget budget){
+        if(budget != null){
+            budget.step();
+        }
+    }
+
+    /**
+     * counts a step that always reads the clock on a budget that might not be there
+     * @param budget budget, or null if the operation can run for as long as it needs
+     */
+    static void checkedStep(OperationBudget budget){
+        if(budget != null){
+            budget.checkedStep();
+        }
+    }
+}
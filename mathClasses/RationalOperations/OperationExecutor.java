@@ -0,0 +1,188 @@
+package mathClasses.RationalOperations;
+
+/**
+ * Runs operations on a fixed number of worker threads and hands back an OperationFuture for each one, so callers
+ * don't have to manage threads themselves. Operations can be chained with OperationFuture.then, which queues the next
+ * one when the previous one finishes rather than blocking a thread on it.
+ *
+ * Workers are daemon threads, and close() lets them finish what's been submitted and then stops them.
+ * An executor with zero threads runs everything on the thread that submits it, which is handy for debugging
+ */
+public class OperationExecutor implements AutoCloseable {
+    private final Thread[] workers;
+
+    /**
+     * tasks waiting for a worker, oldest first
+     */
+    private Task head;
+    private Task tail;
+
+    /**
+     * number of tasks workers are in the middle of. Those can still queue up more work after close is called
+     */
+    private int running;
+
+    private boolean closed;
+
+    /**
+     * makes an executor with a worker for each processor
+     */
+    public OperationExecutor(){
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads number of worker threads. Zero runs every operation on the thread that submits it
+     */
+    public OperationExecutor(int threads){
+        if(threads < 0){
+            throw new IllegalStateException("Can't have a negative number of threads");
+        }
+        workers = new Thread[threads];
+        running = 0;
+        closed = false;
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(new Worker(), "operation-worker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * queues an operation to be computed
+     * @param operation operation that hasn't been computed yet. It shouldn't be touched until the future is done
+     * @param outputType output type of the operation, such as RationalPolynomial.class for a Derivative
+     * @param <T> output type of the operation
+     * @return future that gets the output of the operation, or what it threw. Fails with a ClassCastException if
+     * the output isn't an outputType
+     */
+    public <T extends RationalOperationOutput> OperationFuture<T> submit(Operation operation, Class<T> outputType){
+        synchronized(this){
+            if(closed){
+                throw new IllegalStateException("Executor has been closed");
+            }
+        }
+        OperationFuture<T> future = new OperationFuture<>(this, outputType);
+        execute(new OperationFuture.Computation<>(operation, future));
+        return future;
+    }
+
+    /**
+     * queues an operation to be computed when its output type doesn't matter
+     * @param operation operation that hasn't been computed yet
+     * @return future that gets the output of the operation, or what it threw
+     */
+    public OperationFuture<RationalOperationOutput> submit(Operation operation){
+        return submit(operation, RationalOperationOutput.class);
+    }
+
+    public synchronized boolean isClosed(){
+        return closed;
+    }
+
+    public int getThreadCount(){
+        return workers.length;
+    }
+
+    /**
+     * stops taking new operations. Operations that were already submitted, and anything chained onto them, still run
+     */
+    public void close(){
+        synchronized(this){
+            closed = true;
+            notifyAll();
+        }
+    }
+
+    /**
+     * waits for every worker to stop after close
+     */
+    public void awaitTermination(){
+        for (int i = 0; i < workers.length; i++) {
+            try{
+                workers[i].join();
+            }catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for workers to stop");
+            }
+        }
+    }
+
+    /**
+     * queues work, or runs it straight away if there aren't any workers. Chained work is still accepted after close
+     */
+    void execute(Runnable task){
+        if(workers.length == 0){
+            task.run();
+            return;
+        }
+        synchronized(this){
+            Task added = new Task(task);
+            if(tail == null){
+                head = added;
+            }else{
+                tail.next = added;
+            }
+            tail = added;
+            notify();
+        }
+    }
+
+    /**
+     * waits for the next task
+     * @return task, or null once the executor is closed and there's nothing left that could queue more work
+     */
+    private synchronized Runnable take(){
+        while(head == null){
+            if(closed && running == 0){
+                return null;
+            }
+            try{
+                wait();
+            }catch(InterruptedException e){
+                return null;
+            }
+        }
+        Task taken = head;
+        head = head.next;
+        if(head == null){
+            tail = null;
+        }
+        running++;
+        return taken.task;
+    }
+
+    private synchronized void finished(){
+        running--;
+        if(closed && running == 0){
+            // workers waiting on an empty queue can stop now
+            notifyAll();
+        }
+    }
+
+    private class Worker implements Runnable {
+        public void run(){
+            Runnable task = take();
+            while(task != null){
+                try{
+                    task.run();
+                }catch(Throwable e){
+                    // operations report their failures through their futures, so this can only be a bug in a step.
+                    // It's caught anyway so the worker keeps running
+                }finally{
+                    finished();
+                }
+                task = take();
+            }
+        }
+    }
+
+    private static class Task {
+        private final Runnable task;
+        private Task next;
+
+        Task(Runnable task){
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package mathClasses.RationalOperations;
+
+/**
+ * Output of an operation submitted to an OperationExecutor, which might not have been computed yet.
+ * get() waits for it, while then() chains on another operation without waiting on any thread.
+ * The future knows the output type it was asked for, and fails with a ClassCastException if the operation gives
+ * something else, so a wrong type shows up on this future instead of wherever its output is used
+ * @param <T> output type of the operation
+ */
+public class OperationFuture<T extends RationalOperationOutput> {
+    private final OperationExecutor executor;
+
+    private final Class<T> outputType;
+
+    private boolean done;
+
+    private T output;
+
+    /**
+     * exception or error the operation threw, rethrown by get
+     */
+    private Throwable failure;
+
+    /**
+     * work to hand to the executor once this is done, oldest first. Only used until then
+     */
+    private Continuation firstContinuation;
+    private Continuation lastContinuation;
+
+    OperationFuture(OperationExecutor executor, Class<T> outputType){
+        this.executor = executor;
+        this.outputType = outputType;
+        done = false;
+    }
+
+    /**
+     * waits for the operation to finish
+     * @return output of the operation
+     * @throws RuntimeException whatever the operation threw. Errors are rethrown as is
+     */
+    public synchronized T get(){
+        while(!done){
+            try{
+                wait();
+            }catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for an operation");
+            }
+        }
+        if(failure instanceof RuntimeException){
+            throw (RuntimeException) failure;
+        }
+        if(failure instanceof Error){
+            throw (Error) failure;
+        }
+        if(failure != null){
+            throw new IllegalStateException("Operation failed", failure);
+        }
+        return output;
+    }
+
+    public synchronized boolean isDone(){
+        return done;
+    }
+
+    /**
+     * whether the operation threw instead of finishing. Only meaningful once isDone is true
+     */
+    public synchronized boolean isFailed(){
+        return failure != null;
+    }
+
+    /**
+     * @return what the operation threw, or null if it didn't throw or hasn't finished
+     */
+    synchronized Throwable getFailure(){
+        return failure;
+    }
+
+    /**
+     * gets the output type this future was asked for
+     */
+    public Class<T> getOutputType(){
+        return outputType;
+    }
+
+    /**
+     * runs another operation built from this one's output once it's ready, on the same executor.
+     * Steps chained on the same future are started in the order they were added
+     * @param step builds the next operation, such as a GreatestCommonDivisor using this derivative
+     * @param outputType output type of the next operation, such as RationalPolynomial.class
+     * @param <U> output type of the next operation
+     * @return future of the next operation. Fails with the same exception if this one or the step fails
+     */
+    public <U extends RationalOperationOutput> OperationFuture<U> then(OperationStep<T> step, Class<U> outputType){
+        OperationFuture<U> next = new OperationFuture<>(executor, outputType);
+        whenDone(new ChainedStep<>(this, step, next));
+        return next;
+    }
+
+    /**
+     * runs another operation built from this one's output once it's ready, when its output type doesn't matter
+     * @param step builds the next operation
+     * @return future of the next operation
+     */
+    public OperationFuture<RationalOperationOutput> then(OperationStep<T> step){
+        return then(step, RationalOperationOutput.class);
+    }
+
+    /**
+     * @param task work to run on the executor once this is done, or straight away if it already is
+     */
+    void whenDone(Runnable task){
+        synchronized(this){
+            if(!done){
+                Continuation continuation = new Continuation(task);
+                if(lastContinuation == null){
+                    firstContinuation = continuation;
+                }else{
+                    lastContinuation.next = continuation;
+                }
+                lastContinuation = continuation;
+                return;
+            }
+        }
+        executor.execute(task);
+    }
+
+    void complete(T output){
+        finish(output, null);
+    }
+
+    /**
+     * completes the future with the output of an operation, or fails it if the output isn't of the type it was
+     * asked for
+     */
+    void completeChecked(RationalOperationOutput output){
+        if(output != null && !outputType.isInstance(output)){
+            fail(new ClassCastException("Operation gave a " + output.getClass().getSimpleName()
+                    + " but its future was asked for a " + outputType.getSimpleName()));
+            return;
+        }
+        complete(outputType.cast(output));
+    }
+
+    void fail(Throwable failure){
+        finish(null, failure);
+    }
+
+    private void finish(T output, Throwable failure){
+        Continuation waiting;
+        synchronized(this){
+            if(done){
+                throw new IllegalStateException("Operation has already finished");
+            }
+            this.output = output;
+            this.failure = failure;
+            done = true;
+            waiting = firstContinuation;
+            firstContinuation = null;
+            lastContinuation = null;
+            notifyAll();
+        }
+        // handed over outside of the lock so a continuation that runs right away can't deadlock on it
+        while(waiting != null){
+            executor.execute(waiting.task);
+            waiting = waiting.next;
+        }
+    }
+
+    /**
+     * runs an operation and completes a future with its output
+     */
+    static class Computation<T extends RationalOperationOutput> implements Runnable {
+        private final Operation operation;
+        private final OperationFuture<T> future;
+
+        Computation(Operation operation, OperationFuture<T> future){
+            this.operation = operation;
+            this.future = future;
+        }
+
+        public void run(){
+            RationalOperationOutput result;
+            try{
+                operation.compute();
+                result = operation.getOutput();
+            }catch(Throwable e){
+                // errors are caught too, otherwise get() would wait forever on a future that never finishes
+                future.fail(e);
+                return;
+            }
+            future.completeChecked(result);
+        }
+    }
+
+    /**
+     * builds the next operation from a finished future and runs it
+     */
+    private static class ChainedStep<T extends RationalOperationOutput, U extends RationalOperationOutput> implements Runnable {
+        private final OperationFuture<T> previous;
+        private final OperationStep<T> step;
+        private final OperationFuture<U> next;
+
+        ChainedStep(OperationFuture<T> previous, OperationStep<T> step, OperationFuture<U> next){
+            this.previous = previous;
+            this.step = step;
+            this.next = next;
+        }
+
+        public void run(){
+            Operation operation;
+            // previous is done by now, so this doesn't wait
+            if(previous.isFailed()){
+                next.fail(previous.getFailure());
+                return;
+            }
+            try{
+                operation = step.next(previous.get());
+            }catch(Throwable e){
+                next.fail(e);
+                return;
+            }
+            new Computation<>(operation, next).run();
+        }
+    }
+
+    /**
+     * queue of work waiting for a future to finish
+     */
+    private static class Continuation {
+        private final Runnable task;
+        private Continuation next;
+
+        Continuation(Runnable task){
+            this.task = task;
+        }
+    }
+}
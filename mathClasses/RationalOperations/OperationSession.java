@@ -0,0 +1,255 @@
+package mathClasses.RationalOperations;
+
+/**
+ * Graph of operations run on an OperationExecutor where each piece of work is only done once.
+ * An operation is remembered by its kind and inputs, so submitting a Derivative of the same polynomial a second time
+ * gives back the future of the first one, even if it hasn't finished yet. An operation that needs the output of
+ * another one declares that with then(), so every operation built from the derivative of p shares one Derivative
+ * node. Work inside an operation, like the integer form and square free part that root isolation and refinement both
+ * need, isn't a node. It's kept on the RationalPolynomial, so it's only shared between operations given the same
+ * polynomial object. Nodes that don't depend on each other run in parallel on the executor's workers.
+ *
+ * Results are kept for the life of the session, or until clear() is called. An operation that failed, for example
+ * because its OperationBudget stopped it, is forgotten the next time an equal one is submitted, so that one runs again.
+ * Everything asking for the same operation gets the same output object, so outputs like ProductOfPolynomial
+ * shouldn't be changed. That includes their cursors: goFirst and goForth move a cursor every reader shares, so readers
+ * should use methods like multiplyTogether, getCoefficient, or getCoefficientIterator instead. All methods are thread safe
+ */
+public class OperationSession {
+    private final OperationExecutor executor;
+
+    /**
+     * hash table of every operation submitted so far, chained through Node.nextInBucket. Length is a power of two
+     */
+    private Node[] buckets;
+
+    private int size;
+    private long hits;
+    private long misses;
+
+    /**
+     * @param executor executor the operations are run on. Closing it stops the session taking new operations
+     */
+    public OperationSession(OperationExecutor executor){
+        this.executor = executor;
+        buckets = new Node[16];
+    }
+
+    /**
+     * runs an operation, or gives back the future of an equal operation submitted earlier
+     * @param operation operation that hasn't been computed yet
+     * @param outputType output type of the operation, such as RationalPolynomial.class for a Derivative
+     * @param <T> output type of the operation
+     * @return future that gets the output of the operation. Fails with a ClassCastException if the output isn't an
+     * outputType
+     */
+    public <T extends RationalOperationOutput> OperationFuture<T> submit(Operation operation, Class<T> outputType){
+        if(executor.isClosed()){
+            throw new IllegalStateException("Executor has been closed");
+        }
+        return lookupOrRun(operation, outputType);
+    }
+
+    /**
+     * runs an operation, or gives back the future of an equal one, when its output type doesn't matter
+     * @param operation operation that hasn't been computed yet
+     * @return future that gets the output of the operation
+     */
+    public OperationFuture<RationalOperationOutput> submit(Operation operation){
+        return submit(operation, RationalOperationOutput.class);
+    }
+
+    /**
+     * adds an operation that depends on the output of another one. The step runs once the dependency is done,
+     * and the operation it builds is looked up like any other, so equal ones are only computed once
+     * @param dependency future of the operation this one needs
+     * @param step builds the operation from the dependency's output
+     * @param outputType output type of the operation the step builds
+     * @param <T> output type of the dependency
+     * @param <U> output type of the operation the step builds
+     * @return future that gets the output of the operation the step builds
+     */
+    public <T extends RationalOperationOutput, U extends RationalOperationOutput> OperationFuture<U> then(OperationFuture<T> dependency, OperationStep<T> step, Class<U> outputType){
+        OperationFuture<U> next = new OperationFuture<>(executor, outputType);
+        dependency.whenDone(new SessionStep<>(this, dependency, step, next));
+        return next;
+    }
+
+    /**
+     * adds an operation that depends on the output of another one, when its output type doesn't matter
+     * @param dependency future of the operation this one needs
+     * @param step builds the operation from the dependency's output
+     * @param <T> output type of the dependency
+     * @return future that gets the output of the operation the step builds
+     */
+    public <T extends RationalOperationOutput> OperationFuture<RationalOperationOutput> then(OperationFuture<T> dependency, OperationStep<T> step){
+        return then(dependency, step, RationalOperationOutput.class);
+    }
+
+    /**
+     * forgets every remembered operation. The hit and miss counts are kept
+     */
+    public synchronized void clear(){
+        buckets = new Node[16];
+        size = 0;
+    }
+
+    /**
+     * gets how many distinct operations have been run
+     */
+    public synchronized int getSize(){
+        return size;
+    }
+
+    /**
+     * gets how many submitted operations were already in the session
+     */
+    public synchronized long getHits(){
+        return hits;
+    }
+
+    /**
+     * gets how many submitted operations had to be run
+     */
+    public synchronized long getMisses(){
+        return misses;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends RationalOperationOutput> OperationFuture<T> lookupOrRun(Operation operation, Class<T> outputType){
+        int hash = operation.inputHash();
+        OperationFuture<?> shared = null;
+        OperationFuture<T> future = null;
+        synchronized(this){
+            Node previous = null;
+            Node node = buckets[hash & (buckets.length - 1)];
+            while(node != null){
+                if(node.hash == hash && node.operation.sameInputs(operation)){
+                    if(!node.future.isFailed()){
+                        hits++;
+                        shared = node.future;
+                        break;
+                    }
+                    // a failure might not happen again, such as one from a tight budget, so the node is dropped
+                    if(previous == null){
+                        buckets[hash & (buckets.length - 1)] = node.nextInBucket;
+                    }else{
+                        previous.nextInBucket = node.nextInBucket;
+                    }
+                    size--;
+                    break;
+                }
+                previous = node;
+                node = node.nextInBucket;
+            }
+            if(shared == null){
+                misses++;
+                future = new OperationFuture<>(executor, outputType);
+                if(size >= buckets.length){
+                    grow();
+                }
+                int bucket = hash & (buckets.length - 1);
+                buckets[bucket] = new Node(operation, hash, future, buckets[bucket]);
+                size++;
+            }
+        }
+        if(shared != null){
+            if(shared.getOutputType() == outputType){
+                return (OperationFuture<T>) shared;
+            }
+            // the shared node was asked for under another output type, so its output is checked against this one
+            future = new OperationFuture<>(executor, outputType);
+            shared.whenDone(new Forward<>(shared, future));
+            return future;
+        }
+        // started outside of the lock since an executor without workers runs it right here
+        executor.execute(new OperationFuture.Computation<>(operation, future));
+        return future;
+    }
+
+    /**
+     * doubles the number of buckets
+     */
+    private void grow(){
+        Node[] grown = new Node[2 * buckets.length];
+        Node node;
+        Node next;
+        for (int i = 0; i < buckets.length; i++) {
+            node = buckets[i];
+            while(node != null){
+                next = node.nextInBucket;
+                node.nextInBucket = grown[node.hash & (grown.length - 1)];
+                grown[node.hash & (grown.length - 1)] = node;
+                node = next;
+            }
+        }
+        buckets = grown;
+    }
+
+    private static class Node {
+        private final Operation operation;
+        private final int hash;
+        private final OperationFuture<?> future;
+        private Node nextInBucket;
+
+        Node(Operation operation, int hash, OperationFuture<?> future, Node nextInBucket){
+            this.operation = operation;
+            this.hash = hash;
+            this.future = future;
+            this.nextInBucket = nextInBucket;
+        }
+    }
+
+    /**
+     * builds an operation from a finished dependency, then passes the output of the shared node on to next
+     */
+    private static class SessionStep<T extends RationalOperationOutput, U extends RationalOperationOutput> implements Runnable {
+        private final OperationSession session;
+        private final OperationFuture<T> dependency;
+        private final OperationStep<T> step;
+        private final OperationFuture<U> next;
+
+        SessionStep(OperationSession session, OperationFuture<T> dependency, OperationStep<T> step, OperationFuture<U> next){
+            this.session = session;
+            this.dependency = dependency;
+            this.step = step;
+            this.next = next;
+        }
+
+        public void run(){
+            OperationFuture<U> shared;
+            if(dependency.isFailed()){
+                next.fail(dependency.getFailure());
+                return;
+            }
+            try{
+                shared = session.lookupOrRun(step.next(dependency.get()), next.getOutputType());
+            }catch(Throwable e){
+                next.fail(e);
+                return;
+            }
+            shared.whenDone(new Forward<>(shared, next));
+        }
+    }
+
+    /**
+     * copies the result of one finished future into another, checking it against the other future's output type
+     */
+    private static class Forward<U extends RationalOperationOutput> implements Runnable {
+        private final OperationFuture<?> from;
+        private final OperationFuture<U> to;
+
+        Forward(OperationFuture<?> from, OperationFuture<U> to){
+            this.from = from;
+            this.to = to;
+        }
+
+        public void run(){
+            if(from.isFailed()){
+                to.fail(from.getFailure());
+            }else{
+                to.completeChecked(from.get());
+            }
+        }
+    }
+}
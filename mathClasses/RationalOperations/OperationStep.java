@@ -0,0 +1,14 @@
+package mathClasses.RationalOperations;
+
+/**
+ * Builds the next operation of a chain out of the output of the previous one, such as taking a gcd with the
+ * derivative that was just computed. Used with OperationFuture.then
+ * @param <T> output type of the previous operation
+ */
+public interface OperationStep<T extends RationalOperationOutput> {
+    /**
+     * @param output output of the previous operation
+     * @return operation to run next. It hasn't been computed yet
+     */
+    Operation next(T output);
+}
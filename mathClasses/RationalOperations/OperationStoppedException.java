@@ -0,0 +1,56 @@
+package mathClasses.RationalOperations;
+
+/**
+ * Thrown when an operation runs out of its OperationBudget. Knows why it was stopped, and holds whatever the
+ * operation had worked out by then, such as the factors found so far
+ */
+public class OperationStoppedException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * OperationBudget.CANCELLED, TIMED_OUT, or OUT_OF_STEPS
+     */
+    private final int reason;
+
+    /**
+     * output worked out before the operation stopped, or null if there isn't any
+     */
+    private final RationalOperationOutput partialOutput;
+
+    /**
+     * @param reason OperationBudget.CANCELLED, TIMED_OUT, or OUT_OF_STEPS
+     * @param partialOutput output worked out so far, or null
+     */
+    public OperationStoppedException(int reason, RationalOperationOutput partialOutput){
+        super(reason == OperationBudget.CANCELLED ? "Operation was cancelled"
+                : reason == OperationBudget.TIMED_OUT ? "Operation ran out of time" : "Operation ran out of steps");
+        this.reason = reason;
+        this.partialOutput = partialOutput;
+    }
+
+    public int getReason(){
+        return reason;
+    }
+
+    public boolean isTimeout(){
+        return reason == OperationBudget.TIMED_OUT;
+    }
+
+    public boolean isCancellation(){
+        return reason == OperationBudget.CANCELLED;
+    }
+
+    public RationalOperationOutput getPartialOutput(){
+        return partialOutput;
+    }
+
+    /**
+     * @param partialOutput output worked out so far
+     * @return same exception but holding the partial output
+     */
+    public OperationStoppedException withPartialOutput(RationalOperationOutput partialOutput){
+        OperationStoppedException stopped = new OperationStoppedException(reason, partialOutput);
+        stopped.setStackTrace(getStackTrace());
+        return stopped;
+    }
+}
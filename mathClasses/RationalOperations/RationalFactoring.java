@@ -1,12 +1,14 @@
 package mathClasses.RationalOperations;
 
-import dataStructures.DoublyLinkedList;
-import dataStructures.DoublyLinkedListIterator;
 import dataStructures.Pair;
+import mathClasses.ArithmeticEvent;
+import mathClasses.ArithmeticEvents;
+import mathClasses.Metrics;
 import mathClasses.ProductOfPolynomial;
 import mathClasses.Rational;
 import mathClasses.RationalPolyIterator;
 import mathClasses.RationalPolynomial;
+import mathClasses.WorkerPool;
 
 /**
  * Factors a polynomial
@@ -24,11 +26,85 @@ public class RationalFactoring extends Operation{
         // compute();
     }
 
+    /**
+     * factorizations shared by every RationalFactoring, keyed by the primitive form of the polynomial
+     */
+    private static final FactorizationCache cache = new FactorizationCache(256);
+
     /**
      * factors the polynomial and stores the result in 'output'
+     * Polynomials that are a constant multiple of one that was already factored reuse the cached factorization
      */
     public void compute(){
-        output = factor();
+        partialOutput = null;
+        long start = Metrics.startTimer();
+        try{
+            output = factorScaled();
+        }finally{
+            Metrics.recordOperation(this, start);
+        }
+    }
+
+    /**
+     * factors firstPoly, going through the cache when it isn't constant
+     */
+    private ProductOfPolynomial factorScaled(){
+        if(firstPoly.isNull() || firstPoly.isZero() || firstPoly.getDegree() == 0){
+            return factor(firstPoly, budget);
+        }
+
+        // firstPoly = scaler * canonical, where canonical is primitive with a positive leading coefficient
+        Pair<RationalPolynomial, Long> integerized = firstPoly.integerize();
+        long[] canonical = new long[firstPoly.getDegree() + 1];
+        RationalPolyIterator iterator = integerized.getFirst().getIterator();
+        iterator.goFirst();
+        long content = 0;
+        for (int i = 0; i < canonical.length; i++) {
+            canonical[i] = Rational.toLong(iterator.currentRational());
+            content = Rational.gcd(content, canonical[i]);
+            iterator.goForth();
+        }
+        if(canonical[canonical.length - 1] < 0){
+            content = -content;
+        }
+        for (int i = 0; i < canonical.length; i++) {
+            canonical[i] /= content;
+        }
+        Rational scaler = new Rational(content, integerized.getSecond());
+
+        ProductOfPolynomial cached = cache.lookup(canonical, scaler);
+        if(cached != null){
+            return cached;
+        }
+
+        Rational[] coefficients = new Rational[canonical.length];
+        for (int i = 0; i < canonical.length; i++) {
+            coefficients[i] = new Rational(canonical[i], 1L);
+        }
+        ProductOfPolynomial factorization;
+        try{
+            factorization = factor(new RationalPolynomial(coefficients), budget);
+        }catch(OperationStoppedException e){
+            // partial factorizations aren't cached, only handed back scaled like a full one would be
+            ProductOfPolynomial partial = (ProductOfPolynomial) e.getPartialOutput();
+            if(partial != null){
+                partial.setConstant(partial.getConstant().multiply(scaler));
+            }
+            partialOutput = partial;
+            throw e;
+        }
+
+        cache.store(canonical, factorization);
+        factorization.setConstant(factorization.getConstant().multiply(scaler));
+        return factorization;
+    }
+
+    /**
+     * gets the cache of factorizations shared by every RationalFactoring, which has the hit, miss, and eviction counts
+     * @return shared cache
+     */
+    public static FactorizationCache getCache(){
+        return cache;
     }
 
     /**
@@ -40,38 +116,44 @@ public class RationalFactoring extends Operation{
     }
 
     /**
-     * Factors the first input polynomial based on the Rational Roots Test which
+     * Factors a polynomial based on the Rational Roots Test which
+     * @param poly polynomial being factored
+     * @param budget budget the search is counted against, or null
      * @return ProductOfPolynomials representing the factorization
+     * @throws OperationStoppedException if the budget runs out, holding the factors found so far
      */
-    private ProductOfPolynomial factor(){
+    private static ProductOfPolynomial factor(RationalPolynomial poly, OperationBudget budget){
         // this uses the rational roots test saying that every possible factor must be of the form r/s
         // where r divides the constant term and s divides the highest order term
         // this gives is a finite number of possible roots to test
 
-        if(firstPoly.isNull()) {
+        if(poly.isNull()) {
             throw new IllegalStateException("Cannot factor an empty polynomial");
         }
 
         // integerize the polynomial
-        Pair<RationalPolynomial, Long> integerized = firstPoly.integerize();
+        Pair<RationalPolynomial, Long> integerized = poly.integerize();
         Rational scalerTerm = new Rational(integerized.getSecond(),1);
         RationalPolynomial integerPoly = integerized.getFirst();
 
         // if it's equal to zero return the zero Product
-        if(firstPoly.equals(new RationalPolynomial(new Rational(0)))){
+        if(poly.isZero()){
             return new ProductOfPolynomial(new Rational(0));
         }
 
         // if it's of degree zero return a constant
-        if(firstPoly.getDegree() == 0){
+        if(poly.getDegree() == 0){
             // return a polynomial that's just the constant term
             return new ProductOfPolynomial(integerPoly.getFirst());
         }
 
-        // if it satisfies eisenstein's criterion then it's irreducible
-        if(eisenstein(integerPoly) != -1L){
-            // if it's irreducible by eisenstiens criterion
-            return new ProductOfPolynomial(scalerTerm, integerPoly.copy());
+        // if it satisfies eisenstein's criterion (possibly after a shift) or stays irreducible modulo a prime then it's irreducible
+        int degree = poly.getDegree();
+        long start = Metrics.startTimer();
+        boolean irreducible = isIrreducible(poly.getIntegerPolynomial().toLongArray());
+        ArithmeticEvents.emit(ArithmeticEvent.FACTORING_STAGE, "irreducibility test", degree, -1, irreducible ? 1 : 0, start);
+        if(irreducible){
+            return new ProductOfPolynomial(scalerTerm.getInverse(), integerPoly);
         }
 
         // first we get rid of any factors of x
@@ -79,41 +161,74 @@ public class RationalFactoring extends Operation{
         RationalPolynomial factor;
         ProductOfPolynomial factorization = new ProductOfPolynomial(scalerTerm.getInverse());
         RationalPolynomial x = new RationalPolynomial(new Rational(0), new Rational(1));
+        int multiplicity = 0;
         while(integerPoly.getFirst().equals(new Rational(0))){
-            factorization.insertFactor(x);
+            multiplicity++;
             integerPoly = integerPoly.divide(x);
         }
+        if(multiplicity > 0){
+            factorization.insertFactor(x, multiplicity);
+        }
 
         // get all numbers that divide the constant term and the highest order terms
         Rational constant = integerPoly.getFirst();
         Rational highestOrder = integerPoly.getLast();
 
-        DoublyLinkedList<Long> constantFactors = allDivisors(Rational.toLong(constant));
-        DoublyLinkedList<Long> highestOrderFactors = allDivisors(Rational.toLong(highestOrder));
-        DoublyLinkedListIterator<Long> constantIterator = constantFactors.getIterator();
-        DoublyLinkedListIterator<Long> highestIterator = highestOrderFactors.getIterator();
-        constantIterator.goFirst();
-
-
+        start = Metrics.startTimer();
+        long[] constantFactors;
+        long[] highestOrderFactors;
+        try{
+            constantFactors = allDivisors(Rational.toLong(constant), budget);
+            highestOrderFactors = allDivisors(Rational.toLong(highestOrder), budget);
+        }catch(OperationStoppedException e){
+            // only the factors of x have been found so far
+            throw e.withPartialOutput(factorization);
+        }
+        // every possible root r/s is numbered in the order the nested loops would visit them, and only made when tested
+        int numCandidates = constantFactors.length * highestOrderFactors.length;
+        ArithmeticEvents.emit(ArithmeticEvent.FACTORING_STAGE, "divisors", degree, -1, numCandidates, start);
+
+        // the candidates are tested against the undeflated polynomial, possibly in parallel
+        // every root of a deflated polynomial is also a root of the original, so nothing is missed
+        start = Metrics.startTimer();
+        boolean[] isRoot;
+        try{
+            isRoot = findRoots(integerPoly, constantFactors, highestOrderFactors, budget);
+        }catch(OperationStoppedException e){
+            throw e.withPartialOutput(factorization);
+        }
+        if(ArithmeticEvents.isRecording()){
+            int roots = 0;
+            for (int i = 0; i < isRoot.length; i++) {
+                roots += isRoot[i] ? 1 : 0;
+            }
+            ArithmeticEvents.emit(ArithmeticEvent.FACTORING_STAGE, "root search", degree, -1, roots, start);
+        }
 
+        start = Metrics.startTimer();
         Rational zero = new Rational(0,1);
-        // loop through every possible factor
-        while(!constantIterator.isAfter()){
-            highestIterator.goFirst();
-            while(!highestIterator.isAfter()){
-                // the potentialFactor is r/s from before
-                potentialFactor = new Rational(constantIterator.getCurrentNode().item(), highestIterator.getCurrentNode().item());
-                // only enters loop if f(constant) = zero
-                // by the factor theorem this tells us (x - potentialFactor) is a factor
-                while(integerPoly.solve(potentialFactor).equals(zero)){
-                    factor = new RationalPolynomial(zero.subtract(potentialFactor), new Rational(1,1));
-                    factorization.insertFactor(factor);
-                    integerPoly = integerPoly.divide(factor);
-                }
-
-                highestIterator.goForth();
+        // deflate in candidate order so the factors come out exactly as the sequential search would give them
+        for (int i = 0; i < numCandidates; i++) {
+            if(!isRoot[i]){
+                continue;
+            }
+            try{
+                OperationBudget.checkedStep(budget);
+            }catch(OperationStoppedException e){
+                throw e.withPartialOutput(factorization);
+            }
+            potentialFactor = candidate(constantFactors, highestOrderFactors, i);
+            // only enters loop if f(constant) = zero
+            // by the factor theorem this tells us (x - potentialFactor) is a factor
+            factor = new RationalPolynomial(zero.subtract(potentialFactor), new Rational(1,1));
+            multiplicity = 0;
+            while(integerPoly.solve(potentialFactor).equals(zero)){
+                multiplicity++;
+                integerPoly = integerPoly.divide(factor);
+            }
+            if(multiplicity > 0){
+                factorization.insertFactor(factor, multiplicity);
             }
-            constantIterator.goForth();
         }
 
         // cleanup. could technically get rid of this if I refactored the above code
@@ -123,9 +238,171 @@ public class RationalFactoring extends Operation{
         }else{
             factorization.insertFactor(integerPoly);
         }
+        ArithmeticEvents.emit(ArithmeticEvent.FACTORING_STAGE, "deflation", degree, -1, factorization.getSize(), start);
         return factorization;
     }
 
+    /**
+     * Below this many candidates the roots are tested on the calling thread since starting threads costs more than it saves
+     */
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    /**
+     * tests every candidate root against a polynomial. Large candidate lists are split into contiguous blocks
+     * that the calling thread and the shared WorkerPool work through together
+     * @param poly polynomial being tested. It is only read from, never modified
+     * @param numerators divisors of the constant term
+     * @param denominators divisors of the highest order term
+     * @param budget budget every candidate tested is counted against, or null
+     * @return array where the ith element is whether candidate(numerators, denominators, i) is a root of poly
+     */
+    private static boolean[] findRoots(RationalPolynomial poly, long[] numerators, long[] denominators, OperationBudget budget){
+        int numCandidates = numerators.length * denominators.length;
+        boolean[] isRoot = new boolean[numCandidates];
+        WorkerPool pool = WorkerPool.getShared();
+        int numBlocks = pool.getThreadCount() + 1;
+        if(numBlocks > numCandidates / (PARALLEL_THRESHOLD / 2)){
+            numBlocks = numCandidates / (PARALLEL_THRESHOLD / 2);
+        }
+        if(numCandidates < PARALLEL_THRESHOLD || numBlocks < 2){
+            RootSearch search = new RootSearch(poly, numerators, denominators, isRoot, 0, numCandidates, budget);
+            search.run();
+            if(search.failure != null){
+                throw search.failure;
+            }
+            return isRoot;
+        }
+
+        RootSearch[] searches = new RootSearch[numBlocks];
+        int blockSize = (numCandidates + numBlocks - 1) / numBlocks;
+        for (int i = 0; i < numBlocks; i++) {
+            int start = i * blockSize;
+            int end = start + blockSize < numCandidates ? start + blockSize : numCandidates;
+            searches[i] = new RootSearch(poly, numerators, denominators, isRoot, start, end, budget);
+        }
+        pool.runAll(searches);
+        for (int i = 0; i < numBlocks; i++) {
+            if(searches[i].failure != null){
+                throw searches[i].failure;
+            }
+        }
+        return isRoot;
+    }
+
+    /**
+     * @return the ith possible root, numerators[i / denominators.length] / denominators[i % denominators.length]
+     */
+    private static Rational candidate(long[] numerators, long[] denominators, int i){
+        return new Rational(numerators[i / denominators.length], denominators[i % denominators.length]);
+    }
+
+    /**
+     * Tests a contiguous block of candidate roots, making each one as it goes. Each search writes to a disjoint
+     * part of 'isRoot'
+     */
+    private static class RootSearch implements Runnable{
+        private final RationalPolynomial poly;
+        private final long[] numerators;
+        private final long[] denominators;
+        private final boolean[] isRoot;
+        private final int start;
+        private final int end;
+        private final OperationBudget budget;
+
+        /**
+         * exception thrown while testing, rethrown on the thread that started the search
+         */
+        private RuntimeException failure;
+
+        RootSearch(RationalPolynomial poly, long[] numerators, long[] denominators, boolean[] isRoot, int start, int end,
+                   OperationBudget budget){
+            this.poly = poly;
+            this.numerators = numerators;
+            this.denominators = denominators;
+            this.isRoot = isRoot;
+            this.start = start;
+            this.end = end;
+            this.budget = budget;
+        }
+
+        public void run(){
+            Rational zero = new Rational(0);
+            try{
+                for (int i = start; i < end; i++) {
+                    OperationBudget.step(budget);
+                    isRoot[i] = poly.solve(candidate(numerators, denominators, i)).equals(zero);
+                }
+            }catch(RuntimeException e){
+                failure = e;
+            }
+        }
+    }
+
+    /**
+     * Shifts p(x+a) for -SHIFT_RANGE <= a <= SHIFT_RANGE are tried with eisenstein's criterion
+     */
+    private static final int SHIFT_RANGE = 3;
+
+    /**
+     * How many primes the polynomial is reduced modulo before giving up on proving it's irreducible
+     */
+    private static final int MOD_PRIME_ATTEMPTS = 3;
+
+    /**
+     * Every prime below this is cached. Any number below PRIME_LIMIT^2 can be fully factored with them
+     */
+    private static final int PRIME_LIMIT = 1 << 16;
+
+    /**
+     * cheap check for whether a polynomial is irreducible. A true result is always right, but some irreducible
+     * polynomials (like x^4 + 1) return false. Tries eisenstein's criterion on p(x+a) for small a, then tries to show
+     * p is irreducible modulo a prime that doesn't divide its leading coefficient
+     * @param poly primitive integer polynomial, lowest order first
+     * @return true if poly is definitely irreducible
+     */
+    static boolean isIrreducible(long[] poly){
+        int n = poly.length - 1;
+        long leading = poly[n] > -poly[n] ? poly[n] : -poly[n];
+        // the leading coefficient doesn't change when the polynomial is shifted, so it's only factored once
+        long[] leadingPrimes = primeFactors(leading);
+        if(eisenstein(poly, leadingPrimes) != -1L){
+            return true;
+        }
+        // linear polynomials are found just as quickly by the roots test
+        if(n < 2){
+            return false;
+        }
+
+        long[] shifted;
+        for (int a = 1; a <= SHIFT_RANGE; a++) {
+            for (int sign = 1; sign >= -1; sign -= 2) {
+                try{
+                    shifted = TaylorShift.shift(poly, sign * a);
+                }catch(ArithmeticException e){
+                    // larger shifts would overflow as well
+                    a = SHIFT_RANGE;
+                    break;
+                }
+                if(eisenstein(shifted, leadingPrimes) != -1L){
+                    return true;
+                }
+            }
+        }
+
+        long[] primeList = getPrimes();
+        int attempts = 0;
+        for (int i = 0; i < primeList.length && attempts < MOD_PRIME_ATTEMPTS; i++) {
+            if(leading % primeList[i] == 0){
+                continue;
+            }
+            attempts++;
+            if(isIrreducibleModPrime(poly, primeList[i])){
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * checks if a polynomial with integer coefficients satisfies eisenstein's criterion.
      * @param polynomial non-null RationalPolynomial
@@ -147,121 +424,348 @@ public class RationalFactoring extends Operation{
         RationalPolyIterator iterator = polynomial.getIterator();
 
         // check that the eisenstein's criterion can even be applied
+        long[] coefficients = new long[polynomial.getDegree() + 1];
         iterator.goFirst();
-        while(!iterator.isAfter()){
+        for (int i = 0; i < coefficients.length; i++) {
             if(iterator.currentRational().getDenom() != 1){
                 throw new IllegalStateException("Cannot apply eisenstien's criterion with non-integer coefficients");
             }
+            coefficients[i] = Rational.toLong(iterator.currentRational());
             iterator.goForth();
         }
 
-        polynomial.goFirst();
-        iterator.goFirst();
-        long constant = Rational.toLong(iterator.currentRational());
-        constant = constant > -constant ? constant : -constant;
-        if(constant == 0){
+        long leading = coefficients[coefficients.length - 1];
+        return eisenstein(coefficients, primeFactors(leading > -leading ? leading : -leading));
+    }
+
+    /**
+     * eisenstein's criterion on integer coefficients
+     * @param poly integer polynomial, lowest order first
+     * @param leadingPrimes primes dividing the leading coefficient, which can never work
+     * @return -1 if the polynomial doesn't satisfy the criterion. Otherwise the lowest prime for which it's satisfied
+     */
+    private static long eisenstein(long[] poly, long[] leadingPrimes){
+        int n = poly.length - 1;
+        if(poly[0] == 0){
             // if the constant is 0 then it can be factored by x which guarantees that eisenteins criterion doesn't apply
             return -1L;
         }
-        DoublyLinkedList<Pair<Long, Integer>> primeDivisorsOfConstant = primeFactors(constant);
-        Long prime;
-        primeDivisorsOfConstant.goFirst();
-
-        boolean continueLoop;
 
-        // the basic flow of this is that if we look at every prime, and check them against the given criteria one by one
-        // if they don't follow a criterion then we 'continue'
-        // if we find a prime that follows all criteria then we know that it's irreducible
-        while(!primeDivisorsOfConstant.isAfter()){
+        // the prime has to divide every term but the last, so it has to divide their gcd
+        long divisor = 0;
+        for (int i = 0; i < n; i++) {
+            divisor = Rational.gcd(divisor, poly[i]);
+        }
+        if(divisor == 1 || divisor == -1){
+            return -1L;
+        }
 
-            prime = primeDivisorsOfConstant.item().item().getFirst(); // lots of nested data structures *sigh*
-            primeDivisorsOfConstant.goForth();
-            // if the highest order term divides the prime then it doesn't satisfy the criterion
-            if(Rational.toLong(polynomial.getLast()) % prime == 0){
+        long[] candidates = primeFactors(divisor > -divisor ? divisor : -divisor);
+        long prime;
+        boolean dividesLeading;
+        for (int i = 0; i < candidates.length; i++) {
+            prime = candidates[i];
+            dividesLeading = false;
+            for (int j = 0; j < leadingPrimes.length; j++) {
+                if(leadingPrimes[j] == prime){
+                    dividesLeading = true;
+                    break;
+                }
+            }
+            // if the prime divides the highest order term or its square divides the lowest order term it doesn't satisfy the criterion
+            // primes above sqrt(Long.MAX_VALUE) have squares larger than any long, so they can't divide it
+            if(dividesLeading || (prime <= 3037000499L && poly[0] % (prime * prime) == 0)){
                 continue;
             }
+            return prime;
+        }
+        return -1L;
+    }
 
-            // if the lowest order term divides the prime squared then it doesn't satisfy the criterion
-            if(Rational.toLong(polynomial.getFirst()) % (prime * prime) == 0){
-                continue;
+    /**
+     * finds the distinct prime factors of a given integer using the cached primes.
+     * If what's left after dividing out every cached prime is too large to know whether it's prime then it's left out
+     * @param integer positive long we are factoring
+     * @return primes dividing integer in increasing order
+     */
+    private static long[] primeFactors(long integer){
+        if(integer < 1)
+            throw new ArithmeticException("Cannot factorize number less than one");
+        long[] primeList = getPrimes();
+        long[] found = new long[64];
+        int numFound = 0;
+        long brokenDownInt = integer;
+        for (int i = 0; i < primeList.length && primeList[i] * primeList[i] <= brokenDownInt; i++) {
+            if(brokenDownInt % primeList[i] == 0){
+                found[numFound] = primeList[i];
+                numFound++;
+                while(brokenDownInt % primeList[i] == 0){
+                    brokenDownInt /= primeList[i];
+                }
             }
+        }
+        // whatever is left is prime as long as it has no factor we haven't tried
+        if(brokenDownInt != 1 && brokenDownInt < (long) PRIME_LIMIT * PRIME_LIMIT){
+            found[numFound] = brokenDownInt;
+            numFound++;
+        }
 
-            iterator.goFirst();
-            // if all the terms but the last term also divide the polynomial then it satisfies the last criterion
-            continueLoop = false;
-            while(!iterator.isLast()){
-                if(Rational.toLong(iterator.currentRational()) % prime != 0){
-                    continueLoop = true; // need to do this since we have no other way to 'break' this loop and subsequently 'continue' the above loop
-                    break;
+        long[] factors = new long[numFound];
+        for (int i = 0; i < numFound; i++) {
+            factors[i] = found[i];
+        }
+        return factors;
+    }
+
+    /**
+     * gets every prime below PRIME_LIMIT, sieving them the first time this is called
+     */
+    private static long[] getPrimes(){
+        return Primes.LIST;
+    }
+
+    /**
+     * holds the primes below PRIME_LIMIT in increasing order. The class is only loaded the first time getPrimes is
+     * called, and loading a class is thread safe, so every thread sees the whole list
+     */
+    private static class Primes {
+        static final long[] LIST = sieve();
+
+        private static long[] sieve(){
+            boolean[] composite = new boolean[PRIME_LIMIT];
+            int count = 0;
+            for (int i = 2; i < PRIME_LIMIT; i++) {
+                if(composite[i]){
+                    continue;
+                }
+                count++;
+                for (long j = (long) i * i; j < PRIME_LIMIT; j += i) {
+                    composite[(int) j] = true;
                 }
-                iterator.goForth();
             }
-            if(continueLoop){
-                continue;
+            long[] primeList = new long[count];
+            count = 0;
+            for (int i = 2; i < PRIME_LIMIT; i++) {
+                if(!composite[i]){
+                    primeList[count] = i;
+                    count++;
+                }
             }
+            return primeList;
+        }
+    }
 
-            return prime;
+    /**
+     * checks if a polynomial is irreducible modulo a prime with distinct degree factorization.
+     * If f has a factor of degree d <= n/2 then that factor divides x^(p^d) - x, so f is irreducible exactly when
+     * gcd(x^(p^d) - x, f) = 1 for every d up to n/2. A polynomial that is irreducible modulo a prime not dividing its
+     * leading coefficient is irreducible over the rationals too
+     * @param poly integer polynomial, lowest order first
+     * @param prime prime that doesn't divide the leading coefficient of poly
+     * @return true if poly is irreducible modulo prime
+     */
+    private static boolean isIrreducibleModPrime(long[] poly, long prime){
+        long[] f = reduceModPrime(poly, prime);
+        long[] x = new long[]{0, 1};
+        long[] power = x;
+        long[] difference;
+        for (int d = 1; d <= (f.length - 1) / 2; d++) {
+            power = powerModPrime(power, prime, f, prime);
+            difference = subtractModPrime(power, x, prime);
+            if(difference.length == 0 || gcdModPrime(f, difference, prime).length > 1){
+                return false;
+            }
         }
-        return -1;
+        return true;
     }
 
     /**
-     * finds all the prime numbers of a given integer
-     * @param integer int we are factoring
-     * @return DoublyLinkedList<Pair<Long,Integer>> where each element of the list gives the prime, and the exponent that it's raised to
+     * reduces every coefficient into [0, prime) and drops trailing zeroes. The zero polynomial has no coefficients
      */
-    private static DoublyLinkedList<Pair<Long,Integer>> primeFactors(long integer){
-        if(integer < 1)
-            throw new ArithmeticException("Cannot factorize number less than zero");
-        int[] arrayPrimeNumbers = {2,3,5,7,11,13,17,19,23,29,31,37,41,43,47,53,59,61,67,71,73,79,83,89,97,101,103,107,109,113,127,131,137,139,149,151,157,163,167,173,179,181,191,193,197,199,211};
-        DoublyLinkedList<Pair<Long,Integer>> factors = new DoublyLinkedList<>();
-        long brokenDownInt = integer;
-        int i = 0;
-        int power;
-        Pair<Long, Integer> factorPowerCombo;
-        while(brokenDownInt != 1 && arrayPrimeNumbers[i] != 211){
-            power = 0;
-            while(brokenDownInt % arrayPrimeNumbers[i] == 0){
-                power++;
-                brokenDownInt /= arrayPrimeNumbers[i];
+    private static long[] reduceModPrime(long[] poly, long prime){
+        int length = poly.length;
+        while(length > 0 && poly[length - 1] % prime == 0){
+            length--;
+        }
+        long[] reduced = new long[length];
+        for (int i = 0; i < length; i++) {
+            reduced[i] = ((poly[i] % prime) + prime) % prime;
+        }
+        return reduced;
+    }
+
+    private static long[] subtractModPrime(long[] first, long[] second, long prime){
+        long[] difference = new long[first.length > second.length ? first.length : second.length];
+        for (int i = 0; i < difference.length; i++) {
+            difference[i] = (i < first.length ? first[i] : 0) + prime - (i < second.length ? second[i] : 0);
+        }
+        return reduceModPrime(difference, prime);
+    }
+
+    /**
+     * computes base^exp modulo both prime and the polynomial modulus by repeated squaring
+     */
+    private static long[] powerModPrime(long[] base, long exp, long[] modulus, long prime){
+        long[] result = new long[]{1};
+        while(exp > 0){
+            if((exp & 1) == 1){
+                result = multiplyModPrime(result, base, modulus, prime);
             }
-            factorPowerCombo = new Pair<>((long)arrayPrimeNumbers[i], power);
-            factors.insert(factorPowerCombo);
-            i++;
-        }
-        // we now have a guarantee that every factor from here is between 211, and integer/211
-        for (long j = 211; j <= integer/211; j++) {
-            power = 0;
-            while(brokenDownInt % j == 0){
-                power++;
-                brokenDownInt /= j;
+            exp >>= 1;
+            if(exp > 0){
+                base = multiplyModPrime(base, base, modulus, prime);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * product of two polynomials, reduced modulo both prime and the polynomial modulus
+     */
+    private static long[] multiplyModPrime(long[] first, long[] second, long[] modulus, long prime){
+        if(first.length == 0 || second.length == 0){
+            return new long[0];
+        }
+        long[] product = new long[first.length + second.length - 1];
+        for (int i = 0; i < first.length; i++) {
+            for (int j = 0; j < second.length; j++) {
+                product[i + j] = (product[i + j] + first[i] * second[j]) % prime;
             }
-            factorPowerCombo = new Pair<>((long)arrayPrimeNumbers[i], power);
-            factors.insert(factorPowerCombo);
         }
+        return remainderModPrime(product, modulus, prime);
+    }
 
-        if(factors.getSize() == 0){
-            factors.insert(new Pair<>(integer, 1)); // if it's prime then it's only factor is itself
+    /**
+     * remainder of polynomial division with coefficients modulo prime
+     * @param divisor polynomial with a nonzero leading coefficient
+     */
+    private static long[] remainderModPrime(long[] dividend, long[] divisor, long prime){
+        if(dividend.length < divisor.length){
+            return reduceModPrime(dividend, prime);
+        }
+        long[] remainder = dividend.clone();
+        long inverseLeading = inverseModPrime(divisor[divisor.length - 1], prime);
+        long coefficient;
+        int offset;
+        for (int top = remainder.length - 1; top >= divisor.length - 1; top--) {
+            coefficient = remainder[top] * inverseLeading % prime;
+            if(coefficient == 0){
+                continue;
+            }
+            offset = top - divisor.length + 1;
+            for (int i = 0; i < divisor.length; i++) {
+                remainder[i + offset] = (remainder[i + offset] + (prime - coefficient) * divisor[i]) % prime;
+            }
+        }
+        long[] shortened = new long[divisor.length - 1];
+        for (int i = 0; i < shortened.length; i++) {
+            shortened[i] = remainder[i];
         }
+        return reduceModPrime(shortened, prime);
+    }
 
-        return factors;
+    private static long[] gcdModPrime(long[] larger, long[] smaller, long prime){
+        long[] remainder;
+        while(smaller.length > 0){
+            remainder = remainderModPrime(larger, smaller, prime);
+            larger = smaller;
+            smaller = remainder;
+        }
+        return larger;
     }
 
     /**
-     * get all divisors of a given number
-     * @param integer int we find divisors of
-     * @return DoublyLinkedList of divisors
+     * inverse of a nonzero number modulo a prime by fermat's little theorem
      */
-    private static DoublyLinkedList<Long> allDivisors(long integer){
-        DoublyLinkedList<Long> factorList = new DoublyLinkedList<>();
+    private static long inverseModPrime(long value, long prime){
+        long result = 1;
+        long base = value % prime;
+        long exp = prime - 2;
+        while(exp > 0){
+            if((exp & 1) == 1){
+                result = result * base % prime;
+            }
+            base = base * base % prime;
+            exp >>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * get all divisors of a given number, built from its prime factorization
+     * @param integer nonzero long we find divisors of
+     * @param budget budget every trial division is counted against, or null
+     * @return divisors, in the order 1, -1, 2, -2, ... by increasing size
+     */
+    private static long[] allDivisors(long integer, OperationBudget budget){
         integer = integer > -integer ? integer : -integer;
-        // loop through all integers between 1 and 'integer' and see if each of them divides 'integer' evenly
-        for (long i = 1; i <= integer; i++) {
-            if(integer % i == 0){
-                factorList.insert(i);
-                factorList.insert(-i);
+        long[] primeList = getPrimes();
+        long[] divisors = {1L};
+        long remaining = integer;
+        long trial = primeList[0];
+        int primeIndex = 0;
+        // trial division only has to go up to the square root of what's left. Past the cached primes every odd number
+        // is tried, and the composite ones can't divide since their prime factors are already gone
+        while(trial <= remaining / trial){
+            OperationBudget.step(budget);
+            if(remaining % trial == 0){
+                int exponent = 0;
+                while(remaining % trial == 0){
+                    remaining /= trial;
+                    exponent++;
+                }
+                divisors = withPrimePower(divisors, trial, exponent);
             }
+            primeIndex++;
+            trial = primeIndex < primeList.length ? primeList[primeIndex] : trial + 2;
+        }
+        if(remaining != 1){
+            divisors = withPrimePower(divisors, remaining, 1);
+        }
+
+        long[] factorList = new long[2 * divisors.length];
+        for (int i = 0; i < divisors.length; i++) {
+            factorList[2 * i] = divisors[i];
+            factorList[2 * i + 1] = -divisors[i];
         }
         return factorList;
     }
+
+    /**
+     * multiplies a set of divisors by every power of a new prime
+     * @param divisors divisors in increasing order, none of which are divisible by prime
+     * @param prime prime factor
+     * @param exponent how many times prime divides the number
+     * @return every divisor times prime^0 through prime^exponent, in increasing order
+     */
+    private static long[] withPrimePower(long[] divisors, long prime, int exponent){
+        long[] all = divisors;
+        long[] scaled = divisors;
+        for (int k = 1; k <= exponent; k++) {
+            long[] next = new long[scaled.length];
+            for (int i = 0; i < scaled.length; i++) {
+                next[i] = scaled[i] * prime;
+            }
+            scaled = next;
+            all = merge(all, scaled);
+        }
+        return all;
+    }
+
+    /**
+     * @return sorted array holding the elements of two sorted arrays
+     */
+    private static long[] merge(long[] first, long[] second){
+        long[] merged = new long[first.length + second.length];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < merged.length; k++) {
+            if(j == second.length || (i < first.length && first[i] < second[j])){
+                merged[k] = first[i++];
+            }else{
+                merged[k] = second[j++];
+            }
+        }
+        return merged;
+    }
 }
@@ -0,0 +1,338 @@
+package mathClasses.RationalOperations;
+
+import dataStructures.DoublyLinkedList;
+import dataStructures.DoublyLinkedListIterator;
+import mathClasses.IntegerPolynomial;
+import mathClasses.IsolatedRoots;
+import mathClasses.Metrics;
+import mathClasses.Rational;
+import mathClasses.RationalInterval;
+import mathClasses.RationalPolynomial;
+import mathClasses.WideInteger;
+
+/**
+ * Finds every real root of a polynomial exactly by giving an interval with rational ends around each root.
+ * Uses the Vincent-Collins-Akritas bisection method: Descartes' rule of signs bounds how many roots are in an
+ * interval, and intervals with more than one possible root are cut in half until every root is on its own.
+ * The coefficients are kept as IntegerPolynomials, which switch to WideIntegers when halving and shifting makes them
+ * too large for a long
+ */
+public class RootIsolation extends Operation {
+
+    /**
+     * constructs the operation
+     * @param poly polynomial we want the real roots of
+     */
+    public RootIsolation(RationalPolynomial poly){
+        super(poly);
+    }
+
+    /**
+     * isolates the roots and stores the result in 'output'
+     */
+    public void compute(){
+        partialOutput = null;
+        long start = Metrics.startTimer();
+        try{
+            output = isolate();
+        }finally{
+            Metrics.recordOperation(this, start);
+        }
+    }
+
+    /**
+     * returns the output of the operation
+     * @return IsolatedRoots where each interval holds exactly one root
+     */
+    public IsolatedRoots getOutput(){
+        return (IsolatedRoots) output;
+    }
+
+    private IsolatedRoots isolate(){
+        if(firstPoly.isNull()){
+            throw new IllegalStateException("Cannot find the roots of a null polynomial");
+        }
+        if(firstPoly.isZero()){
+            throw new ArithmeticException("Every number is a root of the zero polynomial");
+        }
+
+        IsolatedRoots roots = new IsolatedRoots();
+        if(firstPoly.getDegree() == 0){
+            return roots;
+        }
+
+        // bisection only works if every root is simple, so we work with p / gcd(p, p') which has the same roots
+        IntegerPolynomial poly = firstPoly.getSquareFreePart();
+
+        // zero is handled on its own so the bisection only ever sees strictly positive roots
+        boolean zeroIsRoot = poly.getWideCoefficient(0).isZero();
+        if(zeroIsRoot){
+            poly = divideByX(poly);
+        }
+
+        // every root is within (-2^boundExponent, 2^boundExponent)
+        int boundExponent = rootBoundExponent(poly);
+
+        // the negative roots of p are the positive roots of p(-x)
+        DoublyLinkedList<RationalInterval> negativeRoots = new DoublyLinkedList<>();
+        DoublyLinkedList<RationalInterval> positiveRoots = new DoublyLinkedList<>();
+        if(poly.getDegree() > 0){
+            // map (0, 2^boundExponent) onto (0, 1)
+            try{
+                bisect(shiftCoefficients(reflect(poly), 0, boundExponent).getPrimitivePart(), 0, 0, boundExponent, true, negativeRoots, budget);
+                bisect(shiftCoefficients(poly, 0, boundExponent).getPrimitivePart(), 0, 0, boundExponent, false, positiveRoots, budget);
+            }catch(OperationStoppedException e){
+                // the roots found so far are still exact, there just might be more of them
+                partialOutput = collect(negativeRoots, zeroIsRoot, positiveRoots);
+                throw e.withPartialOutput(partialOutput);
+            }
+        }
+        return collect(negativeRoots, zeroIsRoot, positiveRoots);
+    }
+
+    /**
+     * puts the roots in increasing order
+     */
+    private static IsolatedRoots collect(DoublyLinkedList<RationalInterval> negativeRoots, boolean zeroIsRoot, DoublyLinkedList<RationalInterval> positiveRoots){
+        IsolatedRoots roots = new IsolatedRoots();
+
+        DoublyLinkedListIterator<RationalInterval> iterator;
+        if(negativeRoots.getSize() != 0){
+            iterator = negativeRoots.getIterator();
+            iterator.goFirst();
+            while(!iterator.isAfter()){
+                roots.insertInterval(iterator.item());
+                iterator.goForth();
+            }
+        }
+        if(zeroIsRoot){
+            roots.insertInterval(new RationalInterval(new Rational(0)));
+        }
+        if(positiveRoots.getSize() != 0){
+            iterator = positiveRoots.getIterator();
+            iterator.goFirst();
+            while(!iterator.isAfter()){
+                roots.insertInterval(iterator.item());
+                iterator.goForth();
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * finds the roots of 'poly' in (0, 1), which stand in for the roots of the input in (c/2^k, (c+1)/2^k) * 2^boundExponent
+     * @param poly square free integer polynomial whose constant term isn't zero
+     * @param c which subinterval of width 1/2^k is being searched
+     * @param k how many times the starting interval has been cut in half
+     * @param boundExponent the starting interval is (0, 2^boundExponent)
+     * @param reflected whether we're finding the negative roots of the input
+     * @param roots list the intervals are added to. Negative roots are added to the front so the list stays in increasing order
+     * @param budget budget every subinterval looked at is counted against, or null
+     */
+    private static void bisect(IntegerPolynomial poly, long c, int k, int boundExponent, boolean reflected, DoublyLinkedList<RationalInterval> roots, OperationBudget budget){
+        OperationBudget.checkedStep(budget);
+        int signChanges = descartesBound(poly);
+        if(signChanges == 0){
+            return;
+        }
+        if(signChanges == 1){
+            addRoot(new RationalInterval(dyadic(c, k, boundExponent), dyadic(c + 1, k, boundExponent)), reflected, roots);
+            return;
+        }
+
+        // c counts pieces of width 1/2^k, and the ends of narrower pieces couldn't be written as Rationals anyway
+        if(k >= 62){
+            throw new ArithmeticException("Roots are too close together to isolate with Rationals");
+        }
+
+        // left half is 2^n * p(x/2), and the right half is the left half shifted over by one
+        IntegerPolynomial left = shiftCoefficients(poly, poly.getDegree(), -1);
+        IntegerPolynomial right = TaylorShift.shift(left, 1);
+
+        // if the right half has a root at zero then the midpoint is exactly a root
+        boolean midpointIsRoot = right.getWideCoefficient(0).isZero();
+        if(midpointIsRoot){
+            right = divideByX(right);
+        }
+
+        bisect(left.getPrimitivePart(), 2 * c, k + 1, boundExponent, reflected, roots, budget);
+        if(midpointIsRoot){
+            addRoot(new RationalInterval(dyadic(2 * c + 1, k + 1, boundExponent)), reflected, roots);
+        }
+        bisect(right.getPrimitivePart(), 2 * c + 1, k + 1, boundExponent, reflected, roots, budget);
+    }
+
+    private static void addRoot(RationalInterval interval, boolean reflected, DoublyLinkedList<RationalInterval> roots){
+        if(reflected){
+            Rational zero = new Rational(0);
+            roots.insertFirst(new RationalInterval(zero.subtract(interval.getUpper()), zero.subtract(interval.getLower())));
+        }else{
+            if(roots.getSize() != 0){
+                roots.goLast();
+            }
+            roots.insert(interval);
+        }
+    }
+
+    /**
+     * upper bound on the number of roots in (0, 1) by Descartes' rule of signs.
+     * Counts the sign changes in (x+1)^n * p(1/(x+1)), whose positive roots are exactly the roots of p in (0, 1)
+     * @param poly integer polynomial whose constant term isn't zero
+     * @return number of sign changes. The number of roots differs from this by an even number
+     */
+    static int descartesBound(IntegerPolynomial poly){
+        // reversing the coefficients gives x^n * p(1/x)
+        IntegerPolynomial shifted = TaylorShift.shift(reverse(poly), 1);
+        if(!shifted.isWide()){
+            return signChanges(shifted.toLongArray());
+        }
+        int changes = 0;
+        int previous = 0;
+        int sign;
+        for (int i = 0; i <= shifted.getDegree(); i++) {
+            sign = shifted.getWideCoefficient(i).signum();
+            if(sign != 0){
+                if(previous != 0 && previous != sign){
+                    changes++;
+                }
+                previous = sign;
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * counts how many times consecutive nonzero coefficients change sign
+     */
+    static int signChanges(long[] poly){
+        int changes = 0;
+        long previous = 0;
+        for (int i = 0; i < poly.length; i++) {
+            if(poly[i] != 0){
+                if(previous != 0 && (previous < 0) != (poly[i] < 0)){
+                    changes++;
+                }
+                previous = poly[i];
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * multiplies the ith coefficient by 2^(first + step * i). With first = n and step = -1 this is 2^n * p(x/2),
+     * and with first = 0 and step = e it's p(2^e * x)
+     * @param poly integer polynomial
+     * @param first power of two the constant term is multiplied by
+     * @param step how much the power of two grows with each coefficient
+     * @return scaled polynomial, which only uses WideIntegers if some coefficient doesn't fit in a long
+     */
+    private static IntegerPolynomial shiftCoefficients(IntegerPolynomial poly, int first, int step){
+        int n = poly.getDegree();
+        if(!poly.isWide()){
+            long[] scaled = poly.toLongArray();
+            try{
+                for (int i = 0; i <= n; i++) {
+                    scaled[i] = shiftLeftExact(scaled[i], first + step * i);
+                }
+                return new IntegerPolynomial(scaled);
+            }catch(ArithmeticException e){
+                // some coefficient doesn't fit in a long
+            }
+        }
+        WideInteger[] scaled = new WideInteger[n + 1];
+        for (int i = 0; i <= n; i++) {
+            scaled[i] = poly.getWideCoefficient(i).shiftLeft(first + step * i);
+        }
+        return IntegerPolynomial.valueOf(scaled);
+    }
+
+    /**
+     * computes p(-x), whose positive roots are the negative roots of p
+     */
+    private static IntegerPolynomial reflect(IntegerPolynomial poly){
+        WideInteger[] reflected = new WideInteger[poly.getDegree() + 1];
+        for (int i = 0; i < reflected.length; i++) {
+            reflected[i] = i % 2 == 0 ? poly.getWideCoefficient(i) : poly.getWideCoefficient(i).negate();
+        }
+        return IntegerPolynomial.valueOf(reflected);
+    }
+
+    /**
+     * computes x^n * p(1/x), which reverses the order of the coefficients
+     */
+    private static IntegerPolynomial reverse(IntegerPolynomial poly){
+        int n = poly.getDegree();
+        if(!poly.isWide()){
+            long[] coefficients = poly.toLongArray();
+            long[] reversed = new long[n + 1];
+            for (int i = 0; i <= n; i++) {
+                reversed[i] = coefficients[n - i];
+            }
+            return new IntegerPolynomial(reversed);
+        }
+        WideInteger[] reversed = new WideInteger[n + 1];
+        for (int i = 0; i <= n; i++) {
+            reversed[i] = poly.getWideCoefficient(n - i);
+        }
+        return IntegerPolynomial.valueOf(reversed);
+    }
+
+    /**
+     * divides by the largest power of x that divides the polynomial
+     */
+    private static IntegerPolynomial divideByX(IntegerPolynomial poly){
+        int n = poly.getDegree();
+        int zeroes = 0;
+        while(zeroes < n && poly.getWideCoefficient(zeroes).isZero()){
+            zeroes++;
+        }
+        WideInteger[] divided = new WideInteger[n + 1 - zeroes];
+        for (int i = 0; i < divided.length; i++) {
+            divided[i] = poly.getWideCoefficient(i + zeroes);
+        }
+        return IntegerPolynomial.valueOf(divided);
+    }
+
+    /**
+     * finds a small e where every root of poly has absolute value less than 2^e
+     * Uses Fujiwara's bound: |root| <= 2 * max |a_(n-i) / a_n|^(1/i), rounded up to a power of two
+     */
+    private static int rootBoundExponent(IntegerPolynomial poly){
+        int n = poly.getDegree();
+        WideInteger leading = poly.getWideCoefficient(n).abs();
+        WideInteger current;
+        int exponent = 0;
+        // find the smallest exponent where |a_(n-i)| < |a_n| * 2^(exponent * i) for every i
+        for (int i = 1; i <= n; i++) {
+            current = poly.getWideCoefficient(n - i).abs();
+            while(current.compareTo(leading.shiftLeft(exponent * i)) >= 0){
+                exponent++;
+            }
+        }
+        return exponent + 1;
+    }
+
+    /**
+     * gets the rational c/2^k * 2^boundExponent
+     */
+    private static Rational dyadic(long c, int k, int boundExponent){
+        if(boundExponent >= k){
+            return new Rational(shiftLeftExact(c, boundExponent - k), 1L);
+        }
+        return new Rational(c, shiftLeftExact(1L, k - boundExponent));
+    }
+
+    /**
+     * computes value * 2^bits
+     * @throws ArithmeticException if the result doesn't fit in a long
+     */
+    private static long shiftLeftExact(long value, int bits){
+        if(value == 0){
+            return 0;
+        }
+        if(bits >= 63 || (value << bits) >> bits != value){
+            throw new ArithmeticException("Coefficient grew too large while isolating roots");
+        }
+        return value << bits;
+    }
+}
@@ -0,0 +1,415 @@
+package mathClasses.RationalOperations;
+
+import mathClasses.DyadicInterval;
+import mathClasses.IntegerPolynomial;
+import mathClasses.IsolatedRoots;
+import mathClasses.Metrics;
+import mathClasses.Rational;
+import mathClasses.RationalPolynomial;
+import mathClasses.RefinedRoots;
+import mathClasses.WideInteger;
+import mathClasses.WorkerPool;
+
+/**
+ * Shrinks the intervals around isolated real roots until each one is no wider than a given tolerance.
+ * Uses quadratic interval refinement: a Newton style secant step guesses which of N pieces of the interval
+ * holds the root, and two exact sign checks confirm it. Each success squares N, so the number of correct bits
+ * doubles every step. When a guess is wrong N shrinks back down and the interval is bisected instead.
+ * Every endpoint has a power of two denominator, and the numerators are WideIntegers so any precision can be reached.
+ * The output of one refinement can be refined further later on
+ */
+public class RootRefinement extends Operation {
+
+    /**
+     * refining fewer roots than this is done on the calling thread
+     */
+    private static final int PARALLEL_THRESHOLD = 2;
+
+    /**
+     * intervals that each hold exactly one root of the polynomial. Either IsolatedRoots or RefinedRoots
+     */
+    private RationalOperationOutput roots;
+
+    /**
+     * the tolerance is divided by 2^precision, so precisions finer than a Rational can hold are reachable
+     */
+    private int precision;
+
+    /**
+     * constructs the operation
+     * @param poly polynomial whose roots are being refined
+     * @param roots intervals around the roots, usually the output of RootIsolation
+     * @param tolerance positive Rational. Every output interval will be at most this wide
+     */
+    public RootRefinement(RationalPolynomial poly, IsolatedRoots roots, Rational tolerance){
+        super(poly, tolerance);
+        this.roots = roots;
+    }
+
+    /**
+     * constructs the operation
+     * @param poly polynomial whose roots are being refined
+     * @param roots intervals around the roots, usually the output of a previous RootRefinement
+     * @param tolerance positive Rational. Every output interval will be at most this wide
+     */
+    public RootRefinement(RationalPolynomial poly, RefinedRoots roots, Rational tolerance){
+        super(poly, tolerance);
+        this.roots = roots;
+    }
+
+    /**
+     * constructs the operation
+     * @param poly polynomial whose roots are being refined
+     * @param roots intervals around the roots. IsolatedRoots can be converted with new RefinedRoots(roots)
+     * @param precision nonnegative number of bits. Every output interval will be at most 1/2^precision wide
+     */
+    public RootRefinement(RationalPolynomial poly, RefinedRoots roots, int precision){
+        super(poly, new Rational(1));
+        this.roots = roots;
+        this.precision = precision;
+    }
+
+    /**
+     * refines the roots and stores the result in 'output'
+     */
+    public void compute(){
+        long start = Metrics.startTimer();
+        try{
+            output = refineAll();
+        }finally{
+            Metrics.recordOperation(this, start);
+        }
+    }
+
+    /**
+     * the roots being refined are an input too, so refinements of different intervals aren't treated as the same
+     */
+    protected Object getExtraInput(){
+        return roots;
+    }
+
+    boolean sameInputs(Operation other){
+        return super.sameInputs(other) && precision == ((RootRefinement) other).precision;
+    }
+
+    int inputHash(){
+        return 31 * super.inputHash() + precision;
+    }
+
+    /**
+     * returns the output of the operation
+     * @return RefinedRoots with the same roots in the same order, each interval no wider than the tolerance.
+     * toIsolatedRoots() converts it back when the ends fit in Rationals
+     */
+    public RefinedRoots getOutput(){
+        return (RefinedRoots) output;
+    }
+
+    private RefinedRoots refineAll(){
+        if(firstPoly.isNull()){
+            throw new IllegalStateException("Cannot refine the roots of a null polynomial");
+        }
+        if(constant.isInfinity() || constant.getSign() || constant.getNumer() == 0){
+            throw new ArithmeticException("Tolerance must be a positive finite number");
+        }
+        if(precision < 0){
+            throw new ArithmeticException("Precision can't be negative");
+        }
+
+        RefinedRoots intervals = roots instanceof IsolatedRoots ? new RefinedRoots((IsolatedRoots) roots) : (RefinedRoots) roots;
+        if(intervals.getSize() == 0){
+            return intervals;
+        }
+
+        // repeated roots don't change sign, so we refine using the square free part
+        IntegerPolynomial integerPoly = firstPoly.getSquareFreePart();
+        WideInteger[] coefficients = new WideInteger[integerPoly.getDegree() + 1];
+        WideInteger[] derivative = new WideInteger[coefficients.length - 1];
+        for (int i = 0; i < coefficients.length; i++) {
+            coefficients[i] = integerPoly.getWideCoefficient(i);
+            if(i != 0){
+                derivative[i - 1] = coefficients[i].multiply(i);
+            }
+        }
+        // an interval is narrow enough when width/2^exponent <= toleranceNumer/toleranceDenom
+        WideInteger toleranceNumer = WideInteger.valueOf(constant.getNumer());
+        WideInteger toleranceDenom = WideInteger.valueOf(constant.getDenom()).shiftLeft(precision);
+
+        DyadicInterval[] results = new DyadicInterval[intervals.getSize()];
+        WorkerPool pool = WorkerPool.getShared();
+        int numBlocks = pool.getThreadCount() + 1;
+        if(numBlocks > results.length){
+            numBlocks = results.length;
+        }
+        if(results.length < PARALLEL_THRESHOLD || numBlocks < 2){
+            new Refinement(coefficients, derivative, toleranceNumer, toleranceDenom, intervals, results, 0, results.length, budget).run();
+        }else{
+            // contiguous blocks, each writing to a disjoint part of 'results'
+            Refinement[] refinements = new Refinement[numBlocks];
+            int blockSize = (results.length + numBlocks - 1) / numBlocks;
+            for (int i = 0; i < numBlocks; i++) {
+                int start = i * blockSize < results.length ? i * blockSize : results.length;
+                int end = start + blockSize < results.length ? start + blockSize : results.length;
+                refinements[i] = new Refinement(coefficients, derivative, toleranceNumer, toleranceDenom, intervals, results, start, end, budget);
+            }
+            pool.runAll(refinements);
+        }
+        return new RefinedRoots(results);
+    }
+
+    /**
+     * Refines a contiguous block of intervals. Each refinement writes to a disjoint part of 'results'
+     */
+    private static class Refinement implements Runnable{
+        private final WideInteger[] coefficients;
+        private final WideInteger[] derivative;
+        private final WideInteger toleranceNumer;
+        private final WideInteger toleranceDenom;
+        private final RefinedRoots intervals;
+        private final DyadicInterval[] results;
+        private final int start;
+        private final int end;
+        private final OperationBudget budget;
+
+        /**
+         * smallest t where 1/2^t is within the tolerance
+         */
+        private final int toleranceExponent;
+
+        Refinement(WideInteger[] coefficients, WideInteger[] derivative, WideInteger toleranceNumer, WideInteger toleranceDenom,
+                   RefinedRoots intervals, DyadicInterval[] results, int start, int end, OperationBudget budget){
+            this.coefficients = coefficients;
+            this.derivative = derivative;
+            this.toleranceNumer = toleranceNumer;
+            this.toleranceDenom = toleranceDenom;
+            this.intervals = intervals;
+            this.results = results;
+            this.start = start;
+            this.end = end;
+            this.budget = budget;
+            int exponent = toleranceDenom.bitLength() - toleranceNumer.bitLength() - 1;
+            if(exponent < 0){
+                exponent = 0;
+            }
+            while(toleranceNumer.shiftLeft(exponent).compareTo(toleranceDenom) < 0){
+                exponent++;
+            }
+            toleranceExponent = exponent;
+        }
+
+        public void run(){
+            for (int i = start; i < end; i++) {
+                results[i] = refine(intervals.getInterval(i));
+            }
+        }
+
+        /**
+         * shrinks one interval around a simple root until it's no wider than the tolerance
+         * @param interval interval holding exactly one root
+         * @return interval holding the same root
+         */
+        private DyadicInterval refine(DyadicInterval interval){
+            if(interval.isExact()){
+                return interval;
+            }
+
+            // the interval is [lower/2^exponent, upper/2^exponent]
+            WideInteger lower = interval.getLower();
+            WideInteger upper = interval.getUpper();
+            int exponent = interval.getExponent();
+            if(isWithinTolerance(upper.subtract(lower), exponent)){
+                return interval;
+            }
+
+            // an end can be a neighbouring root, like the roots found exactly by RootIsolation
+            // the root is simple, so the sign just inside the interval is then the sign of the derivative there
+            int lowerSign = evaluate(coefficients, lower, exponent).signum();
+            if(lowerSign == 0){
+                lowerSign = evaluate(derivative, lower, exponent).signum();
+            }
+            int upperSign = evaluate(coefficients, upper, exponent).signum();
+            if(upperSign == 0){
+                upperSign = -evaluate(derivative, upper, exponent).signum();
+            }
+            if(lowerSign == 0 || upperSign == 0 || lowerSign == upperSign){
+                throw new IllegalStateException("Interval " + interval + " doesn't hold exactly one simple root");
+            }
+
+            // when guessing where the root is, the interval gets split into 2^pieces parts
+            int pieces = 2;
+            int step;
+            WideInteger piece;
+            WideInteger lastPiece;
+            WideInteger width;
+            WideInteger guess;
+            int guessSign;
+            int neighbourSign;
+            while(!isWithinTolerance(upper.subtract(lower), exponent)){
+                OperationBudget.checkedStep(budget);
+                step = pieces;
+                // don't make the denominators any bigger than the tolerance needs
+                for (int i = 1; i < step; i++) {
+                    if(isWithinTolerance(upper.subtract(lower), exponent + i)){
+                        step = i;
+                        break;
+                    }
+                }
+
+                if(pieces > 1){
+                    // guess which piece the root is at the start of from the secant through the two ends
+                    piece = secantPiece(evaluate(coefficients, lower, exponent), evaluate(coefficients, upper, exponent), step);
+                    // after scaling up, every piece is as wide as the whole interval was before
+                    width = upper.subtract(lower);
+                    exponent += step;
+                    lower = lower.shiftLeft(step);
+                    upper = upper.shiftLeft(step);
+                    // the ends themselves are never guessed since they might be other roots
+                    lastPiece = WideInteger.ONE.shiftLeft(step).subtract(WideInteger.ONE);
+                    if(piece.compareTo(WideInteger.ONE) < 0){
+                        piece = WideInteger.ONE;
+                    }else if(piece.compareTo(lastPiece) > 0){
+                        piece = lastPiece;
+                    }
+                    guess = lower.add(width.multiply(piece));
+
+                    // the root is either in the piece just after the guess or the piece just before it
+                    guessSign = evaluate(coefficients, guess, exponent).signum();
+                    if(guessSign == 0){
+                        return new DyadicInterval(guess, guess, exponent);
+                    }
+                    if(guessSign == lowerSign){
+                        lower = guess;
+                        if(guess.add(width).equals(upper)){
+                            pieces *= 2;
+                            continue;
+                        }
+                        neighbourSign = evaluate(coefficients, guess.add(width), exponent).signum();
+                        if(neighbourSign == 0){
+                            return new DyadicInterval(guess.add(width), guess.add(width), exponent);
+                        }
+                        if(neighbourSign != lowerSign){
+                            upper = guess.add(width);
+                            pieces *= 2;
+                            continue;
+                        }
+                        lower = guess.add(width);
+                    }else{
+                        upper = guess;
+                        if(guess.subtract(width).equals(lower)){
+                            pieces *= 2;
+                            continue;
+                        }
+                        neighbourSign = evaluate(coefficients, guess.subtract(width), exponent).signum();
+                        if(neighbourSign == 0){
+                            return new DyadicInterval(guess.subtract(width), guess.subtract(width), exponent);
+                        }
+                        if(neighbourSign == lowerSign){
+                            lower = guess.subtract(width);
+                            pieces *= 2;
+                            continue;
+                        }
+                        upper = guess.subtract(width);
+                    }
+                    // the guess missed, but the checks still narrowed the interval down a bit
+                    pieces /= 2;
+                }else{
+                    // bisection
+                    exponent++;
+                    lower = lower.shiftLeft(1);
+                    upper = upper.shiftLeft(1);
+                    guess = lower.add(upper).shiftRight(1);
+                    guessSign = evaluate(coefficients, guess, exponent).signum();
+                    if(guessSign == 0){
+                        return new DyadicInterval(guess, guess, exponent);
+                    }
+                    if(guessSign == lowerSign){
+                        lower = guess;
+                    }else{
+                        upper = guess;
+                    }
+                    pieces = 2;
+                }
+            }
+            if(interval.getExponent() <= toleranceExponent && exponent > toleranceExponent){
+                return coarsen(lower, upper, exponent, lowerSign);
+            }
+            return new DyadicInterval(lower, upper, exponent);
+        }
+
+        /**
+         * Guesses that miss leave intervals many pieces wide, so the refinement can end with larger denominators than
+         * the tolerance needs. This moves the ends out to the piece of width 1/2^toleranceExponent holding the root,
+         * so a tolerance that fits in a Rational gives ends that fit too.
+         * precond: the starting interval's ends are multiples of 1/2^toleranceExponent, so the piece is inside it
+         * @return interval no wider than the tolerance with 2^toleranceExponent as the denominator
+         */
+        private DyadicInterval coarsen(WideInteger lower, WideInteger upper, int exponent, int lowerSign){
+            int drop = exponent - toleranceExponent;
+            // the interval is narrower than 2/2^toleranceExponent, so it overlaps at most 3 pieces
+            WideInteger pieceLower = lower.signum() < 0 ? ceilingShift(lower.negate(), drop).negate() : lower.shiftRight(drop);
+            WideInteger pieceUpper = upper.signum() < 0 ? upper.negate().shiftRight(drop).negate() : ceilingShift(upper, drop);
+            // every point strictly between pieceLower and pieceUpper is strictly inside the interval
+            WideInteger middle = pieceLower.add(WideInteger.ONE);
+            int middleSign;
+            while(middle.compareTo(pieceUpper) < 0){
+                middleSign = evaluate(coefficients, middle, toleranceExponent).signum();
+                if(middleSign == 0){
+                    return new DyadicInterval(middle, middle, toleranceExponent);
+                }
+                if(middleSign != lowerSign){
+                    return new DyadicInterval(middle.subtract(WideInteger.ONE), middle, toleranceExponent);
+                }
+                middle = middle.add(WideInteger.ONE);
+            }
+            return new DyadicInterval(pieceUpper.subtract(WideInteger.ONE), pieceUpper, toleranceExponent);
+        }
+
+        /**
+         * checks width/2^exponent <= tolerance by cross multiplying
+         */
+        private boolean isWithinTolerance(WideInteger width, int exponent){
+            return width.multiply(toleranceDenom).compareTo(toleranceNumer.shiftLeft(exponent)) <= 0;
+        }
+    }
+
+    /**
+     * divides a nonnegative number by 2^bits, rounding up
+     */
+    private static WideInteger ceilingShift(WideInteger value, int bits){
+        WideInteger shifted = value.shiftRight(bits);
+        return shifted.shiftLeft(bits).equals(value) ? shifted : shifted.add(WideInteger.ONE);
+    }
+
+    /**
+     * estimates where the root is by drawing a line between the values at the ends
+     * @param lowerValue value at the lower end, which has the opposite sign to upperValue
+     * @param upperValue value at the upper end
+     * @param step the interval is split into 2^step pieces
+     * @return how many of the 2^step pieces of the interval are before the root, between 0 and 2^step
+     */
+    private static WideInteger secantPiece(WideInteger lowerValue, WideInteger upperValue, int step){
+        // the values have opposite signs, so lowerValue / (lowerValue - upperValue) is between 0 and 1
+        WideInteger numerator = lowerValue.abs();
+        WideInteger denominator = lowerValue.subtract(upperValue).abs();
+        // only the leading bits matter for a guess, so the division is done on a few more bits than the answer has
+        int shift = denominator.bitLength() - step - 64;
+        if(shift > 0){
+            numerator = numerator.shiftRight(shift);
+            denominator = denominator.shiftRight(shift);
+        }
+        return numerator.shiftLeft(step).add(denominator.shiftRight(1)).divide(denominator);
+    }
+
+    /**
+     * computes 2^(exponent * n) * p(numerator / 2^exponent) exactly, which has the same sign as p(numerator / 2^exponent)
+     * Uses Horner's method: each step multiplies by the numerator and adds the next coefficient times a power of two
+     */
+    private static WideInteger evaluate(WideInteger[] coefficients, WideInteger numerator, int exponent){
+        int n = coefficients.length - 1;
+        WideInteger total = coefficients[n];
+        for (int i = n - 1; i >= 0; i--) {
+            total = total.multiply(numerator).add(coefficients[i].shiftLeft(exponent * (n - i)));
+        }
+        return total;
+    }
+}
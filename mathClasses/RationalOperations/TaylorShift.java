@@ -0,0 +1,212 @@
+package mathClasses.RationalOperations;
+
+import dataStructures.Pair;
+import mathClasses.IntegerPolynomial;
+import mathClasses.Metrics;
+import mathClasses.Rational;
+import mathClasses.RationalPolyIterator;
+import mathClasses.RationalPolynomial;
+import mathClasses.WideInteger;
+
+/**
+ * Computes p(x + a) for a polynomial p and a rational a.
+ * Uses the Horner scheme on integer coefficients, which for a = 1 only needs additions (Pascal's triangle).
+ * The coefficients start out as longs and switch to WideIntegers if they grow too large, so the shift is exact and
+ * only fails when a coefficient of the result doesn't fit in a Rational.
+ * Also provides p(c * x) and x^n * p(1/x), which only take one pass over the coefficients
+ */
+public class TaylorShift extends Operation {
+
+    /**
+     * constructs the operation
+     * @param poly polynomial being shifted
+     * @param shift how far the polynomial is shifted by. The result is poly(x + shift)
+     */
+    public TaylorShift(RationalPolynomial poly, Rational shift){
+        super(poly, shift);
+    }
+
+    /**
+     * shifts the polynomial and stores the result in 'output'
+     */
+    public void compute(){
+        // a shift takes polynomial time, so the budget is only checked before starting
+        if(budget != null){
+            budget.check();
+        }
+        long start = Metrics.startTimer();
+        try{
+            output = shift();
+        }finally{
+            Metrics.recordOperation(this, start);
+        }
+    }
+
+    /**
+     * returns the output of the operation
+     * @return RationalPolynomial that is the input evaluated at x + shift
+     */
+    public RationalPolynomial getOutput(){
+        return (RationalPolynomial) output;
+    }
+
+    /**
+     * Horner scheme for p(x + u/v).
+     * If L * p has integer coefficients then p(x + u/v) = (v^n * L * p(x/v))(vx + u) / (v^n * L), and the middle part
+     * is an integer polynomial shifted by the integer u
+     * @throws ArithmeticException if a coefficient of the result doesn't fit in a Rational
+     */
+    private RationalPolynomial shift(){
+        if(firstPoly.isNull()){
+            throw new IllegalStateException("Cannot shift a null polynomial");
+        }
+        if(constant.isInfinity()){
+            throw new ArithmeticException("Cannot shift a polynomial by infinity");
+        }
+        if(constant.getNumer() == 0 || firstPoly.isZero() || firstPoly.getDegree() == 0){
+            return firstPoly;
+        }
+
+        Pair<IntegerPolynomial, Long> integerized = IntegerPolynomial.fromRational(firstPoly);
+        IntegerPolynomial integerPoly = integerized.getFirst();
+        int n = integerPoly.getDegree();
+        long u = constant.getSign() ? -constant.getNumer() : constant.getNumer();
+        long v = constant.getDenom();
+
+        // v^n * p(x/v) has coefficients c_i * v^(n-i)
+        WideInteger[] powersOfV = new WideInteger[n + 1];
+        powersOfV[0] = WideInteger.ONE;
+        for (int i = 1; i <= n; i++) {
+            powersOfV[i] = powersOfV[i - 1].multiply(v);
+        }
+        if(v != 1){
+            WideInteger[] scaled = new WideInteger[n + 1];
+            for (int i = 0; i <= n; i++) {
+                scaled[i] = integerPoly.getWideCoefficient(i).multiply(powersOfV[n - i]);
+            }
+            integerPoly = IntegerPolynomial.valueOf(scaled);
+        }
+
+        integerPoly = shift(integerPoly, u);
+
+        // substituting vx back in multiplies the kth coefficient by v^k, which cancels with the v^n
+        Rational[] shifted = new Rational[n + 1];
+        for (int k = 0; k <= n; k++) {
+            shifted[k] = Rational.valueOf(integerPoly.getWideCoefficient(k), powersOfV[n - k].multiply(integerized.getSecond()));
+        }
+        return new RationalPolynomial(shifted);
+    }
+
+    /**
+     * computes p(x + a) for an integer polynomial with the Horner scheme. Works on longs until one overflows, and
+     * redoes the shift with WideIntegers after that
+     * @param poly polynomial being shifted
+     * @param shift a
+     * @return p(x + a)
+     */
+    static IntegerPolynomial shift(IntegerPolynomial poly, long shift){
+        if(shift == 0 || poly.isZero()){
+            return poly;
+        }
+        if(!poly.isWide()){
+            try{
+                return new IntegerPolynomial(shift(poly.toLongArray(), shift));
+            }catch(ArithmeticException e){
+                // coefficients got too large for a long
+            }
+        }
+
+        int n = poly.getDegree();
+        WideInteger[] shifted = new WideInteger[n + 1];
+        for (int i = 0; i <= n; i++) {
+            shifted[i] = poly.getWideCoefficient(i);
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = n - 1; j >= i; j--) {
+                shifted[j] = shifted[j].add(shift == 1 ? shifted[j + 1] : shifted[j + 1].multiply(shift));
+            }
+        }
+        return IntegerPolynomial.valueOf(shifted);
+    }
+
+    /**
+     * computes p(c * x), which multiplies the ith coefficient by c^i
+     * @param poly polynomial being scaled
+     * @param scaler c
+     * @return p(c * x)
+     */
+    public static RationalPolynomial scaleVariable(RationalPolynomial poly, Rational scaler){
+        if(poly.isNull()){
+            throw new IllegalStateException("Cannot scale a null polynomial");
+        }
+        if(scaler.isInfinity()){
+            throw new ArithmeticException("Cannot scale a polynomial's variable by infinity");
+        }
+        if(poly.isZero()){
+            return poly;
+        }
+        Rational[] coefficients = toArray(poly);
+        Rational power = new Rational(1);
+        for (int i = 1; i < coefficients.length; i++) {
+            power = power.multiply(scaler);
+            coefficients[i] = coefficients[i].multiply(power);
+        }
+        return new RationalPolynomial(coefficients);
+    }
+
+    /**
+     * computes x^n * p(1/x) where n is the degree of p, which reverses the order of the coefficients
+     * @param poly polynomial being reversed
+     * @return reversed polynomial
+     */
+    public static RationalPolynomial reverse(RationalPolynomial poly){
+        if(poly.isNull()){
+            throw new IllegalStateException("Cannot reverse a null polynomial");
+        }
+        if(poly.isZero()){
+            return poly;
+        }
+        Rational[] coefficients = toArray(poly);
+        Rational[] reversed = new Rational[coefficients.length];
+        for (int i = 0; i < coefficients.length; i++) {
+            reversed[i] = coefficients[coefficients.length - 1 - i];
+        }
+        return new RationalPolynomial(reversed);
+    }
+
+    /**
+     * computes p(x + a) for an integer polynomial with the Horner scheme. When a = 1 it's only additions
+     * @param poly integer coefficients, lowest order first
+     * @param shift a
+     * @return new array holding p(x + a)
+     * @throws ArithmeticException if a coefficient doesn't fit in a long
+     */
+    static long[] shift(long[] poly, long shift){
+        long[] shifted = poly.clone();
+        int n = shifted.length - 1;
+        for (int i = 0; i < n; i++) {
+            for (int j = n - 1; j >= i; j--) {
+                if(shift == 1){
+                    shifted[j] = Math.addExact(shifted[j], shifted[j + 1]);
+                }else{
+                    shifted[j] = Math.addExact(shifted[j], Math.multiplyExact(shift, shifted[j + 1]));
+                }
+            }
+        }
+        return shifted;
+    }
+
+    private static Rational[] toArray(RationalPolynomial poly){
+        if(poly.isZero()){
+            return new Rational[]{new Rational(0)};
+        }
+        RationalPolyIterator iterator = poly.getIterator();
+        Rational[] coefficients = new Rational[poly.getDegree() + 1];
+        iterator.goFirst();
+        for (int i = 0; i < coefficients.length; i++) {
+            coefficients[i] = iterator.currentRational();
+            iterator.goForth();
+        }
+        return coefficients;
+    }
+}
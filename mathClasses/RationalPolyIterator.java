@@ -1,78 +1,81 @@
 package mathClasses;
 
-import dataStructures.DoublyLinkedNode;
-
 /**
  * Class that iterates over a RationalPolynomial
+ * Each iterator has its own position, so many threads can iterate over the same polynomial at once
  */
 public class RationalPolyIterator{
-    protected DoublyLinkedNode<Rational> currentNode;
+    /**
+     * index of the current coefficient. Equal to the number of coefficients when the iterator is after the end
+     */
+    protected int index;
 
     protected RationalPolynomial list;
 
     public RationalPolyIterator(RationalPolynomial list){
         this.list = list;
-        currentNode = list.poly.getHead();
+        index = 0;
     }
 
     public Rational currentRational(){
-        return currentNode.item().clone();
+        if(this.isAfter())
+            throw new IllegalStateException("Iterator is after the last coefficient");
+
+        return list.coefficients[index];
     }
 
     public boolean isFirst(){
-        return list.poly.getHead() == currentNode;
+        return index == 0 && list.coefficients.length != 0;
     }
 
     public boolean isLast(){
-        return list.poly.getTail() == currentNode;
+        return index == list.coefficients.length - 1;
     }
 
     public boolean isAfter(){
-        return currentNode == null;
+        return index >= list.coefficients.length;
     }
 
     public void goFirst(){
-        if(list.poly.getSize() == 0)
+        if(list.coefficients.length == 0)
             throw new IllegalStateException("Cannot go to the first element of an empty list");
 
-        currentNode = list.poly.getHead();
+        index = 0;
     }
 
     public void goLast(){
-        if(list.poly.getSize() == 0)
+        if(list.coefficients.length == 0)
             throw new IllegalStateException("Cannot go to the first element of an empty list");
 
-        currentNode = list.poly.getTail();
+        index = list.coefficients.length - 1;
     }
 
     public void goForth(){
-        if(list.poly.getSize() == 0)
+        if(list.coefficients.length == 0)
             throw new IllegalStateException("Cannot go forth on an empty list");
 
         if(this.isAfter())
             throw new IllegalStateException("Cannot go to the next item while already after");
 
-        currentNode = currentNode.getNext();
+        index++;
     }
 
     public void goBack(){
-        if(list.poly.getSize() == 0)
+        if(list.coefficients.length == 0)
             throw new IllegalStateException("Cannot go back on an empty list");
 
-        if(list.poly.getHead() == currentNode)
+        if(index == 0)
             throw new IllegalStateException("Cannot go before the first element");
 
-        currentNode = currentNode.getNext();
+        index--;
     }
 
     public void goToIth(int i){
         this.goFirst();
-        if(i > list.poly.getSize()){
+        if(i > list.coefficients.length){
             throw new IllegalStateException("Cannot go past the end of a list");
         }
 
-        for (int j = 0; j < i; j++) {
-            this.goForth();
-        }
+        index = i;
     }
 }
@@ -9,12 +9,46 @@ import static mathClasses.Rational.*;
 
 /**
  * Represents a polynomial with rational coefficients. Supports addition, scaling, and multiplication of polynomials
+ * Instances of RationalPolynomial are immutable, so one polynomial can be shared between threads without locking
  */
 public class RationalPolynomial implements RationalOperationOutput, Cloneable{
     /**
-     * Rational polynomial where items further along in the list have higher degree
+     * coefficients of the polynomial where later elements have higher degree. Never has trailing zeroes, except that
+     * the zero polynomial is {0}. Never changed after the constructor finishes
      */
-    protected DoublyLinkedList<Rational> poly;
+    final Rational[] coefficients;
+
+    /**
+     * degree of the polynomial, or -1 for the zero and null polynomials
+     */
+    private final int degree;
+
+    /**
+     * how many of the lowest order coefficients are zero, which is the largest k where x^k divides the polynomial
+     */
+    private final int trailingZeroes;
+
+    /**
+     * gcd of the numerators over the lcm of the denominators. Only worked out the first time it's asked for
+     */
+    private Rational content;
+
+    /**
+     * hash of the coefficients, or 0 if it hasn't been worked out yet
+     */
+    private int hash;
+
+    /**
+     * Sturm sequence of this polynomial. Only built the first time it's asked for
+     */
+    private SturmSequence sturmSequence;
+
+    /**
+     * primitive integer polynomial with the same roots, and its square free part. Only worked out the first time
+     * they're asked for
+     */
+    private IntegerPolynomial integerPolynomial;
+    private IntegerPolynomial squareFreePart;
 
 
     /////////////////////////////////////////
@@ -26,23 +60,65 @@ public class RationalPolynomial implements RationalOperationOutput, Cloneable{
      * @param args Rational numbers to go in the polynomial where further right elements have higher degree
      */
     public RationalPolynomial(Rational ... args){
-        poly = new DoublyLinkedList<>();
         for(Rational x: args){
             if(x.isInfinity()){
                 throw new ArithmeticException("infinite values not allowed in polynomial");
             }
-            poly.insert(x);
-        }
-        if(this.poly.getSize() != 0){
-            this.unPadPoly();
         }
+        coefficients = trim(args.clone());
+        degree = degreeOf(coefficients);
+        trailingZeroes = trailingZeroesOf(coefficients);
     }
 
     public RationalPolynomial(DoublyLinkedList<Rational> listOfRationals){
-        poly = listOfRationals;
-        if(this.poly.getSize() != 0){
-            this.unPadPoly();
+        Rational[] args = new Rational[listOfRationals.getSize()];
+        DoublyLinkedListIterator<Rational> iterator = listOfRationals.getIterator();
+        if(args.length != 0){
+            iterator.goFirst();
         }
+        for (int i = 0; i < args.length; i++) {
+            args[i] = iterator.item();
+            iterator.goForth();
+        }
+        coefficients = trim(args);
+        degree = degreeOf(coefficients);
+        trailingZeroes = trailingZeroesOf(coefficients);
+    }
+
+    /**
+     * shares the coefficients and cached values of another polynomial
+     * @param source polynomial being copied
+     */
+    private RationalPolynomial(RationalPolynomial source){
+        coefficients = source.coefficients;
+        degree = source.degree;
+        trailingZeroes = source.trailingZeroes;
+        content = source.content;
+        hash = source.hash;
+        sturmSequence = source.sturmSequence;
+        integerPolynomial = source.integerPolynomial;
+        squareFreePart = source.squareFreePart;
+    }
+
+    /**
+     * @param coefficients trimmed coefficients that nothing else has a reference to
+     * @param degree degree worked out from them
+     * @param trailingZeroes number of zero coefficients at the low end
+     */
+    private RationalPolynomial(Rational[] coefficients, int degree, int trailingZeroes){
+        this.coefficients = coefficients;
+        this.degree = degree;
+        this.trailingZeroes = trailingZeroes;
+    }
+
+    /**
+     * wraps an array without copying it. Only used when nothing else has a reference to the array
+     * @param coefficients coefficients, lowest order first. Trailing zeroes are removed
+     * @return polynomial that owns the array
+     */
+    static RationalPolynomial wrap(Rational[] coefficients){
+        Rational[] trimmed = trim(coefficients);
+        return new RationalPolynomial(trimmed, degreeOf(trimmed), trailingZeroesOf(trimmed));
     }
 
     /**
@@ -51,11 +127,11 @@ public class RationalPolynomial implements RationalOperationOutput, Cloneable{
      * @return rational polynomial with integer coefficients
      */
     public static RationalPolynomial createFromIntegers(int ... args){
-        RationalPolynomial creation = new RationalPolynomial();
-        for(int x: args){
-            creation.poly.insert(new Rational(x));
+        Rational[] creation = new Rational[args.length];
+        for (int i = 0; i < args.length; i++) {
+            creation[i] = new Rational(args[i]);
         }
-        return creation;
+        return wrap(creation);
     }
 
 
@@ -88,25 +164,20 @@ public class RationalPolynomial implements RationalOperationOutput, Cloneable{
             throw new ArithmeticException("Rational polynomials cannot have coefficients equal to infinity");
         }
 
-        RationalPolynomial scaledPoly = new RationalPolynomial();
         if(this.isNull()){
-            return scaledPoly;
+            return new RationalPolynomial();
         }
 
-        // inserts a 'power' number of zero to front of polynomial
-        // same as multiplying by x^power
+        // the first 'power' terms are zero, which is the same as multiplying by x^power
+        Rational[] scaled = new Rational[power + coefficients.length];
+        Rational zero = new Rational(0);
         for (int i = 0; i < power; i++) {
-            scaledPoly.poly.insert(new Rational(0));
+            scaled[i] = zero;
         }
-
-        DoublyLinkedListIterator<Rational> iterator = this.poly.getIterator();
-
-        iterator.goFirst();
-        while(!iterator.isAfter()){
-            scaledPoly.poly.insert(iterator.item().multiply(scaler));
-            iterator.goForth();
+        for (int i = 0; i < coefficients.length; i++) {
+            scaled[power + i] = coefficients[i].multiply(scaler);
         }
-        return scaledPoly;
+        return wrap(scaled);
     }
 
     /**
@@ -130,49 +201,7 @@ public class RationalPolynomial implements RationalOperationOutput, Cloneable{
         if(this.isNull() || other.isNull()){
             throw new ArithmeticException("Cannot add by a null polynomial");
         }
-
-        // special case for if one is the zero polynomial
-        RationalPolynomial zeroPoly = new RationalPolynomial(new Rational(0)).clone();
-
-        if(this.equals(zeroPoly)){
-            return other;
-        }
-        if(other.equals(zeroPoly)){
-            return this.clone();
-        }
-
-        // need to pad polynomial of smaller degree with zero terms so we can iterate through both without trouble
-        padPoly(this, other);
-
-        RationalPolynomial sum = new RationalPolynomial();
-
-        // iterate through every term of the polynomial
-        // adding every term to the sum polynomial along the way
-        Rational otherRat;
-        Rational thisRat;
-        Rational currSum;
-
-        DoublyLinkedListIterator<Rational> thisIterator = this.poly.getIterator();
-        DoublyLinkedListIterator<Rational> otherIterator = other.poly.getIterator();
-
-        thisIterator.goFirst();
-        otherIterator.goFirst();
-        while(!thisIterator.isAfter()){
-            thisRat = thisIterator.getCurrentNode().item();
-            otherRat = otherIterator.getCurrentNode().item();
-            currSum = thisRat.add(otherRat);
-            sum.poly.insert(currSum);
-
-            thisIterator.goForth();
-            otherIterator.goForth();
-        }
-
-        // we now must undo the padded zero terms we did previously
-        this.unPadPoly();
-        other.unPadPoly();
-        sum.unPadPoly();
-
-        return sum;
+        return combine(other, false);
     }
 
     /**
@@ -184,9 +213,38 @@ public class RationalPolynomial implements RationalOperationOutput, Cloneable{
         if(this.isNull() || other.isNull()){
             throw new ArithmeticException("Cannot subtract by a null polynomial");
         }
-        return this.add(other.scale(-1));
+        return combine(other, true);
     }
 
+    /**
+     * adds or subtracts term by term. The terms both polynomials have are combined, and the rest of the longer one is
+     * copied over, so neither polynomial needs to be padded with zeroes
+     * @param other non-null polynomial
+     * @param subtract whether to compute this - other instead of this + other
+     * @return sum or difference
+     */
+    private RationalPolynomial combine(RationalPolynomial other, boolean subtract){
+        // polynomials never change so adding zero can give back the other one as is
+        if(other.isZero()){
+            return this;
+        }
+        if(this.isZero() && !subtract){
+            return other;
+        }
+        int shorter = this.coefficients.length < other.coefficients.length ? this.coefficients.length : other.coefficients.length;
+        int longer = this.coefficients.length < other.coefficients.length ? other.coefficients.length : this.coefficients.length;
+        Rational[] sum = new Rational[longer];
+        for (int i = 0; i < shorter; i++) {
+            sum[i] = subtract ? this.coefficients[i].subtract(other.coefficients[i]) : this.coefficients[i].add(other.coefficients[i]);
+        }
+        for (int i = shorter; i < this.coefficients.length; i++) {
+            sum[i] = this.coefficients[i];
+        }
+        for (int i = shorter; i < other.coefficients.length; i++) {
+            sum[i] = subtract ? other.coefficients[i].negate() : other.coefficients[i];
+        }
+        return wrap(sum);
+    }
 
     /**
      * multiplies two polynomials
@@ -200,56 +258,35 @@ public class RationalPolynomial implements RationalOperationOutput, Cloneable{
         }
 
         // special case for the zero polynomial
-        RationalPolynomial zero = new RationalPolynomial(new Rational(0)).clone();
-
-        if(this.equals(zero) || other.equals(zero)){
-            return zero;
+        if(this.isZero() || other.isZero()){
+            return new RationalPolynomial(new Rational(0));
         }
 
+        long start = Metrics.startTimer();
         int thisDegree = this.getDegree();
         int otherDegree = other.getDegree();
 
-        // create an array of rationals. This will be converted to a RationalPolynomial at the end
         // needs to be an array for in place modification of elements, and constant time access
         Rational[] productArray = new Rational[thisDegree + otherDegree + 1];
         for (int i = 0; i <= thisDegree + otherDegree; i++) {
             productArray[i] = new Rational(0);
         }
 
-        DoublyLinkedListIterator<Rational> thisIterator = this.poly.getIterator();
-        DoublyLinkedListIterator<Rational> otherIterator = other.poly.getIterator();
-
-        thisIterator.goFirst();
-        int i = 0; // keep track of i, and j to find the degree of the intermediate product terms
-        int j;
-        Rational thisCurrent;
-        Rational otherCurrent;
-        // loop through all elements of 'this'
-        while(!thisIterator.isAfter()){
-            thisCurrent = thisIterator.item();
-            otherIterator.goFirst();
-            j = 0;
-            while(!otherIterator.isAfter()){
-                otherCurrent = otherIterator.item();
-
-                // thisCurr * otherCurr is of degree i+j so we must increment the i+jth term by thisCurr * otherCurr
-                productArray[i+j] = productArray[i+j].add(thisCurrent.multiply(otherCurrent));
-
-                otherIterator.goForth();
-                j++;
+        // thisCurr * otherCurr is of degree i+j so we must increment the i+jth term by thisCurr * otherCurr
+        for (int i = 0; i <= thisDegree; i++) {
+            for (int j = 0; j <= otherDegree; j++) {
+                productArray[i+j] = productArray[i+j].add(this.coefficients[i].multiply(other.coefficients[j]));
             }
-
-            thisIterator.goForth();
-            i++;
         }
 
-        // convert the array to a RationalPolynomial
-        RationalPolynomial product = new RationalPolynomial();
-        for (int k = 0; k <= thisDegree + otherDegree; k++) {
-            product.poly.insert(productArray[k]);
+        Metrics.record(Metrics.POLYNOMIAL_MULTIPLY, start);
+        ArithmeticEvents.emit(ArithmeticEvent.POLYNOMIAL_MULTIPLY, "schoolbook", thisDegree, otherDegree, 0, start);
+        if(Metrics.isEnabled()){
+            for (int i = 0; i < productArray.length; i++) {
+                Metrics.recordCoefficient(productArray[i]);
+            }
         }
-
-        return product;
+        return wrap(productArray);
     }
 
     /**
@@ -262,56 +299,54 @@ public class RationalPolynomial implements RationalOperationOutput, Cloneable{
             throw new ArithmeticException("Cannot divide by empty polynomial");
 
         RationalPolynomial zero = new RationalPolynomial(new Rational(0));
-        if(other.equals(zero))
+        if(other.isZero())
             throw new ArithmeticException("Cannot divide by zero");
 
+        long start = Metrics.startTimer();
         Pair<RationalPolynomial, RationalPolynomial> quotientRemainder = new Pair<>();
 
-        if(this.equals(zero)){ // if the numerator is zero then both the quotient and the remainder is zero
+        String algorithm;
+        if(this.isZero()){ // if the numerator is zero then both the quotient and the remainder is zero
             quotientRemainder.setFirst(zero);
             quotientRemainder.setSecond(zero);
+            algorithm = "zero dividend";
         }else if(this.getDegree() < other.getDegree()) { // if the numerator is a higher degree than the denominator then remainder = numerator and quotient = zero
             quotientRemainder.setFirst(zero);
-            quotientRemainder.setSecond(this.clone());
+            quotientRemainder.setSecond(this);
+            algorithm = "smaller dividend";
         }else if(other.getDegree() == 0){ // if the denominator is a constant then just scale the numerator
-            quotientRemainder.setFirst(this.scale(other.currentRational().getInverse()));
+            quotientRemainder.setFirst(this.scale(other.coefficients[0].getInverse()));
             quotientRemainder.setSecond(zero);
+            algorithm = "constant divisor";
         }else{
-            RationalPolynomial thisCopy = this.clone();
-            int quotientDegree = this.getDegree() - other.getDegree();
-
-            Rational thisLeadingTerm;
-            Rational otherLeadingTerm = other.poly.getTail().item();
+            // this algorithm is effectively what would be done to divide polynomials by hand
+            Rational[] remainder = this.coefficients.clone();
+            int otherDegree = other.getDegree();
+            int quotientDegree = this.getDegree() - otherDegree;
+            Rational otherLeadingTerm = other.coefficients[otherDegree];
+            Rational[] quotient = new Rational[quotientDegree + 1];
             Rational scaler;
-
-            RationalPolynomial quotient = new RationalPolynomial();
-            RationalPolynomial scaledPoly;
-            int oldThisLength = thisCopy.poly.getSize();
-            for (int i = 0; i <= quotientDegree; i++) {
-                // this algorithm is effectively what would be done to divide polynomials by hand
-
-                // attempt to calculate the scaler based on the last item of thisCopy
-                try{
-                    // if what should be the last item is removed by unpadPoly then throw an exception then subsequently catch it
-                    thisCopy.poly.goToIth(oldThisLength - 1 - i);
-                    thisLeadingTerm = thisCopy.currentRational();
-                    scaler = thisLeadingTerm.divide(otherLeadingTerm);
-                }catch(IllegalStateException e){
-                    scaler = new Rational(0,1);
+            for (int i = quotientDegree; i >= 0; i--) {
+                // subtracting scaler * x^i * other gets rid of the leading term of the remainder
+                scaler = remainder[i + otherDegree].divide(otherLeadingTerm);
+                quotient[i] = scaler;
+                for (int j = 0; j <= otherDegree; j++) {
+                    remainder[i + j] = remainder[i + j].subtract(scaler.multiply(other.coefficients[j]));
                 }
-
-                // scale the denominator by lastTermOther/lastTermThis
-                // after subtracting this is guaranteed to reduce the degree of thisCopy
-                // done repeatedly this will reduce thisCopy until it's of lesser degree than the denominator
-                scaledPoly = other.scale(scaler, quotientDegree - i);
-                thisCopy = thisCopy.subtract(scaledPoly);
-
-                thisCopy.unPadPoly(); // take away the last leading zero
-                // the quotient polynomial is constructed with the the scalers
-                quotient.poly.insertFirst(scaler);
             }
-            quotientRemainder.setFirst(quotient);
-            quotientRemainder.setSecond(thisCopy);
+            // everything from otherDegree up has been cancelled out
+            Rational[] trimmedRemainder = new Rational[otherDegree];
+            for (int i = 0; i < otherDegree; i++) {
+                trimmedRemainder[i] = remainder[i];
+            }
+            quotientRemainder.setFirst(wrap(quotient));
+            quotientRemainder.setSecond(wrap(trimmedRemainder));
+            algorithm = "long division";
+        }
+        Metrics.record(Metrics.POLYNOMIAL_QUOTIENT_REMAINDER, start);
+        if(ArithmeticEvents.isRecording()){
+            // the zero polynomial doesn't have a degree, so it's reported as -1
+            ArithmeticEvents.emit(ArithmeticEvent.QUOTIENT_REMAINDER, algorithm, this.isZero() ? -1 : this.getDegree(), other.getDegree(), 0, start);
         }
         return quotientRemainder;
     }
@@ -350,7 +385,7 @@ public class RationalPolynomial implements RationalOperationOutput, Cloneable{
 
         if(xVal.isInfinity()){
             // the last term will dominate as x->inf so we only care about it's sign
-            Rational lastTerm = this.poly.getTail().item();
+            Rational lastTerm = coefficients[coefficients.length - 1];
 
             // raise infinity to the kth power and then look at it's sign
             long infCoeff = (this.getDegree() % 2 == 0) ? 1 : -1;
@@ -366,20 +401,18 @@ public class RationalPolynomial implements RationalOperationOutput, Cloneable{
                 return makePositiveInfinity();
             }
         }else{
-            DoublyLinkedListIterator<Rational> iterator = this.poly.getIterator();
-            iterator.goFirst();
-
-            for (int i = 0; i <= this.getDegree(); i++) {
-                coeff = iterator.item();
+            long start = Metrics.startTimer();
+            for (int i = 0; i < coefficients.length; i++) {
+                coeff = coefficients[i];
                 if(i == 0){
                     runningTotal = runningTotal.add(coeff);
                 }else{
                     term = xVal.power(i);
                     runningTotal = runningTotal.add(coeff.multiply(term));
                 }
-                iterator.goForth();
             }
 
+            Metrics.record(Metrics.POLYNOMIAL_SOLVE, start);
             return runningTotal;
         }
 
@@ -398,23 +431,16 @@ public class RationalPolynomial implements RationalOperationOutput, Cloneable{
             throw new IllegalStateException("Can't integerize an empty polynomial");
 
         DoublyLinkedList<Long> denominators = new DoublyLinkedList<>();
-        DoublyLinkedListIterator<Rational> iterator = this.poly.getIterator();
-        iterator.goFirst();
-        while(!iterator.isAfter()){
-            denominators.insert(iterator.item().getDenom());
-            iterator.goForth();
+        for (int i = 0; i < coefficients.length; i++) {
+            denominators.insert(coefficients[i].getDenom());
         }
         Rational totalLcm = new Rational(lcmOfAll(denominators),1);
 
-        iterator.goFirst();
-        RationalPolynomial intergerized = new RationalPolynomial();
-        Rational current;
-        while(!iterator.isAfter()){
-            current = iterator.item().multiply(totalLcm);
-            intergerized.poly.insert(current);
-            iterator.goForth();
+        Rational[] intergerized = new Rational[coefficients.length];
+        for (int i = 0; i < coefficients.length; i++) {
+            intergerized[i] = coefficients[i].multiply(totalLcm);
         }
-        return new Pair<>(intergerized, totalLcm.getNumer());
+        return new Pair<>(wrap(intergerized), totalLcm.getNumer());
     }
 
 
@@ -422,35 +448,42 @@ public class RationalPolynomial implements RationalOperationOutput, Cloneable{
     // helper methods
     /////////////////////////////////////////
 
-    private static void padPoly(RationalPolynomial firstPoly, RationalPolynomial secondPoly){
+    /**
+     * removes trailing zeroes, leaving at least one coefficient
+     * @return coefficients if there was nothing to remove, otherwise a shorter copy
+     */
+    private static Rational[] trim(Rational[] coefficients){
         Rational zero = new Rational(0);
-        if(firstPoly.poly.getSize() < secondPoly.poly.getSize()){ // if this is of lesser degree then pad it
-            firstPoly.poly.goLast();
-            while(firstPoly.poly.getSize() < secondPoly.poly.getSize()){
-                firstPoly.poly.insert(zero);
-            }
-        }else if (firstPoly.poly.getSize() > secondPoly.poly.getSize()){ // if other is of lesser degree
-            secondPoly.poly.goLast();
-            while(firstPoly.poly.getSize() > secondPoly.poly.getSize()){
-                secondPoly.poly.insert(zero);
-            }
+        int length = coefficients.length;
+        while(length > 1 && coefficients[length - 1].equals(zero)){
+            length--;
+        }
+        if(length == coefficients.length){
+            return coefficients;
+        }
+        Rational[] trimmed = new Rational[length];
+        for (int i = 0; i < length; i++) {
+            trimmed[i] = coefficients[i];
         }
+        return trimmed;
     }
 
-    public void unPadPoly(){
-        Rational currentRational;
-        Rational zero = new Rational(0);
-        this.poly.goLast();
-        Rational lastRational = this.currentRational();
-        if(lastRational.equals(zero)){
-            this.poly.goLast();
-            currentRational = this.currentRational();
-            while(currentRational.equals(zero) && this.poly.getSize() > 1){
-                this.poly.delete();
-                this.poly.goLast();
-                currentRational = this.currentRational();
-            }
+    /**
+     * @return degree of trimmed coefficients, or -1 for the zero and null polynomials
+     */
+    private static int degreeOf(Rational[] coefficients){
+        if(coefficients.length == 0 || (coefficients.length == 1 && coefficients[0].getNumer() == 0)){
+            return -1;
         }
+        return coefficients.length - 1;
+    }
+
+    private static int trailingZeroesOf(Rational[] coefficients){
+        int zeroes = 0;
+        while(zeroes < coefficients.length - 1 && coefficients[zeroes].getNumer() == 0){
+            zeroes++;
+        }
+        return zeroes;
     }
 
     private static long lcmOfAll(DoublyLinkedList<Long> denoms){
@@ -474,43 +507,74 @@ public class RationalPolynomial implements RationalOperationOutput, Cloneable{
         return denoms.getHead().item();
     }
 
-    private static String getNChars(int n, String c){
-        return new String(new char[n]).replace("\0", c);
-    }
-
 
     /////////////////////////////////////////
     // convenience, utility, and other
     /////////////////////////////////////////
 
-    public void goFirst(){
-        poly.goFirst();
-    }
+    public Rational getFirst(){return coefficients[0];}
 
-    public void goLast(){
-        poly.goLast();
-    }
+    public Rational getLast(){return coefficients[coefficients.length - 1];}
 
-    public void goForth(){
-        poly.goForth();
-    }
+    /**
+     * gets the coefficient of the highest power of x
+     * @return leading coefficient, which is zero for the zero polynomial
+     */
+    public Rational getLeadingCoefficient(){
+        if(this.isNull())
+            throw new IllegalStateException("Null polynomial doesn't have a leading coefficient");
 
-    public void goBack(){
-        poly.goBack();
+        return coefficients[coefficients.length - 1];
     }
 
-    public void goToIth(int i){ poly.goToIth(i);}
+    /**
+     * gets how many of the lowest order coefficients are zero
+     * @return largest k where x^k divides this polynomial
+     */
+    public int getTrailingZeroes(){
+        if(this.isNull() || this.isZero())
+            throw new ArithmeticException("Every power of x divides the zero polynomial");
 
-    public Rational getFirst(){return poly.getHead().item().clone();}
+        return trailingZeroes;
+    }
 
-    public Rational getLast(){return poly.getTail().item().clone();}
+    /**
+     * gets the content of the polynomial, which is the gcd of the numerators over the lcm of the denominators.
+     * Dividing by it gives a polynomial with coprime integer coefficients
+     * @return positive content, or zero for the zero polynomial
+     */
+    public Rational getContent(){
+        if(this.isNull())
+            throw new IllegalStateException("Null polynomial doesn't have a content");
+
+        // if two threads race here they both work out the same content, and either one can be kept. Rational's
+        // fields are final, so a thread that sees the reference also sees the whole Rational
+        Rational result = content;
+        if(result == null){
+            long numeratorGcd = 0;
+            long denominatorLcm = 1;
+            for (int i = 0; i < coefficients.length; i++) {
+                if(coefficients[i].getNumer() != 0){
+                    numeratorGcd = gcd(numeratorGcd, coefficients[i].getNumer());
+                    denominatorLcm = lcm(denominatorLcm, coefficients[i].getDenom());
+                }
+            }
+            result = new Rational(numeratorGcd, denominatorLcm);
+            content = result;
+        }
+        return result;
+    }
 
     /**
-     * Get's the rational number currently pointed to by cursor in 'poly'
-     * @return rational number in polynomial
+     * gets the coefficient of x^i
+     * @param i nonnegative power of x
+     * @return coefficient, which is zero past the end of the polynomial
      */
-    public Rational currentRational(){
-        return this.poly.item().item().clone();
+    public Rational getCoefficient(int i){
+        if(i < 0){
+            throw new IllegalStateException("Polynomials don't have negative powers");
+        }
+        return i < coefficients.length ? coefficients[i] : new Rational(0);
     }
 
     /**
@@ -518,48 +582,90 @@ public class RationalPolynomial implements RationalOperationOutput, Cloneable{
      * @return whether there's rationals in the polynomial
      */
     public boolean isNull(){
-        return this.poly.getSize() == 0;
+        return coefficients.length == 0;
+    }
+
+    /**
+     * checks if this is the zero polynomial without creating a zero polynomial to compare against
+     * @return whether every coefficient is zero
+     */
+    public boolean isZero(){
+        return coefficients.length == 1 && degree == -1;
     }
 
     /**
      * obtains the degree of the current polynomial
-     * precond: 'this' must not have trailing zero terms
      * @return degree of polynomial
      */
     public int getDegree(){
-        DoublyLinkedListIterator<Rational> iterator = this.poly.getIterator();
-
-        RationalPolynomial zero = new RationalPolynomial(R(0,1));
-        if(this.equals(zero))
+        if(degree == -1)
             throw new ArithmeticException("zero polynomial doesn't have a degree");
 
-        iterator.goLast();
-        if(iterator.item().equals(new Rational(0,1)))
-            throw new IllegalStateException("degree is ambiguous when polynomial has trailing zeroes");
-
-        if(this.equals(zero))
-            throw new ArithmeticException("zero polynomial doesn't have a degree");
+        return degree;
+    }
 
-        return this.poly.getSize() - 1;
+    /**
+     * gets the Sturm sequence of this polynomial, building it the first time it's asked for
+     * @return Sturm sequence which counts the real roots of this polynomial
+     */
+    public SturmSequence getSturmSequence(){
+        // if two threads race here they both build equal sequences, and either one can be kept. SturmSequence's
+        // fields are final, so a thread that sees the reference also sees the whole sequence
+        SturmSequence sequence = sturmSequence;
+        if(sequence == null){
+            sequence = new SturmSequence(this);
+            sturmSequence = sequence;
+        }
+        return sequence;
     }
 
     /**
-     * creates a deep clone of the current polynomial
-     * @return clone of polynomial
+     * gets the primitive integer polynomial with the same roots, working it out the first time it's asked for
+     * @return the polynomial times the lcm of its denominators, divided by the gcd of its numerators
      */
-    public RationalPolynomial clone(){
-        RationalPolynomial temp = new RationalPolynomial();
-        if(this.isNull()){
-            return temp;
+    public IntegerPolynomial getIntegerPolynomial(){
+        if(isNull()){
+            throw new IllegalStateException("Null polynomial doesn't have an integer form");
+        }
+        // races are harmless for the same reason as in getSturmSequence
+        IntegerPolynomial result = integerPolynomial;
+        if(result == null){
+            result = IntegerPolynomial.fromRational(this).getFirst().getPrimitivePart();
+            integerPolynomial = result;
         }
+        return result;
+    }
 
-        DoublyLinkedListIterator<Rational> iterator = this.poly.getIterator();
-        iterator.goFirst();
-        while(!iterator.isAfter()){
-            temp.poly.insert(iterator.item());
-            iterator.goForth();
+    /**
+     * gets p / gcd(p, p') as a primitive integer polynomial, working it out the first time it's asked for.
+     * Root isolation and refinement of the same polynomial share it
+     * precond: the polynomial isn't constant
+     * @return primitive integer polynomial with the same roots, all of them simple
+     */
+    public IntegerPolynomial getSquareFreePart(){
+        IntegerPolynomial result = squareFreePart;
+        if(result == null){
+            result = getIntegerPolynomial().getSquareFreePart();
+            squareFreePart = result;
         }
-        return temp;
+        return result;
+    }
+
+    /**
+     * creates a copy of the current polynomial. Since polynomials never change, the copy shares the coefficients and
+     * everything already worked out about them, so this takes constant time
+     * @return copy of polynomial
+     */
+    public RationalPolynomial copy(){
+        return new RationalPolynomial(this);
+    }
+
+    /**
+     * same as copy(), kept so RationalPolynomial can still be used as a Cloneable
+     * @return copy of polynomial
+     */
+    public RationalPolynomial clone(){
+        return copy();
     }
 
     /**
@@ -568,130 +674,54 @@ public class RationalPolynomial implements RationalOperationOutput, Cloneable{
      * @return whether the two polynomials are equal
      */
     public boolean equals(RationalPolynomial other){
-        if(this.isNull()){
-            return other.isNull();
-        }
-
         // if they're not the same length, they're not equal
-        if(other.poly.getSize() != this.poly.getSize()){
+        if(other.coefficients.length != this.coefficients.length){
+            return false;
+        }
+        if(this.hash != 0 && other.hash != 0 && this.hash != other.hash){
             return false;
         }
 
-        DoublyLinkedListIterator<Rational> thisIterator = this.poly.getIterator();
-        DoublyLinkedListIterator<Rational> otherIterator = other.poly.getIterator();
-
-        otherIterator.goFirst();
-        thisIterator.goFirst();
-        while(!thisIterator.isAfter()){
+        for (int i = 0; i < coefficients.length; i++) {
             // if every individual element isn't the same then they're not equal
-            if(!thisIterator.item().equals(otherIterator.item())){
+            if(!this.coefficients[i].equals(other.coefficients[i])){
                 return false;
             }
-
-            otherIterator.goForth();
-            thisIterator.goForth();
         }
         return true;
     }
 
+    public boolean equals(Object other){
+        return other instanceof RationalPolynomial && this.equals((RationalPolynomial) other);
+    }
+
     /**
-     * creates a string representation of the polynomial
-     * @return string representation of polynomial
+     * hashes the coefficients. Worked out the first time it's asked for
+     * @return hash code that is the same for equal polynomials
      */
-    public String toString(){
-        // this string will be 3 lines which we must construct simultaneously
-        String topLine = "";
-        String middleLine = "";
-        String bottomLine = "";
-        if(poly.getSize() == 0){
-            return "0";
-        }
-        DoublyLinkedListIterator<Rational> iterator = poly.getIterator();
-        iterator.goFirst();
-        Rational currentRat;
-        int numDigits;
-        int numLen;
-        int denLen;
-        int expLen;
-        String nextSign = "";
-        for (int i = 0; i < poly.getSize(); i++) {
-            currentRat = iterator.item();
-            denLen = Long.toString(currentRat.getDenom()).length(); // string length of the current denominator
-            numLen = Long.toString(currentRat.getNumer()).length(); // string length of the current numerator
-            numDigits = numLen < denLen ? denLen : numLen;
-            if(i != poly.getSize() - 1){
-                // get the sign of the next term of the polynomial
-                nextSign = iterator.getCurrentNode().getNext().item().getSign() ? "-" : "+";
-            }
-
-            expLen = Integer.toString(i).length();
-
-            // this is garbage code, but all string processing is really garbage code
-            // lets break this down a little bit, each condition has the same structure, with slight differences
-            // most of the differences come from padding being really weird
-            // topLine += currentRat.getNumer() + getNChars(3 + numDigits - numLen, " ");
-            // currentRat.getNumer() is clear
-            // getNChars is a bit more complicated
-            // the 3 is based around the base padding needed on a rational with no "x" component.
-            // the numDigits - numLen part adjusts the base padding for when the numerator has more (or less) digits than the denominator
-            // This pads from the end of the current numerator to the begining of the next numerator
-            // padding must change from case to case due to "x" or "x^2" mucking things up
-            // bottomLine code is very similar to top line in all cases
-            // now onto middleLine
-            // middleLine += getNChars(numDigits, "\u2014") + " x^" + i + " " + currentSign + " ";
-            // \u2014 is unicode for an emdash which makes the divisor sign look nice
-            // getNChars here makes it so the division symbol is as long as the longest digit
-            // "x^+ " i gives "x" and the exponent
-            //  " " + currentSign + " " gives the sign of the *next* rational number in the polynomial
-
-            // case for when x is to power 0
-            if(i == 0){
-                // makes it so the sign is added to the constant term if it's negative
-                if(currentRat.getSign()){
-                    topLine += "  ";
-                    middleLine += "- ";
-                    bottomLine += "  ";
-                }
-
-                topLine += currentRat.getNumer() + getNChars(3 + numDigits - numLen, " ");
-                middleLine += getNChars(numDigits, "\u2014") + " " + nextSign + " ";
-                bottomLine += currentRat.getDenom() + getNChars(3 + numDigits - denLen, " ");
-
-            }else if(i == poly.getSize() - 1){
-                // case for when x is the second last one in polynomial
-
-                // this case is almost exactly the same as the "else" case but it doesn't add the sign of the next rational to the middle line
-                topLine += currentRat.getNumer() + getNChars(6 + expLen + numDigits - numLen, " ");
-                if(i == 1){
-                    middleLine += getNChars(numDigits, "\u2014") + " x";
-                }else{
-                    middleLine += getNChars(numDigits, "\u2014") + " x^" + i;
-                }
-
-                bottomLine += currentRat.getDenom() + getNChars(6 + expLen + numDigits - denLen, " ");
-
-            }else if(i == 1){
-                // case for when x is to power 1
-
-                topLine += currentRat.getNumer() + getNChars(5 + numDigits - numLen, " ");
-                middleLine += getNChars(numDigits, "\u2014") + " x " + nextSign + " ";
-                bottomLine += currentRat.getDenom() + getNChars(5 + numDigits - denLen, " ");
-
-            }else{
-
-                topLine += currentRat.getNumer() + getNChars(6 + expLen + numDigits - numLen, " ");
-                middleLine += getNChars(numDigits, "\u2014") + " x^" + i + " " + nextSign + " ";
-                bottomLine += currentRat.getDenom() + getNChars(6 + expLen + numDigits - denLen, " ");
-
+    public int hashCode(){
+        int result = hash;
+        if(result == 0){
+            result = 1;
+            for (int i = 0; i < coefficients.length; i++) {
+                result = 31 * result + (coefficients[i].getSign() ? -1 : 1) * Long.hashCode(coefficients[i].getNumer());
+                result = 31 * result + Long.hashCode(coefficients[i].getDenom());
             }
-
-
-            if(!iterator.isLast()){
-                iterator.goForth();
+            // 0 means the hash hasn't been worked out yet
+            if(result == 0){
+                result = 1;
             }
-
+            hash = result;
         }
-        return topLine + "\n" + middleLine + "\n" + bottomLine;
+        return result;
+    }
+
+    /**
+     * creates a string representation of the polynomial
+     * @return string representation of polynomial
+     */
+    public String toString(){
+        return PolynomialFormatter.FULL.pretty(this);
     }
 
     /**
@@ -699,35 +729,7 @@ public class RationalPolynomial implements RationalOperationOutput, Cloneable{
      * @return string representation of polynomial
      */
     public String oneLineToString(){
-        String outString = "";
-
-        DoublyLinkedListIterator<Rational> iterator = this.poly.getIterator();
-        iterator.goFirst();
-
-        // poly.item().item().abs().toString(); pops up a lot here.
-        // This is to get the string representation of the absolute value of the rational
-        // this is so we can don't have a string like 1/2 - -2/3x
-
-        for (int i = 0; i < poly.getSize(); i++) {
-            if(i == 0){
-                outString += iterator.item().abs().toString(); //
-            }else if(i == 1){
-                outString += iterator.item().abs().toString() + "*x";
-            }else{
-                outString += iterator.item().abs().toString() + "*x^"+i;
-            }
-
-            if(!iterator.isLast()){
-                if(iterator.getCurrentNode().getNext().item().getSign()){
-                    outString += " - ";
-                }else{
-                    outString += " + ";
-                }
-                iterator.goForth();
-            }
-        }
-
-        return outString;
+        return PolynomialFormatter.FULL.oneLine(this);
     }
 
     /**
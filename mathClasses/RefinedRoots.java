@@ -0,0 +1,86 @@
+package mathClasses;
+
+import mathClasses.RationalOperations.RationalOperationOutput;
+
+/**
+ * Real roots of a polynomial after RootRefinement, each one given by a DyadicInterval that contains only that root.
+ * Intervals are stored in increasing order, with the same meaning as in IsolatedRoots: an exact interval is the root
+ * itself, otherwise the root lies strictly between the two ends. Instances of RefinedRoots are immutable
+ */
+public class RefinedRoots implements RationalOperationOutput {
+    private final DyadicInterval[] intervals;
+
+    /**
+     * creates a collection of refined roots
+     * @param intervals sequence of disjoint intervals in increasing order
+     */
+    public RefinedRoots(DyadicInterval ... intervals){
+        this.intervals = intervals.clone();
+    }
+
+    /**
+     * converts isolated roots so they can be refined
+     * @param roots intervals whose ends have power of two denominators, like the ones RootIsolation gives
+     * @throws IllegalStateException if a denominator isn't a power of two
+     */
+    public RefinedRoots(IsolatedRoots roots){
+        intervals = new DyadicInterval[roots.getSize()];
+        int index = 0;
+        if(roots.getSize() != 0){
+            roots.goFirst();
+            while(!roots.isAfter()){
+                intervals[index] = DyadicInterval.valueOf(roots.getInterval());
+                index++;
+                roots.goForth();
+            }
+        }
+    }
+
+    public int getSize(){
+        return intervals.length;
+    }
+
+    /**
+     * gets the interval around the ith smallest root
+     * @param i index from 0 to getSize() - 1
+     */
+    public DyadicInterval getInterval(int i){
+        return intervals[i];
+    }
+
+    /**
+     * converts the intervals into ones between Rationals
+     * @return IsolatedRoots with the same intervals
+     * @throws ArithmeticException if an end doesn't fit in a Rational
+     */
+    public IsolatedRoots toIsolatedRoots(){
+        IsolatedRoots roots = new IsolatedRoots();
+        for (int i = 0; i < intervals.length; i++) {
+            roots.insertInterval(intervals[i].toRationalInterval());
+        }
+        return roots;
+    }
+
+    public boolean equals(RefinedRoots other){
+        if(intervals.length != other.intervals.length){
+            return false;
+        }
+        for (int i = 0; i < intervals.length; i++) {
+            if(!intervals[i].equals(other.intervals[i])){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String toString(){
+        if(intervals.length == 0){
+            return "no real roots";
+        }
+        StringBuilder outputString = new StringBuilder();
+        for (int i = 0; i < intervals.length; i++) {
+            outputString.append(intervals[i].toString()).append("\n");
+        }
+        return outputString.toString();
+    }
+}
@@ -0,0 +1,202 @@
+package mathClasses;
+
+/**
+ * Sturm sequence of a polynomial, used to count how many distinct real roots lie in an interval.
+ * The sequence is p, p', and then the negated remainders of euclid's algorithm. Every element is divided by
+ * the last one so it still works when p has repeated roots. Instances of SturmSequence are immutable
+ */
+public class SturmSequence {
+    /**
+     * elements of the sequence with integer coefficients.
+     * Each is a positive multiple of the real element, which doesn't change any signs
+     */
+    private final IntegerPolynomial[] sequence;
+
+    /**
+     * coefficients of each element as longs, lowest order first, so most signs can be found without creating any
+     * objects. An entry is null if the element has a coefficient that doesn't fit in a long
+     */
+    private final long[][] narrowSequence;
+
+    /**
+     * builds the Sturm sequence of a polynomial. RationalPolynomial.getSturmSequence() should usually be used instead
+     * since it only builds the sequence once
+     * @param poly non zero polynomial
+     */
+    public SturmSequence(RationalPolynomial poly){
+        if(poly.isNull()){
+            throw new IllegalStateException("Cannot build the Sturm sequence of a null polynomial");
+        }
+        if(poly.isZero()){
+            throw new ArithmeticException("Every number is a root of the zero polynomial");
+        }
+
+        // a positive multiple of every element has the same signs, so everything is done on primitive integer polynomials
+        IntegerPolynomial integerPoly = IntegerPolynomial.fromRational(poly).getFirst().getPrimitivePart();
+        if(poly.getDegree() == 0){
+            sequence = new IntegerPolynomial[]{integerPoly};
+            narrowSequence = new long[][]{integerPoly.isWide() ? null : integerPoly.toLongArray()};
+            return;
+        }
+
+        IntegerPolynomial[] elements = new IntegerPolynomial[poly.getDegree() + 1];
+        elements[0] = integerPoly;
+        elements[1] = integerPoly.derivative().getPrimitivePart();
+        int length = 2;
+        IntegerPolynomial remainder;
+        int divisorSign;
+        while(elements[length - 1].getDegree() > 0){
+            // the pseudo-remainder is lc(b)^d times the real remainder of a / b where d = deg(a) - deg(b) + 1
+            remainder = elements[length - 2].pseudoQuotientRemainder(elements[length - 1]).getSecond();
+            if(remainder.isZero()){
+                break;
+            }
+            divisorSign = elements[length - 1].getWideCoefficient(elements[length - 1].getDegree()).signum();
+            if(divisorSign < 0 && (elements[length - 2].getDegree() - elements[length - 1].getDegree()) % 2 == 0){
+                // d is odd so the pseudo-remainder has the opposite sign of the real remainder, which is already negated
+                elements[length] = remainder.getPrimitivePart();
+            }else{
+                elements[length] = remainder.getPrimitivePart().scale(-1);
+            }
+            length++;
+        }
+
+        // the last element is gcd(p, p'). Dividing it out turns this into the sequence of the square free part of p
+        IntegerPolynomial gcd = elements[length - 1];
+        sequence = new IntegerPolynomial[length];
+        narrowSequence = new long[length][];
+        for (int i = 0; i < length; i++) {
+            sequence[i] = gcd.getDegree() == 0 ? elements[i] : elements[i].divideExact(gcd);
+            narrowSequence[i] = sequence[i].isWide() ? null : sequence[i].toLongArray();
+        }
+    }
+
+    /**
+     * gets how many polynomials are in the sequence
+     * @return length of the sequence
+     */
+    public int getLength(){
+        return sequence.length;
+    }
+
+    /**
+     * counts every distinct real root of the polynomial
+     * @return number of real roots
+     */
+    public int countRoots(){
+        return signChanges(Rational.makeNegativeInfinity()) - signChanges(Rational.makePositiveInfinity());
+    }
+
+    /**
+     * counts the distinct roots of the polynomial in [lower, upper]
+     * @param lower lower end of the interval
+     * @param upper upper end of the interval
+     * @return number of roots in the interval
+     */
+    public int countRoots(Rational lower, Rational upper){
+        if(lower.compareTo(upper) > 0){
+            throw new IllegalStateException("Lower end of an interval can't be greater than the upper end");
+        }
+        return countRoots(lower, upper, signChanges(lower), signChanges(upper));
+    }
+
+    /**
+     * counts the distinct roots of the polynomial in many closed intervals at once.
+     * If an interval starts where the previous one ended then that end is only evaluated once
+     * @param intervals intervals we count the roots in
+     * @return array where the ith element is the number of roots in intervals[i]
+     */
+    public int[] countRoots(RationalInterval ... intervals){
+        int[] counts = new int[intervals.length];
+        Rational previousUpper = null;
+        int previousUpperChanges = 0;
+        int lowerChanges;
+        for (int i = 0; i < intervals.length; i++) {
+            if(previousUpper != null && previousUpper.equals(intervals[i].getLower())){
+                lowerChanges = previousUpperChanges;
+            }else{
+                lowerChanges = signChanges(intervals[i].getLower());
+            }
+            previousUpper = intervals[i].getUpper();
+            previousUpperChanges = signChanges(previousUpper);
+            counts[i] = countRoots(intervals[i].getLower(), previousUpper, lowerChanges, previousUpperChanges);
+        }
+        return counts;
+    }
+
+    private int countRoots(Rational lower, Rational upper, int lowerChanges, int upperChanges){
+        // Sturm's theorem counts roots in (lower, upper], so lower has to be checked on its own
+        int count = lowerChanges - upperChanges;
+        if(!lower.isInfinity() && signAt(0, lower) == 0){
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * counts how many times the sign changes along the sequence evaluated at x, skipping zeroes
+     * @param x point we evaluate at. Can be infinite
+     * @return number of sign changes
+     */
+    private int signChanges(Rational x){
+        int changes = 0;
+        int previous = 0;
+        int current;
+        for (int i = 0; i < sequence.length; i++) {
+            current = signAt(i, x);
+            if(current != 0){
+                if(previous != 0 && previous != current){
+                    changes++;
+                }
+                previous = current;
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * finds the sign of an element of the sequence at a rational point.
+     * For x = u/v this uses Horner's method on v^n * p(u/v), which has the same sign as p(u/v). It's done on longs
+     * without creating any objects, and redone with WideIntegers if a long overflows
+     * @param index which element of the sequence
+     * @param x point we evaluate at. Can be infinite
+     * @return -1, 0, or 1
+     */
+    private int signAt(int index, Rational x){
+        IntegerPolynomial poly = sequence[index];
+        int n = poly.getDegree();
+        if(x.isInfinity()){
+            // the leading term dominates
+            int leadingSign = poly.getWideCoefficient(n).signum();
+            return x.getSign() && n % 2 == 1 ? -leadingSign : leadingSign;
+        }
+
+        long u = x.getSign() ? -x.getNumer() : x.getNumer();
+        long v = x.getDenom();
+        long[] narrow = narrowSequence[index];
+        if(narrow != null){
+            try{
+                long total = narrow[n];
+                long powerOfV = 1;
+                for (int i = n - 1; i >= 0; i--) {
+                    powerOfV = Math.multiplyExact(powerOfV, v);
+                    total = Math.addExact(Math.multiplyExact(total, u), Math.multiplyExact(narrow[i], powerOfV));
+                }
+                if(total == 0){
+                    return 0;
+                }
+                return total < 0 ? -1 : 1;
+            }catch(ArithmeticException e){
+                // too large for a long
+            }
+        }
+
+        WideInteger total = poly.getWideCoefficient(n);
+        WideInteger powerOfV = WideInteger.ONE;
+        for (int i = n - 1; i >= 0; i--) {
+            powerOfV = powerOfV.multiply(v);
+            total = total.multiply(u).add(poly.getWideCoefficient(i).multiply(powerOfV));
+        }
+        return total.signum();
+    }
+}
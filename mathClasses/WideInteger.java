@@ -0,0 +1,452 @@
+package mathClasses;
+
+import dataStructures.Pair;
+
+/**
+ * Arbitrary precision integer for when a long isn't big enough. Instances of WideInteger are immutable
+ * Stored as a sign and a magnitude made up of 32 bit words, least significant word first
+ */
+public class WideInteger implements Comparable<WideInteger> {
+    /**
+     * mask to read a 32 bit word as an unsigned number
+     */
+    private static final long WORD_MASK = 0xFFFFFFFFL;
+
+    public static final WideInteger ZERO = new WideInteger(0, new int[0]);
+
+    public static final WideInteger ONE = valueOf(1L);
+
+    /**
+     * -1 if negative, 0 if zero, 1 if positive
+     */
+    private final int signum;
+
+    /**
+     * absolute value of the number, least significant word first, with no leading zero words
+     */
+    private final int[] magnitude;
+
+    private WideInteger(int signum, int[] magnitude){
+        int length = magnitude.length;
+        while(length > 0 && magnitude[length - 1] == 0){
+            length--;
+        }
+        if(length != magnitude.length){
+            int[] trimmed = new int[length];
+            for (int i = 0; i < length; i++) {
+                trimmed[i] = magnitude[i];
+            }
+            magnitude = trimmed;
+        }
+        this.magnitude = magnitude;
+        this.signum = length == 0 ? 0 : signum;
+    }
+
+    /**
+     * creates a WideInteger with the same value as a long
+     * @param value any long, including Long.MIN_VALUE
+     * @return equivalent WideInteger
+     */
+    public static WideInteger valueOf(long value){
+        if(value == 0){
+            return ZERO;
+        }
+        int sign = value < 0 ? -1 : 1;
+        // negating Long.MIN_VALUE overflows, but reading the result as unsigned still gives the right magnitude
+        long abs = value < 0 ? -value : value;
+        return new WideInteger(sign, new int[]{(int) abs, (int) (abs >>> 32)});
+    }
+
+    public int signum(){
+        return signum;
+    }
+
+    public boolean isZero(){
+        return signum == 0;
+    }
+
+    public WideInteger negate(){
+        return new WideInteger(-signum, magnitude);
+    }
+
+    public WideInteger abs(){
+        return signum < 0 ? negate() : this;
+    }
+
+    /**
+     * number of bits in the absolute value of this number
+     * @return bit length, 0 for zero
+     */
+    public int bitLength(){
+        if(magnitude.length == 0){
+            return 0;
+        }
+        return 32 * (magnitude.length - 1) + 32 - Integer.numberOfLeadingZeros(magnitude[magnitude.length - 1]);
+    }
+
+    /**
+     * whether the number can be converted to a long without losing anything
+     */
+    public boolean fitsInLong(){
+        if(bitLength() < 64){
+            return true;
+        }
+        // Long.MIN_VALUE is the only 64 bit magnitude that fits
+        return signum < 0 && bitLength() == 64 && magnitude[1] == 0x80000000 && magnitude[0] == 0;
+    }
+
+    /**
+     * converts this to a long
+     * @throws ArithmeticException if the number doesn't fit in a long
+     */
+    public long toLong(){
+        if(!fitsInLong()){
+            throw new ArithmeticException("WideInteger is too large to convert to a long");
+        }
+        long abs = 0;
+        for (int i = magnitude.length - 1; i >= 0; i--) {
+            abs = (abs << 32) | (magnitude[i] & WORD_MASK);
+        }
+        return signum < 0 ? -abs : abs;
+    }
+
+    /**
+     * closest double to this number. Only the top 64 bits are looked at so the last bit might be off
+     * @return double approximation, which can be infinite
+     */
+    public double toDouble(){
+        if(signum == 0){
+            return 0.0;
+        }
+        int shift = bitLength() - 63;
+        if(shift <= 0){
+            return (double) toLong();
+        }
+        double top = (double) shiftRight(shift).toLong();
+        return top * Math.pow(2.0, shift);
+    }
+
+    public WideInteger add(WideInteger other){
+        if(other.signum == 0){
+            return this;
+        }
+        if(this.signum == 0){
+            return other;
+        }
+        if(this.signum == other.signum){
+            return new WideInteger(signum, addMagnitudes(this.magnitude, other.magnitude));
+        }
+        int comparison = compareMagnitudes(this.magnitude, other.magnitude);
+        if(comparison == 0){
+            return ZERO;
+        }
+        if(comparison > 0){
+            return new WideInteger(this.signum, subtractMagnitudes(this.magnitude, other.magnitude));
+        }
+        return new WideInteger(other.signum, subtractMagnitudes(other.magnitude, this.magnitude));
+    }
+
+    public WideInteger subtract(WideInteger other){
+        return this.add(other.negate());
+    }
+
+    public WideInteger multiply(WideInteger other){
+        if(this.signum == 0 || other.signum == 0){
+            return ZERO;
+        }
+        int[] product = new int[this.magnitude.length + other.magnitude.length];
+        long carry;
+        long current;
+        for (int i = 0; i < this.magnitude.length; i++) {
+            carry = 0;
+            for (int j = 0; j < other.magnitude.length; j++) {
+                current = (this.magnitude[i] & WORD_MASK) * (other.magnitude[j] & WORD_MASK) + (product[i + j] & WORD_MASK) + carry;
+                product[i + j] = (int) current;
+                carry = current >>> 32;
+            }
+            product[i + other.magnitude.length] = (int) carry;
+        }
+        return new WideInteger(this.signum * other.signum, product);
+    }
+
+    public WideInteger multiply(long other){
+        return this.multiply(valueOf(other));
+    }
+
+    /**
+     * divides this by another number. The quotient is rounded towards zero and the remainder has the sign of this,
+     * which is what / and % do for longs
+     * @param divisor nonzero WideInteger
+     * @return pair of the quotient and the remainder
+     */
+    public Pair<WideInteger, WideInteger> quotientRemainder(WideInteger divisor){
+        if(divisor.signum == 0){
+            throw new ArithmeticException("Cannot divide by zero");
+        }
+        if(this.bitLength() < 64 && divisor.bitLength() < 64){
+            return new Pair<>(valueOf(this.toLong() / divisor.toLong()), valueOf(this.toLong() % divisor.toLong()));
+        }
+        if(compareMagnitudes(this.magnitude, divisor.magnitude) < 0){
+            return new Pair<>(ZERO, this);
+        }
+
+        // binary long division. The remainder is always less than twice the divisor so it only needs one extra word
+        int[] quotient = new int[magnitude.length];
+        int[] remainder = new int[divisor.magnitude.length + 1];
+        int carry;
+        int next;
+        for (int bit = 32 * magnitude.length - 1; bit >= 0; bit--) {
+            // remainder = 2 * remainder + the next bit of this
+            carry = (magnitude[bit >>> 5] >>> (bit & 31)) & 1;
+            for (int i = 0; i < remainder.length; i++) {
+                next = remainder[i] >>> 31;
+                remainder[i] = (remainder[i] << 1) | carry;
+                carry = next;
+            }
+            if(!isLessThan(remainder, divisor.magnitude)){
+                subtractInPlace(remainder, divisor.magnitude);
+                quotient[bit >>> 5] |= 1 << (bit & 31);
+            }
+        }
+        return new Pair<>(new WideInteger(this.signum * divisor.signum, quotient), new WideInteger(this.signum, remainder));
+    }
+
+    public WideInteger divide(WideInteger divisor){
+        return quotientRemainder(divisor).getFirst();
+    }
+
+    public WideInteger remainder(WideInteger divisor){
+        return quotientRemainder(divisor).getSecond();
+    }
+
+    /**
+     * finds the greatest common divisor with euclid's algorithm, switching to longs once both numbers fit
+     * @param other any WideInteger
+     * @return nonnegative gcd, which is zero only when both numbers are zero
+     */
+    public WideInteger gcd(WideInteger other){
+        WideInteger larger = this.abs();
+        WideInteger smaller = other.abs();
+        WideInteger remainder;
+        while(!smaller.isZero()){
+            if(larger.bitLength() < 64 && smaller.bitLength() < 64){
+                return valueOf(Rational.gcd(larger.toLong(), smaller.toLong()));
+            }
+            remainder = larger.remainder(smaller);
+            larger = smaller;
+            smaller = remainder;
+        }
+        return larger;
+    }
+
+    /**
+     * multiplies this by 2^bits
+     * @param bits nonnegative power of two
+     * @return this * 2^bits
+     */
+    public WideInteger shiftLeft(int bits){
+        if(bits < 0){
+            throw new ArithmeticException("Cannot shift by a negative number of bits");
+        }
+        if(signum == 0 || bits == 0){
+            return this;
+        }
+        int wordShift = bits / 32;
+        int bitShift = bits % 32;
+        int[] shifted = new int[magnitude.length + wordShift + 1];
+        for (int i = 0; i < magnitude.length; i++) {
+            long current = (magnitude[i] & WORD_MASK) << bitShift;
+            shifted[i + wordShift] |= (int) current;
+            shifted[i + wordShift + 1] |= (int) (current >>> 32);
+        }
+        return new WideInteger(signum, shifted);
+    }
+
+    /**
+     * divides the absolute value of this by 2^bits, rounding towards zero
+     * @param bits nonnegative power of two
+     * @return this / 2^bits rounded towards zero
+     */
+    public WideInteger shiftRight(int bits){
+        if(bits < 0){
+            throw new ArithmeticException("Cannot shift by a negative number of bits");
+        }
+        if(signum == 0 || bits == 0){
+            return this;
+        }
+        int wordShift = bits / 32;
+        int bitShift = bits % 32;
+        if(wordShift >= magnitude.length){
+            return ZERO;
+        }
+        int[] shifted = new int[magnitude.length - wordShift];
+        for (int i = 0; i < shifted.length; i++) {
+            long current = (magnitude[i + wordShift] & WORD_MASK) >>> bitShift;
+            if(bitShift != 0 && i + wordShift + 1 < magnitude.length){
+                current |= (magnitude[i + wordShift + 1] & WORD_MASK) << (32 - bitShift);
+            }
+            shifted[i] = (int) current;
+        }
+        return new WideInteger(signum, shifted);
+    }
+
+    /**
+     * divides this by a small positive number, rounding towards zero
+     * @param divisor positive int
+     * @param remainder array whose first element is set to the remainder of the absolute value
+     * @return quotient
+     */
+    private WideInteger divideByInt(int divisor, long[] remainder){
+        int[] quotient = new int[magnitude.length];
+        long current = 0;
+        for (int i = magnitude.length - 1; i >= 0; i--) {
+            current = (current << 32) | (magnitude[i] & WORD_MASK);
+            quotient[i] = (int) (current / divisor);
+            current = current % divisor;
+        }
+        remainder[0] = current;
+        return new WideInteger(signum, quotient);
+    }
+
+    /**
+     * compares this to another WideInteger
+     * @return -1 if this < other; 0 if this = other; 1 if this > other
+     */
+    public int compareTo(WideInteger other){
+        if(this.signum != other.signum){
+            return this.signum < other.signum ? -1 : 1;
+        }
+        return this.signum * compareMagnitudes(this.magnitude, other.magnitude);
+    }
+
+    public boolean equals(WideInteger other){
+        return this.compareTo(other) == 0;
+    }
+
+    public boolean equals(Object other){
+        return other instanceof WideInteger && this.equals((WideInteger) other);
+    }
+
+    /**
+     * hashes the words of the magnitude. Numbers that fit in a long hash the same as Long.hashCode of that long
+     */
+    public int hashCode(){
+        if(fitsInLong()){
+            return Long.hashCode(toLong());
+        }
+        int result = signum;
+        for (int i = 0; i < magnitude.length; i++) {
+            result = 31 * result + magnitude[i];
+        }
+        return result;
+    }
+
+    public String toString(){
+        if(signum == 0){
+            return "0";
+        }
+        if(fitsInLong()){
+            return Long.toString(toLong());
+        }
+        // peel off 9 decimal digits at a time, least significant first. Each chunk holds more than 29 bits
+        long[] chunks = new long[bitLength() / 29 + 1];
+        int count = 0;
+        WideInteger remaining = this.abs();
+        long[] remainder = new long[1];
+        while(!remaining.isZero()){
+            remaining = remaining.divideByInt(1000000000, remainder);
+            chunks[count++] = remainder[0];
+        }
+        StringBuilder digits = new StringBuilder(9 * count + 1);
+        if(signum < 0){
+            digits.append('-');
+        }
+        digits.append(chunks[count - 1]);
+        String chunk;
+        for (int i = count - 2; i >= 0; i--) {
+            chunk = Long.toString(chunks[i]);
+            for (int k = chunk.length(); k < 9; k++) {
+                digits.append('0');
+            }
+            digits.append(chunk);
+        }
+        return digits.toString();
+    }
+
+    private static int compareMagnitudes(int[] first, int[] second){
+        if(first.length != second.length){
+            return first.length < second.length ? -1 : 1;
+        }
+        for (int i = first.length - 1; i >= 0; i--) {
+            if(first[i] != second[i]){
+                return (first[i] & WORD_MASK) < (second[i] & WORD_MASK) ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    private static int[] addMagnitudes(int[] first, int[] second){
+        if(first.length < second.length){
+            int[] temp = first;
+            first = second;
+            second = temp;
+        }
+        int[] sum = new int[first.length + 1];
+        long carry = 0;
+        long current;
+        for (int i = 0; i < first.length; i++) {
+            current = (first[i] & WORD_MASK) + (i < second.length ? second[i] & WORD_MASK : 0) + carry;
+            sum[i] = (int) current;
+            carry = current >>> 32;
+        }
+        sum[first.length] = (int) carry;
+        return sum;
+    }
+
+    /**
+     * compares magnitudes where the first one might have leading zero words
+     * precond: first is at least as long as second
+     */
+    private static boolean isLessThan(int[] first, int[] second){
+        for (int i = first.length - 1; i >= second.length; i--) {
+            if(first[i] != 0){
+                return false;
+            }
+        }
+        for (int i = second.length - 1; i >= 0; i--) {
+            if(first[i] != second[i]){
+                return (first[i] & WORD_MASK) < (second[i] & WORD_MASK);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * subtracts smaller from larger, storing the result in larger
+     * precond: larger is at least as long as smaller and has a greater magnitude
+     */
+    private static void subtractInPlace(int[] larger, int[] smaller){
+        long borrow = 0;
+        long current;
+        for (int i = 0; i < larger.length; i++) {
+            current = (larger[i] & WORD_MASK) - (i < smaller.length ? smaller[i] & WORD_MASK : 0) - borrow;
+            larger[i] = (int) current;
+            borrow = current < 0 ? 1 : 0;
+        }
+    }
+
+    /**
+     * precond: larger has a greater magnitude than smaller
+     */
+    private static int[] subtractMagnitudes(int[] larger, int[] smaller){
+        int[] difference = new int[larger.length];
+        long borrow = 0;
+        long current;
+        for (int i = 0; i < larger.length; i++) {
+            current = (larger[i] & WORD_MASK) - (i < smaller.length ? smaller[i] & WORD_MASK : 0) - borrow;
+            difference[i] = (int) current;
+            borrow = current < 0 ? 1 : 0;
+        }
+        return difference;
+    }
+}
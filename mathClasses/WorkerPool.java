@@ -0,0 +1,206 @@
+package mathClasses;
+
+/**
+ * Fixed set of daemon threads that data parallel kernels, like the root search in factoring or the product tree in
+ * ProductOfPolynomial, hand their pieces to. Sharing one pool keeps the number of threads bounded however many
+ * factorizations run at once, where starting threads for every call would multiply them.
+ *
+ * The thread that calls runAll works on its own tasks alongside the pool and only waits for ones another thread has
+ * already started, so calling runAll from inside a task can't deadlock even when every worker is busy
+ */
+public class WorkerPool {
+    private static WorkerPool shared = null;
+
+    private final Thread[] workers;
+
+    /**
+     * batches that still have tasks nobody has started, oldest first
+     */
+    private Batch head;
+    private Batch tail;
+
+    /**
+     * @param threads number of worker threads. Zero runs every task on the thread that calls runAll
+     */
+    public WorkerPool(int threads){
+        if(threads < 0){
+            throw new IllegalStateException("Can't have a negative number of threads");
+        }
+        workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(new Worker(), "pool-worker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * gets the pool used by the library, which has one worker fewer than there are processors since the calling
+     * thread works too. It's made the first time it's asked for
+     */
+    public static synchronized WorkerPool getShared(){
+        if(shared == null){
+            shared = new WorkerPool(Runtime.getRuntime().availableProcessors() - 1);
+        }
+        return shared;
+    }
+
+    public int getThreadCount(){
+        return workers.length;
+    }
+
+    /**
+     * runs every task and waits for all of them to finish
+     * @param tasks tasks that don't depend on each other
+     * @throws RuntimeException the first exception a task threw, once every task has stopped. Errors are rethrown as is
+     */
+    public void runAll(Runnable[] tasks){
+        if(tasks.length == 0){
+            return;
+        }
+        Batch batch = new Batch(tasks);
+        if(workers.length > 0 && tasks.length > 1){
+            synchronized(this){
+                if(tail == null){
+                    head = batch;
+                }else{
+                    tail.next = batch;
+                }
+                tail = batch;
+                notifyAll();
+            }
+        }else{
+            // nobody else is going to take from it, so it never needs to be queued
+            batch.queued = false;
+        }
+
+        int index = claim(batch);
+        while(index >= 0){
+            batch.run(index);
+            index = claim(batch);
+        }
+        batch.await();
+    }
+
+    /**
+     * @return index of a task in the batch nobody has started, or -1 if they've all been started
+     */
+    private synchronized int claim(Batch batch){
+        if(batch.claimed >= batch.tasks.length){
+            return -1;
+        }
+        int index = batch.claimed++;
+        if(batch.claimed == batch.tasks.length && batch.queued){
+            remove(batch);
+        }
+        return index;
+    }
+
+    /**
+     * waits for a task from any batch
+     * @param worker worker whose claimed field gets the index of the task
+     * @return batch the task belongs to, or null if the thread was interrupted
+     */
+    private synchronized Batch take(Worker worker){
+        while(head == null){
+            try{
+                wait();
+            }catch(InterruptedException e){
+                return null;
+            }
+        }
+        Batch batch = head;
+        worker.claimed = batch.claimed++;
+        if(batch.claimed == batch.tasks.length){
+            remove(batch);
+        }
+        return batch;
+    }
+
+    private void remove(Batch batch){
+        Batch previous = null;
+        Batch current = head;
+        while(current != batch){
+            previous = current;
+            current = current.next;
+        }
+        if(previous == null){
+            head = batch.next;
+        }else{
+            previous.next = batch.next;
+        }
+        if(tail == batch){
+            tail = previous;
+        }
+        batch.next = null;
+        batch.queued = false;
+    }
+
+    private class Worker implements Runnable {
+        /**
+         * index of the task this worker took last
+         */
+        private int claimed;
+
+        public void run(){
+            Batch batch = take(this);
+            while(batch != null){
+                batch.run(claimed);
+                batch = take(this);
+            }
+        }
+    }
+
+    /**
+     * tasks from one call to runAll. claimed, queued and next are guarded by the pool, the rest by the batch
+     */
+    private static class Batch {
+        private final Runnable[] tasks;
+        private int claimed;
+        private boolean queued;
+        private Batch next;
+
+        private int finished;
+        private Throwable failure;
+
+        Batch(Runnable[] tasks){
+            this.tasks = tasks;
+            queued = true;
+        }
+
+        void run(int index){
+            Throwable thrown = null;
+            try{
+                tasks[index].run();
+            }catch(Throwable e){
+                thrown = e;
+            }
+            synchronized(this){
+                if(thrown != null && failure == null){
+                    failure = thrown;
+                }
+                finished++;
+                if(finished == tasks.length){
+                    notifyAll();
+                }
+            }
+        }
+
+        synchronized void await(){
+            while(finished < tasks.length){
+                try{
+                    wait();
+                }catch(InterruptedException e){
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for pool tasks");
+                }
+            }
+            if(failure instanceof RuntimeException){
+                throw (RuntimeException) failure;
+            }
+            if(failure instanceof Error){
+                throw (Error) failure;
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package tests;
+
+import mathClasses.ArithmeticEvent;
+import mathClasses.ArithmeticEventRecorder;
+import mathClasses.ArithmeticEvents;
+import mathClasses.IntegerPolynomial;
+import mathClasses.Rational;
+import mathClasses.RationalOperations.GreatestCommonDivisor;
+import mathClasses.RationalOperations.RationalFactoring;
+import mathClasses.RationalPolynomial;
+
+import static mathClasses.Rational.R;
+
+public class ArithmeticEventsTest {
+    public static void main(String[] args){
+        test(false);
+    }
+
+    public static void test(boolean quietEnding){
+        RationalPolynomial first = new RationalPolynomial(R(1,2), R(1,1), R(3,1));
+        RationalPolynomial second = new RationalPolynomial(R(-1,1), R(1,1));
+
+        // nothing is reported without a listener
+        ArithmeticEventRecorder recorder = new ArithmeticEventRecorder(64, 0);
+        ArithmeticEvents.setListener(null);
+        first.multiply(second);
+        if(recorder.getRecorded() != 0 || ArithmeticEvents.isRecording())
+            System.out.println("Events were reported without a listener");
+
+        ArithmeticEvents.setListener(recorder);
+        first.multiply(second);
+        ArithmeticEvent[] events = recorder.getEvents();
+        if(events.length != 1 || events[0].getType() != ArithmeticEvent.POLYNOMIAL_MULTIPLY || !events[0].getAlgorithm().equals("schoolbook")
+                || events[0].getFirstDegree() != 2 || events[0].getSecondDegree() != 1 || events[0].getNanos() < 0)
+            System.out.println("Multiply event is wrong: " + (events.length > 0 ? events[0] : "none"));
+        if(events.length == 1 && !events[0].getThread().equals(Thread.currentThread().getName()))
+            System.out.println("Event should name the thread it ran on");
+
+        recorder.clear();
+        first.quotientRemainder(second);
+        second.quotientRemainder(first);
+        events = recorder.getEvents();
+        if(events.length != 2 || !events[0].getAlgorithm().equals("long division") || !events[1].getAlgorithm().equals("smaller dividend"))
+            System.out.println("Division events should name how each division was done");
+
+        // x^2 - 1 and x^2 + 2x + 1 share x + 1, which takes two remainders to find
+        recorder.clear();
+        new GreatestCommonDivisor(new RationalPolynomial(R(-1,1), R(0,1), R(1,1)), new RationalPolynomial(R(1,1), R(2,1), R(1,1))).compute();
+        ArithmeticEvent gcd = recorder.getSlowest(ArithmeticEvent.GCD);
+        if(gcd == null || !gcd.getAlgorithm().equals("euclid") || gcd.getCount() != 2)
+            System.out.println("Gcd event should count 2 remainders: " + gcd);
+
+        recorder.clear();
+        new IntegerPolynomial(-1, 0, 1).gcd(new IntegerPolynomial(1, 2, 1));
+        gcd = recorder.getSlowest(ArithmeticEvent.GCD);
+        if(gcd == null || !gcd.getAlgorithm().equals("primitive remainder sequence"))
+            System.out.println("Integer gcd should report its algorithm");
+
+        // (x-1)(x-2)(x+3) has three rational roots, and each one is found twice since r/1 and -r/-1 are both candidates
+        recorder.clear();
+        RationalFactoring.getCache().clear();
+        RationalPolynomial cubic = new RationalPolynomial(R(-1,1), R(1,1)).multiply(new RationalPolynomial(R(-2,1), R(1,1))).multiply(new RationalPolynomial(R(3,1), R(1,1)));
+        new RationalFactoring(cubic).compute();
+        events = recorder.getEvents();
+        String stages = "";
+        ArithmeticEvent rootSearch = null;
+        for (int i = 0; i < events.length; i++) {
+            if(events[i].getType() == ArithmeticEvent.FACTORING_STAGE){
+                stages += events[i].getAlgorithm() + ";";
+                if(events[i].getAlgorithm().equals("root search")){
+                    rootSearch = events[i];
+                }
+            }
+        }
+        if(!stages.equals("irreducibility test;divisors;root search;deflation;"))
+            System.out.println("Factoring stages are wrong: " + stages);
+        if(rootSearch == null || rootSearch.getCount() != 6 || rootSearch.getFirstDegree() != 3)
+            System.out.println("Root search should find 6 candidates that are roots of the cubic: " + rootSearch);
+
+        // squaring 2^62 + x doesn't fit in longs
+        recorder.clear();
+        IntegerPolynomial big = new IntegerPolynomial(1L << 62, 1);
+        big.multiply(big);
+        ArithmeticEvent promotion = recorder.getSlowest(ArithmeticEvent.WIDE_PROMOTION);
+        ArithmeticEvent multiply = recorder.getSlowest(ArithmeticEvent.POLYNOMIAL_MULTIPLY);
+        if(promotion == null || !promotion.getAlgorithm().equals("multiply") || promotion.getFirstDegree() != 2)
+            System.out.println("Overflowing multiply should report a promotion: " + promotion);
+        if(multiply == null || !multiply.getAlgorithm().equals("wide"))
+            System.out.println("Overflowing multiply should be reported as done with WideIntegers");
+
+        // Rational arithmetic that overflows is reported before it throws
+        recorder.clear();
+        boolean caught = false;
+        try{
+            new Rational(1L << 62, 1L).add(new Rational(1L << 62, 1L));
+        }catch(ArithmeticException e){
+            caught = true;
+        }
+        ArithmeticEvent overflow = recorder.getSlowest(ArithmeticEvent.RATIONAL_OVERFLOW);
+        if(!caught || overflow == null || !overflow.getAlgorithm().equals("add") || overflow.hasDuration())
+            System.out.println("Overflowing Rational add should report an overflow: " + overflow);
+
+        // a threshold nothing reaches only keeps promotions
+        ArithmeticEventRecorder slowOnly = new ArithmeticEventRecorder(8, Long.MAX_VALUE);
+        ArithmeticEvents.setListener(slowOnly);
+        first.multiply(second);
+        big.multiply(big);
+        events = slowOnly.getEvents();
+        if(events.length != 1 || events[0].getType() != ArithmeticEvent.WIDE_PROMOTION)
+            System.out.println("Threshold should drop every fast event");
+
+        // a full recorder keeps the newest events
+        ArithmeticEventRecorder small = new ArithmeticEventRecorder(2, 0);
+        ArithmeticEvents.setListener(small);
+        first.multiply(second);
+        first.multiply(first);
+        second.multiply(second);
+        events = small.getEvents();
+        if(small.getRecorded() != 3 || events.length != 2 || events[0].getFirstDegree() != 2 || events[1].getFirstDegree() != 1)
+            System.out.println("Full recorder should keep the 2 newest events");
+
+        ArithmeticEvents.setListener(null);
+        if(!quietEnding){
+            System.out.println("Arithmetic events test complete");
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package tests;
+
+import mathClasses.PolynomialReader;
+import mathClasses.PolynomialWriter;
+import mathClasses.Rational;
+import mathClasses.RationalPolynomial;
+
+import static mathClasses.Rational.R;
+
+public class BinaryFormatTest {
+    public static void main(String[] args){
+        test(false);
+    }
+
+    public static void test(boolean quietEnding){
+        PolynomialWriter writer = new PolynomialWriter(4);
+        long[] numbers = {0, 1, -1, 63, -64, 64, 300, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (int i = 0; i < numbers.length; i++) {
+            writer.writeZigZag(numbers[i]);
+        }
+        // zig-zag maps 1 and -1 to 2 and 1, which each fit in one byte
+        if(writer.toByteArray()[1] != 2 || writer.toByteArray()[2] != 1)
+            System.out.println("1 and -1 should zig-zag to 2 and 1");
+
+        PolynomialReader reader = new PolynomialReader(writer.toByteArray());
+        for (int i = 0; i < numbers.length; i++) {
+            if(reader.readZigZag() != numbers[i])
+                System.out.println(numbers[i] + " didn't survive a zig-zag round trip");
+        }
+        if(reader.hasRemaining())
+            System.out.println("Bytes were left over after reading every number");
+
+        writer.reset();
+        Rational[] rationals = {R(-3,4), R(0,1), Rational.makeNegativeInfinity(), Rational.makePositiveInfinity()};
+        for (int i = 0; i < rationals.length; i++) {
+            writer.writeRational(rationals[i]);
+        }
+        reader = new PolynomialReader(writer.toByteArray());
+        for (int i = 0; i < rationals.length; i++) {
+            if(!reader.readRational().equals(rationals[i]))
+                System.out.println(rationals[i] + " didn't survive a round trip");
+        }
+
+        // dense with its own denominators, dense over a shared denominator, sparse, the zero polynomial, and the null polynomial
+        RationalPolynomial[] polys = new RationalPolynomial[6];
+        polys[0] = new RationalPolynomial(R(1,7), R(-2,3), R(5,11), R(-1,13));
+        polys[1] = new RationalPolynomial(R(1,6), R(-1,3), R(1,2), R(-5,6), R(2,3));
+        Rational[] sparse = new Rational[1001];
+        for (int i = 0; i < sparse.length; i++) {
+            sparse[i] = R(0,1);
+        }
+        sparse[0] = R(-1,2);
+        sparse[1000] = R(3,5);
+        polys[2] = new RationalPolynomial(sparse);
+        polys[3] = new RationalPolynomial(R(0,1));
+        polys[4] = new RationalPolynomial();
+        polys[5] = new RationalPolynomial(R(123456789,1), R(-987654321,2));
+
+        writer.reset();
+        for (int i = 0; i < polys.length; i++) {
+            writer.writePolynomial(polys[i]);
+        }
+        byte[] bytes = writer.toByteArray();
+        reader = new PolynomialReader(bytes);
+        RationalPolynomial read;
+        for (int i = 0; i < polys.length; i++) {
+            if(reader.peekLength() != (polys[i].isNull() ? 0 : polys[i].isZero() ? 1 : polys[i].getDegree() + 1))
+                System.out.println("Header of polynomial " + i + " has the wrong length");
+            read = reader.readPolynomial();
+            if(!read.equals(polys[i]))
+                System.out.println("Polynomial " + i + " came back as " + read.oneLineToString());
+        }
+        if(reader.hasRemaining())
+            System.out.println("Bytes were left over after reading every polynomial");
+
+        if(PolynomialWriter.encodedSize(polys[2]) > 12)
+            System.out.println("A polynomial with two nonzero terms should be written sparsely, but took " + PolynomialWriter.encodedSize(polys[2]) + " bytes");
+
+        if((bytes[PolynomialWriter.encodedSize(polys[0]) + 1] & PolynomialWriter.SHARED_DENOMINATOR) == 0)
+            System.out.println("Coefficients over 6 should share a denominator");
+
+        // skipping lands on the same place as reading
+        reader = new PolynomialReader(bytes);
+        reader.skipPolynomial();
+        reader.skipPolynomial();
+        if(reader.getPosition() != PolynomialWriter.encodedSize(polys[0]) + PolynomialWriter.encodedSize(polys[1]) || !reader.readPolynomial().equals(polys[2]))
+            System.out.println("Skipping polynomials didn't land on the next one");
+
+        boolean caught = false;
+        try{
+            new PolynomialReader(bytes, 0, 5).readPolynomial();
+        }catch(IllegalStateException e){
+            caught = true;
+        }
+        if(!caught)
+            System.out.println("Reading a cut off polynomial didn't throw");
+
+        if(!quietEnding){
+            System.out.println("Binary format test complete");
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package tests;
 
+import mathClasses.ProductCoefficientIterator;
 import mathClasses.ProductOfPolynomial;
 import mathClasses.Rational;
+import mathClasses.RationalPolyIterator;
+import mathClasses.RationalOperations.FactorizationCache;
 import mathClasses.RationalOperations.RationalFactoring;
 import mathClasses.RationalPolynomial;
 
@@ -110,6 +113,175 @@ public class FactoringTest {
             System.out.println(reducibleFactorization1Expected);
         }
 
+        // enough candidate roots that the search is split across threads
+        reducible1factor1 = new RationalPolynomial(R(-5,1), R(6,1));
+        reducible1factor2 = new RationalPolynomial(R(7,1), R(4,1));
+        RationalPolynomial reducible1factor3 = new RationalPolynomial(R(2,1), R(0,1), R(1,1));
+        reducible1 = reducible1factor1.multiply(reducible1factor2).multiply(reducible1factor3);
+        reducibleFactorization1Expected = new ProductOfPolynomial(new Rational(1), reducible1factor1, reducible1factor2, reducible1factor3);
+        reducibleFactorization1 = new RationalFactoring(reducible1);
+        reducibleFactorization1.compute();
+        reducibleFactorization1Actual = reducibleFactorization1.getOutput();
+        if(!(reducibleFactorization1Actual.equals(reducibleFactorization1Expected))){
+            System.out.println("Didn't factor a polynomial with many candidate roots");
+            System.out.println(reducibleFactorization1Actual);
+            System.out.println(reducibleFactorization1Expected);
+        }
+
+        // x^2 + x + 1 only satisfies eisenstein's criterion after shifting it to x^2 + 3x + 3
+        RationalPolynomial shiftedIrreducible = new RationalPolynomial(R(1,1), R(1,1), R(1,1));
+        RationalFactoring shiftedFactoring = new RationalFactoring(shiftedIrreducible);
+        shiftedFactoring.compute();
+        if(!shiftedFactoring.getOutput().equals(new ProductOfPolynomial(new Rational(1), shiftedIrreducible)))
+            System.out.println("Didn't recognize that x^2 + x + 1 is irreducible");
+
+        // x^4 + x + 1 is irreducible modulo 2, and the irreducible part keeps the right constant in front of it
+        RationalPolynomial modPrimeIrreducible = new RationalPolynomial(R(1,3), R(1,3), R(0,1), R(0,1), R(1,3));
+        RationalFactoring modPrimeFactoring = new RationalFactoring(modPrimeIrreducible);
+        modPrimeFactoring.compute();
+        if(!modPrimeFactoring.getOutput().equals(new ProductOfPolynomial(R(1,3), new RationalPolynomial(R(1,1), R(1,1), R(0,1), R(0,1), R(1,1))))){
+            System.out.println("Didn't factor (x^4 + x + 1)/3 correctly");
+            System.out.println(modPrimeFactoring.getOutput());
+        }
+
+        // 3/2 * (x - 1)(x + 2) and -(x - 1)(x + 2) share a cache entry, but keep their own constants
+        FactorizationCache cache = RationalFactoring.getCache();
+        RationalPolynomial canonical = new RationalPolynomial(R(-2,1), R(1,1), R(1,1));
+        new RationalFactoring(canonical).compute();
+        long hitsBefore = cache.getHits();
+        RationalPolynomial scaled = canonical.scale(R(3,2));
+        RationalFactoring scaledFactoring = new RationalFactoring(scaled);
+        scaledFactoring.compute();
+        if(cache.getHits() != hitsBefore + 1)
+            System.out.println("Factoring a multiple of a cached polynomial missed the cache");
+        if(!scaledFactoring.getOutput().multiplyTogether().equals(scaled))
+            System.out.println("Cached factorization wasn't rescaled correctly");
+
+        RationalPolynomial negated = canonical.scale(R(-1,1));
+        RationalFactoring negatedFactoring = new RationalFactoring(negated);
+        negatedFactoring.compute();
+        if(cache.getHits() != hitsBefore + 2)
+            System.out.println("Factoring a negated cached polynomial missed the cache");
+        if(!negatedFactoring.getOutput().multiplyTogether().equals(negated))
+            System.out.println("Cached factorization wasn't negated correctly");
+
+        // changing a returned factorization doesn't change the cached one
+        scaledFactoring.getOutput().setConstant(new Rational(0));
+        RationalFactoring again = new RationalFactoring(canonical);
+        again.compute();
+        if(!again.getOutput().multiplyTogether().equals(canonical))
+            System.out.println("Changing a factorization changed the cache");
+
+        // storing and looking up a factorization leaves both the stored and the returned one ready to add factors to
+        ProductOfPolynomial stored = new ProductOfPolynomial(R(1,1), new RationalPolynomial(R(1,1), R(1,1)));
+        stored.goFirst();
+        cache.store(new long[]{5, 0, 1}, stored);
+        stored.insertFactor(new RationalPolynomial(R(2,1), R(1,1)));
+        ProductOfPolynomial found = cache.lookup(new long[]{5, 0, 1}, R(2,1));
+        found.insertFactor(new RationalPolynomial(R(3,1), R(1,1)));
+        if(stored.getSize() != 2 || found.getSize() != 2 || !found.getConstant().equals(R(2,1)))
+            System.out.println("Copying a factorization in or out of the cache moved its cursor");
+
+        // the least recently used factorization is evicted first
+        FactorizationCache small = new FactorizationCache(2);
+        ProductOfPolynomial one = new ProductOfPolynomial(new Rational(1));
+        small.store(new long[]{1, 1}, one);
+        small.store(new long[]{2, 1}, one);
+        small.lookup(new long[]{1, 1}, new Rational(1));
+        small.store(new long[]{3, 1}, one);
+        if(small.getEvictions() != 1 || small.getSize() != 2)
+            System.out.println("Cache didn't evict when full");
+        if(small.lookup(new long[]{2, 1}, new Rational(1)) != null || small.lookup(new long[]{1, 1}, new Rational(1)) == null)
+            System.out.println("Cache didn't evict the least recently used factorization");
+
+        // enough factors that the product tree is split across threads
+        ProductOfPolynomial manyFactors = new ProductOfPolynomial(R(2,3));
+        RationalPolynomial foldedProduct = new RationalPolynomial(R(2,3));
+        for (int i = 1; i <= 12; i++) {
+            manyFactors.insertFactor(new RationalPolynomial(R(-i,1), R(1,1)));
+            foldedProduct = foldedProduct.multiply(new RationalPolynomial(R(-i,1), R(1,1)));
+        }
+        if(!manyFactors.multiplyTogether().equals(foldedProduct))
+            System.out.println("Product tree of 12 factors was wrong");
+
+        // a repeated factor is raised to its multiplicity by squaring instead of taking one leaf per copy
+        ProductOfPolynomial powers = new ProductOfPolynomial(R(1,2));
+        RationalPolynomial foldedPowers = new RationalPolynomial(R(1,2));
+        for (int i = 1; i <= 9; i++) {
+            powers.insertFactor(new RationalPolynomial(R(i,1), R(1,1)), i % 4 + 1);
+            for (int j = 0; j < i % 4 + 1; j++) {
+                foldedPowers = foldedPowers.multiply(new RationalPolynomial(R(i,1), R(1,1)));
+            }
+        }
+        if(!powers.multiplyTogether().equals(foldedPowers))
+            System.out.println("Product of factors with multiplicities was wrong");
+
+        // arithmetic on products without expanding them
+        RationalPolynomial linear = new RationalPolynomial(R(-1,1), R(1,1));
+        RationalPolynomial quadratic = new RationalPolynomial(R(2,1), R(0,1), R(1,1));
+        ProductOfPolynomial first = new ProductOfPolynomial(R(2,1), linear, quadratic);
+        ProductOfPolynomial second = new ProductOfPolynomial(R(1,2), linear.scale(R(3,1)));
+        if(!first.multiply(second).multiplyTogether().equals(first.multiplyTogether().multiply(second.multiplyTogether())))
+            System.out.println("Multiplying two products was wrong");
+
+        ProductOfPolynomial cubed = first.power(3);
+        if(cubed.getSize() != 2 || !cubed.multiplyTogether().equals(first.multiplyTogether().multiply(first.multiplyTogether()).multiply(first.multiplyTogether())))
+            System.out.println("Cubing a product was wrong");
+
+        // reordered and rescaled factors are still equal
+        if(!new ProductOfPolynomial(R(4,1), quadratic.scale(R(1,2)), linear).equals(first))
+            System.out.println("Didn't recognize equal products with rescaled factors");
+        if(new ProductOfPolynomial(R(2,1), linear, new RationalPolynomial(R(3,1), R(0,1), R(1,1))).equals(first))
+            System.out.println("Products with different factors are equal");
+
+        // gcd((x - 1)^3 (x^2 + 2), (x - 1) (x^2 + 2)^2) = (x - 1)(x^2 + 2), and the lcm is (x - 1)^3 (x^2 + 2)^2
+        ProductOfPolynomial left = new ProductOfPolynomial(R(5,1));
+        left.insertFactor(linear, 3);
+        left.insertFactor(quadratic);
+        ProductOfPolynomial right = new ProductOfPolynomial(R(-1,1), linear);
+        right.insertFactor(quadratic, 2);
+        if(!left.gcd(right).equals(new ProductOfPolynomial(R(1,1), linear, quadratic)))
+            System.out.println("gcd of two products was wrong");
+        ProductOfPolynomial expectedLcm = new ProductOfPolynomial(R(1,1));
+        expectedLcm.insertFactor(linear, 3);
+        expectedLcm.insertFactor(quadratic, 2);
+        if(!left.lcm(right).equals(expectedLcm))
+            System.out.println("lcm of two products was wrong");
+
+        // lazily expanding 2/3 * (x - 1)^3 (x^2 + 2) * 12 linear factors
+        ProductOfPolynomial lazy = left.multiply(manyFactors);
+        RationalPolynomial expanded = lazy.multiplyTogether();
+        ProductCoefficientIterator coefficients = lazy.getCoefficientIterator();
+        RationalPolyIterator expectedCoefficients = expanded.getIterator();
+        expectedCoefficients.goFirst();
+        while(!coefficients.isAfter()){
+            if(expectedCoefficients.isAfter() || !coefficients.currentRational().equals(expectedCoefficients.currentRational())){
+                System.out.println("Streamed coefficient " + coefficients.getPower() + " was wrong");
+                break;
+            }
+            coefficients.goForth();
+            expectedCoefficients.goForth();
+        }
+        if(!expectedCoefficients.isAfter())
+            System.out.println("Didn't stream every coefficient");
+
+        // making an iterator part way through walking the factors doesn't move the product's cursor
+        lazy.goFirst();
+        lazy.goForth();
+        RationalPolynomial secondFactor = lazy.getFactor();
+        lazy.getCoefficientIterator();
+        if(lazy.isAfter() || !lazy.getFactor().equals(secondFactor))
+            System.out.println("Streaming coefficients moved the product's cursor");
+
+        if(!lazy.getCoefficient(7).equals(expanded.remainder(new RationalPolynomial(R(0,1), R(0,1), R(0,1), R(0,1), R(0,1), R(0,1), R(0,1), R(0,1), R(1,1))).getLast()))
+            System.out.println("Single coefficient was wrong");
+        if(!lazy.getCoefficient(100).equals(new Rational(0)))
+            System.out.println("Coefficient past the degree wasn't zero");
+
+        RationalPolynomial xToTheFive = new RationalPolynomial(R(0,1), R(0,1), R(0,1), R(0,1), R(0,1), R(1,1));
+        if(!lazy.truncate(5).equals(expanded.remainder(xToTheFive)))
+            System.out.println("Truncating mod x^5 was wrong");
+
         ProductOfPolynomial expectedResult;
         RationalPolynomial resultOfMultiplication;
         RationalPolynomial term1;
@@ -122,9 +294,7 @@ public class FactoringTest {
                 for (int k = -5; k < 5; k++) {
                     for (int l = -5; l < 5; l++) {
                         term1 = new RationalPolynomial(R(i,1), R(j,1));
-                        term1.unPadPoly();
                         term2 = new RationalPolynomial(R(k,1), R(l,1));
-                        term2.unPadPoly();
                         resultOfMultiplication = term1.multiply(term2);
                         resultObject = new RationalFactoring(resultOfMultiplication);
 
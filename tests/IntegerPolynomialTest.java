@@ -0,0 +1,119 @@
+package tests;
+
+import dataStructures.Pair;
+import mathClasses.IntegerPolynomial;
+import mathClasses.Rational;
+import mathClasses.RationalPolynomial;
+import mathClasses.WideInteger;
+
+import static mathClasses.Rational.R;
+
+public class IntegerPolynomialTest {
+    public static void main(String[] args){
+        test(false);
+    }
+
+    public static void test(boolean quietEnding){
+        // 3/4 - 5/6 x + 1/2 x^3 is (9 - 10x + 6x^3) / 12
+        RationalPolynomial rational = new RationalPolynomial(R(3,4), R(-5,6), R(0,1), R(1,2));
+        Pair<IntegerPolynomial, Long> converted = IntegerPolynomial.fromRational(rational);
+        if(!converted.getFirst().equals(new IntegerPolynomial(9, -10, 0, 6)) || converted.getSecond() != 12L)
+            System.out.println("Converting " + rational.oneLineToString() + " gave " + converted.getFirst() + " over " + converted.getSecond());
+
+        if(!converted.getFirst().toRational(converted.getSecond()).equals(rational))
+            System.out.println("Converting back to a rational polynomial didn't give the original");
+
+        // a later denominator can push the coefficients made so far past a long: 2^62 + 1/3 x is (3 * 2^62 + x) / 3
+        rational = new RationalPolynomial(new Rational(1L << 62, 1L), R(1,3));
+        converted = IntegerPolynomial.fromRational(rational);
+        IntegerPolynomial expectedWide = IntegerPolynomial.valueOf(WideInteger.valueOf(3).shiftLeft(62), WideInteger.ONE);
+        if(!converted.getFirst().equals(expectedWide) || converted.getSecond() != 3L)
+            System.out.println("Converting " + rational.oneLineToString() + " gave " + converted.getFirst() + " over " + converted.getSecond());
+
+        if(!new IntegerPolynomial(9, -10, 0, 6).toString().equals("9 - 10*x + 0*x^2 + 6*x^3"))
+            System.out.println("Wrong string for 9 - 10x + 6x^3: " + new IntegerPolynomial(9, -10, 0, 6));
+
+        // trailing zeroes are dropped
+        if(new IntegerPolynomial(1, 2, 0, 0).getDegree() != 1)
+            System.out.println("Didn't remove trailing zeroes");
+
+        // content and primitive part keep their signs apart
+        IntegerPolynomial poly = new IntegerPolynomial(-12, 18, 0, -6);
+        if(!poly.getContent().equals(WideInteger.valueOf(6)))
+            System.out.println("Expected content 6 for " + poly + " but got " + poly.getContent());
+
+        if(!poly.getPrimitivePart().equals(new IntegerPolynomial(-2, 3, 0, -1)))
+            System.out.println("Got the wrong primitive part of " + poly);
+
+        if(!new IntegerPolynomial(0).getContent().isZero())
+            System.out.println("The content of the zero polynomial should be zero");
+
+        // (x - 1)(x + 2)(2x + 3) = 2x^3 + 5x^2 - x - 6
+        IntegerPolynomial first = new IntegerPolynomial(-1, 1);
+        IntegerPolynomial second = new IntegerPolynomial(2, 1);
+        IntegerPolynomial third = new IntegerPolynomial(3, 2);
+        IntegerPolynomial product = first.multiply(second).multiply(third);
+        if(!product.equals(new IntegerPolynomial(-6, -1, 5, 2)))
+            System.out.println("Multiplied wrong, got " + product);
+
+        if(!product.divideExact(third).equals(first.multiply(second)))
+            System.out.println("Exact division didn't undo multiplication");
+
+        boolean caught = false;
+        try{
+            product.divideExact(new IntegerPolynomial(1, 2, 1));
+        }catch (ArithmeticException e){
+            caught = true;
+        }
+        if(!caught)
+            System.out.println("Dividing by a polynomial that isn't a factor didn't throw");
+
+        // dividing x^3 + 1 by 2x^2 + 1 takes two steps, so 2^2 * a = q * b + r
+        IntegerPolynomial dividend = new IntegerPolynomial(1, 0, 0, 1);
+        IntegerPolynomial divisor = new IntegerPolynomial(1, 0, 2);
+        Pair<IntegerPolynomial, IntegerPolynomial> division = dividend.pseudoQuotientRemainder(divisor);
+        if(!dividend.scale(4).equals(division.getFirst().multiply(divisor).add(division.getSecond())))
+            System.out.println("lc^d * a != q * b + r for pseudo-division, got " + division.getFirst() + " and " + division.getSecond());
+
+        if(division.getSecond().getDegree() >= divisor.getDegree())
+            System.out.println("Pseudo-remainder has too high a degree");
+
+        // gcd((x - 1)(x + 2), (x - 1)(2x + 3)) = x - 1
+        if(!first.multiply(second).gcd(first.multiply(third).scale(-5)).equals(first))
+            System.out.println("Didn't find the gcd of two polynomials sharing x - 1");
+
+        // coefficients that overflow a long switch to WideIntegers and back
+        IntegerPolynomial large = new IntegerPolynomial(Long.MAX_VALUE, Long.MAX_VALUE);
+        IntegerPolynomial squared = large.multiply(large);
+        if(!squared.isWide())
+            System.out.println("Squaring " + large + " should need WideIntegers");
+
+        if(!squared.getWideCoefficient(1).equals(WideInteger.valueOf(Long.MAX_VALUE).multiply(WideInteger.valueOf(Long.MAX_VALUE)).shiftLeft(1)))
+            System.out.println("Got the wrong middle coefficient when squaring " + large);
+
+        if(!squared.getPrimitivePart().equals(new IntegerPolynomial(1, 2, 1)))
+            System.out.println("Primitive part of a wide polynomial was " + squared.getPrimitivePart());
+
+        IntegerPolynomial quotient = squared.divideExact(large);
+        if(quotient.isWide() || !quotient.equals(large))
+            System.out.println("Dividing a wide polynomial didn't switch back to longs");
+
+        if(!squared.subtract(squared).isZero())
+            System.out.println("p - p should be the zero polynomial");
+
+        // (x - 1)^2 (x + 2) / 2 = x^3/2 - 3x/2 + 1, so the square free part is (x - 1)(x + 2)
+        RationalPolynomial repeated = new RationalPolynomial(R(1,1), R(-3,2), R(0,1), R(1,2));
+        if(!repeated.getIntegerPolynomial().equals(new IntegerPolynomial(2, -3, 0, 1)))
+            System.out.println("Integer form of " + repeated + " was " + repeated.getIntegerPolynomial());
+
+        if(!repeated.getSquareFreePart().equals(new IntegerPolynomial(-2, 1, 1)))
+            System.out.println("Square free part of " + repeated + " was " + repeated.getSquareFreePart());
+
+        if(repeated.getSquareFreePart() != repeated.getSquareFreePart() || repeated.copy().getSquareFreePart() != repeated.getSquareFreePart())
+            System.out.println("Square free part wasn't kept on the polynomial");
+
+        if(!quietEnding){
+            System.out.println("Integer polynomial test complete");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package tests;
+
+import mathClasses.IntegerPolynomial;
+import mathClasses.Metrics;
+import mathClasses.MetricsSnapshot;
+import mathClasses.RationalOperations.Derivative;
+import mathClasses.RationalOperations.GreatestCommonDivisor;
+import mathClasses.RationalPolynomial;
+import mathClasses.WorkerPool;
+
+import static mathClasses.Rational.R;
+
+public class MetricsTest {
+    public static void main(String[] args){
+        test(false);
+    }
+
+    public static void test(boolean quietEnding){
+        RationalPolynomial first = new RationalPolynomial(R(1,2), R(1,1), R(3,1));
+        RationalPolynomial second = new RationalPolynomial(R(-1,1), R(1,1));
+
+        // nothing is recorded while metrics are off
+        Metrics.disable();
+        Metrics.reset();
+        first.multiply(second);
+        new Derivative(first).compute();
+        MetricsSnapshot off = Metrics.snapshot();
+        if(off.getCount(Metrics.POLYNOMIAL_MULTIPLY) != 0 || off.getGcdCount() != 0 || off.getOperationNames().length != 0)
+            System.out.println("Metrics recorded something while disabled");
+
+        Metrics.enable();
+        if(!Metrics.isEnabled())
+            System.out.println("Metrics should be enabled");
+
+        first.multiply(second);
+        first.multiply(first);
+        first.quotientRemainder(second);
+        first.solve(R(2,1));
+        MetricsSnapshot kernels = Metrics.snapshot();
+        if(kernels.getCount(Metrics.POLYNOMIAL_MULTIPLY) != 2)
+            System.out.println("Expected 2 polynomial multiplies, got " + kernels.getCount(Metrics.POLYNOMIAL_MULTIPLY));
+        if(kernels.getCount(Metrics.POLYNOMIAL_QUOTIENT_REMAINDER) != 1 || kernels.getCount(Metrics.POLYNOMIAL_SOLVE) != 1)
+            System.out.println("Division and evaluation should each be counted once");
+        if(kernels.getGcdCount() == 0 || kernels.getCount(Metrics.RATIONAL_MULTIPLY) == 0 || kernels.getCount(Metrics.RATIONAL_ADD) == 0)
+            System.out.println("Rational arithmetic wasn't counted");
+        long histogramTotal = 0;
+        long[] histogram = kernels.getHistogram(Metrics.POLYNOMIAL_MULTIPLY);
+        for (int i = 0; i < histogram.length; i++) {
+            histogramTotal += histogram[i];
+        }
+        if(histogramTotal != 2)
+            System.out.println("Multiply latency histogram should hold 2 calls, holds " + histogramTotal);
+
+        // (1/2 + x + 3x^2)^2 = 1/4 + x + 4x^2 + 6x^3 + 9x^4, so the largest part of a coefficient is 9, which takes 4 bits
+        if(kernels.getMaxCoefficientBits() != 4)
+            System.out.println("Largest product coefficient should take 4 bits, took " + kernels.getMaxCoefficientBits());
+
+        // squaring 2^62 + x doesn't fit in longs
+        IntegerPolynomial big = new IntegerPolynomial(1L << 62, 1);
+        IntegerPolynomial square = big.multiply(big);
+        if(!square.isWide() || Metrics.snapshot().getWidePromotions() != 1)
+            System.out.println("Overflowing multiply should be counted as one promotion, was " + Metrics.snapshot().getWidePromotions());
+
+        new Derivative(first).compute();
+        new Derivative(second).compute();
+        new GreatestCommonDivisor(first, second).compute();
+        MetricsSnapshot operations = Metrics.snapshot();
+        if(operations.getOperationCount("Derivative") != 2 || operations.getOperationCount("GreatestCommonDivisor") != 1)
+            System.out.println("Operation counts are wrong: " + operations);
+        if(operations.getOperationCount("RootIsolation") != 0 || operations.getOperationNames().length != 2)
+            System.out.println("Only operations that ran should be listed");
+        long[] derivativeHistogram = operations.getOperationHistogram("Derivative");
+        histogramTotal = 0;
+        for (int i = 0; i < derivativeHistogram.length; i++) {
+            histogramTotal += derivativeHistogram[i];
+        }
+        if(histogramTotal != 2)
+            System.out.println("Derivative latency histogram should hold 2 runs");
+
+        // operations that throw are counted too
+        boolean caught = false;
+        try{
+            new Derivative(new RationalPolynomial()).compute();
+        }catch(IllegalStateException e){
+            caught = true;
+        }
+        if(!caught || Metrics.snapshot().getOperationCount("Derivative") != 3)
+            System.out.println("Derivative that threw wasn't counted");
+
+        // snapshots don't change as more is recorded, and hand out copies
+        long before = kernels.getCount(Metrics.POLYNOMIAL_MULTIPLY);
+        first.multiply(second);
+        kernels.getHistogram(Metrics.POLYNOMIAL_MULTIPLY)[0] = 1000;
+        if(kernels.getCount(Metrics.POLYNOMIAL_MULTIPLY) != before || kernels.getHistogram(Metrics.POLYNOMIAL_MULTIPLY)[0] == 1000)
+            System.out.println("Snapshot changed after it was taken");
+
+        Metrics.reset();
+        if(Metrics.snapshot().getCount(Metrics.POLYNOMIAL_MULTIPLY) != 0 || Metrics.snapshot().getOperationNames().length != 0)
+            System.out.println("Reset didn't clear the metrics");
+
+        // counts from threads working in parallel all add up
+        final RationalPolynomial shared = first;
+        Runnable[] tasks = new Runnable[8];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new Runnable() {
+                public void run(){
+                    for (int k = 0; k < 500; k++) {
+                        shared.multiply(shared);
+                    }
+                }
+            };
+        }
+        WorkerPool.getShared().runAll(tasks);
+        if(Metrics.snapshot().getCount(Metrics.POLYNOMIAL_MULTIPLY) != 4000)
+            System.out.println("Multiplies on several threads were counted as " + Metrics.snapshot().getCount(Metrics.POLYNOMIAL_MULTIPLY));
+        Metrics.reset();
+
+        Metrics.disable();
+        if(!quietEnding){
+            System.out.println("Metrics test complete");
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package tests;
+
+import mathClasses.ProductOfPolynomial;
+import mathClasses.RationalOperations.BatchFunction;
+import mathClasses.RationalOperations.BatchScratch;
+import mathClasses.RationalOperations.BatchSink;
+import mathClasses.RationalOperations.Derivative;
+import mathClasses.RationalOperations.Integrate;
+import mathClasses.RationalOperations.OperationBatch;
+import mathClasses.RationalOperations.RationalOperationOutput;
+import mathClasses.RationalPolynomial;
+
+import static mathClasses.Rational.R;
+
+public class OperationBatchTest {
+    public static void main(String[] args){
+        test(false);
+    }
+
+    public static void test(boolean quietEnding){
+        final RationalPolynomial[] polys = new RationalPolynomial[300];
+        for (int i = 0; i < polys.length; i++) {
+            polys[i] = new RationalPolynomial(R(i,7), R(-1,i + 1), R(0,1), R(i % 4,3));
+        }
+
+        // windows smaller than the input, on a few threads
+        RationalOperationOutput[] derivatives = new OperationBatch<>(OperationBatch.DERIVATIVE, 3, 16).apply(polys);
+        RationalOperationOutput[] integrals = OperationBatch.integrate().apply(polys);
+        Derivative derivative;
+        Integrate integrate;
+        for (int i = 0; i < polys.length; i++) {
+            derivative = new Derivative(polys[i]);
+            derivative.compute();
+            if(!derivatives[i].equals(derivative.getOutput()))
+                System.out.println("Batch derivative " + i + " doesn't match Derivative");
+            integrate = new Integrate(polys[i]);
+            integrate.compute();
+            if(!integrals[i].equals(integrate.getOutput()))
+                System.out.println("Batch integral " + i + " doesn't match Integrate");
+        }
+
+        // ordered output reaches the sink in input order even with several threads
+        final long[] nextIndex = {0};
+        final boolean[] outOfOrder = {false};
+        long processed = new OperationBatch<>(new BatchFunction<RationalPolynomial>() {
+            public RationalPolynomial apply(RationalPolynomial poly, BatchScratch scratch){
+                return poly.scale(scratch.integer(2));
+            }
+        }, 4, 32).run(polys, new BatchSink<RationalPolynomial>() {
+            public void accept(long index, RationalPolynomial output){
+                if(index != nextIndex[0]++)
+                    outOfOrder[0] = true;
+            }
+        }, true);
+        if(processed != polys.length || outOfOrder[0])
+            System.out.println("Ordered batch processed " + processed + " polynomials, out of order: " + outOfOrder[0]);
+
+        RationalOperationOutput[] factors = OperationBatch.factoring().apply(polys[3], polys[10]);
+        if(!((ProductOfPolynomial) factors[0]).multiplyTogether().equals(polys[3]) || !((ProductOfPolynomial) factors[1]).multiplyTogether().equals(polys[10]))
+            System.out.println("Batch factoring didn't multiply back together");
+
+        // the first failure stops the batch and is thrown on the calling thread
+        boolean caught = false;
+        try{
+            new OperationBatch<>(OperationBatch.DERIVATIVE, 2, 8).apply(polys[0], new RationalPolynomial(), polys[1]);
+        }catch(IllegalStateException e){
+            caught = true;
+        }
+        if(!caught)
+            System.out.println("Batch should throw what the function threw");
+
+        // an error on a worker thread is thrown too, instead of leaving the window unfinished
+        caught = false;
+        try{
+            new OperationBatch<>(new BatchFunction<RationalPolynomial>() {
+                public RationalPolynomial apply(RationalPolynomial poly, BatchScratch scratch){
+                    if(poly == polys[5])
+                        throw new StackOverflowError();
+                    return poly;
+                }
+            }, 4, 8).apply(polys);
+        }catch(StackOverflowError e){
+            caught = true;
+        }
+        if(!caught)
+            System.out.println("Batch should throw the error the function threw");
+
+        if(!quietEnding){
+            System.out.println("Operation batch test complete");
+        }
+    }
+}
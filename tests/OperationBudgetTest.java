@@ -0,0 +1,122 @@
+package tests;
+
+import mathClasses.IsolatedRoots;
+import mathClasses.ProductOfPolynomial;
+import mathClasses.Rational;
+import mathClasses.RationalOperations.Derivative;
+import mathClasses.RationalOperations.GreatestCommonDivisor;
+import mathClasses.RationalOperations.OperationBudget;
+import mathClasses.RationalOperations.OperationStoppedException;
+import mathClasses.RationalOperations.RationalFactoring;
+import mathClasses.RationalOperations.RootIsolation;
+import mathClasses.RationalPolynomial;
+
+import static mathClasses.Rational.R;
+
+public class OperationBudgetTest {
+    public static void main(String[] args){
+        test(false);
+    }
+
+    public static void test(boolean quietEnding){
+        // a cancelled budget stops an operation at its first step
+        OperationBudget cancelled = new OperationBudget();
+        cancelled.cancel();
+        Derivative derivative = new Derivative(new RationalPolynomial(R(1,1), R(2,1), R(3,1)));
+        derivative.setBudget(cancelled);
+        OperationStoppedException stopped = null;
+        try{
+            derivative.compute();
+        }catch(OperationStoppedException e){
+            stopped = e;
+        }
+        if(stopped == null || !stopped.isCancellation() || cancelled.getStopReason() != OperationBudget.CANCELLED)
+            System.out.println("Cancelled budget didn't stop the derivative");
+
+        // x (x+1) (x^2 + 1000000007) has to try the 3401 primes up to the square root of its prime constant term,
+        // so it runs out of steps after finding x
+        RationalPolynomial slowPoly = new RationalPolynomial(R(0,1), R(1,1)).multiply(new RationalPolynomial(R(1,1), R(1,1))).multiply(new RationalPolynomial(R(1000000007,1), R(0,1), R(1,1)));
+        RationalFactoring factoring = new RationalFactoring(slowPoly);
+        factoring.setBudget(new OperationBudget(-1, 1000));
+        stopped = null;
+        try{
+            factoring.compute();
+        }catch(OperationStoppedException e){
+            stopped = e;
+        }
+        if(stopped == null || stopped.getReason() != OperationBudget.OUT_OF_STEPS)
+            System.out.println("Factoring didn't run out of steps");
+        else{
+            ProductOfPolynomial partial = (ProductOfPolynomial) stopped.getPartialOutput();
+            if(partial == null || partial.getSize() != 1 || factoring.getPartialOutput() != partial)
+                System.out.println("Factoring should report x as the factor found so far");
+        }
+
+        // (x+1) (x^2 + 2^62 - 57) would trial divide its prime constant term by about a billion numbers, so a deadline has to stop it
+        RationalFactoring hugeFactoring = new RationalFactoring(new RationalPolynomial(R(1,1), R(1,1)).multiply(new RationalPolynomial(new Rational(4611686018427387847L, 1L), R(0,1), R(1,1))));
+        hugeFactoring.setBudget(new OperationBudget(20, -1));
+        stopped = null;
+        try{
+            hugeFactoring.compute();
+        }catch(OperationStoppedException e){
+            stopped = e;
+        }
+        if(stopped == null || !stopped.isTimeout())
+            System.out.println("Factoring didn't stop at its deadline");
+
+        // coprime polynomials take several remainders to reach a constant
+        RationalPolynomial first = new RationalPolynomial(R(1,1), R(1,1), R(1,1), R(1,1), R(1,1));
+        RationalPolynomial second = new RationalPolynomial(R(2,1), R(0,1), R(3,1), R(1,1));
+        GreatestCommonDivisor gcd = new GreatestCommonDivisor(first, second);
+        gcd.setBudget(new OperationBudget(-1, 1));
+        stopped = null;
+        try{
+            gcd.compute();
+        }catch(OperationStoppedException e){
+            stopped = e;
+        }
+        if(stopped == null)
+            System.out.println("Gcd should have run out of steps");
+
+        // a gcd with only a few remainders still sees a deadline that has already passed
+        gcd = new GreatestCommonDivisor(first, second);
+        OperationBudget expired = new OperationBudget(0, -1);
+        gcd.setBudget(expired);
+        stopped = null;
+        try{
+            gcd.compute();
+        }catch(OperationStoppedException e){
+            stopped = e;
+        }
+        if(stopped == null || !stopped.isTimeout() || expired.getStopReason() != OperationBudget.TIMED_OUT)
+            System.out.println("Gcd didn't stop at a deadline that had passed");
+
+        // roots found before running out are still reported
+        RationalPolynomial manyRoots = new RationalPolynomial(R(0,1), R(1,1));
+        for (int i = 1; i <= 6; i++) {
+            manyRoots = manyRoots.multiply(new RationalPolynomial(R(-i,1), R(1,1)));
+        }
+        RootIsolation isolation = new RootIsolation(manyRoots);
+        isolation.setBudget(new OperationBudget(-1, 4));
+        stopped = null;
+        try{
+            isolation.compute();
+        }catch(OperationStoppedException e){
+            stopped = e;
+        }
+        if(stopped == null || ((IsolatedRoots) stopped.getPartialOutput()).getSize() >= 7 || ((IsolatedRoots) stopped.getPartialOutput()).getSize() < 1)
+            System.out.println("Root isolation should report some but not all of its roots");
+
+        // a budget that doesn't run out doesn't change anything
+        OperationBudget generous = new OperationBudget(60000, 1000000);
+        isolation = new RootIsolation(manyRoots);
+        isolation.setBudget(generous);
+        isolation.compute();
+        if(isolation.getOutput().getSize() != 7 || generous.getSteps() == 0 || generous.getStopReason() != 0)
+            System.out.println("Generous budget changed the result of root isolation");
+
+        if(!quietEnding){
+            System.out.println("Operation budget test complete");
+        }
+    }
+}
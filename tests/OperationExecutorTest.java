@@ -0,0 +1,158 @@
+package tests;
+
+import mathClasses.ProductOfPolynomial;
+import mathClasses.RationalOperations.Derivative;
+import mathClasses.RationalOperations.GreatestCommonDivisor;
+import mathClasses.RationalOperations.Operation;
+import mathClasses.RationalOperations.OperationExecutor;
+import mathClasses.RationalOperations.OperationFuture;
+import mathClasses.RationalOperations.OperationStep;
+import mathClasses.RationalOperations.RationalFactoring;
+import mathClasses.RationalPolynomial;
+
+import static mathClasses.Rational.R;
+
+public class OperationExecutorTest {
+    public static void main(String[] args){
+        test(false);
+    }
+
+    public static void test(boolean quietEnding){
+        int[] threadCounts = {0, 1, 3};
+        for (int t = 0; t < threadCounts.length; t++) {
+            OperationExecutor executor = new OperationExecutor(threadCounts[t]);
+
+            // (x+1)^2 (x+2) has x+1 as the gcd with its derivative
+            final RationalPolynomial poly = new RationalPolynomial(R(1,1), R(1,1)).multiply(new RationalPolynomial(R(1,1), R(1,1))).multiply(new RationalPolynomial(R(2,1), R(1,1)));
+            OperationFuture<RationalPolynomial> derivative = executor.submit(new Derivative(poly), RationalPolynomial.class);
+            OperationFuture<RationalPolynomial> gcd = derivative.then(new OperationStep<RationalPolynomial>() {
+                public Operation next(RationalPolynomial output){
+                    return new GreatestCommonDivisor(poly, output);
+                }
+            }, RationalPolynomial.class);
+            OperationFuture<ProductOfPolynomial> factors = gcd.then(new OperationStep<RationalPolynomial>() {
+                public Operation next(RationalPolynomial output){
+                    return new RationalFactoring(output);
+                }
+            }, ProductOfPolynomial.class);
+
+            RationalPolynomial expectedDerivative = new RationalPolynomial(R(5,1), R(8,1), R(3,1));
+            if(!derivative.get().equals(expectedDerivative))
+                System.out.println("Derivative run on " + threadCounts[t] + " threads was " + derivative.get().oneLineToString());
+            if(!gcd.get().equals(new RationalPolynomial(R(1,1), R(1,1))))
+                System.out.println("Gcd chained on " + threadCounts[t] + " threads was " + gcd.get().oneLineToString());
+            if(!factors.get().multiplyTogether().equals(new RationalPolynomial(R(1,1), R(1,1))))
+                System.out.println("Factoring chained on " + threadCounts[t] + " threads didn't multiply back to x+1");
+            if(!factors.isDone() || factors.isFailed())
+                System.out.println("Finished future should be done and not failed");
+
+            // a failure is handed to get, and carried down the chain
+            OperationFuture<RationalPolynomial> failed = executor.submit(new Derivative(new RationalPolynomial()), RationalPolynomial.class);
+            OperationFuture<RationalPolynomial> afterFailure = failed.then(new OperationStep<RationalPolynomial>() {
+                public Operation next(RationalPolynomial output){
+                    return new Derivative(output);
+                }
+            }, RationalPolynomial.class);
+            boolean caught = false;
+            try{
+                afterFailure.get();
+            }catch(IllegalStateException e){
+                caught = true;
+            }
+            if(!caught || !failed.isFailed())
+                System.out.println("Failure on " + threadCounts[t] + " threads wasn't passed down the chain");
+
+            // errors finish the future too, instead of leaving get() waiting forever
+            OperationFuture<RationalPolynomial> errored = derivative.then(new OperationStep<RationalPolynomial>() {
+                public Operation next(RationalPolynomial output){
+                    throw new StackOverflowError();
+                }
+            }, RationalPolynomial.class);
+            caught = false;
+            try{
+                errored.get();
+            }catch(StackOverflowError e){
+                caught = true;
+            }
+            if(!caught || !errored.isFailed())
+                System.out.println("Error on " + threadCounts[t] + " threads wasn't passed to get");
+
+            // asking for the wrong output type fails that future instead of whatever uses its output
+            OperationFuture<ProductOfPolynomial> wrongType = executor.submit(new Derivative(poly), ProductOfPolynomial.class);
+            caught = false;
+            try{
+                wrongType.get();
+            }catch(ClassCastException e){
+                caught = true;
+            }
+            if(!caught)
+                System.out.println("Future asked for the wrong output type on " + threadCounts[t] + " threads didn't fail");
+
+            // steps chained on a future that isn't done yet start in the order they were added
+            if(threadCounts[t] == 1){
+                final boolean[] released = {false};
+                final StringBuilder order = new StringBuilder();
+                OperationFuture<RationalPolynomial> blocked = derivative.then(new OperationStep<RationalPolynomial>() {
+                    public Operation next(RationalPolynomial output){
+                        synchronized(released){
+                            while(!released[0]){
+                                try{
+                                    released.wait();
+                                }catch(InterruptedException e){
+                                    return new Derivative(output);
+                                }
+                            }
+                        }
+                        return new Derivative(output);
+                    }
+                }, RationalPolynomial.class);
+                OperationFuture<?>[] chained = new OperationFuture<?>[3];
+                for (int i = 0; i < chained.length; i++) {
+                    final int index = i;
+                    chained[i] = blocked.then(new OperationStep<RationalPolynomial>() {
+                        public Operation next(RationalPolynomial output){
+                            synchronized(order){
+                                order.append(index);
+                            }
+                            return new Derivative(output);
+                        }
+                    });
+                }
+                synchronized(released){
+                    released[0] = true;
+                    released.notifyAll();
+                }
+                for (int i = 0; i < chained.length; i++) {
+                    chained[i].get();
+                }
+                if(!order.toString().equals("012"))
+                    System.out.println("Chained steps started in the order " + order);
+            }
+
+            // lots of independent operations at once
+            OperationFuture<?>[] many = new OperationFuture<?>[50];
+            for (int i = 0; i < many.length; i++) {
+                many[i] = executor.submit(new Derivative(new RationalPolynomial(R(i,1), R(i,1), R(1,1))));
+            }
+            for (int i = 0; i < many.length; i++) {
+                if(!many[i].get().equals(new RationalPolynomial(R(i,1), R(2,1))))
+                    System.out.println("Derivative " + i + " on " + threadCounts[t] + " threads was wrong");
+            }
+
+            executor.close();
+            executor.awaitTermination();
+            caught = false;
+            try{
+                executor.submit(new Derivative(poly));
+            }catch(IllegalStateException e){
+                caught = true;
+            }
+            if(!caught)
+                System.out.println("Closed executor shouldn't take more operations");
+        }
+
+        if(!quietEnding){
+            System.out.println("Operation executor test complete");
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package tests;
+
+import mathClasses.IsolatedRoots;
+import mathClasses.ProductOfPolynomial;
+import mathClasses.RationalOperations.Derivative;
+import mathClasses.RationalOperations.GreatestCommonDivisor;
+import mathClasses.RationalOperations.Operation;
+import mathClasses.RationalOperations.OperationBudget;
+import mathClasses.RationalOperations.OperationExecutor;
+import mathClasses.RationalOperations.OperationFuture;
+import mathClasses.RationalOperations.OperationSession;
+import mathClasses.RationalOperations.OperationStep;
+import mathClasses.RationalOperations.OperationStoppedException;
+import mathClasses.RationalOperations.RationalFactoring;
+import mathClasses.RationalOperations.RootIsolation;
+import mathClasses.RationalOperations.TaylorShift;
+import mathClasses.RationalPolynomial;
+
+import static mathClasses.Rational.R;
+
+public class OperationSessionTest {
+    public static void main(String[] args){
+        test(false);
+    }
+
+    public static void test(boolean quietEnding){
+        int[] threadCounts = {0, 3};
+        for (int t = 0; t < threadCounts.length; t++) {
+            OperationExecutor executor = new OperationExecutor(threadCounts[t]);
+            OperationSession session = new OperationSession(executor);
+
+            // (x-1)^2 (x+2)
+            final RationalPolynomial poly = new RationalPolynomial(R(-1,1), R(1,1)).multiply(new RationalPolynomial(R(-1,1), R(1,1))).multiply(new RationalPolynomial(R(2,1), R(1,1)));
+            OperationFuture<RationalPolynomial> derivative = session.submit(new Derivative(poly), RationalPolynomial.class);
+            OperationFuture<RationalPolynomial> gcd = session.then(derivative, new OperationStep<RationalPolynomial>() {
+                public Operation next(RationalPolynomial output){
+                    return new GreatestCommonDivisor(poly, output);
+                }
+            }, RationalPolynomial.class);
+            OperationFuture<ProductOfPolynomial> factors = session.submit(new RationalFactoring(poly), ProductOfPolynomial.class);
+            OperationFuture<IsolatedRoots> roots = session.submit(new RootIsolation(poly), IsolatedRoots.class);
+
+            // asking again for the same thing, through an equal but separate polynomial, shares the earlier node
+            RationalPolynomial samePoly = new RationalPolynomial(R(2,1), R(-3,1), R(0,1), R(1,1));
+            if(session.submit(new Derivative(samePoly), RationalPolynomial.class) != derivative)
+                System.out.println("Derivative of an equal polynomial on " + threadCounts[t] + " threads wasn't shared");
+            if(session.submit(new RationalFactoring(samePoly), ProductOfPolynomial.class) != factors)
+                System.out.println("Factoring of an equal polynomial on " + threadCounts[t] + " threads wasn't shared");
+            OperationFuture<RationalPolynomial> gcdAgain = session.then(session.submit(new Derivative(samePoly), RationalPolynomial.class), new OperationStep<RationalPolynomial>() {
+                public Operation next(RationalPolynomial output){
+                    return new GreatestCommonDivisor(poly, output);
+                }
+            }, RationalPolynomial.class);
+
+            if(!gcd.get().equals(new RationalPolynomial(R(-1,1), R(1,1))) || !gcdAgain.get().equals(gcd.get()))
+                System.out.println("Gcd with the derivative on " + threadCounts[t] + " threads was " + gcd.get().oneLineToString());
+            if(!factors.get().multiplyTogether().equals(poly))
+                System.out.println("Factors on " + threadCounts[t] + " threads didn't multiply back together");
+            if(roots.get().getSize() != 2)
+                System.out.println("Found " + roots.get().getSize() + " distinct roots on " + threadCounts[t] + " threads");
+
+            // derivative, gcd, factoring, and root isolation are the only distinct operations
+            if(session.getSize() != 4 || session.getMisses() != 4 || session.getHits() != 4)
+                System.out.println("Session on " + threadCounts[t] + " threads ran " + session.getSize() + " operations with " + session.getHits() + " hits");
+
+            // asking for a shared node under another output type still gets its output, checked against that type
+            if(session.submit(new Derivative(samePoly)).get() != derivative.get())
+                System.out.println("Untyped submission on " + threadCounts[t] + " threads didn't share the derivative");
+            boolean caught = false;
+            try{
+                session.submit(new Derivative(samePoly), IsolatedRoots.class).get();
+            }catch(ClassCastException e){
+                caught = true;
+            }
+            if(!caught)
+                System.out.println("Shared node asked for the wrong output type on " + threadCounts[t] + " threads didn't fail");
+
+            // different constants are different operations
+            if(session.submit(new TaylorShift(poly, R(1,1))) == session.submit(new TaylorShift(poly, R(2,1))))
+                System.out.println("Taylor shifts by different amounts were treated as the same");
+
+            // an operation stopped by its budget isn't remembered, so asking again without one runs it again
+            Derivative stoppedDerivative = new Derivative(new RationalPolynomial(R(5,1), R(0,1), R(1,1)));
+            OperationBudget cancelled = new OperationBudget();
+            cancelled.cancel();
+            stoppedDerivative.setBudget(cancelled);
+            OperationFuture<RationalPolynomial> stopped = session.submit(stoppedDerivative, RationalPolynomial.class);
+            caught = false;
+            try{
+                stopped.get();
+            }catch(OperationStoppedException e){
+                caught = true;
+            }
+            OperationFuture<RationalPolynomial> retried = session.submit(new Derivative(new RationalPolynomial(R(5,1), R(0,1), R(1,1))), RationalPolynomial.class);
+            if(!caught || retried == stopped || retried.isFailed() || !retried.get().equals(new RationalPolynomial(R(0,1), R(2,1))))
+                System.out.println("Stopped operation on " + threadCounts[t] + " threads was shared with a later one");
+
+            session.clear();
+            if(session.submit(new Derivative(poly), RationalPolynomial.class) == derivative || session.getSize() != 1)
+                System.out.println("Clearing the session should forget earlier operations");
+
+            executor.close();
+            executor.awaitTermination();
+        }
+
+        if(!quietEnding){
+            System.out.println("Operation session test complete");
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package tests;
+
+import mathClasses.CoefficientArena;
+import mathClasses.PackedPolynomial;
+import mathClasses.Rational;
+import mathClasses.RationalPolynomial;
+
+import static mathClasses.Rational.R;
+
+public class PackedPolynomialTest {
+    public static void main(String[] args){
+        test(false);
+    }
+
+    public static void test(boolean quietEnding){
+        CoefficientArena arena = new CoefficientArena(2);
+        RationalPolynomial p1 = new RationalPolynomial(R(1,2), R(-3,4), R(0,1), R(5,6));
+        RationalPolynomial p2 = new RationalPolynomial(R(-1,3), R(2,1), R(7,8));
+        RationalPolynomial zeroPoly = new RationalPolynomial(R(0,1));
+        PackedPolynomial packed1 = arena.allocate(p1);
+        PackedPolynomial packed2 = arena.allocate(p2);
+        PackedPolynomial packedZero = arena.allocate(zeroPoly);
+
+        if(!packed1.toRational().equals(p1))
+            System.out.println("Packing and unpacking changed " + p1.oneLineToString());
+        if(packed1.getDegree() != 3 || !packed1.getCoefficient(1).equals(R(-3,4)))
+            System.out.println("Packed polynomial has the wrong degree or coefficients");
+        if(arena.getUsed() != 8)
+            System.out.println("Arena should be holding 8 coefficients but is holding " + arena.getUsed());
+
+        // every kernel should agree with RationalPolynomial
+        if(!packed1.add(packed2).toRational().equals(p1.add(p2)))
+            System.out.println("Packed sum is " + packed1.add(packed2).toRational().oneLineToString());
+        if(!packed2.subtract(packed1).toRational().equals(p2.subtract(p1)))
+            System.out.println("Packed difference is " + packed2.subtract(packed1).toRational().oneLineToString());
+        if(!packed1.subtract(packed1).isZero())
+            System.out.println("p - p should be zero");
+        if(!packed1.multiply(packed2).toRational().equals(p1.multiply(p2)))
+            System.out.println("Packed product is " + packed1.multiply(packed2).toRational().oneLineToString());
+        if(!packed1.multiply(packedZero).isZero() || !packedZero.add(packed2).toRational().equals(p2))
+            System.out.println("Zero polynomial wasn't handled like RationalPolynomial handles it");
+
+        Rational[] points = {R(0,1), R(1,1), R(-2,3), R(7,5)};
+        for (int i = 0; i < points.length; i++) {
+            if(!packed1.evaluate(points[i]).equals(p1.solve(points[i])))
+                System.out.println("Packed polynomial evaluated at " + points[i] + " gave " + packed1.evaluate(points[i]));
+        }
+        if(!packed1.evaluate(Rational.makeNegativeInfinity()).equals(p1.solve(Rational.makeNegativeInfinity())))
+            System.out.println("Packed polynomial evaluated at -infinity was wrong");
+
+        // polynomials from different arenas can be combined
+        CoefficientArena other = new CoefficientArena();
+        PackedPolynomial packed3 = other.allocate(p2);
+        if(!packed3.multiply(packed1).toRational().equals(p2.multiply(p1)) || packed3.multiply(packed1).getArena() != other)
+            System.out.println("Multiplying across arenas went wrong");
+
+        boolean caught = false;
+        try{
+            new CoefficientArena().allocate(new RationalPolynomial(R(Integer.MAX_VALUE,1), R(1,1))).multiply(
+                    new CoefficientArena().allocate(new RationalPolynomial(R(Integer.MAX_VALUE,1), R(Integer.MAX_VALUE,1))).multiply(
+                            new CoefficientArena().allocate(new RationalPolynomial(R(Integer.MAX_VALUE,1), R(Integer.MAX_VALUE,1)))));
+        }catch(ArithmeticException e){
+            caught = true;
+        }
+        if(!caught)
+            System.out.println("Overflow should throw instead of wrapping around");
+
+        // resetting or closing the arena frees its polynomials
+        arena.reset();
+        caught = false;
+        try{
+            packed1.evaluate(R(1,1));
+        }catch(IllegalStateException e){
+            caught = true;
+        }
+        if(!caught || arena.getUsed() != 0)
+            System.out.println("Polynomials should be freed when their arena is reset");
+        PackedPolynomial reused = arena.allocate(p2);
+        if(!reused.toRational().equals(p2))
+            System.out.println("Arena couldn't be reused after a reset");
+        arena.close();
+        caught = false;
+        try{
+            reused.toRational();
+        }catch(IllegalStateException e){
+            caught = true;
+        }
+        if(!caught || !arena.isClosed())
+            System.out.println("Polynomials should be freed when their arena is closed");
+
+        if(!quietEnding){
+            System.out.println("Packed polynomial test complete");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package tests;
+
+import mathClasses.IntegerPolynomial;
+import mathClasses.PolynomialParseException;
+import mathClasses.PolynomialParser;
+import mathClasses.RationalPolynomial;
+import mathClasses.WideInteger;
+
+import static mathClasses.Rational.R;
+
+public class PolynomialParserTest {
+    public static void main(String[] args){
+        test(false);
+    }
+
+    public static void test(boolean quietEnding){
+        RationalPolynomial expected = new RationalPolynomial(R(1,7), R(-2,1), R(0,1), R(0,1), R(0,1), R(3,4));
+        RationalPolynomial parsed = PolynomialParser.parse("3/4*x^5 - 2*x + 1/7");
+        if(!parsed.equals(expected))
+            System.out.println("Parsing 3/4*x^5 - 2*x + 1/7 gave " + parsed.oneLineToString());
+
+        // terms out of order, repeated powers, no '*', and extra spaces
+        parsed = PolynomialParser.parse("  1/14 -2x+ 3/4 x ^ 5 + 1/14 ");
+        if(!parsed.equals(expected))
+            System.out.println("Parsing unordered terms gave " + parsed.oneLineToString());
+
+        // formatting and then parsing gives back the same polynomial
+        if(!PolynomialParser.parse(expected.oneLineToString()).equals(expected))
+            System.out.println("Couldn't parse " + expected.oneLineToString());
+
+        parsed = PolynomialParser.parse("-x^2 + x - x");
+        if(!parsed.equals(new RationalPolynomial(R(0,1), R(0,1), R(-1,1))))
+            System.out.println("Parsing -x^2 + x - x gave " + parsed.oneLineToString());
+
+        if(!PolynomialParser.parse("0").isZero())
+            System.out.println("0 didn't parse to the zero polynomial");
+
+        // integer polynomials switch to WideIntegers when a number is too large for a long
+        IntegerPolynomial integer = PolynomialParser.parseInteger("x^2 - 100000000000000000000");
+        if(!integer.isWide() || !integer.getWideCoefficient(0).equals(WideInteger.valueOf(-100000000000L).multiply(1000000000L)))
+            System.out.println("Parsing a large constant gave " + integer);
+
+        integer = PolynomialParser.parseInteger("9223372036854775807x + 9223372036854775807x - 9223372036854775807x");
+        if(!integer.equals(new IntegerPolynomial(0, Long.MAX_VALUE)))
+            System.out.println("Sum that overflows part way through gave " + integer);
+
+        checkError("3/4*x^5 - 2*x + ", 16);
+        checkError("3/4*x^5 2*x", 8);
+        checkError("3/0*x", 2);
+        checkError("3*y", 2);
+        checkError("x^", 2);
+        checkError("", 0);
+        checkError("100000000000000000000*x", 0);
+        // rational sums that don't fit are reported at the term that overflowed instead of wrapping around
+        checkError("9223372036854775807 + 1", 22);
+        checkError("9223372036854775807x + 9223372036854775807x", 23);
+
+        boolean caught = false;
+        try{
+            PolynomialParser.parseInteger("1/2*x");
+        }catch(PolynomialParseException e){
+            caught = e.getPosition() == 1;
+        }
+        if(!caught)
+            System.out.println("Integer polynomial with a fraction didn't report position 1");
+
+        if(!quietEnding){
+            System.out.println("Polynomial parser test complete");
+        }
+    }
+
+    private static void checkError(String text, int position){
+        try{
+            PolynomialParser.parse(text);
+            System.out.println("Parsing \"" + text + "\" should have failed");
+        }catch(PolynomialParseException e){
+            if(e.getPosition() != position)
+                System.out.println("Parsing \"" + text + "\" failed with \"" + e.getMessage() + "\" instead of at position " + position);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package tests;
+
+import mathClasses.PolynomialStore;
+import mathClasses.Rational;
+import mathClasses.RationalPolynomial;
+import mathClasses.RationalOperations.Derivative;
+
+import static mathClasses.Rational.R;
+
+public class PolynomialStoreTest {
+    public static void main(String[] args){
+        test(false);
+    }
+
+    public static void test(boolean quietEnding){
+        PolynomialStore store = new PolynomialStore();
+        RationalPolynomial[] polys = new RationalPolynomial[40];
+        for (int i = 0; i < polys.length; i++) {
+            // (i+1)/3 - i*x + x^(i % 5 + 1) / 2
+            Rational[] coefficients = new Rational[i % 5 + 2];
+            for (int j = 0; j < coefficients.length; j++) {
+                coefficients[j] = R(0,1);
+            }
+            coefficients[0] = R(i + 1, 3);
+            coefficients[1] = coefficients[1].add(R(-i, 1));
+            coefficients[coefficients.length - 1] = coefficients[coefficients.length - 1].add(R(1, 2));
+            polys[i] = new RationalPolynomial(coefficients);
+            if(store.append(polys[i]) != i)
+                System.out.println("Polynomial " + i + " got the wrong id");
+        }
+
+        // random access, straight from the bytes
+        Rational x = R(-2,3);
+        for (int i = polys.length - 1; i >= 0; i -= 7) {
+            if(!store.get(i).equals(polys[i]))
+                System.out.println("Polynomial " + i + " came back as " + store.get(i).oneLineToString());
+            if(store.getDegree(i) != polys[i].getDegree())
+                System.out.println("Got the wrong degree for polynomial " + i);
+            if(!store.evaluate(i, x).equals(polys[i].solve(x)))
+                System.out.println("Evaluated polynomial " + i + " at -2/3 to " + store.evaluate(i, x));
+        }
+
+        // sequential scan
+        Rational[] values = store.evaluateAll(x);
+        for (int i = 0; i < polys.length; i++) {
+            if(!values[i].equals(polys[i].solve(x)))
+                System.out.println("Scan evaluated polynomial " + i + " to " + values[i]);
+        }
+
+        int derivativeId = store.appendDerivative(13);
+        Derivative derivative = new Derivative(polys[13]);
+        derivative.compute();
+        if(!store.get(derivativeId).equals(derivative.getOutput()))
+            System.out.println("Derivative of polynomial 13 came back as " + store.get(derivativeId).oneLineToString());
+
+        int zeroId = store.append(new RationalPolynomial(R(0,1)));
+        boolean caught = false;
+        try{
+            store.getDegree(zeroId);
+        }catch(ArithmeticException e){
+            caught = true;
+        }
+        if(!caught)
+            System.out.println("The zero polynomial shouldn't have a degree");
+
+        // saving and loading keeps every polynomial and its id
+        PolynomialStore loaded = PolynomialStore.fromByteArray(store.toByteArray());
+        if(loaded.getSize() != store.getSize() || !loaded.get(27).equals(polys[27]) || !loaded.get(derivativeId).equals(derivative.getOutput()))
+            System.out.println("Loading a saved store didn't give back the same polynomials");
+
+        caught = false;
+        try{
+            store.get(store.getSize());
+        }catch(IllegalStateException e){
+            caught = true;
+        }
+        if(!caught)
+            System.out.println("Getting an id past the end didn't throw");
+
+        if(!quietEnding){
+            System.out.println("Polynomial store test complete");
+        }
+    }
+}
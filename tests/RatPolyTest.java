@@ -1,6 +1,7 @@
 package tests;
 
 import dataStructures.Pair;
+import mathClasses.PolynomialFormatter;
 import mathClasses.Rational;
 import mathClasses.RationalPolynomial;
 
@@ -43,6 +44,13 @@ public class RatPolyTest {
         if(!test2.equals(test2_1) || test2 == test2_1)
             System.out.println("copy doesn't properly copy a rational polynomial");
 
+        // subtracting from zero and adding zero
+        if(!new RationalPolynomial(R(0,1)).subtract(test2).equals(test2.scale(-1)))
+            System.out.println("0 - p != -p");
+
+        if(test2.add(new RationalPolynomial(R(0,1))) != test2)
+            System.out.println("p + 0 should give back p since polynomials never change");
+
         // now testing scale
         RationalPolynomial zero = new RationalPolynomial(R(0,1));
         if(!(zero.scale(100).equals(zero)))
@@ -124,6 +132,32 @@ public class RatPolyTest {
         if(!(test10.add(test9).equals(test7.scale(2))))
             System.out.println("(x - y) + (x + y) != 2x");
 
+        // adding doesn't change either side, even from many threads at once
+        final RationalPolynomial shared = test8;
+        final boolean[] sharedFailed = new boolean[1];
+        Thread[] adders = new Thread[4];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new Thread(new Runnable(){
+                public void run(){
+                    for (int j = 0; j < 200; j++) {
+                        if(!shared.add(test7).equals(test9) || shared.getDegree() != 1){
+                            sharedFailed[0] = true;
+                        }
+                    }
+                }
+            });
+            adders[i].start();
+        }
+        for (int i = 0; i < adders.length; i++) {
+            try{
+                adders[i].join();
+            }catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+            }
+        }
+        if(sharedFailed[0] || !test8.equals(new RationalPolynomial(R(5,6), R(7,8))))
+            System.out.println("Adding a shared polynomial from many threads changed it");
+
         RationalPolynomial expectedResult;
         RationalPolynomial term1;
         RationalPolynomial term2;
@@ -136,7 +170,6 @@ public class RatPolyTest {
                         term2 = new RationalPolynomial(R(k,1), R(l,1));
                         result = term1.add(term2);
                         expectedResult = new RationalPolynomial(R(i+k, 1), R(j+l, 1));
-                        expectedResult.unPadPoly();
                         if(!(result.equals(expectedResult))){
                             System.out.println(term1);
                             System.out.println("+" );
@@ -180,7 +213,6 @@ public class RatPolyTest {
                         term2 = new RationalPolynomial(R(k,1), R(l,1));
                         result = term1.subtract(term2);
                         expectedResult = new RationalPolynomial(R(i-k, 1), R(j-l, 1));
-                        expectedResult.unPadPoly();
                         if(!(result.equals(expectedResult))){
                             System.out.println(term1);
                             System.out.println("-" );
@@ -221,12 +253,9 @@ public class RatPolyTest {
                 for (int k = -5; k < 5; k++) {
                     for (int l = -5; l < 5; l++) {
                         term1 = new RationalPolynomial(R(i,1), R(j,1));
-                        term1.unPadPoly();
                         term2 = new RationalPolynomial(R(k,1), R(l,1));
-                        term2.unPadPoly();
                         result = term1.multiply(term2);
                         expectedResult = new RationalPolynomial(R(i*k, 1), R(i*l+j*k, 1), R(j*l,1));
-                        expectedResult.unPadPoly();
                         if(!(result.equals(expectedResult))){
                             System.out.println(term1);
                             System.out.println("*" );
@@ -255,7 +284,7 @@ public class RatPolyTest {
             System.out.println("Allowed to divide by zero");
 
         RationalPolynomial constant = new RationalPolynomial(R(2,3));
-        RationalPolynomial scaledVersion = test14.scale(constant.currentRational().getInverse());
+        RationalPolynomial scaledVersion = test14.scale(constant.getFirst().getInverse());
         RationalPolynomial dividedVersion = test14.divide(constant);
         if(!(scaledVersion.equals(dividedVersion))){
             System.out.println("Result of scaling by inverse of constant is not the same as dividing by the constant");
@@ -297,8 +326,6 @@ public class RatPolyTest {
                             expectedQuotient = new RationalPolynomial(expectedQuotientConstant, R(a,d));
                             term1 = new RationalPolynomial(R(c,1), R(b,1), R(a,1));
                             term2 = new RationalPolynomial(R(e,1), R(d,1));
-                            term1.unPadPoly();
-                            term2.unPadPoly();
                             resultQuotRem = term1.quotientRemainder(term2);
                             resultQuotient = resultQuotRem.getFirst();
                             resultRemainder = resultQuotRem.getSecond();
@@ -350,6 +377,56 @@ public class RatPolyTest {
         }
 
 
+        // now testing the cached properties
+        RationalPolynomial test20 = new RationalPolynomial(R(0,1), R(0,1), R(4,3), R(-2,9), R(8,15));
+        if(test20.getDegree() != 4 || !test20.getLeadingCoefficient().equals(R(8,15)))
+            System.out.println("Got the wrong degree or leading coefficient of " + test20);
+
+        if(test20.getTrailingZeroes() != 2)
+            System.out.println("Expected x^2 to be the largest power of x dividing " + test20);
+
+        if(!test20.getContent().equals(R(2,45)))
+            System.out.println("Expected content 2/45 for " + test20 + " but got " + test20.getContent());
+
+        if(!test20.scale(test20.getContent().getInverse()).equals(new RationalPolynomial(R(0,1), R(0,1), R(30,1), R(-5,1), R(12,1))))
+            System.out.println("Dividing by the content didn't give a primitive polynomial");
+
+        RationalPolynomial test21 = new RationalPolynomial(R(0,1), R(0,1), R(8,6), R(-4,18), R(16,30), R(0,1));
+        if(!test20.equals((Object) test21) || test20.hashCode() != test21.hashCode())
+            System.out.println("Equal polynomials should have the same hash");
+
+        if(test20.hashCode() == test20.add(new RationalPolynomial(R(1,1))).hashCode())
+            System.out.println("Polynomials differing in one coefficient shouldn't usually share a hash");
+
+        RationalPolynomial zeroes = new RationalPolynomial(R(0,1), R(0,1));
+        if(!zeroes.isZero() || test20.isZero() || !zeroes.getContent().equals(R(0,1)))
+            System.out.println("Didn't recognize the zero polynomial");
+
+        caught = false;
+        try{
+            zeroes.getTrailingZeroes();
+        }catch (ArithmeticException e){
+            caught = true;
+        }
+        if(!caught){
+            System.out.println("didn't catch error on the trailing zeroes of the zero polynomial");
+        }
+
+        // now testing formatting
+        RationalPolynomial test22 = new RationalPolynomial(R(-3,4), R(5,1), R(-1,12), R(7,3));
+        if(!test22.oneLineToString().equals("-3/4 + 5/1*x - 1/12*x^2 + 7/3*x^3"))
+            System.out.println("Formatted " + test22.oneLineToString() + " on one line");
+
+        if(!test22.toString().equals("  3   5     1        7       \n- \u2014 + \u2014 x - \u2014\u2014 x^2 + \u2014 x^3\n  4   1     12       3       "))
+            System.out.println("Formatted " + test22.oneLineToString() + " on three lines as\n" + test22);
+
+        StringBuilder log = new StringBuilder("poly: ");
+        new PolynomialFormatter(1, 1).appendOneLine(test22, log);
+        if(!log.toString().equals("poly: -3/4 + ... + 7/3*x^3"))
+            System.out.println("Truncated " + test22.oneLineToString() + " to " + log);
+
+        if(!new PolynomialFormatter(2, 2).oneLine(test22).equals(test22.oneLineToString()))
+            System.out.println("Truncating shouldn't change a polynomial that is short enough");
 
         if(!quietEnding)
             System.out.println("Rational polynomial tests complete");
@@ -91,6 +91,13 @@ public class RatTest {
         if(!inf.subtract(negInf).equals(inf))
             System.out.println("inf - -inf != inf");
 
+        // testing negate
+        if(!oneThird.negate().equals(new Rational(-1, 3)) || !oneThird.negate().negate().equals(oneThird))
+            System.out.println("-(1/3) != -1/3");
+
+        if(!inf.negate().equals(negInf) || !new Rational(0).negate().equals(new Rational(0)))
+            System.out.println("Didn't negate infinity or zero properly");
+
         caught = false;
         try{
             inf.subtract(inf);
@@ -232,6 +239,50 @@ public class RatTest {
         if(!(bigNumbers.equals(new Rational(81, 625))))
             System.out.println("(3/5)^4 != 81/625");
 
+        // results that don't fit in a long throw instead of wrapping around
+        Rational twoToThe62 = new Rational(1L << 62, 1L);
+        caught = false;
+        try{
+            twoToThe62.add(twoToThe62);
+        }catch(ArithmeticException e){
+            caught = true;
+        }
+        if(!caught)
+            System.out.println("2^62 + 2^62 didn't throw an overflow exception");
+
+        caught = false;
+        try{
+            twoToThe62.multiply(new Rational(4));
+        }catch(ArithmeticException e){
+            caught = true;
+        }
+        if(!caught)
+            System.out.println("2^62 * 4 didn't throw an overflow exception");
+
+        caught = false;
+        try{
+            twoToThe62.divide(new Rational(1, 4));
+        }catch(ArithmeticException e){
+            caught = true;
+        }
+        if(!caught)
+            System.out.println("2^62 / (1/4) didn't throw an overflow exception");
+
+        caught = false;
+        try{
+            twoToThe62.subtract(twoToThe62.negate());
+        }catch(ArithmeticException e){
+            caught = true;
+        }
+        if(!caught)
+            System.out.println("2^62 - (-2^62) didn't throw an overflow exception");
+
+        // cancelling before multiplying keeps products that fit from overflowing
+        if(!twoToThe62.multiply(new Rational(1L, 1L << 61)).equals(new Rational(2)))
+            System.out.println("2^62 * 1/2^61 != 2");
+        if(!new Rational(1L, 1L << 40).add(new Rational(1L, 1L << 40)).equals(new Rational(1L, 1L << 39)))
+            System.out.println("1/2^40 + 1/2^40 != 1/2^39");
+
         if(!quietSuccess)
             System.out.println("Rational test complete");
 
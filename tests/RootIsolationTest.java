@@ -0,0 +1,193 @@
+package tests;
+
+import mathClasses.DyadicInterval;
+import mathClasses.IsolatedRoots;
+import mathClasses.Rational;
+import mathClasses.RationalInterval;
+import mathClasses.RationalOperations.RootIsolation;
+import mathClasses.RationalOperations.RootRefinement;
+import mathClasses.RationalPolynomial;
+import mathClasses.RefinedRoots;
+import mathClasses.WideInteger;
+
+import static mathClasses.Rational.R;
+
+public class RootIsolationTest {
+    public static void main(String[] args){
+        test(false);
+    }
+
+    public static void test(boolean quietEnding){
+        // (x^2 - 2) * (x - 1/2) * (x + 3) * x has roots -3, -sqrt(2), 0, 1/2, sqrt(2)
+        RationalPolynomial poly = new RationalPolynomial(R(-2,1), R(0,1), R(1,1))
+                .multiply(new RationalPolynomial(R(-1,2), R(1,1)))
+                .multiply(new RationalPolynomial(R(3,1), R(1,1)))
+                .multiply(new RationalPolynomial(R(0,1), R(1,1)));
+        IsolatedRoots roots = isolate(poly);
+        if(roots.getSize() != 5){
+            System.out.println("Didn't find all 5 real roots");
+            System.out.println(roots);
+        }
+        checkIntervals(poly, roots);
+
+        // repeated roots are only reported once
+        RationalPolynomial repeated = new RationalPolynomial(R(-1,1), R(1,1))
+                .multiply(new RationalPolynomial(R(-1,1), R(1,1)))
+                .multiply(new RationalPolynomial(R(2,3), R(1,1)));
+        roots = isolate(repeated);
+        if(roots.getSize() != 2){
+            System.out.println("Didn't find exactly 2 distinct roots of (x-1)^2 (x+2/3)");
+            System.out.println(roots);
+        }
+        if(roots.getSize() == 2){
+            roots.goFirst();
+            if(!roots.getInterval().contains(R(-2,3)))
+                System.out.println("First root of (x-1)^2 (x+2/3) isn't -2/3");
+            roots.goForth();
+            if(!roots.getInterval().contains(R(1,1)))
+                System.out.println("Second root of (x-1)^2 (x+2/3) isn't 1");
+        }
+
+        // x^2 + 1 has no real roots
+        roots = isolate(new RationalPolynomial(R(1,1), R(0,1), R(1,1)));
+        if(roots.getSize() != 0){
+            System.out.println("Found real roots of x^2 + 1");
+        }
+
+        // roots that are very close together
+        RationalPolynomial close = new RationalPolynomial(R(-3,7), R(1,1))
+                .multiply(new RationalPolynomial(R(-4,9), R(1,1)))
+                .multiply(new RationalPolynomial(R(-20,1), R(1,1)))
+                .multiply(new RationalPolynomial(R(20,1), R(1,1)));
+        roots = isolate(close);
+        if(roots.getSize() != 4){
+            System.out.println("Didn't separate roots that are close together");
+            System.out.println(roots);
+        }
+        checkIntervals(close, roots);
+
+        // halving x^70 - 2 makes coefficients like 2^71 that don't fit in a long. Its roots are +-1.00995...
+        Rational[] coefficients = new Rational[71];
+        for (int i = 0; i < coefficients.length; i++) {
+            coefficients[i] = new Rational(0);
+        }
+        coefficients[0] = new Rational(-2);
+        coefficients[70] = new Rational(1);
+        roots = isolate(new RationalPolynomial(coefficients));
+        if(roots.getSize() != 2){
+            System.out.println("Didn't find both real roots of x^70 - 2");
+            System.out.println(roots);
+        }else{
+            roots.goLast();
+            RationalInterval positive = roots.getInterval();
+            if(positive.getLower().compareTo(R(101,100)) >= 0 || positive.getUpper().compareTo(R(1,1)) <= 0)
+                System.out.println("Positive root of x^70 - 2 isn't near 1.00995: " + positive);
+            roots.goFirst();
+            if(!roots.getInterval().getLower().equals(positive.getUpper().negate()))
+                System.out.println("Roots of x^70 - 2 should be symmetric: " + roots);
+        }
+
+        // refine the roots of (x^2 - 2) * (x - 1/2) * (x + 3) * x
+        roots = isolate(poly);
+        Rational tolerance = new Rational(1L, 1L << 20);
+        RootRefinement refinement = new RootRefinement(poly, roots, tolerance);
+        refinement.compute();
+        RefinedRoots refinedOutput = refinement.getOutput();
+        IsolatedRoots refined = refinedOutput.toIsolatedRoots();
+        if(refined.getSize() != roots.getSize())
+            System.out.println("Refinement lost or gained roots");
+        checkRefined(roots, refined, tolerance);
+
+        // refining the refined roots further picks up where the last refinement left off
+        Rational finerTolerance = new Rational(1L, 1L << 28);
+        refinement = new RootRefinement(poly, refinedOutput, finerTolerance);
+        refinement.compute();
+        IsolatedRoots finer = refinement.getOutput().toIsolatedRoots();
+        checkRefined(refined, finer, finerTolerance);
+
+        // sqrt(2) squared should be within the tolerance of 2
+        finer.goLast();
+        Rational sqrtTwo = finer.getInterval().getLower();
+        if(sqrtTwo.multiply(sqrtTwo).compareTo(R(2,1)) >= 0 || R(2,1).subtract(sqrtTwo.multiply(sqrtTwo)).compareTo(new Rational(1L, 1L << 26)) > 0)
+            System.out.println("Refined lower bound of sqrt(2) isn't close to sqrt(2): " + sqrtTwo);
+
+        // the finest tolerance a Rational can hold is reachable, and the ends still fit in Rationals
+        Rational finest = new Rational(1L, 1L << 62);
+        refinement = new RootRefinement(poly, refinedOutput, finest);
+        refinement.compute();
+        checkRefined(refined, refinement.getOutput().toIsolatedRoots(), finest);
+
+        // 200 bits of sqrt(2): lower^2 < 2 * 4^exponent < upper^2 and upper - lower <= 2^(exponent - 200)
+        refinement = new RootRefinement(poly, refinedOutput, 200);
+        refinement.compute();
+        DyadicInterval precise = refinement.getOutput().getInterval(refinedOutput.getSize() - 1);
+        WideInteger two = WideInteger.valueOf(2).shiftLeft(2 * precise.getExponent());
+        if(precise.getLower().multiply(precise.getLower()).compareTo(two) >= 0 || precise.getUpper().multiply(precise.getUpper()).compareTo(two) <= 0)
+            System.out.println("Interval doesn't hold sqrt(2): " + precise);
+        if(precise.getExponent() < 200 || precise.getUpper().subtract(precise.getLower()).compareTo(WideInteger.ONE.shiftLeft(precise.getExponent() - 200)) > 0)
+            System.out.println("Interval around sqrt(2) is wider than 2^-200: " + precise);
+        boolean threw = false;
+        try{
+            refinement.getOutput().toIsolatedRoots();
+        }catch(ArithmeticException e){
+            threw = true;
+        }
+        if(!threw)
+            System.out.println("Ends finer than a Rational can hold should throw when converted");
+
+        if(!quietEnding){
+            System.out.println("Root isolation test complete");
+        }
+    }
+
+    private static IsolatedRoots isolate(RationalPolynomial poly){
+        RootIsolation isolation = new RootIsolation(poly);
+        isolation.compute();
+        return isolation.getOutput();
+    }
+
+    /**
+     * checks every refined interval is inside the one it came from, and is no wider than the tolerance
+     */
+    private static void checkRefined(IsolatedRoots original, IsolatedRoots refined, Rational tolerance){
+        original.goFirst();
+        refined.goFirst();
+        while(!original.isAfter() && !refined.isAfter()){
+            if(refined.getInterval().getWidth().compareTo(tolerance) > 0)
+                System.out.println("Refined interval " + refined.getInterval() + " is wider than the tolerance");
+            if(refined.getInterval().getLower().compareTo(original.getInterval().getLower()) < 0
+                    || refined.getInterval().getUpper().compareTo(original.getInterval().getUpper()) > 0)
+                System.out.println("Refined interval " + refined.getInterval() + " isn't inside " + original.getInterval());
+            original.goForth();
+            refined.goForth();
+        }
+    }
+
+    /**
+     * checks that intervals are increasing, and that the polynomial changes sign across every non exact interval
+     * whose ends aren't roots themselves
+     */
+    private static void checkIntervals(RationalPolynomial poly, IsolatedRoots roots){
+        if(roots.getSize() == 0){
+            return;
+        }
+        Rational zero = new Rational(0);
+        Rational previousUpper = null;
+        RationalInterval interval;
+        roots.goFirst();
+        while(!roots.isAfter()){
+            interval = roots.getInterval();
+            if(previousUpper != null && interval.getLower().compareTo(previousUpper) < 0)
+                System.out.println("Intervals overlap or are out of order: " + roots);
+            if(interval.isExact()){
+                if(!poly.solve(interval.getLower()).equals(zero))
+                    System.out.println("Exact root " + interval + " isn't a root");
+            }else if(!poly.solve(interval.getLower()).equals(zero) && !poly.solve(interval.getUpper()).equals(zero)
+                    && poly.solve(interval.getLower()).getSign() == poly.solve(interval.getUpper()).getSign()){
+                System.out.println("Polynomial doesn't change sign across " + interval);
+            }
+            previousUpper = interval.getUpper();
+            roots.goForth();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package tests;
+
+import mathClasses.IsolatedRoots;
+import mathClasses.Rational;
+import mathClasses.RationalInterval;
+import mathClasses.RationalOperations.RootIsolation;
+import mathClasses.RationalPolynomial;
+import mathClasses.SturmSequence;
+
+import static mathClasses.Rational.R;
+
+public class SturmSequenceTest {
+    public static void main(String[] args){
+        test(false);
+    }
+
+    public static void test(boolean quietEnding){
+        // (x^2 - 2) * (x - 1/2) * (x + 3) has roots -3, -sqrt(2), 1/2, sqrt(2)
+        RationalPolynomial poly = new RationalPolynomial(R(-2,1), R(0,1), R(1,1))
+                .multiply(new RationalPolynomial(R(-1,2), R(1,1)))
+                .multiply(new RationalPolynomial(R(3,1), R(1,1)));
+        SturmSequence sturm = poly.getSturmSequence();
+
+        if(sturm != poly.getSturmSequence())
+            System.out.println("Sturm sequence is rebuilt instead of cached");
+
+        if(sturm.countRoots() != 4)
+            System.out.println("Didn't count all 4 real roots");
+
+        if(sturm.countRoots(R(0,1), R(1,1)) != 1)
+            System.out.println("Didn't find sqrt(2) - 1 in [0, 1]");
+
+        if(sturm.countRoots(R(1,2), R(1,2)) != 1)
+            System.out.println("Didn't count a root at the end of a closed interval");
+
+        if(sturm.countRoots(R(-3,1), R(-1,1)) != 2)
+            System.out.println("Didn't count both -3 and -sqrt(2) in [-3, -1]");
+
+        if(sturm.countRoots(R(2,1), R(100,1)) != 0)
+            System.out.println("Found roots in [2, 100]");
+
+        int[] counts = sturm.countRoots(new RationalInterval(R(-4,1), R(-2,1)), new RationalInterval(R(-2,1), R(0,1)),
+                new RationalInterval(R(0,1), R(1,1)), new RationalInterval(R(1,1), R(2,1)));
+        if(counts[0] != 1 || counts[1] != 1 || counts[2] != 1 || counts[3] != 1)
+            System.out.println("Batch query didn't find one root in each interval");
+
+        // repeated roots are only counted once
+        RationalPolynomial repeated = new RationalPolynomial(R(-1,1), R(1,1))
+                .multiply(new RationalPolynomial(R(-1,1), R(1,1)))
+                .multiply(new RationalPolynomial(R(2,3), R(1,1)));
+        if(repeated.getSturmSequence().countRoots() != 2)
+            System.out.println("Counted a repeated root more than once");
+
+        if(repeated.getSturmSequence().countRoots(R(1,1), R(2,1)) != 1)
+            System.out.println("Didn't count a repeated root at the end of an interval");
+
+        if(new RationalPolynomial(R(1,1), R(0,1), R(1,1)).getSturmSequence().countRoots() != 0)
+            System.out.println("Found real roots of x^2 + 1");
+
+        if(new RationalPolynomial(new Rational(5)).getSturmSequence().countRoots() != 0)
+            System.out.println("Found roots of a constant");
+
+        // the remainders of a degree 12 polynomial with small coefficients quickly outgrow a long
+        RationalPolynomial wide = new RationalPolynomial(R(3,1), R(-5,1), R(2,1), R(4,1), R(-1,1), R(5,1), R(-3,1),
+                R(0,1), R(2,1), R(-4,1), R(1,1), R(5,1), R(-2,1));
+        RootIsolation isolation = new RootIsolation(wide);
+        isolation.compute();
+        IsolatedRoots wideRoots = isolation.getOutput();
+        SturmSequence wideSturm = wide.getSturmSequence();
+        if(wideSturm.countRoots() != wideRoots.getSize())
+            System.out.println("Counted " + wideSturm.countRoots() + " roots of a degree 12 polynomial instead of " + wideRoots.getSize());
+        wideRoots.goFirst();
+        while(!wideRoots.isAfter()){
+            if(wideSturm.countRoots(wideRoots.getInterval().getLower(), wideRoots.getInterval().getUpper()) != 1)
+                System.out.println("Didn't find exactly one root in " + wideRoots.getInterval());
+            wideRoots.goForth();
+        }
+        if(wideSturm.countRoots(R(-7,3), R(13,4)) != wideRoots.getSize())
+            System.out.println("Roots of the degree 12 polynomial should all be in [-7/3, 13/4]");
+
+        if(!quietEnding){
+            System.out.println("Sturm sequence test complete");
+        }
+    }
+}
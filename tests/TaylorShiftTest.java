@@ -0,0 +1,114 @@
+package tests;
+
+import mathClasses.Rational;
+import mathClasses.RationalPolynomial;
+import mathClasses.RationalOperations.TaylorShift;
+
+import static mathClasses.Rational.R;
+
+public class TaylorShiftTest {
+    public static void main(String[] args){
+        test(false);
+    }
+
+    public static void test(boolean quietEnding){
+        // x^2 - 2 shifted by 1/2 is x^2 + x - 7/4
+        RationalPolynomial poly = new RationalPolynomial(R(-2,1), R(0,1), R(1,1));
+        TaylorShift shift = new TaylorShift(poly, R(1,2));
+        shift.compute();
+        if(!shift.getOutput().equals(new RationalPolynomial(R(-7,4), R(1,1), R(1,1))))
+            System.out.println("Shifting x^2 - 2 by 1/2 gave " + shift.getOutput().oneLineToString());
+
+        // 2x^3 - x + 5 shifted by 1 is 2x^3 + 6x^2 + 5x + 6
+        poly = new RationalPolynomial(R(5,1), R(-1,1), R(0,1), R(2,1));
+        shift = new TaylorShift(poly, R(1,1));
+        shift.compute();
+        if(!shift.getOutput().equals(new RationalPolynomial(R(6,1), R(5,1), R(6,1), R(2,1))))
+            System.out.println("Shifting by one gave " + shift.getOutput().oneLineToString());
+
+        // shifting by a and then by -a gives back the original
+        poly = new RationalPolynomial(R(3,7), R(-2,5), R(1,3), R(0,1), R(-4,9));
+        shift = new TaylorShift(poly, R(-5,3));
+        shift.compute();
+        TaylorShift shiftBack = new TaylorShift(shift.getOutput(), R(5,3));
+        shiftBack.compute();
+        if(!shiftBack.getOutput().equals(poly))
+            System.out.println("Shifting by -5/3 and back didn't give the original polynomial");
+
+        shift = new TaylorShift(poly, R(0,1));
+        shift.compute();
+        if(!shift.getOutput().equals(poly))
+            System.out.println("Shifting by zero changed the polynomial");
+
+        // x^40 + 1 shifted by -1 is (x - 1)^40 + 1
+        Rational[] coefficients = new Rational[41];
+        for (int i = 0; i < coefficients.length; i++) {
+            coefficients[i] = new Rational(0);
+        }
+        coefficients[0] = new Rational(1);
+        coefficients[40] = new Rational(1);
+        RationalPolynomial expected = new RationalPolynomial(new Rational(1));
+        for (int i = 0; i < 40; i++) {
+            expected = expected.multiply(new RationalPolynomial(R(-1,1), R(1,1)));
+        }
+        expected = expected.add(new RationalPolynomial(new Rational(1)));
+        shift = new TaylorShift(new RationalPolynomial(coefficients), R(-1,1));
+        shift.compute();
+        if(!shift.getOutput().equals(expected))
+            System.out.println("Shift of x^40 + 1 was wrong");
+
+        // 1 + x + ... + x^40 shifted by 1 has the binomial coefficients (41 choose k+1)
+        for (int i = 0; i < coefficients.length; i++) {
+            coefficients[i] = new Rational(1);
+        }
+        RationalPolynomial ones = new RationalPolynomial(coefficients);
+        Rational[] binomials = new Rational[41];
+        long choose = 1;
+        for (int k = 0; k <= 40; k++) {
+            // choose is (41 choose k), and this makes it (41 choose k+1)
+            choose = choose * (41 - k) / (k + 1);
+            binomials[k] = new Rational(choose, 1L);
+        }
+        shift = new TaylorShift(ones, R(1,1));
+        shift.compute();
+        if(!shift.getOutput().equals(new RationalPolynomial(binomials)))
+            System.out.println("Shifting 1 + x + ... + x^40 by one was wrong");
+
+        // the middle steps need more than a long, but the results fit
+        shift = new TaylorShift(ones, R(1,2));
+        shift.compute();
+        shiftBack = new TaylorShift(shift.getOutput(), R(-1,2));
+        shiftBack.compute();
+        if(!shiftBack.getOutput().equals(ones))
+            System.out.println("Shifting 1 + x + ... + x^40 by 1/2 and back didn't give the original polynomial");
+
+        // the constant term is 1 + 1000 + ... + 1000^40, which is far too large for a Rational
+        boolean threw = false;
+        try{
+            shift = new TaylorShift(ones, R(1000,1));
+            shift.compute();
+        }catch(ArithmeticException e){
+            threw = true;
+        }
+        if(!threw)
+            System.out.println("Shift whose result doesn't fit should throw, gave " + shift.getOutput().oneLineToString());
+
+        RationalPolynomial zero = new RationalPolynomial(R(0,1));
+        shift = new TaylorShift(zero, R(3,1));
+        shift.compute();
+        if(!shift.getOutput().isZero() || !TaylorShift.scaleVariable(zero, R(2,1)).isZero() || !TaylorShift.reverse(zero).isZero())
+            System.out.println("Shifting, scaling or reversing the zero polynomial should give zero");
+
+        // p(2x) and x^n * p(1/x)
+        poly = new RationalPolynomial(R(1,1), R(-3,1), R(1,2));
+        if(!TaylorShift.scaleVariable(poly, R(2,1)).equals(new RationalPolynomial(R(1,1), R(-6,1), R(2,1))))
+            System.out.println("Scaling the variable by 2 was wrong");
+
+        if(!TaylorShift.reverse(poly).equals(new RationalPolynomial(R(1,2), R(-3,1), R(1,1))))
+            System.out.println("Reversing the coefficients was wrong");
+
+        if(!quietEnding){
+            System.out.println("Taylor shift test complete");
+        }
+    }
+}
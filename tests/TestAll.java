@@ -9,8 +9,24 @@ public class TestAll {
         boolean quietSuccess = false;
         DoublyLinkedListTest.test(quietSuccess);
         RatTest.test(quietSuccess);
+        WideIntegerTest.test(quietSuccess);
+        IntegerPolynomialTest.test(quietSuccess);
         RatPolyTest.test(quietSuccess);
+        WorkerPoolTest.test(quietSuccess);
         FactoringTest.test(quietSuccess);
+        RootIsolationTest.test(quietSuccess);
+        SturmSequenceTest.test(quietSuccess);
+        TaylorShiftTest.test(quietSuccess);
+        PolynomialParserTest.test(quietSuccess);
+        BinaryFormatTest.test(quietSuccess);
+        PolynomialStoreTest.test(quietSuccess);
+        PackedPolynomialTest.test(quietSuccess);
+        OperationExecutorTest.test(quietSuccess);
+        OperationSessionTest.test(quietSuccess);
+        OperationBatchTest.test(quietSuccess);
+        OperationBudgetTest.test(quietSuccess);
+        MetricsTest.test(quietSuccess);
+        ArithmeticEventsTest.test(quietSuccess);
         System.out.println("All tests completed in: " + (System.currentTimeMillis() - timeToRun)/1000.0);
         System.out.println("All tests complete");
     }
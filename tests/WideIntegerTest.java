@@ -0,0 +1,89 @@
+package tests;
+
+import mathClasses.WideInteger;
+
+public class WideIntegerTest {
+    public static void main(String[] args){
+        test(false);
+    }
+
+    public static void test(boolean quietEnding){
+        WideInteger big = WideInteger.valueOf(Long.MAX_VALUE);
+        WideInteger one = WideInteger.ONE;
+
+        if(big.toLong() != Long.MAX_VALUE)
+            System.out.println("Long.MAX_VALUE doesn't survive a round trip");
+
+        if(WideInteger.valueOf(Long.MIN_VALUE).toLong() != Long.MIN_VALUE)
+            System.out.println("Long.MIN_VALUE doesn't survive a round trip");
+
+        if(big.add(one).fitsInLong())
+            System.out.println("Long.MAX_VALUE + 1 thinks it fits in a long");
+
+        if(!big.add(one).toString().equals("9223372036854775808"))
+            System.out.println("Long.MAX_VALUE + 1 != 9223372036854775808");
+
+        if(!big.add(one).subtract(one).equals(big))
+            System.out.println("(Long.MAX_VALUE + 1) - 1 != Long.MAX_VALUE");
+
+        // (2^63 - 1)^2 = 85070591730234615847396907784232501249
+        if(!big.multiply(big).toString().equals("85070591730234615847396907784232501249"))
+            System.out.println("Didn't square Long.MAX_VALUE correctly");
+
+        if(!big.multiply(big.negate()).toString().equals("-85070591730234615847396907784232501249"))
+            System.out.println("Didn't multiply numbers of different signs correctly");
+
+        if(!one.shiftLeft(100).toString().equals("1267650600228229401496703205376"))
+            System.out.println("2^100 != 1267650600228229401496703205376");
+
+        // chunks of nine digits in the middle keep their leading zeroes
+        if(!WideInteger.valueOf(1000000000000000000L).multiply(1000000000L).add(one).negate().toString().equals("-1000000000000000000000000001"))
+            System.out.println("-(10^27 + 1) printed as " + WideInteger.valueOf(1000000000000000000L).multiply(1000000000L).add(one).negate());
+
+        // equal numbers built different ways are equal as Objects and hash the same, and small ones hash like longs
+        Object wide = one.shiftLeft(100).add(one);
+        if(!wide.equals(one.shiftLeft(100).add(one)) || wide.hashCode() != one.add(one.shiftLeft(100)).hashCode())
+            System.out.println("2^100 + 1 isn't equal to itself as an Object");
+        if(wide.equals(one.shiftLeft(100)) || wide.equals("2^100 + 1"))
+            System.out.println("2^100 + 1 is equal to something else");
+        if(WideInteger.valueOf(-5).hashCode() != Long.hashCode(-5L))
+            System.out.println("Small WideIntegers should hash like longs");
+
+        if(!one.shiftLeft(100).shiftRight(99).equals(WideInteger.valueOf(2)))
+            System.out.println("2^100 / 2^99 != 2");
+
+        if(one.shiftLeft(100).bitLength() != 101)
+            System.out.println("2^100 doesn't have 101 bits");
+
+        if(WideInteger.valueOf(-5).compareTo(WideInteger.valueOf(3)) >= 0)
+            System.out.println("-5 >= 3");
+
+        if(!WideInteger.valueOf(-5).add(WideInteger.valueOf(5)).isZero())
+            System.out.println("-5 + 5 != 0");
+
+        if(one.shiftLeft(80).toDouble() != Math.pow(2.0, 80))
+            System.out.println("2^80 doesn't convert to a double correctly");
+
+        // 2^100 + 7 = (2^40 + 1) * q + r
+        WideInteger dividend = one.shiftLeft(100).add(WideInteger.valueOf(7));
+        WideInteger divisor = one.shiftLeft(40).add(one);
+        WideInteger quotient = dividend.divide(divisor);
+        WideInteger remainder = dividend.remainder(divisor);
+        if(!quotient.multiply(divisor).add(remainder).equals(dividend) || remainder.compareTo(divisor) >= 0 || remainder.signum() < 0)
+            System.out.println("Dividing 2^100 + 7 by 2^40 + 1 gave " + quotient + " remainder " + remainder);
+
+        if(!dividend.negate().divide(divisor).equals(quotient.negate()) || !dividend.negate().remainder(divisor).equals(remainder.negate()))
+            System.out.println("Division of a negative number should round towards zero");
+
+        if(!big.multiply(big).divide(big).equals(big))
+            System.out.println("(Long.MAX_VALUE)^2 / Long.MAX_VALUE != Long.MAX_VALUE");
+
+        // gcd(6 * 2^70, 4 * 2^70) = 2^71
+        if(!one.shiftLeft(70).multiply(6).gcd(one.shiftLeft(70).multiply(-4)).equals(one.shiftLeft(71)))
+            System.out.println("Didn't find the gcd of two large numbers");
+
+        if(!quietEnding){
+            System.out.println("Wide integer test complete");
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package tests;
+
+import mathClasses.WorkerPool;
+
+public class WorkerPoolTest {
+    public static void main(String[] args){
+        test(false);
+    }
+
+    public static void test(boolean quietEnding){
+        WorkerPool pool = new WorkerPool(2);
+        long[] sums = new long[8];
+        Runnable[] tasks = new Runnable[8];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new Sum(sums, i, 1000);
+        }
+        pool.runAll(tasks);
+        for (int i = 0; i < sums.length; i++) {
+            if(sums[i] != 500500)
+                System.out.println("Task " + i + " didn't run exactly once");
+        }
+
+        // every task starts more tasks on the same pool, which can't deadlock since callers work on their own tasks
+        long[] nestedSums = new long[6];
+        Runnable[] outer = new Runnable[3];
+        for (int i = 0; i < outer.length; i++) {
+            outer[i] = new Nested(pool, nestedSums, 2 * i);
+        }
+        pool.runAll(outer);
+        for (int i = 0; i < nestedSums.length; i++) {
+            if(nestedSums[i] != 5050)
+                System.out.println("Nested task " + i + " didn't run");
+        }
+
+        Runnable[] failing = {new Sum(sums, 0, 10), new Failing()};
+        IllegalStateException thrown = null;
+        try{
+            pool.runAll(failing);
+        }catch(IllegalStateException e){
+            thrown = e;
+        }
+        if(thrown == null || !thrown.getMessage().equals("task failed"))
+            System.out.println("Failure of a task should be rethrown");
+
+        // errors are passed on too, and the pool keeps working afterwards
+        Error error = null;
+        try{
+            pool.runAll(new Runnable[]{new Erroring(), new Erroring(), new Erroring()});
+        }catch(Error e){
+            error = e;
+        }
+        if(error == null)
+            System.out.println("Error in a task should be rethrown");
+        sums[0] = 0;
+        pool.runAll(new Runnable[]{new Sum(sums, 0, 1000), new Sum(sums, 1, 1000)});
+        if(sums[0] != 500500)
+            System.out.println("Pool stopped working after an error");
+
+        // without workers everything runs on the calling thread
+        WorkerPool empty = new WorkerPool(0);
+        long[] single = new long[2];
+        empty.runAll(new Runnable[]{new Sum(single, 0, 10), new Sum(single, 1, 10)});
+        if(single[0] != 55 || single[1] != 55 || empty.getThreadCount() != 0)
+            System.out.println("Pool without workers didn't run its tasks");
+
+        if(WorkerPool.getShared() != WorkerPool.getShared() || WorkerPool.getShared().getThreadCount() != Runtime.getRuntime().availableProcessors() - 1)
+            System.out.println("Shared pool should be made once with a worker for every processor but one");
+
+        if(!quietEnding){
+            System.out.println("Worker pool test complete");
+        }
+    }
+
+    private static class Sum implements Runnable {
+        private final long[] sums;
+        private final int index;
+        private final int to;
+
+        Sum(long[] sums, int index, int to){
+            this.sums = sums;
+            this.index = index;
+            this.to = to;
+        }
+
+        public void run(){
+            long sum = 0;
+            for (int i = 1; i <= to; i++) {
+                sum += i;
+            }
+            sums[index] = sum;
+        }
+    }
+
+    private static class Nested implements Runnable {
+        private final WorkerPool pool;
+        private final long[] sums;
+        private final int first;
+
+        Nested(WorkerPool pool, long[] sums, int first){
+            this.pool = pool;
+            this.sums = sums;
+            this.first = first;
+        }
+
+        public void run(){
+            pool.runAll(new Runnable[]{new Sum(sums, first, 100), new Sum(sums, first + 1, 100)});
+        }
+    }
+
+    private static class Failing implements Runnable {
+        public void run(){
+            throw new IllegalStateException("task failed");
+        }
+    }
+
+    private static class Erroring implements Runnable {
+        public void run(){
+            throw new AssertionError("task broke");
+        }
+    }
+}